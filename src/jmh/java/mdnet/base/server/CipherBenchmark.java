@@ -0,0 +1,111 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The at-rest cipher of cache files. {@link #setup} is the per-request cost of
+ * getting and initialising a cipher, {@link #encrypt} the cost per image, in
+ * the same chunk size that streams are read in. ChaCha20 needs Java 11, and
+ * fails on older runtimes without affecting the other ciphers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CipherBenchmark {
+	@Param({"RC4", "AES-128/CTR", "AES-256/CTR", "ChaCha20"})
+	public String algorithm;
+
+	@Param({"262144"})
+	public int imageSize;
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private byte[] image;
+	private byte[] output;
+	private byte[] key;
+	private Cipher cipher;
+
+	@Setup(Level.Trial)
+	public void createImage() throws GeneralSecurityException {
+		image = new byte[imageSize];
+		output = new byte[CHUNK_SIZE];
+		ThreadLocalRandom.current().nextBytes(image);
+		key = new byte[algorithm.startsWith("AES-128") ? 16 : algorithm.equals("RC4") ? 16 : 32];
+		ThreadLocalRandom.current().nextBytes(key);
+		cipher = setup();
+	}
+
+	@Benchmark
+	public Cipher setup() throws GeneralSecurityException {
+		switch (algorithm) {
+			case "RC4" : {
+				Cipher c = Cipher.getInstance("RC4");
+				c.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "RC4"));
+				return c;
+			}
+			case "AES-128/CTR" :
+			case "AES-256/CTR" : {
+				Cipher c = Cipher.getInstance("AES/CTR/NoPadding");
+				c.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(new byte[16]));
+				return c;
+			}
+			case "ChaCha20" : {
+				// ChaCha20ParameterSpec is not on the Java 8 classpath
+				Cipher c = Cipher.getInstance("ChaCha20");
+				c.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "ChaCha20"));
+				return c;
+			}
+			default :
+				throw new IllegalArgumentException(algorithm);
+		}
+	}
+
+	@Benchmark
+	public int encrypt() throws GeneralSecurityException {
+		int last = 0;
+		for (int offset = 0; offset < imageSize; offset += CHUNK_SIZE) {
+			last = cipher.update(image, offset, Math.min(CHUNK_SIZE, imageSize - offset), output, 0);
+		}
+		return last;
+	}
+}
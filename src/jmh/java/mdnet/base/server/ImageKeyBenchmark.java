@@ -0,0 +1,82 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Image key derivation. Run with the gc profiler (the default for this
+ * project) and check {@code gc.alloc.rate.norm}: {@link #derive} must stay
+ * at 0 B/op, {@link #deriveCachePath} may only allocate the key string that
+ * DiskLruCache needs, and {@link #legacy} shows what was replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageKeyBenchmark {
+	private String chapterHash = "a61fa9f7f1313194787116d1357a7784";
+	private String fileName = "N9.jpg";
+	private boolean dataSaver = false;
+
+	@Benchmark
+	public ImageKey derive() {
+		return ImageKeys.derive(dataSaver, chapterHash, fileName);
+	}
+
+	@Benchmark
+	public String deriveCachePath() {
+		return ImageKeys.derive(dataSaver, chapterHash, fileName).cachePath();
+	}
+
+	@Benchmark
+	public String legacy() throws NoSuchAlgorithmException {
+		String toHash = (dataSaver ? "saver" : "") + chapterHash + "." + fileName;
+		byte[] bytes = MessageDigest.getInstance("MD5").digest(toHash.getBytes(StandardCharsets.UTF_8));
+
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b));
+		}
+		String id = sb.toString();
+
+		return Stream
+				.concat(Arrays.stream(id.substring(0, 8).replaceAll("..(?!$)", "$0 ").split(" ")), Stream.of(id))
+				.collect(Collectors.joining(File.separator));
+	}
+}
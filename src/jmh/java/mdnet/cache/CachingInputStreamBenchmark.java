@@ -0,0 +1,113 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streaming one image through {@link CachingInputStream} to its reader while
+ * teeing it to memory or to a file, against plain reads as the baseline.
+ * Throughput is in images per second; multiply by {@code imageSize} for
+ * bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingInputStreamBenchmark {
+	@Param({"262144"})
+	public int imageSize;
+
+	@Param({"8192"})
+	public int bufferSize;
+
+	@Param({"memory", "file"})
+	public String target;
+
+	private byte[] image;
+	private byte[] buffer;
+	private File file;
+	private CacheFillExecutor executor;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		image = new byte[imageSize];
+		ThreadLocalRandom.current().nextBytes(image);
+		buffer = new byte[bufferSize];
+		file = Files.createTempFile("tee-bench", ".tmp").toFile();
+		executor = new CacheFillExecutor(1, 16, 30_000, CacheFillExecutor.DropPolicy.OLDEST);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdown();
+		file.delete();
+	}
+
+	@Benchmark
+	public long baseline() throws IOException {
+		try (InputStream in = new ByteArrayInputStream(image)) {
+			return drain(in);
+		}
+	}
+
+	@Benchmark
+	public long tee() throws IOException {
+		OutputStream cache = "file".equals(target) ? new FileOutputStream(file) : NullOutputStream.NULL_OUTPUT_STREAM;
+		try (InputStream in = new CachingInputStream(new ByteArrayInputStream(image), executor, cache, () -> {
+		}, () -> {
+		})) {
+			return drain(in);
+		}
+	}
+
+	private long drain(InputStream in) throws IOException {
+		long total = 0;
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			total += n;
+		}
+		return total;
+	}
+}
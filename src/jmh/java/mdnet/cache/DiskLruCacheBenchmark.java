@@ -0,0 +1,151 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Concurrent {@code get}, {@code edit} and {@code commit} against one cache,
+ * at 1 to 64 threads. Every operation is a read with probability
+ * {@code 1 - writeRatio}, otherwise an edit that writes and commits a new
+ * value. The key space is larger than the cache, so writes also evict.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiskLruCacheBenchmark {
+	private static final int KEYS = 20_000;
+
+	@Param({"0.1"})
+	public double writeRatio;
+
+	@Param({"4096"})
+	public int valueSize;
+
+	/** -1 flushes the journal on every edit and commit, as without group commit. */
+	@Param({"-1", "0", "500"})
+	public long groupCommitMicros;
+
+	private File directory;
+	private DiskLruCache cache;
+	private String[] keys;
+	private byte[] value;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("disklrucache-bench").toFile();
+		// room for half the key space
+		cache = DiskLruCache.open(directory, 1, 1, (long) KEYS / 2 * valueSize, groupCommitMicros, false);
+
+		value = new byte[valueSize];
+		ThreadLocalRandom.current().nextBytes(value);
+
+		keys = new String[KEYS];
+		for (int i = 0; i < KEYS; i++) {
+			String hex = String.format("%08x%024x", i * 2654435761L & 0xffffffffL, i);
+			keys[i] = hex.substring(0, 2) + File.separator + hex.substring(2, 4) + File.separator + hex;
+			if (i % 2 == 0) {
+				write(keys[i]);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		cache.close();
+		FileUtils.deleteDirectory(directory);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void threads01(Blackhole blackhole) throws IOException {
+		operation(blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void threads04(Blackhole blackhole) throws IOException {
+		operation(blackhole);
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void threads16(Blackhole blackhole) throws IOException {
+		operation(blackhole);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void threads64(Blackhole blackhole) throws IOException {
+		operation(blackhole);
+	}
+
+	private void operation(Blackhole blackhole) throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String key = keys[random.nextInt(KEYS)];
+
+		if (random.nextDouble() < writeRatio) {
+			blackhole.consume(write(key));
+		} else {
+			DiskLruCache.Snapshot snapshot = cache.getUnsafe(key);
+			if (snapshot != null) {
+				blackhole.consume(snapshot.getLength(0));
+				snapshot.close();
+			}
+		}
+	}
+
+	private boolean write(String key) throws IOException {
+		DiskLruCache.Editor editor = cache.editUnsafe(key);
+		if (editor == null) {
+			// being written by another thread
+			return false;
+		}
+		try (OutputStream out = editor.newOutputStream(0)) {
+			out.write(value);
+		}
+		editor.commit();
+		return true;
+	}
+}
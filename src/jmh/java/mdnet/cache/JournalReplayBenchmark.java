@@ -0,0 +1,107 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Opening a cache whose journal holds {@code entries} clean entries plus a
+ * READ line for every tenth of them, as a node that was running for a while
+ * would leave behind. Only the journal exists; replay does not touch the
+ * value files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalReplayBenchmark {
+	@Param({"1000000"})
+	public int entries;
+
+	private File directory;
+	private DiskLruCache cache;
+
+	@Setup(Level.Trial)
+	public void writeJournal() throws IOException {
+		directory = Files.createTempDirectory("journal-bench").toFile();
+
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(new File(directory, "journal")), StandardCharsets.UTF_8), 1 << 20)) {
+			writer.write("libcore.io.DiskLruCache\n1\n1\n1\n\n");
+			for (int i = 0; i < entries; i++) {
+				String key = key(i);
+				writer.write("DIRTY " + key + "\n");
+				writer.write("CLEAN " + key + " " + (100_000 + i % 400_000) + "\n");
+				if (i % 10 == 0) {
+					writer.write("READ " + key(i / 2) + "\n");
+				}
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteJournal() throws IOException {
+		FileUtils.deleteDirectory(directory);
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeCache() throws IOException {
+		if (cache != null) {
+			cache.close();
+			cache = null;
+		}
+	}
+
+	@Benchmark
+	public long replay() throws IOException {
+		cache = DiskLruCache.open(directory, 1, 1, Long.MAX_VALUE);
+		return cache.size();
+	}
+
+	private static String key(int i) {
+		String hex = String.format("%08x%024x", i * 2654435761L & 0xffffffffL, i);
+		return hex.substring(0, 2) + '/' + hex.substring(2, 4) + '/' + hex.substring(4, 6) + '/'
+				+ hex.substring(6, 8) + '/' + hex;
+	}
+}
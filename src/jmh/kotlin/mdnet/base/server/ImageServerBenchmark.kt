@@ -0,0 +1,153 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.io.ByteArrayInputStream
+import java.io.File
+import java.nio.file.Files
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+import mdnet.base.data.Statistics
+import mdnet.base.metrics.RequestMetrics
+import mdnet.base.settings.ServerSettings
+import mdnet.cache.CacheFillExecutor
+import mdnet.cache.DiskLruCache
+import org.apache.commons.io.FileUtils
+import org.http4k.core.HttpHandler
+import org.http4k.core.Method
+import org.http4k.core.Request
+import org.http4k.core.Response
+import org.http4k.core.Status
+import org.http4k.routing.bind
+import org.http4k.routing.routes
+import org.jetbrains.exposed.sql.Database
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Threads
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * The whole image handler, routing included, against an upstream that
+ * answers from memory. A request is only done once its body has been read
+ * and closed, so misses include writing the cache entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+open class ImageServerBenchmark {
+    @Param("262144")
+    var imageSize: Int = 0
+
+    private lateinit var directory: File
+    private lateinit var cache: DiskLruCache
+    private lateinit var handler: HttpHandler
+    private val missCounter = AtomicInteger()
+    private val buffer = ThreadLocal.withInitial { ByteArray(8192) }
+
+    @Setup
+    fun setUp() {
+        directory = Files.createTempDirectory("handler-bench").toFile()
+        cache = DiskLruCache.open(File(directory, "cache"), 1, 1, 512L * 1024 * 1024)
+
+        val image = ByteArray(imageSize).also { ThreadLocalRandom.current().nextBytes(it) }
+        val lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC))
+        val upstream: HttpHandler = {
+            Response(Status.OK)
+                .header("Content-Type", "image/jpeg")
+                .header("Content-Length", image.size.toString())
+                .header("Last-Modified", lastModified)
+                .body(ByteArrayInputStream(image), image.size.toLong())
+        }
+
+        val imageServer = ImageServer(
+            cache,
+            Database.connect("jdbc:sqlite:${File(directory, "data.db").absolutePath}", "org.sqlite.JDBC"),
+            AtomicReference(Statistics()),
+            RequestMetrics(),
+            null,
+            ServerSettings("http://upstream", 0, "", ByteArray(32), compromised = false, paused = false, tls = null),
+            UpstreamClient("http://upstream", null, upstream),
+            CacheFillExecutor(4, 256, 30_000, CacheFillExecutor.DropPolicy.OLDEST),
+            CacheDownloader(256, 120_000)
+        )
+        handler = routes(
+            "/data/{chapterHash}/{fileName}" bind Method.GET to imageServer.handler(dataSaver = false)
+        )
+
+        // fill the cache for the hit benchmark, waiting for the commits to land
+        for (i in 0 until CACHED_IMAGES) {
+            fetch("/data/$CHAPTER_HASH/$i.jpg")
+        }
+        val deadline = System.currentTimeMillis() + 30_000
+        while (cache.size() < CACHED_IMAGES.toLong() * imageSize && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+    }
+
+    @TearDown
+    fun tearDown() {
+        cache.close()
+        FileUtils.deleteDirectory(directory)
+    }
+
+    @Benchmark
+    fun hit(): Long = fetch("/data/$CHAPTER_HASH/${ThreadLocalRandom.current().nextInt(CACHED_IMAGES)}.jpg")
+
+    @Benchmark
+    fun miss(): Long = fetch("/data/$CHAPTER_HASH/miss${missCounter.incrementAndGet()}.jpg")
+
+    private fun fetch(path: String): Long {
+        val response = handler(Request(Method.GET, path))
+        val buffer = buffer.get()
+        var total = 0L
+        response.body.stream.use {
+            while (true) {
+                val n = it.read(buffer)
+                if (n == -1) {
+                    break
+                }
+                total += n
+            }
+        }
+        return total
+    }
+
+    companion object {
+        private const val CACHED_IMAGES = 200
+        private const val CHAPTER_HASH = "a61fa9f7f1313194787116d1357a7784"
+    }
+}
@@ -0,0 +1,105 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import com.goterl.lazycode.lazysodium.LazySodiumJava
+import com.goterl.lazycode.lazysodium.SodiumJava
+import com.goterl.lazycode.lazysodium.interfaces.Box
+import java.time.OffsetDateTime
+import java.util.Base64
+import java.util.concurrent.TimeUnit
+import mdnet.base.data.Token
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Token verification: a full decrypt and parse, which every request paid for
+ * before [TokenCache], against a valid and an invalid token already in the
+ * cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class TokenBenchmark {
+    private val sodium = LazySodiumJava(SodiumJava())
+    private val jackson = jacksonObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .registerModule(JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+
+    private lateinit var sharedKey: ByteArray
+    private lateinit var validToken: String
+    private lateinit var invalidToken: String
+    private lateinit var tokenCache: TokenCache
+
+    @Setup
+    fun setUp() {
+        val publicKey = ByteArray(Box.PUBLICKEYBYTES)
+        val secretKey = ByteArray(Box.SECRETKEYBYTES)
+        sodium.cryptoBoxKeypair(publicKey, secretKey)
+        sharedKey = ByteArray(Box.BEFORENMBYTES)
+        sodium.cryptoBoxBeforeNm(sharedKey, publicKey, secretKey)
+
+        val message = jackson.writeValueAsBytes(
+            Token(OffsetDateTime.now().plusDays(1), "127.0.0.1", "a61fa9f7f1313194787116d1357a7784", "client")
+        )
+        val nonce = sodium.randomBytesBuf(Box.NONCEBYTES)
+        val cipherText = ByteArray(message.size + Box.MACBYTES)
+        sodium.cryptoBoxEasyAfterNm(cipherText, message, message.size.toLong(), nonce, sharedKey)
+
+        validToken = Base64.getUrlEncoder().encodeToString(nonce + cipherText)
+        invalidToken = Base64.getUrlEncoder().encodeToString(nonce + ByteArray(cipherText.size))
+
+        tokenCache = TokenCache(sharedKey)
+        tokenCache.verify(validToken)
+        tokenCache.verify(invalidToken)
+    }
+
+    @Benchmark
+    fun decryptAndParse(): Token {
+        val tokenArr = Base64.getUrlDecoder().decode(validToken)
+        return jackson.readValue(
+            sodium.cryptoBoxOpenEasyAfterNm(
+                tokenArr.sliceArray(24 until tokenArr.size), tokenArr.sliceArray(0 until 24), sharedKey
+            )
+        )
+    }
+
+    @Benchmark
+    fun cachedValid(): Token? = tokenCache.verify(validToken)
+
+    @Benchmark
+    fun cachedInvalid(): Token? = tokenCache.verify(invalidToken)
+}
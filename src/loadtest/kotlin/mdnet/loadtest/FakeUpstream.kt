@@ -0,0 +1,104 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.loadtest
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import java.net.InetSocketAddress
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.util.Random
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Stands in for the MangaDex image server. Every path gets a deterministic
+ * image whose size is drawn around [meanImageBytes], served after
+ * [latencyMillis] and paced to [kilobitsPerSecond] per connection (0 for
+ * unlimited).
+ */
+class FakeUpstream(
+    private val meanImageBytes: Int,
+    private val latencyMillis: Long,
+    private val kilobitsPerSecond: Long
+) : AutoCloseable {
+    private val server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 1000)
+    private val executor = Executors.newCachedThreadPool()
+    private val lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC))
+
+    val requests = AtomicLong()
+    val bytesSent = AtomicLong()
+
+    val url: String
+        get() = "http://127.0.0.1:${server.address.port}"
+
+    init {
+        server.executor = executor
+        server.createContext("/") { exchange ->
+            exchange.use { serve(it) }
+        }
+        server.start()
+    }
+
+    private fun serve(exchange: HttpExchange) {
+        requests.incrementAndGet()
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis)
+        }
+
+        val path = exchange.requestURI.path
+        val random = Random(path.hashCode().toLong())
+        // image sizes vary between half and one and a half times the mean
+        val size = meanImageBytes / 2 + random.nextInt(meanImageBytes + 1)
+        val chunk = ByteArray(CHUNK_SIZE).also { random.nextBytes(it) }
+
+        exchange.responseHeaders.add("Content-Type", "image/jpeg")
+        exchange.responseHeaders.add("Last-Modified", lastModified)
+        exchange.sendResponseHeaders(200, size.toLong())
+
+        val nanosPerChunk = if (kilobitsPerSecond > 0) CHUNK_SIZE * 8L * 1_000_000L / kilobitsPerSecond else 0L
+        val start = System.nanoTime()
+        var sent = 0
+        exchange.responseBody.use { out ->
+            while (sent < size) {
+                val n = minOf(CHUNK_SIZE, size - sent)
+                out.write(chunk, 0, n)
+                sent += n
+                bytesSent.addAndGet(n.toLong())
+
+                if (nanosPerChunk > 0) {
+                    val ahead = start + (sent.toLong() / CHUNK_SIZE) * nanosPerChunk - System.nanoTime()
+                    if (ahead > 0) {
+                        Thread.sleep(ahead / 1_000_000, (ahead % 1_000_000).toInt())
+                    }
+                }
+            }
+        }
+    }
+
+    override fun close() {
+        server.stop(0)
+        executor.shutdownNow()
+    }
+
+    companion object {
+        private const val CHUNK_SIZE = 16 * 1024
+    }
+}
@@ -0,0 +1,165 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.loadtest
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicLong
+import mdnet.base.metrics.LatencyHistogram
+import org.apache.http.client.config.RequestConfig
+import org.apache.http.client.methods.HttpGet
+import org.apache.http.conn.ssl.NoopHostnameVerifier
+import org.apache.http.conn.ssl.TrustAllStrategy
+import org.apache.http.impl.client.CloseableHttpClient
+import org.apache.http.impl.client.HttpClients
+import org.apache.http.ssl.SSLContextBuilder
+
+/**
+ * Picks ranks 0 until [size] with probability proportional to
+ * 1 / (rank + 1)^[exponent], by binary search over the cumulative weights.
+ */
+class ZipfDistribution(val size: Int, exponent: Double) {
+    private val cumulative = DoubleArray(size)
+
+    init {
+        var total = 0.0
+        for (rank in 0 until size) {
+            total += 1.0 / Math.pow(rank + 1.0, exponent)
+            cumulative[rank] = total
+        }
+        for (rank in 0 until size) {
+            cumulative[rank] /= total
+        }
+    }
+
+    fun sample(): Int {
+        val u = ThreadLocalRandom.current().nextDouble()
+        var low = 0
+        var high = size - 1
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (cumulative[mid] < u) low = mid + 1 else high = mid
+        }
+        return low
+    }
+}
+
+/**
+ * Results gathered once the warmup is over.
+ */
+class LoadResults {
+    val latency = LatencyHistogram()
+    val hits = AtomicLong()
+    val misses = AtomicLong()
+    val notModified = AtomicLong()
+    val errors = AtomicLong()
+    val bytes = AtomicLong()
+}
+
+/**
+ * Drives [connections] client threads, each with its own keep-alive TLS
+ * connection, against the node until the deadline.
+ */
+class LoadGenerator(
+    private val baseUrl: String,
+    private val connections: Int,
+    private val images: ZipfDistribution,
+    private val chapters: Int
+) {
+    private val client: CloseableHttpClient = HttpClients.custom()
+        .setSSLContext(SSLContextBuilder().loadTrustMaterial(TrustAllStrategy.INSTANCE).build())
+        .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+        .setMaxConnTotal(connections)
+        .setMaxConnPerRoute(connections)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectTimeout(10_000)
+                .setSocketTimeout(60_000)
+                .build()
+        )
+        .disableContentCompression()
+        .build()
+
+    /**
+     * Runs until [endNanos], discarding everything that completes before
+     * [recordFromNanos].
+     */
+    fun run(recordFromNanos: Long, endNanos: Long, results: LoadResults) {
+        val done = CountDownLatch(connections)
+        for (i in 0 until connections) {
+            Thread({
+                try {
+                    worker(recordFromNanos, endNanos, results)
+                } finally {
+                    done.countDown()
+                }
+            }, "load-$i").start()
+        }
+        done.await()
+        client.close()
+    }
+
+    private fun worker(recordFromNanos: Long, endNanos: Long, results: LoadResults) {
+        val buffer = ByteArray(16 * 1024)
+        while (true) {
+            val start = System.nanoTime()
+            if (start >= endNanos) {
+                return
+            }
+
+            val rank = images.sample()
+            // spread images over chapters the way readers would see them
+            val chapter = "%032x".format(rank % chapters)
+            val request = HttpGet("$baseUrl/data/$chapter/$rank.jpg")
+            request.setHeader("Referer", "https://mangadex.org/chapter/$rank")
+
+            var status = 0
+            var cache: String? = null
+            var read = 0L
+            try {
+                client.execute(request).use { response ->
+                    status = response.statusLine.statusCode
+                    cache = response.getFirstHeader("X-Cache")?.value
+                    response.entity?.content?.use { input ->
+                        while (true) {
+                            val n = input.read(buffer)
+                            if (n == -1) break
+                            read += n
+                        }
+                    }
+                }
+            } catch (_: Exception) {
+                status = -1
+            }
+
+            val end = System.nanoTime()
+            if (start < recordFromNanos) {
+                continue
+            }
+            results.latency.record(end - start)
+            results.bytes.addAndGet(read)
+            when {
+                status == 304 -> results.notModified.incrementAndGet()
+                status != 200 -> results.errors.incrementAndGet()
+                cache == "HIT" -> results.hits.incrementAndGet()
+                else -> results.misses.incrementAndGet()
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.loadtest
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+import kotlin.system.exitProcess
+import mdnet.base.ServerHandler
+import mdnet.base.data.Statistics
+import mdnet.base.metrics.ConnectionMetrics
+import mdnet.base.metrics.LatencyHistogram
+import mdnet.base.metrics.OpenMetricsExporter
+import mdnet.base.metrics.RequestMetrics
+import mdnet.base.metrics.RequestOutcome
+import mdnet.base.server.getServer
+import mdnet.base.settings.ClientSettings
+import mdnet.base.settings.DevSettings
+import mdnet.cache.DiskLruCache
+import org.apache.commons.io.FileUtils
+
+/**
+ * Runs the real image server pipeline against a [FakeUpstream] and a
+ * [StubControl] on this machine, drives it with [LoadGenerator] and prints
+ * throughput, hit ratio and latency percentiles.
+ *
+ * `./gradlew loadtest --args="--connections=128 --threads=8 --cache-mib=2048"`
+ */
+object LoadTest {
+    private val OPTIONS = linkedMapOf(
+        "duration" to "60", // seconds measured
+        "warmup" to "15", // seconds before measuring
+        "connections" to "64", // concurrent client connections
+        "images" to "20000", // distinct images
+        "chapters" to "500", // chapters the images are spread over
+        "zipf" to "0.9", // popularity skew, 0 is uniform
+        "image-kib" to "256", // mean image size
+        "upstream-latency-ms" to "50", // delay before upstream responds
+        "upstream-kbps" to "0", // upstream bandwidth per connection, 0 is unlimited
+        "threads" to "8", // server threads setting
+        "cache-mib" to "1024", // server cache size
+        "keep-cache" to "false" // start from the previous run's cache
+    )
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val options = parse(args)
+        val duration = options.getValue("duration").toLong()
+        val warmup = options.getValue("warmup").toLong()
+        val connections = options.getValue("connections").toInt()
+        val cacheMib = options.getValue("cache-mib").toLong()
+
+        val cacheDirectory = File("cache")
+        if (!options.getValue("keep-cache").toBoolean()) {
+            FileUtils.deleteDirectory(cacheDirectory)
+        }
+
+        val upstream = FakeUpstream(
+            options.getValue("image-kib").toInt() * 1024,
+            options.getValue("upstream-latency-ms").toLong(),
+            options.getValue("upstream-kbps").toLong()
+        )
+        val control = StubControl(upstream.url)
+
+        val clientSettings = ClientSettings(
+            maxCacheSizeInMebibytes = cacheMib,
+            clientHostname = "127.0.0.1",
+            clientPort = 0,
+            threads = options.getValue("threads").toInt(),
+            devSettings = DevSettings(isDev = true, devUrl = control.url)
+        )
+        val serverHandler = ServerHandler(clientSettings)
+        val serverSettings = serverHandler.loginToControl() ?: error("Stub control server refused the login")
+
+        val statistics = AtomicReference(Statistics())
+        val requestMetrics = RequestMetrics()
+        val cache = DiskLruCache.open(cacheDirectory, 1, 1, cacheMib * 1024 * 1024)
+        val connectionMetrics = ConnectionMetrics()
+        val server = getServer(
+            cache, serverSettings, clientSettings, statistics, requestMetrics, connectionMetrics, null, null,
+            OpenMetricsExporter(statistics, requestMetrics, connectionMetrics, cache), AtomicBoolean()
+        ).start()
+
+        println("Running for ${warmup}s warmup and ${duration}s measured with $options")
+
+        val results = LoadResults()
+        val generator = LoadGenerator(
+            "https://127.0.0.1:${server.port()}",
+            connections,
+            ZipfDistribution(options.getValue("images").toInt(), options.getValue("zipf").toDouble()),
+            options.getValue("chapters").toInt()
+        )
+        val start = System.nanoTime()
+        val recordFrom = start + TimeUnit.SECONDS.toNanos(warmup)
+        val end = recordFrom + TimeUnit.SECONDS.toNanos(duration)
+
+        val load = Thread { generator.run(recordFrom, end, results) }
+        load.start()
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(recordFrom - System.nanoTime()).coerceAtLeast(0))
+        val ttfbBefore = RequestMetrics.OUTCOMES.map { requestMetrics.ttfb(it).snapshot() }
+        val upstreamBefore = upstream.requests.get() to upstream.bytesSent.get()
+        load.join()
+        val ttfb = RequestMetrics.OUTCOMES.mapIndexed { i, outcome -> outcome to requestMetrics.ttfb(outcome).snapshot() - ttfbBefore[i] }
+
+        report(results, duration, ttfb, upstream.requests.get() - upstreamBefore.first, upstream.bytesSent.get() - upstreamBefore.second)
+
+        server.stop()
+        serverHandler.logoutFromControl()
+        cache.close()
+        control.close()
+        upstream.close()
+        exitProcess(0)
+    }
+
+    private fun report(
+        results: LoadResults,
+        seconds: Long,
+        serverTtfb: List<Pair<RequestOutcome, LatencyHistogram.Snapshot>>,
+        upstreamRequests: Long,
+        upstreamBytes: Long
+    ) {
+        val latency = results.latency.snapshot()
+        val hits = results.hits.get()
+        val misses = results.misses.get()
+        val served = hits + misses
+
+        println()
+        println("Requests     %d (%.1f/s), %.1f MiB/s".format(latency.count, latency.count.toDouble() / seconds, results.bytes.get() / MIB / seconds))
+        println("Hit ratio    %.2f%% (%d hits, %d misses, %d not modified, %d errors)".format(
+            if (served == 0L) 0.0 else hits * 100.0 / served, hits, misses, results.notModified.get(), results.errors.get()
+        ))
+        println("Upstream     %d requests, %.1f MiB/s".format(upstreamRequests, upstreamBytes / MIB / seconds))
+        println()
+        println("%-14s %8s %8s %8s %8s %8s %8s %8s".format("latency (ms)", "count", "mean", "p50", "p90", "p99", "p99.9", "max"))
+        printRow("client total", latency)
+        for ((outcome, snapshot) in serverTtfb) {
+            if (snapshot.count > 0) {
+                printRow("ttfb " + outcome.name.toLowerCase(), snapshot)
+            }
+        }
+    }
+
+    private fun printRow(name: String, snapshot: LatencyHistogram.Snapshot) {
+        println("%-14s %8d %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f".format(
+            name, snapshot.count, snapshot.mean / 1e6,
+            snapshot.percentile(50.0) / 1e6, snapshot.percentile(90.0) / 1e6, snapshot.percentile(99.0) / 1e6,
+            snapshot.percentile(99.9) / 1e6, snapshot.max / 1e6
+        ))
+    }
+
+    private fun parse(args: Array<String>): Map<String, String> {
+        val options = LinkedHashMap(OPTIONS)
+        for (arg in args) {
+            val name = arg.removePrefix("--").substringBefore('=')
+            if (!arg.startsWith("--") || !arg.contains('=') || name !in OPTIONS) {
+                System.err.println("Unknown option $arg, expected --name=value with names:")
+                OPTIONS.forEach { (key, value) -> System.err.println("  --$key (default $value)") }
+                exitProcess(1)
+            }
+            options[name] = arg.substringAfter('=')
+        }
+        return options
+    }
+
+    private const val MIB = 1024.0 * 1024.0
+}
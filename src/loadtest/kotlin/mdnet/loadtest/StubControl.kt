@@ -0,0 +1,78 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.loadtest
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import io.netty.handler.ssl.util.SelfSignedCertificate
+import java.net.InetSocketAddress
+import java.security.SecureRandom
+import java.time.OffsetDateTime
+import mdnet.base.ServerHandlerJackson
+import mdnet.base.settings.ServerSettings
+import mdnet.base.settings.TlsCert
+
+/**
+ * Answers the client's control requests: `ping` hands out settings pointing
+ * at the [FakeUpstream] with a self-signed certificate, and `stop` accepts
+ * anything.
+ */
+class StubControl(upstreamUrl: String) : AutoCloseable {
+    private val server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 16)
+    private val certificate = SelfSignedCertificate("localhost")
+
+    val settings = ServerSettings(
+        imageServer = upstreamUrl,
+        latestBuild = 0,
+        url = "",
+        tokenKey = ByteArray(32).also { SecureRandom().nextBytes(it) },
+        compromised = false,
+        paused = false,
+        tls = TlsCert(
+            createdAt = OffsetDateTime.now().toString(),
+            privateKey = certificate.privateKey().readText(),
+            certificate = certificate.certificate().readText()
+        )
+    )
+
+    val url: String
+        get() = "http://127.0.0.1:${server.address.port}/"
+
+    init {
+        server.createContext("/ping") { exchange ->
+            exchange.use { respond(it, ServerHandlerJackson.mapper.writeValueAsBytes(settings)) }
+        }
+        server.createContext("/stop") { exchange ->
+            exchange.use { respond(it, ByteArray(0)) }
+        }
+        server.start()
+    }
+
+    private fun respond(exchange: HttpExchange, body: ByteArray) {
+        exchange.requestBody.readBytes()
+        exchange.responseHeaders.add("Content-Type", "application/json")
+        exchange.sendResponseHeaders(200, if (body.isEmpty()) -1 else body.size.toLong())
+        exchange.responseBody.use { it.write(body) }
+    }
+
+    override fun close() {
+        server.stop(0)
+        certificate.delete()
+    }
+}
@@ -0,0 +1,170 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the background fills that finish caching an image after its reader
+ * went away. Fills run on a bounded pool behind a bounded queue, so a burst of
+ * aborted downloads cannot spawn a thread each, and every fill has a deadline
+ * counted from its submission. When the queue is full, either the new fill or
+ * the oldest queued one is dropped, which abandons that cache entry.
+ */
+public final class CacheFillExecutor {
+	public enum DropPolicy {
+		/** Drops the fill being submitted. */
+		NEWEST,
+		/** Drops the fill that has been queued the longest. */
+		OLDEST
+	}
+
+	/**
+	 * One background fill. Exactly one of {@link #run} and {@link #drop} is
+	 * called.
+	 */
+	public interface Fill {
+		/**
+		 * Completes the fill, giving up once {@link System#nanoTime()} passes
+		 * the deadline. Returns false if it gave up, and throws if reading
+		 * upstream or writing the cache failed.
+		 */
+		boolean run(long deadlineNanos) throws IOException;
+
+		/**
+		 * Releases the fill's resources without completing it.
+		 */
+		void drop();
+	}
+
+	private final ThreadPoolExecutor executor;
+	private final long deadlineNanos;
+
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong expired = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	public CacheFillExecutor(int threads, int queueCapacity, long deadlineMillis, DropPolicy dropPolicy) {
+		this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "cache-fill-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, rejectionHandler(dropPolicy));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	public void submit(Fill fill) {
+		executor.execute(new FillTask(fill, System.nanoTime() + deadlineNanos));
+	}
+
+	public int queueDepth() {
+		return executor.getQueue().size();
+	}
+
+	public int activeFills() {
+		return active.get();
+	}
+
+	public long completedFills() {
+		return completed.get();
+	}
+
+	public long expiredFills() {
+		return expired.get();
+	}
+
+	public long droppedFills() {
+		return dropped.get();
+	}
+
+	public long failedFills() {
+		return failed.get();
+	}
+
+	/**
+	 * Stops accepting fills. Queued fills are still run.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private RejectedExecutionHandler rejectionHandler(DropPolicy dropPolicy) {
+		return (runnable, pool) -> {
+			FillTask rejected = (FillTask) runnable;
+			if (dropPolicy == DropPolicy.OLDEST && !pool.isShutdown()) {
+				FillTask oldest = (FillTask) pool.getQueue().poll();
+				if (oldest != null) {
+					drop(oldest);
+					if (pool.getQueue().offer(rejected)) {
+						return;
+					}
+				}
+			}
+			drop(rejected);
+		};
+	}
+
+	private void drop(FillTask task) {
+		dropped.incrementAndGet();
+		task.fill.drop();
+	}
+
+	private final class FillTask implements Runnable {
+		private final Fill fill;
+		private final long deadline;
+
+		FillTask(Fill fill, long deadline) {
+			this.fill = fill;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public void run() {
+			if (System.nanoTime() - deadline > 0) {
+				expired.incrementAndGet();
+				fill.drop();
+				return;
+			}
+
+			active.incrementAndGet();
+			try {
+				if (fill.run(deadline)) {
+					completed.incrementAndGet();
+				} else {
+					expired.incrementAndGet();
+				}
+			} catch (IOException e) {
+				failed.incrementAndGet();
+			} finally {
+				active.decrementAndGet();
+			}
+		}
+	}
+}
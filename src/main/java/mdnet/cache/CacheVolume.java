@@ -0,0 +1,224 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One directory of a {@link DiskLruCache} that spans several disks. New
+ * entries are placed by rendezvous hashing weighted by each volume's share of
+ * the capacity, so a key keeps its volume as long as the volume is healthy, and
+ * adding or removing a volume only moves the keys that hashed to it.
+ *
+ * <p>
+ * A volume whose writes fail takes no new entries for a while, doubling with
+ * every consecutive failure, and neither does a volume whose disk is nearly
+ * full. Entries already on it stay readable as long as its files are, and an
+ * entry whose files are gone is dropped from the cache when read. Each
+ * volume also limits how many edits write to it at once, beyond which new
+ * entries go to the next volume in their ranking.
+ *
+ * <p>
+ * Volumes belong to a {@link Tier}. A cache with volumes of both tiers and a
+ * fast tier size places new entries on the fast tier, demotes its least
+ * recently used entries to the slow tier, and promotes entries hit often on
+ * the slow tier back, see {@link DiskLruCache#setFastTierMaxSize}.
+ */
+public final class CacheVolume {
+	public enum Tier {
+		/** Small and fast storage, such as SSDs. */
+		FAST,
+		/** Large and slow storage, such as HDDs. */
+		SLOW
+	}
+
+	private static final long MIN_FREE_BYTES = 64L * 1024 * 1024;
+	private static final long FREE_SPACE_CHECK_MILLIS = 1000;
+	private static final long MIN_RETRY_MILLIS = 10_000;
+	private static final long MAX_RETRY_MILLIS = 600_000;
+
+	private final File directory;
+	private final double weight;
+	private final int maxConcurrentWrites;
+	private final Tier tier;
+	private final Semaphore writes;
+	private final long seed;
+
+	/** Bytes stored on this volume, only written under the cache lock. */
+	private volatile long size;
+
+	private int consecutiveFailures;
+	private long retryAtMillis;
+	private long freeSpaceCheckedAtMillis = Long.MIN_VALUE;
+	private boolean full;
+
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong rejectedWrites = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * @param weight
+	 *            the volume's share of new entries, relative to the other
+	 *            volumes, usually its capacity
+	 * @param maxConcurrentWrites
+	 *            how many edits may write to the volume at once, or 0 for no
+	 *            limit
+	 */
+	public CacheVolume(File directory, double weight, int maxConcurrentWrites, Tier tier) {
+		if (weight <= 0) {
+			throw new IllegalArgumentException("weight <= 0");
+		}
+		if (maxConcurrentWrites < 0) {
+			throw new IllegalArgumentException("maxConcurrentWrites < 0");
+		}
+		this.directory = directory;
+		this.weight = weight;
+		this.maxConcurrentWrites = maxConcurrentWrites;
+		this.tier = tier;
+		this.writes = maxConcurrentWrites > 0 ? new Semaphore(maxConcurrentWrites) : null;
+		this.seed = hash(directory.getPath());
+	}
+
+	public CacheVolume(File directory, double weight, int maxConcurrentWrites) {
+		this(directory, weight, maxConcurrentWrites, Tier.SLOW);
+	}
+
+	public CacheVolume(File directory) {
+		this(directory, 1, 0);
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+
+	public int getMaxConcurrentWrites() {
+		return maxConcurrentWrites;
+	}
+
+	public Tier getTier() {
+		return tier;
+	}
+
+	/** Returns the number of bytes of cache entries stored on this volume. */
+	public long getSize() {
+		return size;
+	}
+
+	/** Returns the number of failed writes, renames and deletes on this volume. */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/** Returns the number of snapshots read from this volume. */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/** Returns the number of edits turned away by the concurrency limit. */
+	public long getRejectedWrites() {
+		return rejectedWrites.get();
+	}
+
+	/** Returns whether the volume currently takes new entries. */
+	public synchronized boolean isHealthy() {
+		return acceptsWrites(System.currentTimeMillis());
+	}
+
+	void addSize(long delta) {
+		size += delta;
+	}
+
+	void recordHit() {
+		hits.incrementAndGet();
+	}
+
+	/**
+	 * Returns the rendezvous score of a key on this volume, the highest of which
+	 * places the key.
+	 */
+	double score(long keyHash) {
+		long mixed = mix(keyHash ^ seed);
+		// uniform in (0, 1)
+		double uniform = ((mixed >>> 11) + 0.5) * 0x1.0p-53;
+		return weight / -Math.log(uniform);
+	}
+
+	synchronized boolean acceptsWrites(long nowMillis) {
+		if (nowMillis < retryAtMillis) {
+			return false;
+		}
+		if (nowMillis - freeSpaceCheckedAtMillis >= FREE_SPACE_CHECK_MILLIS) {
+			freeSpaceCheckedAtMillis = nowMillis;
+			full = directory.getUsableSpace() < MIN_FREE_BYTES;
+		}
+		return !full;
+	}
+
+	boolean tryAcquireWrite() {
+		if (writes == null || writes.tryAcquire()) {
+			return true;
+		}
+		rejectedWrites.incrementAndGet();
+		return false;
+	}
+
+	void releaseWrite() {
+		if (writes != null) {
+			writes.release();
+		}
+	}
+
+	synchronized void recordFailure() {
+		failures.incrementAndGet();
+		consecutiveFailures++;
+		long backoff = MIN_RETRY_MILLIS << Math.min(consecutiveFailures - 1, 16);
+		retryAtMillis = System.currentTimeMillis() + Math.min(backoff, MAX_RETRY_MILLIS);
+	}
+
+	synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+	}
+
+	/** FNV-1a over the UTF-8 bytes of {@code value}, finished with {@link #mix}. */
+	static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	/** The finalizer of MurmurHash3, which spreads every input bit over the output. */
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+}
@@ -16,53 +16,109 @@
  */
 package mdnet.cache;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.http.conn.ConnectionReleaseTrigger;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.concurrent.ExecutorService;
 
 import static org.apache.commons.io.IOUtils.EOF;
 
 public class CachingInputStream extends ProxyInputStream {
+	private static final int FILL_BUFFER_SIZE = 8192;
+
 	private final OutputStream cache;
-	private final ExecutorService executor;
+	private final CacheFillExecutor executor;
 	private final Runnable onClose;
+	private final Runnable onAbort;
+	private boolean eof;
+	private boolean closed;
 
-	public CachingInputStream(InputStream response, ExecutorService executor, OutputStream cache, Runnable onClose) {
+	/**
+	 * Tees {@code response} into {@code cache}. Once the response has been
+	 * read to the end, by the client or by a background fill, {@code onClose}
+	 * runs; if the fill gives up, fails or is dropped, {@code onAbort} runs
+	 * instead.
+	 */
+	public CachingInputStream(InputStream response, CacheFillExecutor executor, OutputStream cache, Runnable onClose,
+			Runnable onAbort) {
 		super(response);
 		this.executor = executor;
 		this.cache = cache;
 		this.onClose = onClose;
+		this.onAbort = onAbort;
 	}
 
 	@Override
 	public void close() throws IOException {
-		executor.submit(() -> {
-			try {
-				IOUtils.copy(in, cache);
-			} catch (IOException ignored) {
-			} finally {
-				try {
-					in.close();
-				} catch (IOException ignored) {
-				}
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		// a reader that got to the end leaves nothing to fill
+		if (eof) {
+			finish(true);
+			return;
+		}
+
+		executor.submit(new CacheFillExecutor.Fill() {
+			@Override
+			public boolean run(long deadlineNanos) throws IOException {
+				boolean filled = false;
 				try {
-					cache.close();
-				} catch (IOException ignored) {
+					byte[] buffer = new byte[FILL_BUFFER_SIZE];
+					int n;
+					while ((n = in.read(buffer)) != EOF) {
+						cache.write(buffer, 0, n);
+						if (System.nanoTime() - deadlineNanos > 0) {
+							return false;
+						}
+					}
+					filled = true;
+					return true;
+				} finally {
+					finish(filled);
 				}
-				onClose.run();
+			}
+
+			@Override
+			public void drop() {
+				finish(false);
 			}
 		});
 	}
 
+	private void finish(boolean filled) {
+		try {
+			if (!filled && in instanceof ConnectionReleaseTrigger) {
+				// closing would read the rest of the body
+				((ConnectionReleaseTrigger) in).abortConnection();
+			} else {
+				in.close();
+			}
+		} catch (IOException ignored) {
+		}
+		try {
+			cache.close();
+		} catch (IOException e) {
+			filled = false;
+		}
+		if (filled) {
+			onClose.run();
+		} else {
+			onAbort.run();
+		}
+	}
+
 	@Override
 	public int read() throws IOException {
 		final int ch = super.read();
 		if (ch != EOF) {
 			cache.write(ch);
+		} else {
+			eof = true;
 		}
 		return ch;
 	}
@@ -72,6 +128,8 @@ public class CachingInputStream extends ProxyInputStream {
 		final int n = super.read(bts, st, end);
 		if (n != EOF) {
 			cache.write(bts, st, n);
+		} else {
+			eof = true;
 		}
 		return n;
 	}
@@ -81,6 +139,8 @@ public class CachingInputStream extends ProxyInputStream {
 		final int n = super.read(bts);
 		if (n != EOF) {
 			cache.write(bts, 0, n);
+		} else {
+			eof = true;
 		}
 		return n;
 	}
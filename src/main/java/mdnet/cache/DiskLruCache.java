@@ -22,24 +22,38 @@ import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.EOFException;
 import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -57,12 +71,30 @@ import java.util.regex.Pattern;
  * directory at the same time.
  *
  * <p>
+ * The cache may also span several directories, typically one per disk, see
+ * {@link CacheVolume}. The journal lives in the first, and each entry records
+ * the volume its files are on. With volumes of both {@link CacheVolume.Tier}s
+ * and a fast tier size, the cache is tiered: new entries go to the fast tier,
+ * the least recently used entries of a full fast tier are moved to the slow
+ * tier rather than evicted, and entries hit repeatedly on the slow tier are
+ * moved back. Moves run on the cleanup thread, as edits that copy the files.
+ *
+ * <p>
+ * Where {@link NativeIo} is available, the kernel is told that snapshots are
+ * read sequentially and soon, values are preallocated when their length is
+ * known, and the pages of values written for the slow tier, or of all values
+ * if {@link #setDropWrittenPages} is set, are dropped from the page cache.
+ *
+ * <p>
  * This cache limits the number of bytes that it will store on the filesystem.
  * When the number of stored bytes exceeds the limit, the cache will remove
  * entries in the background until the limit is satisfied. The limit is not
  * strict: the cache may temporarily exceed it while waiting for files to be
  * deleted. The limit does not include filesystem overhead or the cache journal
- * so space-sensitive applications should set a conservative limit.
+ * so space-sensitive applications should set a conservative limit. Once the
+ * limit is exceeded, entries are evicted in batches until the size drops below
+ * a low watermark, see {@link #setLowWatermark}. Each batch is taken off the
+ * index under the cache lock, but its files are deleted in parallel outside it.
  *
  * <p>
  * Clients call {@link #editImpl} to create or update the values of an entry. An
@@ -90,6 +122,15 @@ import java.util.regex.Pattern;
  * error occurs while writing a cache value, the edit will fail silently.
  * Callers should handle other problems by catching {@code IOException} and
  * responding appropriately.
+ *
+ * <p>
+ * By default every edit and commit flushes the journal while holding the
+ * cache lock. In group commit mode, see
+ * {@link #open(File, int, int, long, long, boolean)}, journal records are
+ * only buffered under the lock, and the threads waiting on them take turns
+ * flushing, and optionally syncing, everything buffered so far. An edit still
+ * returns only once its DIRTY record is flushed, and a commit once its CLEAN
+ * record is, so committed entries are as durable as before.
  */
 public final class DiskLruCache implements Closeable {
 	private static final String JOURNAL_FILE = "journal";
@@ -99,6 +140,13 @@ public final class DiskLruCache implements Closeable {
 	private static final String MAGIC = "libcore.io.DiskLruCache";
 	private static final String VERSION_1 = "1";
 	private static final long ANY_SEQUENCE_NUMBER = -1;
+	private static final double DEFAULT_LOW_WATERMARK = 0.95;
+	private static final int EVICTION_BATCH = 256;
+	private static final int EVICTION_THREADS = 4;
+	private static final int DEFAULT_PROMOTE_AFTER_HITS = 2;
+	private static final int MAX_PENDING_PROMOTIONS = 1024;
+	/** Reads since its last write after which an entry is read through shared channels. */
+	private static final int HOT_READS = 2;
 
 	public static final Pattern LEGAL_KEY_PATTERN = Pattern.compile("[a-z0-9_-]{1,120}");
 	public static final Pattern UNSAFE_LEGAL_KEY_PATTERN = Pattern.compile("[a-z0-9_-][\\\\/a-z0-9_-]{0,119}");
@@ -107,6 +155,7 @@ public final class DiskLruCache implements Closeable {
 	private static final String DIRTY = "DIRTY";
 	private static final String REMOVE = "REMOVE";
 	private static final String READ = "READ";
+	private static final String VOLUME_PREFIX = "@";
 
 	/*
 	 * This cache uses a journal file named "journal". A typical journal file looks
@@ -132,6 +181,9 @@ public final class DiskLruCache implements Closeable {
 	 * cache entry that has been successfully published and may be read. A publish
 	 * line is followed by the lengths of each of its values. o READ lines track
 	 * accesses for LRU. o REMOVE lines track entries that have been deleted.
+	 * CLEAN and DIRTY lines of entries on any but the first volume end with "@"
+	 * and the index of the volume, as in "CLEAN 3400330d1dfc7f3f7f4b8d4d803dfcf6
+	 * 832 @2".
 	 *
 	 * The journal file is appended to as cache operations occur. The journal may
 	 * occasionally be compacted by dropping redundant lines. A temporary file named
@@ -140,16 +192,52 @@ public final class DiskLruCache implements Closeable {
 	 */
 
 	private final File directory;
+	private final CacheVolume[] volumes;
+	private final List<CacheVolume> volumeList;
 	private final File journalFile;
 	private final File journalFileTmp;
 	private final File journalFileBackup;
 	private final int appVersion;
 	private long maxSize;
+	private double lowWatermark = DEFAULT_LOW_WATERMARK;
 	private final int valueCount;
 	private long size = 0;
 	private Writer journalWriter;
+	private FileChannel journalChannel;
+	/** Nanoseconds a group commit waits for more records, or -1 to flush each one in place. */
+	private final long groupCommitNanos;
+	private final boolean syncJournal;
+	/** Journal records appended in group commit mode. */
+	private long journalSequence;
+	private final Object commitLock = new Object();
+	/** The last journal record known to be flushed, guarded by commitLock. */
+	private long flushedSequence;
+	/** Whether a thread is flushing for a group, guarded by commitLock. */
+	private boolean groupFlushing;
 	private final LinkedHashMap<String, Entry> lruEntries = new LinkedHashMap<>(0, 0.75f, true);
 	private int redundantOpCount;
+	private long evictionCount;
+	/**
+	 * Records appended while the journal is compacted in the background, to be
+	 * appended to the new journal as well, or null if no compaction is running.
+	 */
+	private List<String> compactionRecords;
+	/** Keys of evicted entries whose files are still being deleted. */
+	private final Set<String> evictingKeys = new HashSet<>();
+	/** Whether {@link #close} has started, after which no eviction batch starts. */
+	private boolean closing;
+
+	/** Entries on the fast tier, least recently used first, when tiered. */
+	private final LinkedHashMap<String, Entry> fastEntries = new LinkedHashMap<>(0, 0.75f, true);
+	/** Keys of slow tier entries waiting to be moved to the fast tier. */
+	private final Set<String> pendingPromotions = new LinkedHashSet<>();
+	private long fastTierMaxSize;
+	private int promoteAfterHits = DEFAULT_PROMOTE_AFTER_HITS;
+	private long promotionCount;
+	private long demotionCount;
+	private volatile boolean dropWrittenPages;
+	/** Open channels of hot entries, or null if files are opened for every read. */
+	private FileHandleCache handleCache;
 
 	/**
 	 * To differentiate between old and current snapshots, each entry is given a
@@ -161,30 +249,41 @@ public final class DiskLruCache implements Closeable {
 	/** This cache uses a single background thread to evict entries. */
 	final ThreadPoolExecutor executorService = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS,
 			new LinkedBlockingQueue<>());
+	/** Deletes the files of evicted entries. */
+	private final ThreadPoolExecutor evictionExecutor = new ThreadPoolExecutor(EVICTION_THREADS, EVICTION_THREADS,
+			60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
 	private final Callable<Void> cleanupCallable = new Callable<Void>() {
 		public Void call() throws Exception {
+			evict();
+			migrate();
+			boolean compact;
 			synchronized (DiskLruCache.this) {
 				if (journalWriter == null) {
 					return null; // Closed.
 				}
-				trimToSize();
-				if (journalRebuildRequired()) {
-					rebuildJournal();
-					redundantOpCount = 0;
-				}
+				compact = journalRebuildRequired();
+			}
+			if (compact) {
+				compactJournal();
 			}
 			return null;
 		}
 	};
 
-	private DiskLruCache(File directory, int appVersion, int valueCount, long maxSize) {
-		this.directory = directory;
+	private DiskLruCache(CacheVolume[] volumes, int appVersion, int valueCount, long maxSize, long groupCommitNanos,
+			boolean syncJournal) {
+		this.directory = volumes[0].getDirectory();
+		this.volumes = volumes;
+		this.volumeList = Collections.unmodifiableList(Arrays.asList(volumes));
 		this.appVersion = appVersion;
 		this.journalFile = new File(directory, JOURNAL_FILE);
 		this.journalFileTmp = new File(directory, JOURNAL_FILE_TEMP);
 		this.journalFileBackup = new File(directory, JOURNAL_FILE_BACKUP);
 		this.valueCount = valueCount;
 		this.maxSize = maxSize;
+		this.groupCommitNanos = groupCommitNanos;
+		this.syncJournal = syncJournal;
+		evictionExecutor.allowCoreThreadTimeOut(true);
 	}
 
 	/**
@@ -200,6 +299,46 @@ public final class DiskLruCache implements Closeable {
 	 *             if reading or writing the cache directory fails
 	 */
 	public static DiskLruCache open(File directory, int appVersion, int valueCount, long maxSize) throws IOException {
+		return open(directory, appVersion, valueCount, maxSize, -1, false);
+	}
+
+	/**
+	 * Opens the cache in {@code directory}, creating a cache if none exists there.
+	 *
+	 * @param directory
+	 *            a writable directory
+	 * @param valueCount
+	 *            the number of values per cache entry. Must be positive.
+	 * @param maxSize
+	 *            the maximum number of bytes this cache should use to store
+	 * @param groupCommitMicros
+	 *            how long a journal flush waits for records of concurrent
+	 *            operations to join it, or negative to flush every record in
+	 *            place
+	 * @param syncJournal
+	 *            whether group commits also sync the journal to the device
+	 * @throws IOException
+	 *             if reading or writing the cache directory fails
+	 */
+	public static DiskLruCache open(File directory, int appVersion, int valueCount, long maxSize,
+			long groupCommitMicros, boolean syncJournal) throws IOException {
+		return open(Collections.singletonList(new CacheVolume(directory)), appVersion, valueCount, maxSize,
+				groupCommitMicros, syncJournal);
+	}
+
+	/**
+	 * Opens a cache spanning {@code volumes}, creating a cache if none exists. The
+	 * journal is kept in the first volume, which must stay first.
+	 *
+	 * @param volumes
+	 *            writable directories, typically on different disks
+	 * @see #open(File, int, int, long, long, boolean)
+	 */
+	public static DiskLruCache open(List<CacheVolume> volumes, int appVersion, int valueCount, long maxSize,
+			long groupCommitMicros, boolean syncJournal) throws IOException {
+		if (volumes.isEmpty()) {
+			throw new IllegalArgumentException("no volumes");
+		}
 		if (maxSize <= 0) {
 			throw new IllegalArgumentException("maxSize <= 0");
 		}
@@ -207,6 +346,11 @@ public final class DiskLruCache implements Closeable {
 			throw new IllegalArgumentException("valueCount <= 0");
 		}
 
+		File directory = volumes.get(0).getDirectory();
+		for (CacheVolume volume : volumes) {
+			volume.getDirectory().mkdirs();
+		}
+
 		// If a bkp file exists, use it instead.
 		File backupFile = new File(directory, JOURNAL_FILE_BACKUP);
 		if (backupFile.exists()) {
@@ -220,7 +364,10 @@ public final class DiskLruCache implements Closeable {
 		}
 
 		// Prefer to pick up where we left off.
-		DiskLruCache cache = new DiskLruCache(directory, appVersion, valueCount, maxSize);
+		long groupCommitNanos = groupCommitMicros < 0 ? -1 : TimeUnit.MICROSECONDS.toNanos(groupCommitMicros);
+		CacheVolume[] volumeArray = volumes.toArray(new CacheVolume[0]);
+		DiskLruCache cache = new DiskLruCache(volumeArray, appVersion, valueCount, maxSize, groupCommitNanos,
+				syncJournal);
 		if (cache.journalFile.exists()) {
 			cache.readJournal();
 			cache.processJournal();
@@ -228,8 +375,7 @@ public final class DiskLruCache implements Closeable {
 		}
 
 		// Create a new empty cache.
-		directory.mkdirs();
-		cache = new DiskLruCache(directory, appVersion, valueCount, maxSize);
+		cache = new DiskLruCache(volumeArray, appVersion, valueCount, maxSize, groupCommitNanos, syncJournal);
 		cache.rebuildJournal();
 		return cache;
 	}
@@ -264,12 +410,17 @@ public final class DiskLruCache implements Closeable {
 			if (reader.hasUnterminatedLine()) {
 				rebuildJournal();
 			} else {
-				journalWriter = new BufferedWriter(
-						new OutputStreamWriter(new FileOutputStream(journalFile, true), StandardCharsets.UTF_8));
+				openJournalWriter();
 			}
 		}
 	}
 
+	private void openJournalWriter() throws IOException {
+		FileOutputStream out = new FileOutputStream(journalFile, true);
+		journalChannel = out.getChannel();
+		journalWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
 	private void readJournalLine(String line) throws IOException {
 		int firstSpace = line.indexOf(' ');
 		if (firstSpace == -1) {
@@ -297,11 +448,24 @@ public final class DiskLruCache implements Closeable {
 
 		if (secondSpace != -1 && firstSpace == CLEAN.length() && line.startsWith(CLEAN)) {
 			String[] parts = line.substring(secondSpace + 1).split(" ");
+			int volume = 0;
+			if (parts[parts.length - 1].startsWith(VOLUME_PREFIX)) {
+				volume = parseVolume(line, parts[parts.length - 1]);
+				parts = Arrays.copyOf(parts, parts.length - 1);
+			}
+			if (volume >= volumes.length) {
+				lruEntries.remove(key); // Its volume is no longer configured.
+				return;
+			}
 			entry.readable = true;
 			entry.currentEditor = null;
+			entry.volume = volume;
 			entry.setLengths(parts);
-		} else if (secondSpace == -1 && firstSpace == DIRTY.length() && line.startsWith(DIRTY)) {
+		} else if (firstSpace == DIRTY.length() && line.startsWith(DIRTY)) {
+			int volume = secondSpace == -1 ? 0 : parseVolume(line, line.substring(secondSpace + 1));
 			entry.currentEditor = new Editor(entry);
+			// the dirty files of a missing volume are out of reach anyway
+			entry.dirtyVolume = volume < volumes.length ? volume : entry.volume;
 		} else if (secondSpace == -1 && firstSpace == READ.length() && line.startsWith(READ)) {
 			// This work was already done by calling lruEntries.get().
 		} else {
@@ -309,6 +473,25 @@ public final class DiskLruCache implements Closeable {
 		}
 	}
 
+	private static int parseVolume(String line, String token) throws IOException {
+		if (!token.startsWith(VOLUME_PREFIX)) {
+			throw new IOException("unexpected journal line: " + line);
+		}
+		try {
+			return Integer.parseInt(token.substring(VOLUME_PREFIX.length()));
+		} catch (NumberFormatException e) {
+			throw new IOException("unexpected journal line: " + line);
+		}
+	}
+
+	/**
+	 * Returns the journal suffix naming a volume, empty for the first so that
+	 * single directory journals keep their format.
+	 */
+	private static String volumeSuffix(int volume) {
+		return volume == 0 ? "" : " " + VOLUME_PREFIX + volume;
+	}
+
 	/**
 	 * Computes the initial size and collects garbage as a part of opening the
 	 * cache. Dirty entries are assumed to be inconsistent and will be deleted.
@@ -320,6 +503,10 @@ public final class DiskLruCache implements Closeable {
 			if (entry.currentEditor == null) {
 				for (int t = 0; t < valueCount; t++) {
 					size += entry.lengths[t];
+					volumes[entry.volume].addSize(entry.lengths[t]);
+				}
+				if (entry.readable && isFast(entry.volume)) {
+					fastEntries.put(entry.key, entry);
 				}
 			} else {
 				entry.currentEditor = null;
@@ -341,35 +528,145 @@ public final class DiskLruCache implements Closeable {
 			journalWriter.close();
 		}
 
-		try (Writer writer = new BufferedWriter(
-				new OutputStreamWriter(new FileOutputStream(journalFileTmp), StandardCharsets.UTF_8))) {
-			writer.write(MAGIC);
-			writer.write("\n");
-			writer.write(VERSION_1);
-			writer.write("\n");
-			writer.write(Integer.toString(appVersion));
-			writer.write("\n");
-			writer.write(Integer.toString(valueCount));
-			writer.write("\n");
-			writer.write("\n");
+		FileOutputStream out = new FileOutputStream(journalFileTmp);
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			writeJournalHeader(writer);
 
 			for (Entry entry : lruEntries.values()) {
 				if (entry.currentEditor != null) {
-					writer.write(DIRTY + ' ' + entry.key + '\n');
+					writer.write(DIRTY + ' ' + entry.key + volumeSuffix(entry.dirtyVolume) + '\n');
 				} else {
-					writer.write(CLEAN + ' ' + entry.key + entry.getLengths() + '\n');
+					writer.write(CLEAN + ' ' + entry.key + entry.getLengths() + volumeSuffix(entry.volume) + '\n');
+				}
+			}
+			if (syncJournal) {
+				// everything the old journal held has to survive the rename
+				writer.flush();
+				out.getFD().sync();
+			}
+		}
+
+		replaceJournal();
+	}
+
+	/**
+	 * Compacts the journal like {@link #rebuildJournal}, but only holds the cache
+	 * lock to snapshot the index and to swap the journals. Records appended while
+	 * the new journal is written still go to the old journal, and are also kept
+	 * aside to be appended to the new journal right before the swap, so either
+	 * journal replays to the same index.
+	 */
+	private void compactJournal() throws IOException {
+		String[] keys;
+		boolean[] dirty;
+		int[] volumeOf;
+		long[] lengths;
+		synchronized (this) {
+			if (journalWriter == null) {
+				return; // Closed.
+			}
+			int entryCount = lruEntries.size();
+			keys = new String[entryCount];
+			dirty = new boolean[entryCount];
+			volumeOf = new int[entryCount];
+			lengths = new long[entryCount * valueCount];
+			int i = 0;
+			for (Entry entry : lruEntries.values()) {
+				keys[i] = entry.key;
+				dirty[i] = entry.currentEditor != null;
+				volumeOf[i] = dirty[i] ? entry.dirtyVolume : entry.volume;
+				System.arraycopy(entry.lengths, 0, lengths, i * valueCount, valueCount);
+				i++;
+			}
+			compactionRecords = new ArrayList<>();
+		}
+
+		// the writer is closed before the swap, or by the cleanup if there is none
+		boolean swapped = false;
+		FileOutputStream out = new FileOutputStream(journalFileTmp);
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try {
+			writeJournalHeader(writer);
+			for (int i = 0; i < keys.length; i++) {
+				writer.write(dirty[i] ? DIRTY : CLEAN);
+				writer.write(' ');
+				writer.write(keys[i]);
+				if (!dirty[i]) {
+					for (int t = 0; t < valueCount; t++) {
+						writer.write(' ');
+						writer.write(Long.toString(lengths[i * valueCount + t]));
+					}
+				}
+				writer.write(volumeSuffix(volumeOf[i]));
+				writer.write('\n');
+			}
+			writer.flush();
+
+			synchronized (this) {
+				List<String> records = compactionRecords;
+				compactionRecords = null;
+				if (journalWriter == null) {
+					return; // Closed while compacting, the old journal stays.
+				}
+				for (String record : records) {
+					writer.write(record);
 				}
+				writer.flush();
+				if (syncJournal) {
+					out.getFD().sync();
+				}
+				writer.close();
+
+				journalWriter.close();
+				replaceJournal();
+				redundantOpCount = records.size();
+				swapped = true;
+			}
+		} finally {
+			if (!swapped) {
+				try {
+					writer.close();
+				} catch (IOException ignored) {
+				}
+				synchronized (this) {
+					compactionRecords = null;
+				}
+				journalFileTmp.delete();
 			}
 		}
+	}
+
+	private void writeJournalHeader(Writer writer) throws IOException {
+		writer.write(MAGIC);
+		writer.write("\n");
+		writer.write(VERSION_1);
+		writer.write("\n");
+		writer.write(Integer.toString(appVersion));
+		writer.write("\n");
+		writer.write(Integer.toString(valueCount));
+		writer.write("\n");
+		writer.write("\n");
+	}
 
+	/** Moves the written temporary journal into place and opens it for appending. */
+	private void replaceJournal() throws IOException {
 		if (journalFile.exists()) {
 			renameTo(journalFile, journalFileBackup, true);
 		}
 		renameTo(journalFileTmp, journalFile, false);
 		journalFileBackup.delete();
 
-		journalWriter = new BufferedWriter(
-				new OutputStreamWriter(new FileOutputStream(journalFile, true), StandardCharsets.UTF_8));
+		openJournalWriter();
+	}
+
+	/**
+	 * Appends a record to the journal, and to the one being compacted if any.
+	 */
+	private void writeJournal(String record) throws IOException {
+		journalWriter.write(record);
+		if (compactionRecords != null) {
+			compactionRecords.add(record);
+		}
 	}
 
 	private static void deleteIfExists(File file) throws IOException {
@@ -394,7 +691,7 @@ public final class DiskLruCache implements Closeable {
 	 */
 	public Snapshot get(String key) throws IOException {
 		validateKey(key);
-		return getImpl(key);
+		return adviseRead(getImpl(key));
 	}
 
 	/**
@@ -405,7 +702,25 @@ public final class DiskLruCache implements Closeable {
 	 */
 	public Snapshot getUnsafe(String key) throws IOException {
 		validateUnsafeKey(key);
-		return getImpl(key);
+		return adviseRead(getImpl(key));
+	}
+
+	/**
+	 * Tells the kernel that the snapshot's files are about to be read from start
+	 * to end, outside the cache lock as read ahead may block on the disk queue.
+	 */
+	private static Snapshot adviseRead(Snapshot snapshot) throws IOException {
+		if (snapshot != null && NativeIo.isEnabled()) {
+			for (InputStream in : snapshot.ins) {
+				if (!(in instanceof FileInputStream)) {
+					continue; // Hot, and read through a shared channel.
+				}
+				FileDescriptor fd = ((FileInputStream) in).getFD();
+				NativeIo.fadvise(fd, 0, 0, NativeIo.Advice.SEQUENTIAL);
+				NativeIo.fadvise(fd, 0, 0, NativeIo.Advice.WILLNEED);
+			}
+		}
+		return snapshot;
 	}
 
 	private synchronized Snapshot getImpl(String key) throws IOException {
@@ -419,16 +734,28 @@ public final class DiskLruCache implements Closeable {
 			return null;
 		}
 
+		// Entries read before since their last write share open channels, which
+		// saves an open and a close per read of hot entries.
+		if (entry.reads < HOT_READS) {
+			entry.reads++;
+		}
+		boolean shared = handleCache != null && entry.reads >= HOT_READS;
+
 		// Open all streams eagerly to guarantee that we see a single published
 		// snapshot. If we opened streams lazily then the streams could come
 		// from different edits.
 		InputStream[] ins = new InputStream[valueCount];
 		try {
 			for (int i = 0; i < valueCount; i++) {
-				ins[i] = new FileInputStream(entry.getCleanFile(i));
+				File file = entry.getCleanFile(i);
+				ins[i] = shared ? handleCache.newInputStream(file) : new FileInputStream(file);
+			}
+		} catch (FileNotFoundException | NoSuchFileException e) {
+			// A file must have been deleted manually, or its disk is gone.
+			CacheVolume volume = volumes[entry.volume];
+			if (!volume.getDirectory().isDirectory()) {
+				volume.recordFailure();
 			}
-		} catch (FileNotFoundException e) {
-			// A file must have been deleted manually!
 			for (int i = 0; i < valueCount; i++) {
 				if (ins[i] != null) {
 					try {
@@ -439,12 +766,21 @@ public final class DiskLruCache implements Closeable {
 					break;
 				}
 			}
+			dropUnreadable(entry);
 			return null;
 		}
 
 		redundantOpCount++;
-		journalWriter.append(READ + ' ').append(key).append(String.valueOf('\n'));
-		if (journalRebuildRequired()) {
+		writeJournal(READ + ' ' + key + '\n');
+		volumes[entry.volume].recordHit();
+		boolean promote = false;
+		if (isFast(entry.volume)) {
+			fastEntries.get(key); // Moves it to the tail.
+		} else if (isTiered() && ++entry.slowHits >= promoteAfterHits
+				&& pendingPromotions.size() < MAX_PENDING_PROMOTIONS) {
+			promote = pendingPromotions.add(key);
+		}
+		if (promote || journalRebuildRequired()) {
 			executorService.submit(cleanupCallable);
 		}
 
@@ -457,7 +793,7 @@ public final class DiskLruCache implements Closeable {
 	 */
 	public Editor edit(String key) throws IOException {
 		validateKey(key);
-		return editImpl(key, ANY_SEQUENCE_NUMBER);
+		return awaitDirty(editImpl(key, ANY_SEQUENCE_NUMBER));
 	}
 
 	/**
@@ -466,32 +802,419 @@ public final class DiskLruCache implements Closeable {
 	 */
 	public Editor editUnsafe(String key) throws IOException {
 		validateUnsafeKey(key);
-		return editImpl(key, ANY_SEQUENCE_NUMBER);
+		return awaitDirty(editImpl(key, ANY_SEQUENCE_NUMBER));
 	}
 
 	private synchronized Editor editImpl(String key, long expectedSequenceNumber) throws IOException {
 		checkNotClosed();
+		if (evictingKeys.contains(key)) {
+			return null; // The evicted entry's files are still being deleted.
+		}
 		Entry entry = lruEntries.get(key);
 		if (expectedSequenceNumber != ANY_SEQUENCE_NUMBER
 				&& (entry == null || entry.sequenceNumber != expectedSequenceNumber)) {
 			return null; // Snapshot is stale.
 		}
+		if (entry != null && entry.currentEditor != null) {
+			return null; // Another edit is in progress.
+		}
+
+		// An existing entry is edited in place, new ones go to the best volume.
+		int volume;
+		if (entry != null && entry.readable) {
+			volume = entry.volume;
+			if (!volumes[volume].acceptsWrites(System.currentTimeMillis()) || !volumes[volume].tryAcquireWrite()) {
+				return null;
+			}
+		} else {
+			volume = isTiered() ? placeEntry(key, CacheVolume.Tier.FAST) : -1;
+			if (volume < 0) {
+				volume = placeEntry(key, isTiered() ? CacheVolume.Tier.SLOW : null);
+			}
+			if (volume < 0) {
+				return null; // No volume can take it.
+			}
+		}
 		if (entry == null) {
 			entry = new Entry(key);
 			lruEntries.put(key, entry);
-		} else if (entry.currentEditor != null) {
-			return null; // Another edit is in progress.
 		}
+		return beginEdit(entry, volume);
+	}
 
+	/**
+	 * Starts an edit of {@code entry} writing to {@code volume}, on which a write
+	 * permit has been taken.
+	 */
+	private Editor beginEdit(Entry entry, int volume) throws IOException {
 		Editor editor = new Editor(entry);
 		entry.currentEditor = editor;
+		entry.dirtyVolume = volume;
 
 		// Flush the journal before creating files to prevent file leaks.
-		journalWriter.write(DIRTY + ' ' + key + '\n');
-		journalWriter.flush();
+		writeJournal(DIRTY + ' ' + entry.key + volumeSuffix(volume) + '\n');
+		if (groupCommitNanos < 0) {
+			journalWriter.flush();
+		} else {
+			editor.dirtySequence = ++journalSequence;
+		}
 		return editor;
 	}
 
+	/**
+	 * Returns the volume a new entry goes to, and takes a write permit on it: the
+	 * healthy volume of {@code tier}, or of any tier if null, ranked highest for
+	 * the key that has a permit free, or -1 if there is none.
+	 */
+	private int placeEntry(String key, CacheVolume.Tier tier) {
+		long now = System.currentTimeMillis();
+		if (volumes.length == 1) {
+			return volumes[0].acceptsWrites(now) && volumes[0].tryAcquireWrite() ? 0 : -1;
+		}
+
+		long keyHash = CacheVolume.hash(key);
+		double[] scores = new double[volumes.length];
+		for (int v = 0; v < volumes.length; v++) {
+			boolean eligible = tier == null || volumes[v].getTier() == tier;
+			scores[v] = eligible ? volumes[v].score(keyHash) : Double.NEGATIVE_INFINITY;
+		}
+		for (int tried = 0; tried < volumes.length; tried++) {
+			int best = 0;
+			for (int v = 1; v < volumes.length; v++) {
+				if (scores[v] > scores[best]) {
+					best = v;
+				}
+			}
+			if (scores[best] == Double.NEGATIVE_INFINITY) {
+				break;
+			}
+			if (volumes[best].acceptsWrites(now) && volumes[best].tryAcquireWrite()) {
+				return best;
+			}
+			scores[best] = Double.NEGATIVE_INFINITY;
+		}
+		return -1;
+	}
+
+	private boolean isFast(int volume) {
+		return volumes[volume].getTier() == CacheVolume.Tier.FAST;
+	}
+
+	/** Returns whether the cache moves entries between a fast and a slow tier. */
+	private boolean isTiered() {
+		return fastTierMaxSize > 0;
+	}
+
+	private long fastTierSize() {
+		long fastSize = 0;
+		for (CacheVolume volume : volumes) {
+			if (volume.getTier() == CacheVolume.Tier.FAST) {
+				fastSize += volume.getSize();
+			}
+		}
+		return fastSize;
+	}
+
+	/**
+	 * Moves entries between tiers: demotes the least recently used entries of
+	 * the fast tier while it is over its size, down to its low watermark, then
+	 * promotes the slow tier entries that were hit often enough. Entries are
+	 * moved one at a time, each as an edit that copies its files outside the
+	 * lock and deletes the old ones on commit.
+	 */
+	private void migrate() {
+		boolean demoting = false;
+		while (true) {
+			Entry entry = null;
+			Editor editor;
+			boolean demotion;
+			synchronized (this) {
+				if (journalWriter == null || !isTiered()) {
+					return;
+				}
+				long fastSize = fastTierSize();
+				demoting = fastSize > (demoting ? (long) (fastTierMaxSize * lowWatermark) : fastTierMaxSize);
+				int target = -1;
+				if (demoting) {
+					for (Entry candidate : fastEntries.values()) {
+						if (candidate.currentEditor == null) {
+							entry = candidate;
+							break;
+						}
+					}
+					if (entry != null) {
+						target = placeEntry(entry.key, CacheVolume.Tier.SLOW);
+					}
+					if (target < 0) {
+						demoting = false; // Nothing movable, or no room on the slow tier.
+						entry = null;
+					}
+				}
+				while (entry == null && !pendingPromotions.isEmpty()) {
+					Iterator<String> i = pendingPromotions.iterator();
+					Entry candidate = lruEntries.get(i.next());
+					i.remove();
+					if (candidate != null && candidate.readable && candidate.currentEditor == null
+							&& !isFast(candidate.volume)) {
+						target = placeEntry(candidate.key, CacheVolume.Tier.FAST);
+						if (target >= 0) {
+							entry = candidate;
+						}
+					}
+				}
+				if (entry == null) {
+					return;
+				}
+				demotion = demoting;
+				try {
+					editor = beginEdit(entry, target);
+				} catch (IOException e) {
+					volumes[target].releaseWrite();
+					return;
+				}
+				// demoted entries are cold, the slow tier need not keep them in memory
+				editor.dropWrittenPages = demotion;
+			}
+
+			if (moveEntry(editor)) {
+				synchronized (this) {
+					if (demotion) {
+						demotionCount++;
+					} else {
+						promotionCount++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies the published files of the entry being moved by {@code editor} to
+	 * its new volume and commits, or aborts if anything fails.
+	 */
+	private boolean moveEntry(Editor editor) {
+		Entry entry = editor.entry;
+		CacheVolume failing = null;
+		try {
+			awaitJournal(editor.dirtySequence);
+			for (int i = 0; i < valueCount; i++) {
+				// the target's stream hides its faults in hasErrors, recorded against
+				// the target below, so what throws while copying is the source
+				failing = volumes[entry.volume];
+				try (FileInputStream in = new FileInputStream(entry.getCleanFile(i));
+						OutputStream out = editor.newOutputStream(i, entry.lengths[i])) {
+					NativeIo.fadvise(in.getFD(), 0, 0, NativeIo.Advice.SEQUENTIAL);
+					IOUtils.copy(in, out);
+				}
+				failing = null;
+				if (entry.getDirtyFile(i).length() != entry.lengths[i]) {
+					editor.hasErrors = true;
+				}
+			}
+			if (editor.hasErrors) {
+				// unlike a failed edit, this leaves the entry as it was
+				volumes[entry.dirtyVolume].recordFailure();
+				editor.abort();
+				return false;
+			}
+			editor.commit();
+			return true;
+		} catch (IOException e) {
+			if (failing != null) {
+				failing.recordFailure();
+			}
+			editor.abortUnlessCommitted();
+			return false;
+		}
+	}
+
+	/**
+	 * Changes how many bytes the fast tier may hold before its least recently used
+	 * entries are moved to the slow tier. Zero, the default, turns tiering off.
+	 * Tiering needs volumes of both tiers.
+	 */
+	public synchronized void setFastTierMaxSize(long fastTierMaxSize) {
+		boolean hasFast = false;
+		boolean hasSlow = false;
+		for (CacheVolume volume : volumes) {
+			hasFast |= volume.getTier() == CacheVolume.Tier.FAST;
+			hasSlow |= volume.getTier() == CacheVolume.Tier.SLOW;
+		}
+		if (fastTierMaxSize < 0 || (fastTierMaxSize > 0 && !(hasFast && hasSlow))) {
+			throw new IllegalArgumentException("a fast tier size needs fast and slow volumes");
+		}
+		this.fastTierMaxSize = fastTierMaxSize;
+		executorService.submit(cleanupCallable);
+	}
+
+	public synchronized long getFastTierMaxSize() {
+		return fastTierMaxSize;
+	}
+
+	/**
+	 * Sets whether the pages of every value written are dropped from the page
+	 * cache once written, for caches much larger than memory where most new
+	 * values are not read again soon. Values written to the slow tier by
+	 * demotion always are. Closing the value then waits for its writeback.
+	 */
+	public void setDropWrittenPages(boolean dropWrittenPages) {
+		this.dropWrittenPages = dropWrittenPages;
+	}
+
+	public boolean getDropWrittenPages() {
+		return dropWrittenPages;
+	}
+
+	/**
+	 * Changes how many files of hot entries are kept open to be read with
+	 * positional reads, instead of being opened and closed for every read. Zero,
+	 * the default, opens files for every read. Channels still being read from
+	 * stay open until their readers are done.
+	 */
+	public synchronized void setOpenFileCacheSize(int openFileCacheSize) {
+		if (openFileCacheSize < 0) {
+			throw new IllegalArgumentException("openFileCacheSize < 0");
+		}
+		if (handleCache != null) {
+			handleCache.clear();
+		}
+		handleCache = openFileCacheSize > 0 ? new FileHandleCache(openFileCacheSize) : null;
+	}
+
+	public synchronized int getOpenFiles() {
+		return handleCache != null ? handleCache.size() : 0;
+	}
+
+	public synchronized long getOpenFileHits() {
+		return handleCache != null ? handleCache.hits() : 0;
+	}
+
+	public synchronized long getOpenFileMisses() {
+		return handleCache != null ? handleCache.misses() : 0;
+	}
+
+	/**
+	 * Drops the shared channel of a clean file that is about to be replaced or
+	 * deleted, so that no later read sees the old file.
+	 */
+	private void invalidateHandle(File file) {
+		if (handleCache != null) {
+			handleCache.invalidate(file);
+		}
+	}
+
+	/**
+	 * Changes how many hits an entry needs on the slow tier to be moved to the
+	 * fast tier.
+	 */
+	public synchronized void setPromoteAfterHits(int promoteAfterHits) {
+		if (promoteAfterHits < 1) {
+			throw new IllegalArgumentException("promoteAfterHits < 1");
+		}
+		this.promoteAfterHits = promoteAfterHits;
+	}
+
+	/** Returns the number of entries moved from the slow to the fast tier. */
+	public synchronized long getPromotionCount() {
+		return promotionCount;
+	}
+
+	/** Returns the number of entries moved from the fast to the slow tier. */
+	public synchronized long getDemotionCount() {
+		return demotionCount;
+	}
+
+	/** Returns the volumes this cache spans, the first of which holds the journal. */
+	public List<CacheVolume> getVolumes() {
+		return volumeList;
+	}
+
+	/**
+	 * Waits for the DIRTY record of a new editor to be flushed, which in group
+	 * commit mode happens after the cache lock is released.
+	 */
+	private Editor awaitDirty(Editor editor) throws IOException {
+		if (editor != null) {
+			try {
+				awaitJournal(editor.dirtySequence);
+			} catch (IOException e) {
+				editor.abortUnlessCommitted();
+				throw e;
+			}
+		}
+		return editor;
+	}
+
+	/**
+	 * Returns once the journal record numbered {@code sequence} has been flushed,
+	 * and synced if requested. The first waiter to find no flush under way
+	 * flushes for everyone, after waiting for more records to join; the rest
+	 * wait for it. Zero, used when records are flushed in place, returns at once.
+	 */
+	private void awaitJournal(long sequence) throws IOException {
+		if (sequence == 0) {
+			return;
+		}
+		while (true) {
+			synchronized (commitLock) {
+				while (flushedSequence < sequence && groupFlushing) {
+					try {
+						commitLock.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("interrupted waiting for the journal");
+					}
+				}
+				if (flushedSequence >= sequence) {
+					return;
+				}
+				groupFlushing = true;
+			}
+
+			long flushed = 0;
+			try {
+				if (groupCommitNanos > 0) {
+					LockSupport.parkNanos(groupCommitNanos);
+				}
+				flushed = flushGroup();
+			} finally {
+				// on failure another waiter takes over, and fails or succeeds itself
+				synchronized (commitLock) {
+					groupFlushing = false;
+					if (flushed > flushedSequence) {
+						flushedSequence = flushed;
+					}
+					commitLock.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flushes every buffered journal record, syncing outside the cache lock, and
+	 * returns the number of the last one.
+	 */
+	private long flushGroup() throws IOException {
+		FileChannel channel;
+		long sequence;
+		synchronized (this) {
+			sequence = journalSequence;
+			if (journalWriter == null) {
+				return sequence; // Closed, which flushed everything.
+			}
+			journalWriter.flush();
+			channel = journalChannel;
+		}
+		if (syncJournal) {
+			try {
+				channel.force(false);
+			} catch (ClosedChannelException e) {
+				// The journal was rebuilt, which synced everything, or closed.
+			}
+		}
+		return sequence;
+	}
+
 	/** Returns the directory where this cache stores its data. */
 	public File getDirectory() {
 		return directory;
@@ -514,6 +1237,25 @@ public final class DiskLruCache implements Closeable {
 		executorService.submit(cleanupCallable);
 	}
 
+	/**
+	 * Returns the fraction of the maximum size that eviction brings the cache
+	 * down to once it has grown past the maximum size.
+	 */
+	public synchronized double getLowWatermark() {
+		return lowWatermark;
+	}
+
+	/**
+	 * Changes the fraction of the maximum size that eviction brings the cache down
+	 * to. Lower watermarks evict less often, in bigger batches.
+	 */
+	public synchronized void setLowWatermark(double lowWatermark) {
+		if (lowWatermark <= 0 || lowWatermark > 1) {
+			throw new IllegalArgumentException("lowWatermark must be > 0 and <= 1");
+		}
+		this.lowWatermark = lowWatermark;
+	}
+
 	/**
 	 * Returns the number of bytes currently being used to store the values in this
 	 * cache. This may be greater than the max size if a background deletion is
@@ -523,7 +1265,16 @@ public final class DiskLruCache implements Closeable {
 		return size;
 	}
 
-	private synchronized void completeEdit(Editor editor, boolean success) throws IOException {
+	/** Returns the number of entries that have been evicted to stay within the max size. */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Publishes or discards an edit, returning the journal record to wait for
+	 * before the outcome is durable, or zero if it already is.
+	 */
+	private synchronized long completeEdit(Editor editor, boolean success) throws IOException {
 		Entry entry = editor.entry;
 		if (entry.currentEditor != editor) {
 			throw new IllegalStateException();
@@ -539,53 +1290,90 @@ public final class DiskLruCache implements Closeable {
 				}
 				if (!entry.getDirtyFile(i).exists()) {
 					editor.abort();
-					return;
+					return 0;
 				}
 			}
 		}
 
+		CacheVolume volume = volumes[entry.dirtyVolume];
+		// Edits stay on their entry's volume, only new entries and moves between
+		// tiers change it.
+		int previousVolume = entry.volume;
+		if (success) {
+			entry.volume = entry.dirtyVolume;
+		}
 		for (int i = 0; i < valueCount; i++) {
 			File dirty = entry.getDirtyFile(i);
 			if (success) {
 				if (dirty.exists()) {
 					File clean = entry.getCleanFile(i);
-					dirty.renameTo(clean);
+					invalidateHandle(clean);
+					if (!dirty.renameTo(clean)) {
+						volume.recordFailure();
+					}
 					long oldLength = entry.lengths[i];
 					long newLength = clean.length();
 					entry.lengths[i] = newLength;
 					size = size - oldLength + newLength;
+					volumes[previousVolume].addSize(-oldLength);
+					volume.addSize(newLength);
+					if (previousVolume != entry.volume && entry.readable) {
+						File moved = entry.getCleanFile(previousVolume, i);
+						invalidateHandle(moved);
+						if (!moved.delete() && moved.exists()) {
+							volumes[previousVolume].recordFailure();
+						}
+					}
 				}
 			} else {
 				deleteIfExists(dirty);
 			}
 		}
+		if (previousVolume != entry.volume) {
+			entry.slowHits = 0;
+		}
+		if (success) {
+			entry.reads = 0;
+		}
 
 		redundantOpCount++;
 		entry.currentEditor = null;
+		volume.releaseWrite();
 		if (entry.readable | success) {
 			entry.readable = true;
-			journalWriter.write(CLEAN + ' ' + entry.key + entry.getLengths() + '\n');
+			writeJournal(CLEAN + ' ' + entry.key + entry.getLengths() + volumeSuffix(entry.volume) + '\n');
 			if (success) {
 				entry.sequenceNumber = nextSequenceNumber++;
 			}
+			if (isFast(entry.volume)) {
+				fastEntries.put(entry.key, entry);
+			} else {
+				fastEntries.remove(entry.key);
+			}
 		} else {
 			lruEntries.remove(entry.key);
-			journalWriter.write(REMOVE + ' ' + entry.key + '\n');
+			writeJournal(REMOVE + ' ' + entry.key + '\n');
+		}
+		long sequence = 0;
+		if (groupCommitNanos < 0) {
+			journalWriter.flush();
+		} else {
+			sequence = ++journalSequence;
 		}
-		journalWriter.flush();
 
-		if (size > maxSize || journalRebuildRequired()) {
+		if (size > maxSize || (isTiered() && fastTierSize() > fastTierMaxSize) || journalRebuildRequired()) {
 			executorService.submit(cleanupCallable);
 		}
+		return sequence;
 	}
 
 	/**
 	 * We only rebuild the journal when it will halve the size of the journal and
-	 * eliminate at least 2000 ops.
+	 * eliminate at least 2000 ops, and no rebuild is already running.
 	 */
 	private boolean journalRebuildRequired() {
 		final int redundantOpCompactThreshold = 2000;
-		return redundantOpCount >= redundantOpCompactThreshold //
+		return compactionRecords == null && redundantOpCount >= redundantOpCompactThreshold //
 				&& redundantOpCount >= lruEntries.size();
 	}
 
@@ -621,16 +1409,19 @@ public final class DiskLruCache implements Closeable {
 
 		for (int i = 0; i < valueCount; i++) {
 			File file = entry.getCleanFile(i);
+			invalidateHandle(file);
 			if (file.exists() && !file.delete()) {
 				throw new IOException("failed to delete " + file);
 			}
 			size -= entry.lengths[i];
+			volumes[entry.volume].addSize(-entry.lengths[i]);
 			entry.lengths[i] = 0;
 		}
 
 		redundantOpCount++;
-		journalWriter.append(REMOVE).append(' ').append(key).append('\n');
+		writeJournal(REMOVE + ' ' + key + '\n');
 		lruEntries.remove(key);
+		fastEntries.remove(key);
 
 		if (journalRebuildRequired()) {
 			executorService.submit(cleanupCallable);
@@ -639,6 +1430,35 @@ public final class DiskLruCache implements Closeable {
 		return true;
 	}
 
+	/**
+	 * Takes an entry whose files are gone out of the index, unless it is being
+	 * edited, and deletes what is left of its files on a best effort basis.
+	 */
+	private void dropUnreadable(Entry entry) throws IOException {
+		if (entry.currentEditor != null) {
+			return; // The edit replaces it.
+		}
+
+		for (int i = 0; i < valueCount; i++) {
+			File file = entry.getCleanFile(i);
+			invalidateHandle(file);
+			file.delete();
+			size -= entry.lengths[i];
+			volumes[entry.volume].addSize(-entry.lengths[i]);
+			entry.lengths[i] = 0;
+		}
+
+		redundantOpCount++;
+		writeJournal(REMOVE + ' ' + entry.key + '\n');
+		lruEntries.remove(entry.key);
+		fastEntries.remove(entry.key);
+		pendingPromotions.remove(entry.key);
+
+		if (journalRebuildRequired()) {
+			executorService.submit(cleanupCallable);
+		}
+	}
+
 	/** Returns true if this cache has been closed. */
 	public synchronized boolean isClosed() {
 		return journalWriter == null;
@@ -657,25 +1477,190 @@ public final class DiskLruCache implements Closeable {
 		journalWriter.flush();
 	}
 
-	/** Closes this cache. Stored values will remain on the filesystem. */
+	/**
+	 * Closes this cache. Stored values will remain on the filesystem. An
+	 * eviction batch that is deleting files is waited for, so that its REMOVE
+	 * records are written before the journal is closed.
+	 */
 	public synchronized void close() throws IOException {
 		if (journalWriter == null) {
 			return; // Already closed.
 		}
+		closing = true;
+		boolean interrupted = false;
+		while (!evictingKeys.isEmpty()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (journalWriter == null) {
+			return; // Closed by another thread while waiting.
+		}
 		for (Entry entry : new ArrayList<>(lruEntries.values())) {
 			if (entry.currentEditor != null) {
 				entry.currentEditor.abort();
 			}
 		}
 		trimToSize();
+		evictionExecutor.shutdown();
+		if (handleCache != null) {
+			handleCache.clear();
+		}
+		journalWriter.flush();
+		if (syncJournal) {
+			journalChannel.force(false);
+		}
 		journalWriter.close();
 		journalWriter = null;
+		journalChannel = null;
+	}
+
+	/**
+	 * Evicts least recently used entries once the cache is over its maximum size,
+	 * until it is under the low watermark. Every batch of victims is taken off the
+	 * index under the lock, so lookups miss them at once, and their keys cannot be
+	 * edited until their files have been deleted outside the lock and their
+	 * REMOVE records written.
+	 */
+	private void evict() throws IOException {
+		long lowMark;
+		synchronized (this) {
+			if (journalWriter == null || closing || size <= maxSize) {
+				return;
+			}
+			lowMark = (long) (maxSize * lowWatermark);
+		}
+
+		IOException failure = null;
+		while (true) {
+			List<Entry> victims = new ArrayList<>();
+			synchronized (this) {
+				if (journalWriter == null || closing) {
+					return; // Closed or closing.
+				}
+				Iterator<Entry> i = lruEntries.values().iterator();
+				while (size > lowMark && victims.size() < EVICTION_BATCH && i.hasNext()) {
+					Entry entry = i.next();
+					if (entry.currentEditor != null) {
+						continue;
+					}
+					i.remove();
+					fastEntries.remove(entry.key);
+					evictingKeys.add(entry.key);
+					for (int t = 0; t < valueCount; t++) {
+						invalidateHandle(entry.getCleanFile(t));
+						size -= entry.lengths[t];
+						volumes[entry.volume].addSize(-entry.lengths[t]);
+					}
+					victims.add(entry);
+				}
+				evictionCount += victims.size();
+			}
+			if (victims.isEmpty()) {
+				break;
+			}
+
+			try {
+				deleteInParallel(victims);
+			} catch (IOException e) {
+				failure = e;
+			} finally {
+				// close() waits for this batch, so the journal is still open
+				synchronized (this) {
+					for (Entry entry : victims) {
+						evictingKeys.remove(entry.key);
+					}
+					try {
+						for (Entry entry : victims) {
+							redundantOpCount++;
+							writeJournal(REMOVE + ' ' + entry.key + '\n');
+						}
+					} finally {
+						notifyAll();
+					}
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Deletes the clean files of {@code victims}, split over the eviction threads,
+	 * and throws the first failure once all are done.
+	 */
+	private void deleteInParallel(List<Entry> victims) throws IOException {
+		int chunk = (victims.size() + EVICTION_THREADS - 1) / EVICTION_THREADS;
+		List<Future<Void>> deletions = new ArrayList<>();
+		for (int from = 0; from < victims.size(); from += chunk) {
+			List<Entry> part = victims.subList(from, Math.min(from + chunk, victims.size()));
+			deletions.add(evictionExecutor.submit(() -> {
+				IOException failure = null;
+				for (Entry entry : part) {
+					for (int t = 0; t < valueCount; t++) {
+						File file = entry.getCleanFile(t);
+						if (!file.delete() && file.exists()) {
+							volumes[entry.volume].recordFailure();
+							if (failure == null) {
+								failure = new IOException("failed to delete " + file);
+							}
+						}
+					}
+				}
+				if (failure != null) {
+					throw failure;
+				}
+				return null;
+			}));
+		}
+
+		IOException failure = null;
+		boolean interrupted = false;
+		for (Future<Void> deletion : deletions) {
+			while (true) {
+				try {
+					deletion.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof IOException
+								? (IOException) e.getCause()
+								: new IOException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
 	}
 
 	private void trimToSize() throws IOException {
 		while (size > maxSize) {
-			Map.Entry<String, Entry> toEvict = lruEntries.entrySet().iterator().next();
-			removeImpl(toEvict.getKey());
+			String toEvict = null;
+			for (Entry entry : lruEntries.values()) {
+				if (entry.currentEditor == null) {
+					toEvict = entry.key;
+					break;
+				}
+			}
+			if (toEvict == null) {
+				return; // Everything left is being edited or moved.
+			}
+			removeImpl(toEvict);
+			evictionCount++;
 		}
 	}
 
@@ -686,7 +1671,9 @@ public final class DiskLruCache implements Closeable {
 	 */
 	public void delete() throws IOException {
 		close();
-		FileUtils.deleteDirectory(directory);
+		for (CacheVolume volume : volumes) {
+			FileUtils.deleteDirectory(volume.getDirectory());
+		}
 	}
 
 	private void validateKey(String key) {
@@ -723,7 +1710,7 @@ public final class DiskLruCache implements Closeable {
 		 * changed since this snapshot was created or if another edit is in progress.
 		 */
 		public Editor edit() throws IOException {
-			return DiskLruCache.this.editImpl(key, sequenceNumber);
+			return awaitDirty(DiskLruCache.this.editImpl(key, sequenceNumber));
 		}
 
 		/** Returns the unbuffered stream with the value for {@code index}. */
@@ -768,6 +1755,9 @@ public final class DiskLruCache implements Closeable {
 		private final boolean[] written;
 		private boolean hasErrors;
 		private boolean committed;
+		/** The journal record marking this edit dirty, or zero if it was flushed in place. */
+		private long dirtySequence;
+		private boolean dropWrittenPages = DiskLruCache.this.dropWrittenPages;
 
 		private Editor(Entry entry) {
 			this.entry = entry;
@@ -800,11 +1790,21 @@ public final class DiskLruCache implements Closeable {
 		 * filesystem, this edit will be aborted when {@link #commit} is called. The
 		 * returned output stream does not throw IOExceptions.
 		 */
-		public synchronized OutputStream newOutputStream(int index) {
+		public OutputStream newOutputStream(int index) {
+			return newOutputStream(index, -1);
+		}
+
+		/**
+		 * Returns a new unbuffered output stream to write the value at {@code index},
+		 * like {@link #newOutputStream(int)}, reserving disk space for
+		 * {@code expectedLength} bytes if it is positive.
+		 */
+		public synchronized OutputStream newOutputStream(int index, long expectedLength) {
 			if (index < 0 || index >= valueCount) {
 				throw new IllegalArgumentException("Expected index " + index + " to "
 						+ "be greater than 0 and less than the maximum value count " + "of " + valueCount);
 			}
+			FileOutputStream outputStream;
 			synchronized (DiskLruCache.this) {
 				if (entry.currentEditor != this) {
 					throw new IllegalStateException();
@@ -813,7 +1813,6 @@ public final class DiskLruCache implements Closeable {
 					written[index] = true;
 				}
 				File dirtyFile = entry.getDirtyFile(index);
-				FileOutputStream outputStream;
 				try {
 					outputStream = new FileOutputStream(dirtyFile);
 				} catch (FileNotFoundException e) {
@@ -823,11 +1822,30 @@ public final class DiskLruCache implements Closeable {
 						outputStream = new FileOutputStream(dirtyFile);
 					} catch (FileNotFoundException e2) {
 						// We are unable to recover. Silently eat the writes.
+						volumes[entry.dirtyVolume].recordFailure();
 						return NULL_OUTPUT_STREAM;
 					}
 				}
-				return new FaultHidingOutputStream(outputStream);
 			}
+			if (expectedLength > 0) {
+				try {
+					NativeIo.preallocate(outputStream.getFD(), expectedLength);
+				} catch (IOException ignored) {
+					// Only a hint.
+				}
+			}
+			return new FaultHidingOutputStream(outputStream);
+		}
+
+		/**
+		 * Returns a channel to read back the value being written at {@code index}
+		 * while it is written. It must be opened after {@link #newOutputStream}, and
+		 * stays readable after the edit is committed or aborted.
+		 */
+		public FileChannel newDirtyReadChannel(int index) throws IOException {
+			// NIO opens files shareable for deletion, so commits can still rename
+			// the file on Windows
+			return FileChannel.open(entry.getDirtyFile(index).toPath(), StandardOpenOption.READ);
 		}
 
 		/**
@@ -854,13 +1872,17 @@ public final class DiskLruCache implements Closeable {
 		 * another edit may be started on the same key.
 		 */
 		public void commit() throws IOException {
+			long sequence = 0;
 			if (hasErrors) {
+				volumes[entry.dirtyVolume].recordFailure();
 				completeEdit(this, false);
 				removeImpl(entry.key); // The previous entry is stale.
 			} else {
-				completeEdit(this, true);
+				volumes[entry.dirtyVolume].recordSuccess();
+				sequence = completeEdit(this, true);
 			}
 			committed = true;
+			awaitJournal(sequence);
 		}
 
 		/**
@@ -885,8 +1907,11 @@ public final class DiskLruCache implements Closeable {
 		}
 
 		private class FaultHidingOutputStream extends FilterOutputStream {
-			private FaultHidingOutputStream(OutputStream out) {
+			private final FileOutputStream file;
+
+			private FaultHidingOutputStream(FileOutputStream out) {
 				super(out);
+				this.file = out;
 			}
 
 			@Override
@@ -910,6 +1935,9 @@ public final class DiskLruCache implements Closeable {
 			@Override
 			public void close() {
 				try {
+					if (dropWrittenPages && file.getFD().valid()) {
+						NativeIo.dropPages(file.getFD());
+					}
 					out.close();
 				} catch (IOException e) {
 					hasErrors = true;
@@ -942,6 +1970,18 @@ public final class DiskLruCache implements Closeable {
 		/** The sequence number of the most recently committed edit to this entry. */
 		private long sequenceNumber;
 
+		/** The volume of the published files. */
+		private int volume;
+
+		/** The volume of the files of the ongoing edit. */
+		private int dirtyVolume;
+
+		/** Hits since the entry was last moved, counted on the slow tier. */
+		private int slowHits;
+
+		/** Reads since the last committed edit, counted with an open file cache. */
+		private int reads;
+
 		private Entry(String key) {
 			this.key = key;
 			this.lengths = new long[valueCount];
@@ -975,11 +2015,15 @@ public final class DiskLruCache implements Closeable {
 		}
 
 		public File getCleanFile(int i) {
-			return new File(directory, key + "." + i);
+			return getCleanFile(volume, i);
+		}
+
+		private File getCleanFile(int volume, int i) {
+			return new File(volumes[volume].getDirectory(), key + "." + i);
 		}
 
 		public File getDirtyFile(int i) {
-			return new File(directory, key + "." + i + ".tmp");
+			return new File(volumes[dirtyVolume].getDirectory(), key + "." + i + ".tmp");
 		}
 	}
 }
@@ -0,0 +1,258 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A bounded cache of open read-only channels, so that hot files are read with
+ * positional reads on one shared channel instead of being opened and closed
+ * for every reader. Channels are reference counted, one reference being the
+ * cache's and one each reader's, and are closed once they have left the cache
+ * and their last reader is done.
+ *
+ * <p>
+ * A cached channel keeps reading the file it opened, so whoever replaces or
+ * deletes a file must {@link #invalidate} it, and must not do so concurrently
+ * with {@link #acquire} for the same file. {@link DiskLruCache} does both
+ * under its lock.
+ */
+final class FileHandleCache {
+	static final class Handle {
+		private final String path;
+		private final FileChannel channel;
+		private final long size;
+		/** Guarded by the cache. */
+		private int references;
+
+		private Handle(String path, FileChannel channel, long size) {
+			this.path = path;
+			this.channel = channel;
+			this.size = size;
+		}
+
+		/** Returns whether the channel is still open, which it is while referenced. */
+		boolean isOpen() {
+			return channel.isOpen();
+		}
+	}
+
+	private final int maxHandles;
+	private final LinkedHashMap<String, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+	private long hits;
+	private long misses;
+
+	FileHandleCache(int maxHandles) {
+		this.maxHandles = maxHandles;
+	}
+
+	/**
+	 * Returns a stream reading {@code file} through a shared channel, opening and
+	 * caching one if needed. Closing the stream releases the channel.
+	 */
+	InputStream newInputStream(File file) throws IOException {
+		return new HandleInputStream(acquire(file));
+	}
+
+	Handle acquire(File file) throws IOException {
+		String path = file.getPath();
+		synchronized (this) {
+			Handle cached = handles.get(path);
+			if (cached != null) {
+				hits++;
+				cached.references++;
+				return cached;
+			}
+			misses++;
+		}
+
+		// opened outside the lock, so that a slow disk does not hold up readers
+		// of other files releasing their handles
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		Handle opened;
+		try {
+			opened = new Handle(path, channel, channel.size());
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+
+		List<Handle> unused = new ArrayList<>();
+		Handle handle;
+		synchronized (this) {
+			handle = handles.get(path);
+			if (handle != null) {
+				// another reader opened it meanwhile
+				handle.references++;
+				unused.add(opened);
+			} else {
+				handle = opened;
+				handle.references = 2;
+				handles.put(path, handle);
+
+				Iterator<Handle> i = handles.values().iterator();
+				while (handles.size() > maxHandles && i.hasNext()) {
+					Handle eldest = i.next();
+					i.remove();
+					if (--eldest.references == 0) {
+						unused.add(eldest);
+					}
+				}
+			}
+		}
+		for (Handle stale : unused) {
+			closeQuietly(stale);
+		}
+		return handle;
+	}
+
+	void release(Handle handle) {
+		boolean close;
+		synchronized (this) {
+			close = --handle.references == 0;
+		}
+		if (close) {
+			closeQuietly(handle);
+		}
+	}
+
+	/** Drops the channel of a file that is about to be replaced or deleted. */
+	void invalidate(File file) {
+		Handle handle;
+		synchronized (this) {
+			handle = handles.remove(file.getPath());
+			if (handle == null || --handle.references > 0) {
+				return;
+			}
+		}
+		closeQuietly(handle);
+	}
+
+	/** Drops every channel, which close as their readers finish. */
+	void clear() {
+		List<Handle> unused = new ArrayList<>();
+		synchronized (this) {
+			for (Handle handle : handles.values()) {
+				if (--handle.references == 0) {
+					unused.add(handle);
+				}
+			}
+			handles.clear();
+		}
+		for (Handle handle : unused) {
+			closeQuietly(handle);
+		}
+	}
+
+	synchronized int size() {
+		return handles.size();
+	}
+
+	synchronized long hits() {
+		return hits;
+	}
+
+	synchronized long misses() {
+		return misses;
+	}
+
+	private static void closeQuietly(Handle handle) {
+		try {
+			handle.channel.close();
+		} catch (IOException ignored) {
+		}
+	}
+
+	/** Reads one handle from the start with positional reads. */
+	private final class HandleInputStream extends InputStream {
+		private final Handle handle;
+		private long position;
+		private boolean closed;
+
+		private HandleInputStream(Handle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (closed) {
+				throw new IOException("stream closed");
+			}
+			if (len == 0) {
+				return 0;
+			}
+			if (position >= handle.size) {
+				return -1;
+			}
+			int n;
+			try {
+				n = handle.channel.read(ByteBuffer.wrap(b, off, len), position);
+			} catch (ClosedChannelException e) {
+				// an interrupted reader closes the channel for everyone, so stop sharing it
+				synchronized (FileHandleCache.this) {
+					if (handles.get(handle.path) == handle) {
+						handles.remove(handle.path);
+						handle.references--;
+					}
+				}
+				throw e;
+			}
+			if (n > 0) {
+				position += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			long skipped = Math.max(0, Math.min(n, handle.size - position));
+			position += skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Math.max(0, handle.size - position), Integer.MAX_VALUE);
+		}
+
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				release(handle);
+			}
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.FileDescriptor;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+/**
+ * I/O hints for the kernel through libc, bound with JNA: {@code posix_fadvise}
+ * to tell the page cache what will and will not be read, and {@code fallocate}
+ * to reserve a file's blocks up front so it is laid out contiguously.
+ *
+ * <p>
+ * Only 64-bit Linux is supported, where {@code off_t} is a {@code long}, and
+ * file descriptors are read from {@link FileDescriptor} by reflection, which
+ * JDK 16 and later refuse unless started with
+ * {@code --add-opens java.base/java.io=ALL-UNNAMED}. Everywhere else every call
+ * is a no-op returning false, and as hints, failed calls are only counted.
+ */
+public final class NativeIo {
+	public enum Advice {
+		SEQUENTIAL(2), WILLNEED(3), DONTNEED(4);
+
+		private final int value;
+
+		Advice(int value) {
+			this.value = value;
+		}
+	}
+
+	/** Allocates blocks without changing the file size, so readers see no zeros. */
+	private static final int FALLOC_FL_KEEP_SIZE = 1;
+	/** Waits for writeback already under way, writes back the rest and waits for it. */
+	private static final int SYNC_FILE_RANGE_WAIT_ALL = 1 | 2 | 4;
+
+	private static final Field FD_FIELD;
+	private static final boolean AVAILABLE;
+	private static final String UNAVAILABLE_REASON;
+	private static volatile boolean enabled = true;
+
+	private static final AtomicLong failures = new AtomicLong();
+
+	static {
+		Field field = null;
+		String reason = null;
+		if (!Platform.isLinux() || !Platform.is64Bit()) {
+			reason = "only 64-bit Linux is supported";
+		} else {
+			try {
+				field = FileDescriptor.class.getDeclaredField("fd");
+				// InaccessibleObjectException from JDK 16 on, a RuntimeException
+				field.setAccessible(true);
+				field.getInt(FileDescriptor.in);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				field = null;
+				reason = "file descriptors are inaccessible, start the JVM with --add-opens java.base/java.io=ALL-UNNAMED";
+			}
+			if (field != null) {
+				try {
+					Native.register(LibC.class, Platform.C_LIBRARY_NAME);
+				} catch (RuntimeException | LinkageError e) {
+					field = null;
+					reason = "libc could not be bound: " + e.getMessage();
+				}
+			}
+		}
+		FD_FIELD = field;
+		AVAILABLE = field != null;
+		UNAVAILABLE_REASON = reason;
+	}
+
+	private static final class LibC {
+		static native int posix_fadvise(int fd, long offset, long length, int advice);
+
+		static native int fallocate(int fd, int mode, long offset, long length) throws LastErrorException;
+
+		static native int sync_file_range(int fd, long offset, long length, int flags) throws LastErrorException;
+	}
+
+	private NativeIo() {
+	}
+
+	/** Returns whether hints reach the kernel on this platform. */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	/** Returns why hints do not reach the kernel, or null if they do. */
+	public static String getUnavailableReason() {
+		return UNAVAILABLE_REASON;
+	}
+
+	/** Turns all hints into no-ops, or back on where available. */
+	public static void setEnabled(boolean enabled) {
+		NativeIo.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return AVAILABLE && enabled;
+	}
+
+	/** Returns the number of hints the kernel rejected. */
+	public static long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Advises the kernel about {@code length} bytes from {@code offset}, where a
+	 * length of 0 means to the end of the file.
+	 */
+	public static boolean fadvise(FileDescriptor descriptor, long offset, long length, Advice advice) {
+		int fd = fd(descriptor);
+		if (fd < 0) {
+			return false;
+		}
+		// returns the error number instead of setting errno
+		if (LibC.posix_fadvise(fd, offset, length, advice.value) != 0) {
+			failures.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Reserves the first {@code length} bytes of the file, which is not resized.
+	 */
+	public static boolean preallocate(FileDescriptor descriptor, long length) {
+		int fd = fd(descriptor);
+		if (fd < 0 || length <= 0) {
+			return false;
+		}
+		try {
+			LibC.fallocate(fd, FALLOC_FL_KEEP_SIZE, 0, length);
+			return true;
+		} catch (LastErrorException e) {
+			// EOPNOTSUPP on file systems without extents, and ENOSPC
+			failures.incrementAndGet();
+			return false;
+		}
+	}
+
+	/**
+	 * Writes back the file's dirty pages and drops all of its pages from the page
+	 * cache. This waits for the writeback, as the kernel only drops clean pages.
+	 */
+	public static boolean dropPages(FileDescriptor descriptor) {
+		int fd = fd(descriptor);
+		if (fd < 0) {
+			return false;
+		}
+		try {
+			LibC.sync_file_range(fd, 0, 0, SYNC_FILE_RANGE_WAIT_ALL);
+		} catch (LastErrorException e) {
+			failures.incrementAndGet();
+			return false;
+		}
+		return fadvise(descriptor, 0, 0, Advice.DONTNEED);
+	}
+
+	private static int fd(FileDescriptor descriptor) {
+		if (!isEnabled() || !descriptor.valid()) {
+			return -1;
+		}
+		try {
+			return FD_FIELD.getInt(descriptor);
+		} catch (IllegalAccessException e) {
+			return -1;
+		}
+	}
+}
@@ -26,6 +26,7 @@ import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException
 import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
 import com.fasterxml.jackson.module.kotlin.readValue
+import java.io.File
 import java.io.FileReader
 import java.io.FileWriter
 import java.io.IOException
@@ -112,6 +113,32 @@ object Main {
         if (settings.maxCacheSizeInMebibytes < 1024) {
             dieWithError("Config Error: Invalid max cache size, must be >= 1024 MiB (1GiB)")
         }
+        if (settings.cacheLowWatermark <= 0 || settings.cacheLowWatermark > 1) {
+            dieWithError("Config Error: Cache low watermark must be > 0 and <= 1")
+        }
+        if (settings.maxOpenCacheFiles < 0) {
+            dieWithError("Config Error: Max open cache files must be >= 0")
+        }
+        if (settings.cacheVolumes.any { it.path.isBlank() || it.weight <= 0 || it.maxConcurrentWrites < 0 }) {
+            dieWithError("Config Error: Cache volumes need a path, a weight > 0 and max concurrent writes >= 0")
+        }
+        if (settings.cacheVolumes.map { File(it.path).absoluteFile.normalize() }.distinct().size != settings.cacheVolumes.size) {
+            dieWithError("Config Error: Cache volume paths must be distinct")
+        }
+        if (settings.cacheVolumes.any { it.tier != "fast" && it.tier != "slow" }) {
+            dieWithError("Config Error: Cache volume tier must be \"fast\" or \"slow\"")
+        }
+        if (settings.cacheTierSettings != null) {
+            if (settings.cacheVolumes.none { it.tier == "fast" } || settings.cacheVolumes.none { it.tier == "slow" }) {
+                dieWithError("Config Error: Cache tiers need both fast and slow cache volumes")
+            }
+            if (settings.cacheTierSettings.fastTierMaxSizeInMebibytes < 1 || settings.cacheTierSettings.fastTierMaxSizeInMebibytes >= settings.maxCacheSizeInMebibytes) {
+                dieWithError("Config Error: Fast tier size must be >= 1 MiB and less than the max cache size")
+            }
+            if (settings.cacheTierSettings.promoteAfterHits < 1) {
+                dieWithError("Config Error: Cache tier promote after hits must be >= 1")
+            }
+        }
         if (settings.threads < 4) {
             dieWithError("Config Error: Invalid number of threads, must be >= 4")
         }
@@ -129,6 +156,66 @@ object Main {
                 dieWithError("Config Error: Invalid UI port number")
             }
         }
+        if (settings.accessLogSettings != null) {
+            if (settings.accessLogSettings.format != "binary" && settings.accessLogSettings.format != "tsv") {
+                dieWithError("Config Error: Access log format must be \"binary\" or \"tsv\"")
+            }
+            if (settings.accessLogSettings.sampleRate <= 0 || settings.accessLogSettings.sampleRate > 1) {
+                dieWithError("Config Error: Access log sample rate must be > 0 and <= 1")
+            }
+            if (settings.accessLogSettings.bufferSize < 1024) {
+                dieWithError("Config Error: Access log buffer size must be >= 1024")
+            }
+        }
+        if (settings.shadowCacheSettings != null) {
+            if (settings.shadowCacheSettings.sampleRate <= 0 || settings.shadowCacheSettings.sampleRate > 1) {
+                dieWithError("Config Error: Shadow cache sample rate must be > 0 and <= 1")
+            }
+            if (settings.shadowCacheSettings.sizeFactors.isEmpty() || settings.shadowCacheSettings.sizeFactors.any { it <= 0 }) {
+                dieWithError("Config Error: Shadow cache size factors must be a non-empty list of positive numbers")
+            }
+        }
+        if (settings.cacheFillSettings.threads < 1 || settings.cacheFillSettings.maxQueuedFills < 1 || settings.cacheFillSettings.maxDownloads < 1) {
+            dieWithError("Config Error: Cache fill threads, queue size and downloads must be >= 1")
+        }
+        if (settings.cacheFillSettings.deadlineSeconds < 1) {
+            dieWithError("Config Error: Cache fill deadline must be >= 1 second")
+        }
+        if (settings.cacheFillSettings.downloadTimeoutSeconds < 1) {
+            dieWithError("Config Error: Cache download timeout must be >= 1 second")
+        }
+        if (settings.cacheFillSettings.dropPolicy != "oldest" && settings.cacheFillSettings.dropPolicy != "newest") {
+            dieWithError("Config Error: Cache fill drop policy must be \"oldest\" or \"newest\"")
+        }
+        if (settings.cacheJournalSettings != null && settings.cacheJournalSettings.groupCommitMicros < 0) {
+            dieWithError("Config Error: Cache journal group commit delay must be >= 0")
+        }
+        if (settings.upstreamSettings != null) {
+            if (settings.upstreamSettings.mirrors.any { !it.startsWith("http://") && !it.startsWith("https://") }) {
+                dieWithError("Config Error: Upstream mirrors must be http or https URLs")
+            }
+            if (settings.upstreamSettings.maxHedgedRequests < 1) {
+                dieWithError("Config Error: Max hedged requests must be >= 1")
+            }
+            if (settings.upstreamSettings.hedgePercentile <= 0 || settings.upstreamSettings.hedgePercentile >= 100) {
+                dieWithError("Config Error: Hedge percentile must be > 0 and < 100")
+            }
+            if (settings.upstreamSettings.minHedgeDelayMillis < 0 || settings.upstreamSettings.maxHedgeDelayMillis < settings.upstreamSettings.minHedgeDelayMillis) {
+                dieWithError("Config Error: Hedge delays must satisfy 0 <= min_hedge_delay_millis <= max_hedge_delay_millis")
+            }
+            val breaker = settings.upstreamSettings.circuitBreaker
+            if (breaker != null) {
+                if (breaker.windowSeconds < 1 || breaker.minimumRequests < 1 || breaker.halfOpenProbes < 1) {
+                    dieWithError("Config Error: Circuit breaker window, minimum requests and probes must be >= 1")
+                }
+                if (breaker.failureRateThreshold <= 0 || breaker.failureRateThreshold > 1 || breaker.slowCallRateThreshold <= 0 || breaker.slowCallRateThreshold > 1) {
+                    dieWithError("Config Error: Circuit breaker rate thresholds must be > 0 and <= 1")
+                }
+                if (breaker.openMillis < 1 || breaker.maxOpenMillis < breaker.openMillis) {
+                    dieWithError("Config Error: Circuit breaker open times must satisfy 1 <= open_millis <= max_open_millis")
+                }
+            }
+        }
     }
 
     private const val CLIENT_KEY_LENGTH = 52
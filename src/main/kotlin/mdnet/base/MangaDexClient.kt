@@ -26,20 +26,27 @@ import com.fasterxml.jackson.module.kotlin.readValue
 import java.io.File
 import java.io.IOException
 import java.time.Instant
-import java.util.*
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicReference
 import mdnet.base.Main.dieWithError
+import mdnet.base.accesslog.AccessLog
 import mdnet.base.data.Statistics
+import mdnet.base.data.StatisticsHistory
+import mdnet.base.metrics.ConnectionMetrics
+import mdnet.base.metrics.OpenMetricsExporter
+import mdnet.base.metrics.RequestMetrics
 import mdnet.base.server.getServer
 import mdnet.base.server.getUiServer
 import mdnet.base.settings.ClientSettings
 import mdnet.base.settings.ServerSettings
+import mdnet.base.sim.ShadowCache
+import mdnet.cache.CacheVolume
 import mdnet.cache.DiskLruCache
 import mdnet.cache.HeaderMismatchException
+import mdnet.cache.NativeIo
 import org.http4k.server.Http4kServer
 import org.slf4j.LoggerFactory
 
@@ -60,28 +67,81 @@ class MangaDexClient(private val clientSettings: ClientSettings) {
     private var state: State = Uninitialized
 
     private val serverHandler: ServerHandler = ServerHandler(clientSettings)
-    private val statsMap: MutableMap<Instant, Statistics> = Collections
-        .synchronizedMap(object : LinkedHashMap<Instant, Statistics>(240) {
-            override fun removeEldestEntry(eldest: Map.Entry<Instant, Statistics>): Boolean {
-                return this.size > 240
-            }
-        })
+    private val statsHistory = StatisticsHistory(File("cache/statistics_history"))
     private val statistics: AtomicReference<Statistics> = AtomicReference(
         Statistics()
     )
+    private val requestMetrics = RequestMetrics()
+    private val connectionMetrics = ConnectionMetrics()
+    private val accessLog = clientSettings.accessLogSettings?.let { AccessLog(it) }
+    private val shadowCache = clientSettings.shadowCacheSettings?.let {
+        ShadowCache(clientSettings.maxCacheSizeInMebibytes * 1024 * 1024 /* MiB to bytes */, it.sizeFactors, it.sampleRate)
+    }
+    private val metricsExporter: OpenMetricsExporter
     private val isHandled: AtomicBoolean = AtomicBoolean(false)
     private var webUi: Http4kServer? = null
     private val cache: DiskLruCache
 
     init {
         try {
+            val journalSettings = clientSettings.cacheJournalSettings
+            val volumes = if (clientSettings.cacheVolumes.isEmpty()) {
+                listOf(CacheVolume(File("cache")))
+            } else {
+                clientSettings.cacheVolumes.map {
+                    val tier = if (it.tier == "fast") CacheVolume.Tier.FAST else CacheVolume.Tier.SLOW
+                    CacheVolume(File(it.path), it.weight, it.maxConcurrentWrites, tier)
+                }
+            }
             cache = DiskLruCache.open(
-                File("cache"), 1, 1,
-                clientSettings.maxCacheSizeInMebibytes * 1024 * 1024 /* MiB to bytes */
+                volumes, 1, 1,
+                clientSettings.maxCacheSizeInMebibytes * 1024 * 1024 /* MiB to bytes */,
+                journalSettings?.groupCommitMicros ?: -1, journalSettings?.fsync ?: false
             )
+            cache.lowWatermark = clientSettings.cacheLowWatermark
+            cache.setOpenFileCacheSize(clientSettings.maxOpenCacheFiles)
+            if (clientSettings.nativeIoSettings == null) {
+                NativeIo.setEnabled(false)
+            } else {
+                cache.dropWrittenPages = clientSettings.nativeIoSettings.dropWrittenPages
+                if (!NativeIo.isAvailable()) {
+                    LOGGER.warn { "Page cache hints and preallocation are unavailable: ${NativeIo.getUnavailableReason()}" }
+                }
+            }
+            clientSettings.cacheTierSettings?.let {
+                cache.fastTierMaxSize = it.fastTierMaxSizeInMebibytes * 1024 * 1024 /* MiB to bytes */
+                cache.setPromoteAfterHits(it.promoteAfterHits)
+            }
             cache.get("statistics")?.use {
                 statistics.set(JACKSON.readValue<Statistics>(it.getInputStream(0)))
             }
+            try {
+                if (!statsHistory.load()) {
+                    LOGGER.info { "No usable statistics history found, starting a new one" }
+                }
+            } catch (e: IOException) {
+                LOGGER.warn(e) { "Statistics history may be corrupt - starting a new one" }
+            }
+            metricsExporter = OpenMetricsExporter(statistics, requestMetrics, connectionMetrics, cache)
+            if (accessLog != null) {
+                metricsExporter.register("access_log") {
+                    it.counter("mdah_access_log_records", "Access log records written.", accessLog.written.get())
+                    it.counter("mdah_access_log_dropped", "Access log records dropped because the buffer was full.", accessLog.dropped.get())
+                }
+            }
+            if (shadowCache != null) {
+                metricsExporter.register("shadow_cache") {
+                    val estimates = shadowCache.estimates()
+                    it.family("mdah_shadow_cache_hit_ratio", "gauge", "Estimated hit ratio at multiples of the configured cache size.")
+                    for (estimate in estimates.sizes) {
+                        it.sample("mdah_shadow_cache_hit_ratio", "", "factor=\"${estimate.factor}\"", estimate.hitRatio)
+                    }
+                    it.family("mdah_shadow_cache_byte_hit_ratio", "gauge", "Estimated byte hit ratio at multiples of the configured cache size.")
+                    for (estimate in estimates.sizes) {
+                        it.sample("mdah_shadow_cache_byte_hit_ratio", "", "factor=\"${estimate.factor}\"", estimate.byteHitRatio)
+                    }
+                }
+            }
         } catch (e: HeaderMismatchException) {
             LOGGER.warn { "Cache version may be outdated - remove if necessary" }
             dieWithError(e)
@@ -93,21 +153,26 @@ class MangaDexClient(private val clientSettings: ClientSettings) {
 
     fun runLoop() {
         loginAndStartServer()
-        statsMap[Instant.now()] = statistics.get()
+        statsHistory.record(Instant.now(), statistics.get())
 
         if (clientSettings.webSettings != null) {
-            webUi = getUiServer(clientSettings.webSettings, statistics, statsMap)
+            webUi = getUiServer(clientSettings.webSettings, statistics, statsHistory, requestMetrics, shadowCache, metricsExporter)
             webUi!!.start()
         }
         LOGGER.info { "Mangadex@Home Client initialized. Starting normal operation." }
 
+        var statisticsTicks = 0
         executorService.scheduleAtFixedRate({
             try {
                 if (state is Running || state is GracefulShutdown || state is Uninitialized) {
                     statistics.updateAndGet {
                         it.copy(bytesOnDisk = cache.size())
                     }
-                    statsMap[Instant.now()] = statistics.get()
+                    statsHistory.record(Instant.now(), statistics.get())
+                    if (++statisticsTicks % 4 == 0) {
+                        statsHistory.save()
+                    }
+                    requestMetrics.rollInterval()
                     val editor = cache.edit("statistics")
                     if (editor != null) {
                         JACKSON.writeValue(editor.newOutputStream(0), statistics.get())
@@ -227,7 +292,7 @@ class MangaDexClient(private val clientSettings: ClientSettings) {
 
         val serverSettings = serverHandler.loginToControl()
             ?: dieWithError("Failed to get a login response from server - check API secret for validity")
-        val server = getServer(cache, serverSettings, clientSettings, statistics, isHandled).start()
+        val server = getServer(cache, serverSettings, clientSettings, statistics, requestMetrics, connectionMetrics, accessLog, shadowCache, metricsExporter, isHandled).start()
 
         if (serverSettings.latestBuild > Constants.CLIENT_BUILD) {
             LOGGER.warn {
@@ -284,6 +349,12 @@ class MangaDexClient(private val clientSettings: ClientSettings) {
         latch.await()
 
         webUi?.close()
+        accessLog?.close()
+        try {
+            statsHistory.save()
+        } catch (e: IOException) {
+            LOGGER.error(e) { "Statistics history failed to save" }
+        }
         try {
             cache.close()
         } catch (e: IOException) {
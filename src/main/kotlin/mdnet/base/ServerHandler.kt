@@ -106,7 +106,7 @@ class ServerHandler(private val settings: ClientSettings) {
         return if (settings.devSettings?.isDev != true)
             SERVER_ADDRESS
         else
-            SERVER_ADDRESS_DEV
+            settings.devSettings?.devUrl ?: SERVER_ADDRESS_DEV
     }
 
     companion object {
@@ -0,0 +1,235 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.accesslog
+
+import java.io.Closeable
+import java.io.File
+import java.net.InetAddress
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.locks.LockSupport
+import mdnet.base.metrics.RequestOutcome
+import mdnet.base.settings.AccessLogSettings
+import mdnet.base.warn
+import org.slf4j.LoggerFactory
+
+/**
+ * An asynchronous access log. Request threads claim a slot in a lock-free
+ * ring buffer of fixed-size records, and a single background thread drains
+ * the ring in batches to a binary or TSV file. When the ring is full records
+ * are dropped rather than blocking requests.
+ *
+ * Every record is eight longs:
+ * 0. timestamp in epoch milliseconds
+ * 1. time to first byte in nanoseconds
+ * 2. response length in bytes, or -1 if unknown
+ * 3. status << 16 | outcome << 8 | flags
+ * 4. and 5. the 16 byte image id, or zeroes for non-image requests
+ * 6. and 7. the client address as an IPv4-mapped IPv6 address
+ */
+class AccessLog(private val settings: AccessLogSettings) : Closeable {
+    private val capacity = ringCapacity(settings.bufferSize)
+    private val mask = capacity - 1L
+    private val slots = LongArray(capacity * LONGS_PER_RECORD)
+    private val published = AtomicLongArray(capacity)
+    private val producerSequence = AtomicLong()
+    private val consumerSequence = AtomicLong()
+
+    val dropped = AtomicLong()
+    val written = AtomicLong()
+
+    private val sink = AccessLogSink.open(File(settings.path), settings.format)
+
+    @Volatile
+    private var running = true
+    private val writer = Thread(::drainLoop, "access-log-writer")
+
+    init {
+        for (i in 0 until capacity) {
+            published.set(i, -1)
+        }
+        writer.isDaemon = true
+        writer.start()
+    }
+
+    /**
+     * Decides whether the current request is logged, so that callers can skip
+     * gathering record fields for requests that are not sampled.
+     */
+    fun shouldSample(): Boolean =
+        settings.sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < settings.sampleRate
+
+    fun log(
+        timestampMillis: Long,
+        ttfbNanos: Long,
+        bytes: Long,
+        status: Int,
+        outcome: RequestOutcome,
+        flags: Int,
+        imageId: ByteArray?,
+        address: String?
+    ) {
+        var sequence: Long
+        do {
+            sequence = producerSequence.get()
+            if (sequence - consumerSequence.get() >= capacity) {
+                dropped.incrementAndGet()
+                return
+            }
+        } while (!producerSequence.compareAndSet(sequence, sequence + 1))
+
+        val index = (sequence and mask).toInt()
+        val base = index * LONGS_PER_RECORD
+        slots[base] = timestampMillis
+        slots[base + 1] = ttfbNanos
+        slots[base + 2] = bytes
+        slots[base + 3] = (status.toLong() shl 16) or (outcome.ordinal.toLong() shl 8) or (flags.toLong() and 0xff)
+        slots[base + 4] = if (imageId != null) imageId.longAt(0) else 0
+        slots[base + 5] = if (imageId != null) imageId.longAt(8) else 0
+        writeAddress(address, base + 6)
+
+        published.lazySet(index, sequence)
+    }
+
+    override fun close() {
+        running = false
+        LockSupport.unpark(writer)
+        writer.join()
+    }
+
+    private fun drainLoop() {
+        val batch = LongArray(BATCH_RECORDS * LONGS_PER_RECORD)
+        try {
+            while (running) {
+                if (drain(batch) == 0) {
+                    sink.flush()
+                    LockSupport.parkNanos(IDLE_PARK_NANOS)
+                }
+            }
+            while (drain(batch) != 0) {
+                // write out whatever was logged before closing
+            }
+        } catch (e: Exception) {
+            LOGGER.warn(e) { "Access log writer failed, further records will be dropped" }
+            running = false
+        } finally {
+            try {
+                sink.close()
+            } catch (e: Exception) {
+                LOGGER.warn(e) { "Access log failed to close" }
+            }
+        }
+    }
+
+    private fun drain(batch: LongArray): Int {
+        var sequence = consumerSequence.get()
+        var count = 0
+        while (count < BATCH_RECORDS) {
+            val index = (sequence and mask).toInt()
+            if (published.get(index) != sequence) {
+                break
+            }
+            System.arraycopy(slots, index * LONGS_PER_RECORD, batch, count * LONGS_PER_RECORD, LONGS_PER_RECORD)
+            sequence++
+            count++
+        }
+        if (count > 0) {
+            consumerSequence.lazySet(sequence)
+            sink.write(batch, count)
+            written.addAndGet(count.toLong())
+        }
+        return count
+    }
+
+    private fun writeAddress(address: String?, offset: Int) {
+        var high = 0L
+        var low = 0L
+        if (address != null) {
+            val ipv4 = parseIpv4(address)
+            if (ipv4 >= 0) {
+                low = 0xffff00000000L or ipv4
+            } else {
+                try {
+                    val bytes = InetAddress.getByName(address).address
+                    if (bytes.size == 16) {
+                        high = bytes.longAt(0)
+                        low = bytes.longAt(8)
+                    }
+                } catch (_: Exception) {
+                    // leave unparseable addresses blank
+                }
+            }
+        }
+        slots[offset] = high
+        slots[offset + 1] = low
+    }
+
+    companion object {
+        private val LOGGER = LoggerFactory.getLogger(AccessLog::class.java)
+
+        const val LONGS_PER_RECORD = 8
+        const val FLAG_DATA_SAVER = 1
+        const val FLAG_TOKENIZED = 2
+
+        private const val BATCH_RECORDS = 512
+        private const val IDLE_PARK_NANOS = 50_000_000L
+
+        private fun ringCapacity(requested: Int): Int {
+            var capacity = 1024
+            while (capacity < requested) {
+                capacity = capacity shl 1
+            }
+            return capacity
+        }
+
+        /**
+         * Parses a dotted IPv4 address without allocating, or returns -1 if the
+         * address is not one.
+         */
+        private fun parseIpv4(address: String): Long {
+            var result = 0L
+            var octet = -1
+            var octets = 0
+            for (c in address) {
+                if (c == '.') {
+                    if (octet < 0) return -1
+                    result = (result shl 8) or octet.toLong()
+                    octet = -1
+                    octets++
+                } else if (c in '0'..'9') {
+                    octet = if (octet < 0) c - '0' else octet * 10 + (c - '0')
+                    if (octet > 255) return -1
+                } else {
+                    return -1
+                }
+            }
+            if (octet < 0 || octets != 3) return -1
+            return (result shl 8) or octet.toLong()
+        }
+    }
+}
+
+internal fun ByteArray.longAt(offset: Int): Long {
+    var result = 0L
+    for (i in offset until offset + 8) {
+        result = (result shl 8) or (this[i].toLong() and 0xff)
+    }
+    return result
+}
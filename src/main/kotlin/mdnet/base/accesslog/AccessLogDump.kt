@@ -0,0 +1,71 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.accesslog
+
+import java.io.BufferedInputStream
+import java.io.DataInputStream
+import java.io.EOFException
+import java.io.FileInputStream
+import kotlin.system.exitProcess
+
+/**
+ * Converts a binary access log to TSV on standard output.
+ *
+ * `java -cp mangadex_at_home.jar mdnet.base.accesslog.AccessLogDump log/access.log`
+ */
+object AccessLogDump {
+    @JvmStatic
+    fun main(args: Array<String>) {
+        if (args.size != 1) {
+            System.err.println("Usage: AccessLogDump <binary access log>")
+            exitProcess(1)
+        }
+
+        DataInputStream(BufferedInputStream(FileInputStream(args[0]), 64 * 1024)).use { input ->
+            if (input.readInt() != AccessLogFormat.MAGIC) {
+                System.err.println("${args[0]} is not a binary access log")
+                exitProcess(1)
+            }
+            val version = input.readInt()
+            if (version != AccessLogFormat.VERSION) {
+                System.err.println("Unsupported access log version $version")
+                exitProcess(1)
+            }
+
+            val out = System.out.bufferedWriter()
+            val record = LongArray(AccessLog.LONGS_PER_RECORD)
+            val line = StringBuilder(256)
+            out.write(AccessLogFormat.TSV_HEADER)
+            out.newLine()
+            try {
+                while (true) {
+                    for (i in record.indices) {
+                        record[i] = input.readLong()
+                    }
+                    line.setLength(0)
+                    AccessLogFormat.appendTsv(line, record, 0)
+                    out.append(line).append('\n')
+                }
+            } catch (_: EOFException) {
+                // a record cut short by a crash is skipped
+            }
+            out.flush()
+        }
+    }
+}
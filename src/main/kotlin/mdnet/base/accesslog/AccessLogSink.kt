@@ -0,0 +1,183 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.accesslog
+
+import java.io.BufferedWriter
+import java.io.Closeable
+import java.io.File
+import java.io.FileOutputStream
+import java.io.OutputStreamWriter
+import java.net.InetAddress
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import mdnet.base.metrics.RequestOutcome
+
+/**
+ * Where the access log writer thread puts drained records.
+ */
+internal interface AccessLogSink : Closeable {
+    fun write(records: LongArray, count: Int)
+    fun flush()
+
+    companion object {
+        fun open(file: File, format: String): AccessLogSink {
+            file.absoluteFile.parentFile?.mkdirs()
+            return if (format == "tsv") TsvSink(file) else BinarySink(file)
+        }
+    }
+}
+
+/**
+ * Writes records verbatim as big-endian longs after a short header, which
+ * is only written when the file is new so that restarts keep appending.
+ */
+private class BinarySink(file: File) : AccessLogSink {
+    private val channel: FileChannel = FileOutputStream(file, true).channel
+    private val buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * AccessLog.LONGS_PER_RECORD * 8)
+
+    init {
+        if (channel.size() == 0L) {
+            buffer.putInt(AccessLogFormat.MAGIC).putInt(AccessLogFormat.VERSION)
+        }
+    }
+
+    override fun write(records: LongArray, count: Int) {
+        val longs = count * AccessLog.LONGS_PER_RECORD
+        for (i in 0 until longs) {
+            if (buffer.remaining() < 8) {
+                drainBuffer()
+            }
+            buffer.putLong(records[i])
+        }
+    }
+
+    override fun flush() {
+        drainBuffer()
+    }
+
+    override fun close() {
+        channel.use {
+            drainBuffer()
+        }
+    }
+
+    private fun drainBuffer() {
+        buffer.flip()
+        while (buffer.hasRemaining()) {
+            channel.write(buffer)
+        }
+        buffer.clear()
+    }
+
+    companion object {
+        private const val BUFFER_RECORDS = 1024
+    }
+}
+
+private class TsvSink(file: File) : AccessLogSink {
+    private val writer = BufferedWriter(OutputStreamWriter(FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024)
+    private val line = StringBuilder(256)
+
+    override fun write(records: LongArray, count: Int) {
+        for (i in 0 until count) {
+            line.setLength(0)
+            AccessLogFormat.appendTsv(line, records, i * AccessLog.LONGS_PER_RECORD)
+            writer.append(line).append('\n')
+        }
+    }
+
+    override fun flush() {
+        writer.flush()
+    }
+
+    override fun close() {
+        writer.close()
+    }
+}
+
+/**
+ * The on-disk layout of the binary access log, and its rendering as text.
+ */
+object AccessLogFormat {
+    const val MAGIC = 0x4d44414c // "MDAL"
+    const val VERSION = 1
+
+    const val TSV_HEADER = "timestamp\tclient\tstatus\toutcome\tttfb_ms\tbytes\tdata_saver\ttokenized\timage_id"
+
+    private val HEX = "0123456789abcdef".toCharArray()
+    private val OUTCOMES = RequestOutcome.values()
+
+    fun appendTsv(builder: StringBuilder, record: LongArray, offset: Int) {
+        val packed = record[offset + 3]
+        val status = (packed ushr 16).toInt()
+        val outcome = ((packed ushr 8) and 0xff).toInt()
+        val flags = (packed and 0xff).toInt()
+
+        builder.append(Instant.ofEpochMilli(record[offset])).append('\t')
+        appendAddress(builder, record[offset + 6], record[offset + 7])
+        builder.append('\t').append(status)
+        builder.append('\t').append(OUTCOMES.getOrNull(outcome)?.name ?: "?")
+        builder.append('\t').append(record[offset + 1] / 1_000_000).append('.')
+        appendPadded(builder, record[offset + 1] / 1_000 % 1_000)
+        builder.append('\t').append(record[offset + 2])
+        builder.append('\t').append(if ((flags and AccessLog.FLAG_DATA_SAVER) != 0) 1 else 0)
+        builder.append('\t').append(if ((flags and AccessLog.FLAG_TOKENIZED) != 0) 1 else 0)
+        builder.append('\t')
+        if (record[offset + 4] == 0L && record[offset + 5] == 0L) {
+            builder.append('-')
+        } else {
+            appendHex(builder, record[offset + 4])
+            appendHex(builder, record[offset + 5])
+        }
+    }
+
+    private fun appendAddress(builder: StringBuilder, high: Long, low: Long) {
+        when {
+            high == 0L && low == 0L -> builder.append('-')
+            high == 0L && (low ushr 32) == 0xffffL -> {
+                builder.append((low ushr 24) and 0xff).append('.')
+                    .append((low ushr 16) and 0xff).append('.')
+                    .append((low ushr 8) and 0xff).append('.')
+                    .append(low and 0xff)
+            }
+            else -> {
+                val bytes = ByteArray(16)
+                for (i in 0 until 8) {
+                    bytes[i] = (high ushr (56 - 8 * i)).toByte()
+                    bytes[i + 8] = (low ushr (56 - 8 * i)).toByte()
+                }
+                builder.append(InetAddress.getByAddress(bytes).hostAddress)
+            }
+        }
+    }
+
+    private fun appendPadded(builder: StringBuilder, value: Long) {
+        if (value < 100) builder.append('0')
+        if (value < 10) builder.append('0')
+        builder.append(value)
+    }
+
+    private fun appendHex(builder: StringBuilder, value: Long) {
+        for (shift in 60 downTo 0 step 4) {
+            builder.append(HEX[((value ushr shift) and 0xf).toInt()])
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.data
+
+import java.io.BufferedInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.time.Instant
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+/**
+ * A round-robin store of [Statistics] snapshots at several resolutions: 15
+ * seconds for a day, 1 minute for a week and 1 hour for a year. Every archive
+ * is a set of primitive ring buffers, and since all counters are cumulative a
+ * coarser slot simply keeps the last snapshot that fell into it.
+ */
+class StatisticsHistory(private val file: File) {
+    private val archives = ARCHIVE_LAYOUT.map { (resolution, capacity) -> Archive(resolution, capacity) }
+    private val listeners = CopyOnWriteArrayList<(Instant, Statistics) -> Unit>()
+
+    @Volatile
+    var lastRecorded: Instant? = null
+        private set
+
+    /**
+     * Registers a callback for every snapshot recorded from now on. Callbacks
+     * run on the recording thread and must not block.
+     */
+    fun addListener(listener: (Instant, Statistics) -> Unit) {
+        listeners.add(listener)
+    }
+
+    fun record(instant: Instant, statistics: Statistics) {
+        val timestamp = instant.toEpochMilli()
+        synchronized(this) {
+            for (archive in archives) {
+                archive.record(timestamp, statistics)
+            }
+            lastRecorded = instant
+        }
+        for (listener in listeners) {
+            listener(instant, statistics)
+        }
+    }
+
+    /**
+     * Returns the snapshots between [from] and [to] inclusive, oldest first,
+     * from the finest archive that still covers [from].
+     */
+    fun query(from: Instant, to: Instant): Map<Instant, Statistics> {
+        val fromMillis = from.toEpochMilli()
+        val toMillis = to.toEpochMilli()
+
+        val points = synchronized(this) {
+            val archive = archives.firstOrNull { it.covers(fromMillis) } ?: archives.last()
+            archive.copyRange(fromMillis, toMillis)
+        }
+
+        val result = LinkedHashMap<Instant, Statistics>(points.size * 4 / 3 + 1)
+        for (i in 0 until points.size) {
+            result[Instant.ofEpochMilli(points.timestamps[i])] = points.statisticsAt(i)
+        }
+        return result
+    }
+
+    /**
+     * Atomically replaces the history file with the current contents.
+     */
+    fun save() {
+        val temp = File(file.path + ".tmp")
+        val output = synchronized(this) {
+            // only encoding happens under the lock, the disk write does not
+            val buffer = ByteArrayOutputStream()
+            DataOutputStream(GZIPOutputStream(buffer)).use { out ->
+                out.writeInt(MAGIC)
+                out.writeInt(archives.size)
+                for (archive in archives) {
+                    archive.write(out)
+                }
+            }
+            buffer
+        }
+
+        FileOutputStream(temp).use {
+            output.writeTo(it)
+            it.fd.sync()
+        }
+        if (!temp.renameTo(file)) {
+            file.delete()
+            if (!temp.renameTo(file)) {
+                throw IOException("Could not replace $file")
+            }
+        }
+    }
+
+    /**
+     * Loads the history file if present. Returns false if it was missing or
+     * written with a different archive layout.
+     */
+    @Synchronized
+    fun load(): Boolean {
+        if (!file.exists()) {
+            return false
+        }
+        DataInputStream(GZIPInputStream(BufferedInputStream(FileInputStream(file)))).use { input ->
+            if (input.readInt() != MAGIC || input.readInt() != archives.size) {
+                return false
+            }
+            for (archive in archives) {
+                if (!archive.read(input)) {
+                    archives.forEach { it.clear() }
+                    return false
+                }
+            }
+        }
+        lastRecorded = archives[0].newest()?.let { Instant.ofEpochMilli(it) }
+        return true
+    }
+
+    private class Points(val size: Int) {
+        val timestamps = LongArray(size)
+        val values = Array(FIELD_COUNT) { LongArray(size) }
+
+        fun statisticsAt(i: Int) = Statistics(
+            requestsServed = values[0][i].toInt(),
+            cacheHits = values[1][i].toInt(),
+            cacheMisses = values[2][i].toInt(),
+            browserCached = values[3][i].toInt(),
+            bytesSent = values[4][i],
+            bytesOnDisk = values[5][i]
+        )
+    }
+
+    private class Archive(val resolution: Long, val capacity: Int) {
+        private val timestamps = LongArray(capacity)
+        private val values = Array(FIELD_COUNT) { LongArray(capacity) }
+
+        // index of the newest point, and the number of points stored
+        private var head = -1
+        private var size = 0
+
+        fun record(timestamp: Long, statistics: Statistics) {
+            val slot = timestamp / resolution
+            if (size == 0 || timestamps[head] / resolution != slot) {
+                head = (head + 1) % capacity
+                if (size < capacity) {
+                    size++
+                }
+            }
+            timestamps[head] = timestamp
+            values[0][head] = statistics.requestsServed.toLong()
+            values[1][head] = statistics.cacheHits.toLong()
+            values[2][head] = statistics.cacheMisses.toLong()
+            values[3][head] = statistics.browserCached.toLong()
+            values[4][head] = statistics.bytesSent
+            values[5][head] = statistics.bytesOnDisk
+        }
+
+        fun newest(): Long? = if (size == 0) null else timestamps[head]
+
+        fun covers(timestamp: Long): Boolean =
+            size < capacity || timestamps[oldest()] <= timestamp
+
+        fun copyRange(from: Long, to: Long): Points {
+            var count = 0
+            forEachIndex { if (timestamps[it] in from..to) count++ }
+
+            val points = Points(count)
+            var i = 0
+            forEachIndex {
+                if (timestamps[it] in from..to) {
+                    points.timestamps[i] = timestamps[it]
+                    for (field in 0 until FIELD_COUNT) {
+                        points.values[field][i] = values[field][it]
+                    }
+                    i++
+                }
+            }
+            return points
+        }
+
+        fun clear() {
+            head = -1
+            size = 0
+        }
+
+        fun write(out: DataOutputStream) {
+            out.writeLong(resolution)
+            out.writeInt(capacity)
+            out.writeInt(size)
+
+            // deltas keep the file small, as consecutive snapshots barely differ
+            var previousTimestamp = 0L
+            val previous = LongArray(FIELD_COUNT)
+            forEachIndex {
+                out.writeLong(timestamps[it] - previousTimestamp)
+                previousTimestamp = timestamps[it]
+                for (field in 0 until FIELD_COUNT) {
+                    out.writeLong(values[field][it] - previous[field])
+                    previous[field] = values[field][it]
+                }
+            }
+        }
+
+        fun read(input: DataInputStream): Boolean {
+            if (input.readLong() != resolution || input.readInt() != capacity) {
+                return false
+            }
+            val stored = input.readInt()
+            if (stored < 0 || stored > capacity) {
+                return false
+            }
+
+            var timestamp = 0L
+            val current = LongArray(FIELD_COUNT)
+            for (i in 0 until stored) {
+                timestamp += input.readLong()
+                timestamps[i] = timestamp
+                for (field in 0 until FIELD_COUNT) {
+                    current[field] += input.readLong()
+                    values[field][i] = current[field]
+                }
+            }
+            size = stored
+            head = stored - 1
+            return true
+        }
+
+        private fun oldest(): Int = if (size < capacity) 0 else (head + 1) % capacity
+
+        private inline fun forEachIndex(action: (Int) -> Unit) {
+            val start = oldest()
+            for (i in 0 until size) {
+                action((start + i) % capacity)
+            }
+        }
+    }
+
+    companion object {
+        private const val MAGIC = 0x4d444832 // "MDH2"
+        private const val FIELD_COUNT = 6
+
+        private val ARCHIVE_LAYOUT = listOf(
+            15_000L to 24 * 60 * 4, // 15 seconds for a day
+            60_000L to 7 * 24 * 60, // 1 minute for a week
+            3_600_000L to 365 * 24 // 1 hour for a year
+        )
+    }
+}
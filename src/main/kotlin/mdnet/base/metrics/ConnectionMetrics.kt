@@ -0,0 +1,54 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.metrics
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Connection and TLS counters for the image server, updated from the Netty
+ * pipeline. These survive internal restarts of the HTTP server.
+ */
+class ConnectionMetrics {
+    val opened = AtomicLong()
+    val active = AtomicLong()
+    val tlsHandshakeFailures = AtomicLong()
+    val tlsHandshakes: MutableMap<String, AtomicLong> = ConcurrentHashMap()
+
+    fun connectionOpened() {
+        opened.incrementAndGet()
+        active.incrementAndGet()
+    }
+
+    fun connectionClosed() {
+        active.decrementAndGet()
+    }
+
+    fun handshakeSucceeded(protocol: String) {
+        var counter = tlsHandshakes[protocol]
+        if (counter == null) {
+            counter = tlsHandshakes.getOrPut(protocol) { AtomicLong() }
+        }
+        counter.incrementAndGet()
+    }
+
+    fun handshakeFailed() {
+        tlsHandshakeFailures.incrementAndGet()
+    }
+}
@@ -0,0 +1,175 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.metrics
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * A lock-free, log-linear histogram of nanosecond latencies in the style of
+ * HdrHistogram. Every power of two is split into 16 linear sub-buckets, which
+ * bounds the relative error of any reported value to roughly 6%.
+ *
+ * Recording never allocates or locks: it is an atomic increment of the bucket
+ * and an atomic add to the sum, plus a compare-and-set loop on the maximum
+ * that only spins while a new maximum races another.
+ */
+class LatencyHistogram {
+    private val counts = AtomicLongArray(BUCKET_COUNT)
+    private val sum = AtomicLong()
+    private val max = AtomicLong()
+
+    fun record(nanos: Long) {
+        val value = if (nanos < 0) 0L else nanos
+        counts.incrementAndGet(bucketOf(value))
+        sum.addAndGet(value)
+
+        var currentMax = max.get()
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get()
+        }
+    }
+
+    fun sum(): Long = sum.get()
+
+    /**
+     * Writes the number of recorded values at or below each of the ascending
+     * [boundsNanos] into [out] without copying the histogram, and returns the
+     * total number of recorded values.
+     */
+    fun cumulativeCounts(boundsNanos: LongArray, out: LongArray): Long {
+        var seen = 0L
+        var bound = 0
+        for (i in 0 until BUCKET_COUNT) {
+            val upper = highestEquivalentValue(i)
+            while (bound < boundsNanos.size && upper > boundsNanos[bound]) {
+                out[bound++] = seen
+            }
+            seen += counts.get(i)
+        }
+        while (bound < boundsNanos.size) {
+            out[bound++] = seen
+        }
+        return seen
+    }
+
+    /**
+     * Copies the current state of this histogram. Concurrent recordings may or
+     * may not be reflected in the copy, but the copy is internally consistent
+     * enough for percentile reporting.
+     */
+    fun snapshot(): Snapshot {
+        val copy = LongArray(BUCKET_COUNT)
+        var total = 0L
+        for (i in 0 until BUCKET_COUNT) {
+            copy[i] = counts.get(i)
+            total += copy[i]
+        }
+        return Snapshot(copy, total, sum.get(), max.get())
+    }
+
+    class Snapshot internal constructor(
+        private val counts: LongArray,
+        val count: Long,
+        val sum: Long,
+        val max: Long
+    ) {
+        val mean: Double
+            get() = if (count == 0L) 0.0 else sum.toDouble() / count
+
+        /**
+         * Returns the highest value equivalent to the bucket holding the given
+         * percentile, so reported percentiles never understate latency.
+         */
+        fun percentile(percentile: Double): Long {
+            if (count == 0L) {
+                return 0
+            }
+            val target = Math.max(1L, Math.ceil(percentile / 100.0 * count).toLong())
+            var seen = 0L
+            for (i in counts.indices) {
+                seen += counts[i]
+                if (seen >= target) {
+                    return Math.min(highestEquivalentValue(i), max)
+                }
+            }
+            return max
+        }
+
+        /**
+         * Returns the number of recorded values whose bucket lies entirely at
+         * or below [nanos].
+         */
+        fun countAtOrBelow(nanos: Long): Long {
+            var seen = 0L
+            for (i in counts.indices) {
+                if (highestEquivalentValue(i) > nanos) {
+                    break
+                }
+                seen += counts[i]
+            }
+            return seen
+        }
+
+        /**
+         * Returns the values recorded since [earlier] was taken. The maximum is
+         * not windowed and is carried over from this snapshot.
+         */
+        operator fun minus(earlier: Snapshot): Snapshot {
+            val diff = LongArray(counts.size)
+            for (i in counts.indices) {
+                diff[i] = counts[i] - earlier.counts[i]
+            }
+            return Snapshot(diff, count - earlier.count, sum - earlier.sum, max)
+        }
+    }
+
+    companion object {
+        private const val SUB_BUCKET_BITS = 5
+        private const val SUB_BUCKET_COUNT = 1 shl SUB_BUCKET_BITS
+        private const val SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2
+
+        // values of 2^44ns (roughly five hours) and above share the last bucket
+        private const val MAX_SHIFT = 44 - SUB_BUCKET_BITS
+        internal const val BUCKET_COUNT = SUB_BUCKET_COUNT + MAX_SHIFT * SUB_BUCKET_HALF_COUNT
+
+        private fun bucketOf(value: Long): Int {
+            if (value < SUB_BUCKET_COUNT) {
+                return value.toInt()
+            }
+            val msb = 63 - java.lang.Long.numberOfLeadingZeros(value)
+            val shift = msb - SUB_BUCKET_BITS + 1
+            if (shift > MAX_SHIFT) {
+                return BUCKET_COUNT - 1
+            }
+            val subBucket = (value ushr shift).toInt()
+            return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT)
+        }
+
+        internal fun highestEquivalentValue(bucket: Int): Long {
+            if (bucket < SUB_BUCKET_COUNT) {
+                return bucket.toLong()
+            }
+            val offset = bucket - SUB_BUCKET_COUNT
+            val shift = offset / SUB_BUCKET_HALF_COUNT + 1
+            val subBucket = (offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT).toLong()
+            return ((subBucket + 1) shl shift) - 1
+        }
+    }
+}
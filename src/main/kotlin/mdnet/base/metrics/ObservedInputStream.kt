@@ -0,0 +1,75 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.metrics
+
+import java.io.InputStream
+import org.apache.commons.io.input.ProxyInputStream
+import org.apache.http.conn.ConnectionReleaseTrigger
+
+/**
+ * Invokes [onFirstByte] the first time data is read and [onClose] the first
+ * time the stream is closed, so that latencies can be measured on streamed
+ * bodies. Aborting the stream aborts the connection of the stream it wraps,
+ * if it has one, instead of closing it, which would read the rest of the body.
+ */
+class ObservedInputStream(
+    input: InputStream,
+    private val onFirstByte: () -> Unit = {},
+    private val onClose: () -> Unit = {}
+) : ProxyInputStream(input), ConnectionReleaseTrigger {
+    private var seenFirstByte = false
+    private var closed = false
+
+    override fun afterRead(n: Int) {
+        if (n > 0 && !seenFirstByte) {
+            seenFirstByte = true
+            onFirstByte()
+        }
+    }
+
+    override fun close() {
+        try {
+            super.close()
+        } finally {
+            markClosed()
+        }
+    }
+
+    override fun releaseConnection() = close()
+
+    override fun abortConnection() {
+        try {
+            val input = `in`
+            if (input is ConnectionReleaseTrigger) {
+                input.abortConnection()
+            } else {
+                input.close()
+            }
+        } finally {
+            markClosed()
+        }
+    }
+
+    private fun markClosed() {
+        if (!closed) {
+            closed = true
+            onClose()
+        }
+    }
+}
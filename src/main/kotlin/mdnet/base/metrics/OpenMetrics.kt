@@ -0,0 +1,260 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.metrics
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
+import mdnet.base.data.Statistics
+import mdnet.cache.CacheVolume
+import mdnet.cache.DiskLruCache
+import mdnet.cache.NativeIo
+
+const val OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8"
+
+/**
+ * Appends metric families in the OpenMetrics text format. Writers are reused
+ * between scrapes, so rendering only allocates the final string.
+ */
+class OpenMetricsWriter {
+    private val builder = StringBuilder(INITIAL_CAPACITY)
+    private val bucketScratch = LongArray(BUCKET_BOUNDS_NANOS.size)
+
+    fun reset() {
+        builder.setLength(0)
+    }
+
+    fun family(name: String, type: String, help: String) {
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n')
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n')
+    }
+
+    fun sample(name: String, suffix: String, labels: String?, value: Long) {
+        appendName(name, suffix, labels)
+        builder.append(value).append('\n')
+    }
+
+    fun sample(name: String, suffix: String, labels: String?, value: Double) {
+        appendName(name, suffix, labels)
+        builder.append(value).append('\n')
+    }
+
+    fun counter(name: String, help: String, value: Long) {
+        family(name, "counter", help)
+        sample(name, "_total", null, value)
+    }
+
+    fun gauge(name: String, help: String, value: Long) {
+        family(name, "gauge", help)
+        sample(name, "", null, value)
+    }
+
+    /**
+     * Appends the samples of one labelled histogram series, reported in
+     * seconds. The family must have been declared with [family] beforehand.
+     */
+    fun histogram(name: String, labels: String?, histogram: LatencyHistogram) {
+        val count = histogram.cumulativeCounts(BUCKET_BOUNDS_NANOS, bucketScratch)
+        for (i in BUCKET_BOUNDS_NANOS.indices) {
+            appendBucket(name, labels, BUCKET_LABELS[i], bucketScratch[i])
+        }
+        appendBucket(name, labels, "+Inf", count)
+        sample(name, "_count", labels, count)
+        sample(name, "_sum", labels, histogram.sum() / 1_000_000_000.0)
+    }
+
+    fun eof() {
+        builder.append("# EOF\n")
+    }
+
+    override fun toString(): String = builder.toString()
+
+    private fun appendName(name: String, suffix: String, labels: String?) {
+        builder.append(name).append(suffix)
+        if (labels != null) {
+            builder.append('{').append(labels).append('}')
+        }
+        builder.append(' ')
+    }
+
+    private fun appendBucket(name: String, labels: String?, le: String, value: Long) {
+        builder.append(name).append("_bucket{")
+        if (labels != null) {
+            builder.append(labels).append(',')
+        }
+        builder.append("le=\"").append(le).append("\"} ").append(value).append('\n')
+    }
+
+    companion object {
+        private const val INITIAL_CAPACITY = 32 * 1024
+
+        /**
+         * Returns the label `name="value"`, with backslashes, double quotes and
+         * line feeds in [value] escaped as OpenMetrics requires.
+         */
+        fun label(name: String, value: String): String {
+            val builder = StringBuilder(name.length + value.length + 3)
+            builder.append(name).append("=\"")
+            for (c in value) {
+                when (c) {
+                    '\\' -> builder.append("\\\\")
+                    '"' -> builder.append("\\\"")
+                    '\n' -> builder.append("\\n")
+                    else -> builder.append(c)
+                }
+            }
+            return builder.append('"').toString()
+        }
+
+        private val BUCKET_LABELS = arrayOf(
+            "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05",
+            "0.1", "0.25", "0.5", "1.0", "2.5", "5.0", "10.0", "30.0"
+        )
+        private val BUCKET_BOUNDS_NANOS = LongArray(BUCKET_LABELS.size) {
+            (BUCKET_LABELS[it].toDouble() * 1_000_000_000).toLong()
+        }
+    }
+}
+
+/**
+ * Renders the node's metrics for Prometheus. Components that come and go with
+ * the HTTP server contribute their own families through [register].
+ */
+class OpenMetricsExporter(
+    private val statistics: AtomicReference<Statistics>,
+    private val requestMetrics: RequestMetrics,
+    private val connectionMetrics: ConnectionMetrics,
+    private val cache: DiskLruCache
+) {
+    private val collectors: MutableMap<String, (OpenMetricsWriter) -> Unit> = ConcurrentHashMap()
+    private val writers = ThreadLocal.withInitial { OpenMetricsWriter() }
+    private val volumeLabels = cache.volumes.map { OpenMetricsWriter.label("volume", it.directory.path) }
+
+    /**
+     * Adds or replaces the collector with the given name.
+     */
+    fun register(name: String, collector: (OpenMetricsWriter) -> Unit) {
+        collectors[name] = collector
+    }
+
+    fun unregister(name: String) {
+        collectors.remove(name)
+    }
+
+    fun render(): String {
+        val writer = writers.get()
+        writer.reset()
+
+        val stats = statistics.get()
+        writer.counter("mdah_requests", "Image requests that passed validation.", stats.requestsServed.toLong())
+        writer.counter("mdah_cache_hits", "Image requests served from the cache.", stats.cacheHits.toLong())
+        writer.counter("mdah_cache_misses", "Image requests fetched from upstream.", stats.cacheMisses.toLong())
+        writer.counter("mdah_browser_cached", "Image requests answered with 304 Not Modified.", stats.browserCached.toLong())
+        writer.counter("mdah_sent_bytes", "Bytes written to clients.", stats.bytesSent)
+
+        writer.gauge("mdah_cache_size_bytes", "Bytes currently stored in the cache.", cache.size())
+        writer.gauge("mdah_cache_max_size_bytes", "Configured maximum size of the cache.", cache.maxSize)
+        writer.counter("mdah_cache_evictions", "Entries evicted from the cache to stay within its size.", cache.evictionCount)
+        writer.gauge("mdah_cache_open_files", "Cache files of hot entries kept open for reading.", cache.openFiles.toLong())
+        writer.counter("mdah_cache_open_file_hits", "Reads of hot entries served by an already open file.", cache.openFileHits)
+        writer.counter("mdah_cache_open_file_misses", "Reads of hot entries that had to open their file.", cache.openFileMisses)
+        if (NativeIo.isEnabled()) {
+            writer.counter("mdah_native_io_failures", "Page cache hints and preallocations the kernel rejected.", NativeIo.getFailures())
+        }
+        val volumes = cache.volumes
+        if (volumes.size > 1) {
+            writer.family("mdah_cache_volume_size_bytes", "gauge", "Bytes stored on each cache volume.")
+            for (i in volumes.indices) {
+                writer.sample("mdah_cache_volume_size_bytes", "", volumeLabels[i], volumes[i].size)
+            }
+            writer.family("mdah_cache_volume_healthy", "gauge", "Whether each cache volume takes new entries.")
+            for (i in volumes.indices) {
+                writer.sample("mdah_cache_volume_healthy", "", volumeLabels[i], if (volumes[i].isHealthy) 1L else 0L)
+            }
+            writer.family("mdah_cache_volume_failures", "counter", "Failed writes, renames and deletes on each cache volume.")
+            for (i in volumes.indices) {
+                writer.sample("mdah_cache_volume_failures", "_total", volumeLabels[i], volumes[i].failures)
+            }
+            writer.family("mdah_cache_volume_rejected_writes", "counter", "Edits each cache volume turned away at its concurrency limit.")
+            for (i in volumes.indices) {
+                writer.sample("mdah_cache_volume_rejected_writes", "_total", volumeLabels[i], volumes[i].rejectedWrites)
+            }
+        }
+        if (cache.fastTierMaxSize > 0) {
+            writer.family("mdah_cache_tier_size_bytes", "gauge", "Bytes stored on each cache tier.")
+            for (t in TIERS.indices) {
+                var size = 0L
+                for (i in volumes.indices) {
+                    if (volumes[i].tier == TIERS[t]) {
+                        size += volumes[i].size
+                    }
+                }
+                writer.sample("mdah_cache_tier_size_bytes", "", TIER_LABELS[t], size)
+            }
+            writer.family("mdah_cache_tier_hits", "counter", "Cache hits served from each cache tier.")
+            for (t in TIERS.indices) {
+                var hits = 0L
+                for (i in volumes.indices) {
+                    if (volumes[i].tier == TIERS[t]) {
+                        hits += volumes[i].hits
+                    }
+                }
+                writer.sample("mdah_cache_tier_hits", "_total", TIER_LABELS[t], hits)
+            }
+            writer.gauge("mdah_cache_fast_tier_max_size_bytes", "Configured maximum size of the fast cache tier.", cache.fastTierMaxSize)
+            writer.family("mdah_cache_tier_moves", "counter", "Entries moved between cache tiers.")
+            writer.sample("mdah_cache_tier_moves", "_total", "direction=\"promotion\"", cache.promotionCount)
+            writer.sample("mdah_cache_tier_moves", "_total", "direction=\"demotion\"", cache.demotionCount)
+        }
+
+        writer.counter("mdah_connections", "Connections accepted by the image server.", connectionMetrics.opened.get())
+        writer.gauge("mdah_connections_active", "Connections currently open to the image server.", connectionMetrics.active.get())
+        writer.family("mdah_tls_handshakes", "counter", "TLS handshakes by negotiated protocol or failure.")
+        for ((protocol, count) in connectionMetrics.tlsHandshakes) {
+            writer.sample("mdah_tls_handshakes", "_total", "result=\"success\",protocol=\"$protocol\"", count.get())
+        }
+        writer.sample("mdah_tls_handshakes", "_total", "result=\"failure\"", connectionMetrics.tlsHandshakeFailures.get())
+
+        writer.family("mdah_request_ttfb_seconds", "histogram", "Time until response headers are ready, by outcome.")
+        for (outcome in RequestMetrics.OUTCOMES) {
+            writer.histogram("mdah_request_ttfb_seconds", OUTCOME_LABELS[outcome.ordinal], requestMetrics.ttfb(outcome))
+        }
+        writer.family("mdah_request_duration_seconds", "histogram", "Time until the response body is fully sent, by outcome.")
+        for (outcome in RequestMetrics.OUTCOMES) {
+            writer.histogram("mdah_request_duration_seconds", OUTCOME_LABELS[outcome.ordinal], requestMetrics.total(outcome))
+        }
+        writer.family("mdah_request_phase_seconds", "histogram", "Time spent in each phase of the image handler.")
+        for (phase in RequestMetrics.PHASES) {
+            writer.histogram("mdah_request_phase_seconds", PHASE_LABELS[phase.ordinal], requestMetrics.phase(phase))
+        }
+
+        for (collector in collectors.values) {
+            collector(writer)
+        }
+
+        writer.eof()
+        return writer.toString()
+    }
+
+    companion object {
+        private val OUTCOME_LABELS = RequestMetrics.OUTCOMES.map { "outcome=\"${it.name.toLowerCase()}\"" }
+        private val PHASE_LABELS = RequestMetrics.PHASES.map { "phase=\"${it.name.toLowerCase()}\"" }
+        private val TIERS = CacheVolume.Tier.values()
+        private val TIER_LABELS = TIERS.map { "tier=\"${it.name.toLowerCase()}\"" }
+    }
+}
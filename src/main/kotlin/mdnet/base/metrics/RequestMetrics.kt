@@ -0,0 +1,147 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.metrics
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy
+import com.fasterxml.jackson.databind.annotation.JsonNaming
+
+enum class RequestOutcome {
+    HIT, MISS, NOT_MODIFIED, ERROR
+}
+
+enum class RequestPhase {
+    TOKEN_CHECK, CACHE_LOOKUP, METADATA_LOOKUP, UPSTREAM_CONNECT, UPSTREAM_FIRST_BYTE
+}
+
+/**
+ * Latency histograms for the image server. Each request outcome tracks the
+ * time to first byte (until the handler returns) and the total time (until
+ * the body is fully sent), while each phase of the handler is tracked
+ * separately regardless of outcome.
+ */
+class RequestMetrics {
+    private val ttfbHistograms = Array(OUTCOMES.size) { LatencyHistogram() }
+    private val totalHistograms = Array(OUTCOMES.size) { LatencyHistogram() }
+    private val phaseHistograms = Array(PHASES.size) { LatencyHistogram() }
+
+    // snapshots taken by [rollInterval], oldest first
+    private val intervals = ArrayList<Map<String, LatencyHistogram.Snapshot>>()
+
+    fun recordTtfb(outcome: RequestOutcome, nanos: Long) = ttfbHistograms[outcome.ordinal].record(nanos)
+
+    fun recordTotal(outcome: RequestOutcome, nanos: Long) = totalHistograms[outcome.ordinal].record(nanos)
+
+    fun recordPhase(phase: RequestPhase, nanos: Long) = phaseHistograms[phase.ordinal].record(nanos)
+
+    fun ttfb(outcome: RequestOutcome): LatencyHistogram = ttfbHistograms[outcome.ordinal]
+
+    fun total(outcome: RequestOutcome): LatencyHistogram = totalHistograms[outcome.ordinal]
+
+    fun phase(phase: RequestPhase): LatencyHistogram = phaseHistograms[phase.ordinal]
+
+    /**
+     * Remembers the current state of every histogram so that [summary] can
+     * report percentiles over a recent window. Must be called periodically
+     * from a single thread.
+     */
+    fun rollInterval() {
+        val current = snapshotAll()
+        synchronized(intervals) {
+            intervals.add(current)
+            if (intervals.size > RECENT_INTERVALS) {
+                intervals.removeAt(0)
+            }
+        }
+    }
+
+    fun summary(): LatencyStatistics {
+        val current = snapshotAll()
+        val oldest = synchronized(intervals) {
+            intervals.firstOrNull()
+        }
+
+        fun summarize(name: String): LatencySummary {
+            val snapshot = current.getValue(name)
+            val recent = oldest?.get(name)?.let { snapshot - it } ?: snapshot
+            return LatencySummary(snapshot.toPercentiles(), recent.toPercentiles())
+        }
+
+        return LatencyStatistics(
+            ttfb = OUTCOMES.associate { it to summarize("ttfb_$it") },
+            total = OUTCOMES.associate { it to summarize("total_$it") },
+            phases = PHASES.associate { it to summarize("phase_$it") }
+        )
+    }
+
+    private fun snapshotAll(): Map<String, LatencyHistogram.Snapshot> {
+        val snapshots = HashMap<String, LatencyHistogram.Snapshot>()
+        for (outcome in OUTCOMES) {
+            snapshots["ttfb_$outcome"] = ttfbHistograms[outcome.ordinal].snapshot()
+            snapshots["total_$outcome"] = totalHistograms[outcome.ordinal].snapshot()
+        }
+        for (phase in PHASES) {
+            snapshots["phase_$phase"] = phaseHistograms[phase.ordinal].snapshot()
+        }
+        return snapshots
+    }
+
+    companion object {
+        val OUTCOMES = RequestOutcome.values().toList()
+        val PHASES = RequestPhase.values().toList()
+
+        // four 15 second statistics intervals make up the recent window
+        private const val RECENT_INTERVALS = 4
+    }
+}
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class LatencyStatistics(
+    val ttfb: Map<RequestOutcome, LatencySummary>,
+    val total: Map<RequestOutcome, LatencySummary>,
+    val phases: Map<RequestPhase, LatencySummary>
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class LatencySummary(
+    val lifetime: LatencyPercentiles,
+    val lastMinute: LatencyPercentiles
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class LatencyPercentiles(
+    val count: Long,
+    val meanMs: Double,
+    val p50Ms: Double,
+    val p90Ms: Double,
+    val p99Ms: Double,
+    val p999Ms: Double,
+    val maxMs: Double
+)
+
+private fun Long.nanosToMillis(): Double = this / 1_000_000.0
+
+private fun LatencyHistogram.Snapshot.toPercentiles() = LatencyPercentiles(
+    count = count,
+    meanMs = mean / 1_000_000.0,
+    p50Ms = percentile(50.0).nanosToMillis(),
+    p90Ms = percentile(90.0).nanosToMillis(),
+    p99Ms = percentile(99.0).nanosToMillis(),
+    p999Ms = percentile(99.9).nanosToMillis(),
+    maxMs = max.nanosToMillis()
+)
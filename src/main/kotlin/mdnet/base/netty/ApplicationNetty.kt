@@ -27,6 +27,8 @@ import io.netty.channel.socket.nio.NioServerSocketChannel
 import io.netty.handler.codec.DecoderException
 import io.netty.handler.codec.http.*
 import io.netty.handler.ssl.SslContextBuilder
+import io.netty.handler.ssl.SslHandler
+import io.netty.handler.ssl.SslHandshakeCompletionEvent
 import io.netty.handler.stream.ChunkedWriteHandler
 import io.netty.handler.timeout.ReadTimeoutException
 import io.netty.handler.timeout.ReadTimeoutHandler
@@ -47,7 +49,9 @@ import java.util.concurrent.atomic.AtomicReference
 import javax.net.ssl.SSLException
 import mdnet.base.Constants
 import mdnet.base.data.Statistics
+import mdnet.base.debug
 import mdnet.base.info
+import mdnet.base.metrics.ConnectionMetrics
 import mdnet.base.settings.ClientSettings
 import mdnet.base.settings.TlsCert
 import mdnet.base.trace
@@ -59,7 +63,7 @@ import org.slf4j.LoggerFactory
 
 private val LOGGER = LoggerFactory.getLogger("Application")
 
-class Netty(private val tls: TlsCert, private val clientSettings: ClientSettings, private val statistics: AtomicReference<Statistics>) : ServerConfig {
+class Netty(private val tls: TlsCert, private val clientSettings: ClientSettings, private val statistics: AtomicReference<Statistics>, private val connectionMetrics: ConnectionMetrics) : ServerConfig {
     override fun toServer(httpHandler: HttpHandler): Http4kServer = object : Http4kServer {
         private val masterGroup = NioEventLoopGroup(clientSettings.threads)
         private val workerGroup = NioEventLoopGroup(clientSettings.threads)
@@ -76,6 +80,32 @@ class Netty(private val tls: TlsCert, private val clientSettings: ClientSettings
             }
         }
 
+        private val connectionCounter = object : ChannelInboundHandlerAdapter() {
+            override fun isSharable() = true
+
+            override fun channelActive(ctx: ChannelHandlerContext) {
+                connectionMetrics.connectionOpened()
+                super.channelActive(ctx)
+            }
+
+            override fun channelInactive(ctx: ChannelHandlerContext) {
+                connectionMetrics.connectionClosed()
+                super.channelInactive(ctx)
+            }
+
+            override fun userEventTriggered(ctx: ChannelHandlerContext, evt: Any) {
+                if (evt is SslHandshakeCompletionEvent) {
+                    if (evt.isSuccess) {
+                        val sslHandler = ctx.pipeline().get(SslHandler::class.java)
+                        connectionMetrics.handshakeSucceeded(sslHandler?.engine()?.session?.protocol ?: "unknown")
+                    } else {
+                        connectionMetrics.handshakeFailed()
+                    }
+                }
+                super.userEventTriggered(ctx, evt)
+            }
+        }
+
         override fun start(): Http4kServer = apply {
             LOGGER.info { "Starting Netty with ${clientSettings.threads} threads" }
 
@@ -91,6 +121,7 @@ class Netty(private val tls: TlsCert, private val clientSettings: ClientSettings
                     .childHandler(object : ChannelInitializer<SocketChannel>() {
                         public override fun initChannel(ch: SocketChannel) {
                             ch.pipeline().addLast("ssl", sslContext.newHandler(ch.alloc()))
+                            ch.pipeline().addLast("connectionCounter", connectionCounter)
 
                             ch.pipeline().addLast("codec", HttpServerCodec())
                             ch.pipeline().addLast("keepAlive", HttpServerKeepAliveHandler())
@@ -109,7 +140,7 @@ class Netty(private val tls: TlsCert, private val clientSettings: ClientSettings
                                     if (cause is SSLException || (cause is DecoderException && cause.cause is SSLException)) {
                                         LOGGER.trace { "Ignored invalid SSL connection" }
                                     } else if (cause is IOException || cause is SocketException) {
-                                        LOGGER.info { "User (downloader) abruptly closed the connection" }
+                                        LOGGER.debug { "User (downloader) abruptly closed the connection" }
                                         LOGGER.trace(cause) { "Exception in pipeline" }
                                     } else if (cause !is ReadTimeoutException && cause !is WriteTimeoutException) {
                                         ctx.fireExceptionCaught(cause)
@@ -45,7 +45,7 @@ fun loadKey(keyDataString: String): PrivateKey? {
     if (keyDataString.contains(PKCS_8_PEM_HEADER)) {
         val fixedString = keyDataString.replace(PKCS_8_PEM_HEADER, "").replace(
             PKCS_8_PEM_FOOTER, "")
-        return readPkcs1PrivateKey(
+        return readPkcs8PrivateKey(
             base64Decode(
                 fixedString
             )
@@ -0,0 +1,86 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.netty
+
+import io.netty.buffer.Unpooled
+import io.netty.channel.ChannelHandler
+import io.netty.channel.ChannelHandlerContext
+import io.netty.channel.ChannelInboundHandlerAdapter
+import io.netty.channel.group.DefaultChannelGroup
+import io.netty.handler.codec.http.DefaultHttpContent
+import io.netty.handler.codec.http.DefaultHttpResponse
+import io.netty.handler.codec.http.FullHttpRequest
+import io.netty.handler.codec.http.HttpHeaderNames
+import io.netty.handler.codec.http.HttpMethod
+import io.netty.handler.codec.http.HttpResponseStatus
+import io.netty.handler.codec.http.HttpUtil
+import io.netty.handler.codec.http.HttpVersion
+import io.netty.handler.codec.http.QueryStringDecoder
+import io.netty.util.concurrent.GlobalEventExecutor
+import java.nio.charset.StandardCharsets
+
+/**
+ * A Server-Sent Events stream served directly from the Netty pipeline, as
+ * http4k cannot hold a response open. Subscribers are kept in a channel group
+ * so that each event is encoded once and shared by every open connection.
+ */
+class ServerSentEvents(private val path: String) {
+    private val channels = DefaultChannelGroup(GlobalEventExecutor.INSTANCE)
+
+    val subscribers: Int
+        get() = channels.size
+
+    val handler: ChannelHandler = object : ChannelInboundHandlerAdapter() {
+        override fun isSharable() = true
+
+        override fun channelRead(ctx: ChannelHandlerContext, msg: Any) {
+            if (msg is FullHttpRequest && msg.method() == HttpMethod.GET && QueryStringDecoder(msg.uri()).path() == path) {
+                msg.release()
+                subscribe(ctx)
+            } else {
+                ctx.fireChannelRead(msg)
+            }
+        }
+    }
+
+    fun publish(event: String, data: String) {
+        if (channels.isEmpty()) {
+            return
+        }
+        val buffer = Unpooled.copiedBuffer("event: $event\ndata: $data\n\n", StandardCharsets.UTF_8)
+        channels.writeAndFlush(DefaultHttpContent(buffer))
+    }
+
+    private fun subscribe(ctx: ChannelHandlerContext) {
+        val response = DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK)
+        response.headers()
+            .set(HttpHeaderNames.CONTENT_TYPE, "text/event-stream")
+            .set(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+        HttpUtil.setTransferEncodingChunked(response, true)
+
+        ctx.write(response)
+        ctx.writeAndFlush(DefaultHttpContent(Unpooled.copiedBuffer("retry: $RETRY_MILLIS\n\n", StandardCharsets.UTF_8)))
+        // closed channels are removed from the group automatically
+        channels.add(ctx.channel())
+    }
+
+    companion object {
+        private const val RETRY_MILLIS = 15_000
+    }
+}
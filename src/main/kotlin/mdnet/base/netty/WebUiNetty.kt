@@ -38,7 +38,7 @@ import org.http4k.server.Http4kChannelHandler
 import org.http4k.server.Http4kServer
 import org.http4k.server.ServerConfig
 
-class WebUiNetty(private val hostname: String, private val port: Int) : ServerConfig {
+class WebUiNetty(private val hostname: String, private val port: Int, private val events: ServerSentEvents? = null) : ServerConfig {
     override fun toServer(httpHandler: HttpHandler): Http4kServer = object : Http4kServer {
         private val masterGroup = NioEventLoopGroup()
         private val workerGroup = NioEventLoopGroup()
@@ -54,6 +54,9 @@ class WebUiNetty(private val hostname: String, private val port: Int) : ServerCo
                             ch.pipeline().addLast("codec", HttpServerCodec())
                             ch.pipeline().addLast("keepAlive", HttpServerKeepAliveHandler())
                             ch.pipeline().addLast("aggregator", HttpObjectAggregator(Int.MAX_VALUE))
+                            if (events != null) {
+                                ch.pipeline().addLast("events", events.handler)
+                            }
                             ch.pipeline().addLast("streamer", ChunkedWriteHandler())
                             ch.pipeline().addLast("handler", Http4kChannelHandler(httpHandler))
                         }
@@ -22,11 +22,20 @@ package mdnet.base.server
 import java.net.InetAddress
 import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicReference
+import mdnet.base.accesslog.AccessLog
 import mdnet.base.data.Statistics
-import mdnet.base.info
+import mdnet.base.debug
+import mdnet.base.metrics.ConnectionMetrics
+import mdnet.base.metrics.ObservedInputStream
+import mdnet.base.metrics.OpenMetricsExporter
+import mdnet.base.metrics.OpenMetricsWriter
+import mdnet.base.metrics.RequestMetrics
+import mdnet.base.metrics.RequestOutcome
 import mdnet.base.netty.Netty
 import mdnet.base.settings.ClientSettings
 import mdnet.base.settings.ServerSettings
+import mdnet.base.sim.ShadowCache
+import mdnet.cache.CacheFillExecutor
 import mdnet.cache.DiskLruCache
 import org.apache.http.client.config.CookieSpecs
 import org.apache.http.client.config.RequestConfig
@@ -43,7 +52,7 @@ import org.slf4j.LoggerFactory
 
 private val LOGGER = LoggerFactory.getLogger("Application")
 
-fun getServer(cache: DiskLruCache, serverSettings: ServerSettings, clientSettings: ClientSettings, statistics: AtomicReference<Statistics>, isHandled: AtomicBoolean): Http4kServer {
+fun getServer(cache: DiskLruCache, serverSettings: ServerSettings, clientSettings: ClientSettings, statistics: AtomicReference<Statistics>, requestMetrics: RequestMetrics, connectionMetrics: ConnectionMetrics, accessLog: AccessLog?, shadowCache: ShadowCache?, metricsExporter: OpenMetricsExporter, isHandled: AtomicBoolean): Http4kServer {
     val database = Database.connect("jdbc:sqlite:cache/data.db", "org.sqlite.JDBC")
     val client = ApacheClient(responseBodyMode = BodyMode.Stream, client = HttpClients.custom()
         .disableConnectionState()
@@ -61,11 +70,66 @@ fun getServer(cache: DiskLruCache, serverSettings: ServerSettings, clientSetting
                 .build())
         .setMaxConnTotal(3000)
         .setMaxConnPerRoute(3000)
+        .addInterceptorFirst(UpstreamClient.ABORT_HOOK)
         .build())
 
-    val imageServer = ImageServer(cache, database, statistics, serverSettings, client)
+    val upstream = UpstreamClient(serverSettings.imageServer, clientSettings.upstreamSettings, client)
+    val upstreams = upstream.upstreams
+    val upstreamLabels = upstreams.map { OpenMetricsWriter.label("upstream", it.url) }
+    metricsExporter.register("upstream") {
+        it.counter("mdah_upstream_hedges", "Upstream requests duplicated to another upstream for being slow.", upstream.hedgesSent.get())
+        it.counter("mdah_upstream_hedges_won", "Hedged upstream requests answered first by the duplicate.", upstream.hedgesWon.get())
+        it.gauge("mdah_upstream_hedge_delay_milliseconds", "Current delay before an upstream request is hedged.", upstream.hedgeDelayMillis())
+        it.family("mdah_upstream_requests", "counter", "Requests sent to each upstream.")
+        for (i in upstreams.indices) {
+            it.sample("mdah_upstream_requests", "_total", upstreamLabels[i], upstreams[i].requests.get())
+        }
+        it.family("mdah_upstream_failures", "counter", "Requests to each upstream that failed or timed out.")
+        for (i in upstreams.indices) {
+            it.sample("mdah_upstream_failures", "_total", upstreamLabels[i], upstreams[i].failures.get())
+        }
+        it.family("mdah_upstream_latency_seconds", "gauge", "Moving average of the time to headers of each upstream.")
+        for (i in upstreams.indices) {
+            it.sample("mdah_upstream_latency_seconds", "", upstreamLabels[i], upstreams[i].averageNanos / 1_000_000_000.0)
+        }
+        it.counter("mdah_upstream_resumes", "Broken upstream downloads resumed with a range request.", upstream.resumes.get())
+        it.counter("mdah_upstream_rejected", "Misses failed immediately because every upstream circuit was open.", upstream.rejected.get())
+        it.family("mdah_upstream_circuit_state", "gauge", "Circuit state of each upstream: 0 closed, 1 open, 2 half open.")
+        for (i in upstreams.indices) {
+            it.sample("mdah_upstream_circuit_state", "", upstreamLabels[i], upstreams[i].breaker?.state?.ordinal?.toLong() ?: 0L)
+        }
+        it.family("mdah_upstream_circuit_opened", "counter", "Times the circuit of each upstream opened.")
+        for (i in upstreams.indices) {
+            it.sample("mdah_upstream_circuit_opened", "_total", upstreamLabels[i], upstreams[i].breaker?.opened?.get() ?: 0L)
+        }
+    }
 
-    return timeRequest()
+    val fillSettings = clientSettings.cacheFillSettings
+    val fillExecutor = CacheFillExecutor(
+        fillSettings.threads, fillSettings.maxQueuedFills, fillSettings.deadlineSeconds * 1000,
+        CacheFillExecutor.DropPolicy.valueOf(fillSettings.dropPolicy.toUpperCase())
+    )
+    metricsExporter.register("cache_fill") {
+        it.gauge("mdah_cache_fill_queued", "Background cache fills waiting for a thread.", fillExecutor.queueDepth().toLong())
+        it.gauge("mdah_cache_fill_active", "Background cache fills running.", fillExecutor.activeFills().toLong())
+        it.counter("mdah_cache_fill_completed", "Background cache fills that ran to the end of the upstream response.", fillExecutor.completedFills())
+        it.counter("mdah_cache_fill_expired", "Background cache fills abandoned at their deadline.", fillExecutor.expiredFills())
+        it.counter("mdah_cache_fill_dropped", "Background cache fills dropped because the queue was full.", fillExecutor.droppedFills())
+        it.counter("mdah_cache_fill_failed", "Background cache fills that failed reading upstream or writing the cache.", fillExecutor.failedFills())
+    }
+
+    val downloader = CacheDownloader(fillSettings.maxDownloads, fillSettings.downloadTimeoutSeconds * 1000)
+    metricsExporter.register("cache_download") {
+        it.gauge("mdah_cache_downloads_active", "Misses being downloaded into the cache independently of the client.", downloader.active.toLong())
+        it.counter("mdah_cache_downloads_completed", "Misses downloaded completely.", downloader.completed.get())
+        it.counter("mdah_cache_downloads_failed", "Misses whose download ended early.", downloader.failed.get())
+        it.counter("mdah_cache_downloads_timed_out", "Misses abandoned because their download took too long.", downloader.timedOut.get())
+        it.counter("mdah_cache_downloads_rejected", "Misses teed to the client because every download thread was busy.", downloader.rejected.get())
+    }
+
+    val imageServer = ImageServer(cache, database, statistics, requestMetrics, shadowCache, serverSettings, upstream, fillExecutor, downloader)
+
+    return timeRequest(requestMetrics, accessLog)
         .then(catchAllHideDetails())
         .then(ServerFilters.CatchLensFailure)
         .then(setHandled(isHandled))
@@ -84,7 +148,7 @@ fun getServer(cache: DiskLruCache, serverSettings: ServerSettings, clientSetting
                 )
             )
         )
-        .asServer(Netty(serverSettings.tls!!, clientSettings, statistics))
+        .asServer(Netty(serverSettings.tls!!, clientSettings, statistics, connectionMetrics))
 }
 
 fun setHandled(isHandled: AtomicBoolean): Filter {
@@ -96,26 +160,73 @@ fun setHandled(isHandled: AtomicBoolean): Filter {
     }
 }
 
-fun timeRequest(): Filter {
+fun timeRequest(requestMetrics: RequestMetrics, accessLog: AccessLog?): Filter {
     return Filter { next: HttpHandler ->
         { request: Request ->
-            val cleanedUri = request.uri.path.let {
-                if (it.startsWith("/data")) {
-                    it
-                } else {
-                    it.replaceBefore("/data", "/{token}")
-                }
+            LOGGER.debug { "Request for ${request.uri.path.cleaned()} received from ${request.source?.address}" }
+
+            val keyMark = ImageKeys.mark()
+            val start = System.nanoTime()
+            val response = next(request)
+            val latency = System.nanoTime() - start
+
+            val outcome = when {
+                response.status == Status.NOT_MODIFIED -> RequestOutcome.NOT_MODIFIED
+                !response.status.successful -> RequestOutcome.ERROR
+                response.header("X-Cache") == "HIT" -> RequestOutcome.HIT
+                response.header("X-Cache") == "MISS" -> RequestOutcome.MISS
+                else -> RequestOutcome.ERROR
             }
+            requestMetrics.recordTtfb(outcome, latency)
 
-            LOGGER.info { "Request for $cleanedUri received from ${request.source?.address}" }
+            if (accessLog != null && accessLog.shouldSample()) {
+                accessLog.log(request, response, outcome, latency, keyMark)
+            }
 
-            val start = System.currentTimeMillis()
-            val response = next(request)
-            val latency = System.currentTimeMillis() - start
+            LOGGER.debug { "Request for ${request.uri.path.cleaned()} completed (TTFB) in ${latency / 1_000_000}ms" }
 
-            LOGGER.info { "Request for $cleanedUri completed (TTFB) in ${latency}ms" }
+            val timedResponse = if (outcome == RequestOutcome.HIT || outcome == RequestOutcome.MISS) {
+                // the total time is only known once the streamed body has been sent
+                response.body(Body(ObservedInputStream(response.body.stream, onClose = {
+                    requestMetrics.recordTotal(outcome, System.nanoTime() - start)
+                }), response.body.length))
+            } else {
+                requestMetrics.recordTotal(outcome, latency)
+                response
+            }
 
-            response.header("X-Time-Taken", latency.toString())
+            timedResponse.header("X-Time-Taken", (latency / 1_000_000).toString())
         }
     }
 }
+
+private fun String.cleaned() =
+    if (startsWith("/data")) {
+        this
+    } else {
+        replaceBefore("/data", "/{token}")
+    }
+
+private fun AccessLog.log(request: Request, response: Response, outcome: RequestOutcome, latency: Long, keyMark: Long) {
+    val path = request.uri.path
+    val dataIndex = path.indexOf("/data")
+    var flags = 0
+    if (dataIndex > 0) {
+        flags = flags or AccessLog.FLAG_TOKENIZED
+    }
+    if (dataIndex >= 0 && path.startsWith("/data-saver/", dataIndex)) {
+        flags = flags or AccessLog.FLAG_DATA_SAVER
+    }
+
+    log(
+        timestampMillis = System.currentTimeMillis(),
+        ttfbNanos = latency,
+        bytes = response.body.length ?: -1,
+        status = response.status.code,
+        outcome = outcome,
+        flags = flags,
+        // the handler derives the key on this thread unless it rejects the request first
+        imageId = (ImageKeys.derivedSince(keyMark) ?: ImageKeys.deriveFromPath(path))?.bytes,
+        address = request.source?.address
+    )
+}
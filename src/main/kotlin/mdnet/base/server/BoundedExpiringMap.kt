@@ -0,0 +1,82 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A concurrent map holding at most about [maxEntries] entries, each kept
+ * until it expires or room is needed. A full map first drops its expired
+ * entries, and if that is not enough, an arbitrary tenth of the rest, which
+ * is cheaper than tracking recency and good enough for caches whose misses
+ * only cost a lookup. Racing writers may both make room, which is harmless.
+ */
+class BoundedExpiringMap<K : Any, V : Any>(private val maxEntries: Int = DEFAULT_MAX_ENTRIES) {
+    private val entries = ConcurrentHashMap<K, Entry<V>>()
+
+    private class Entry<V>(val value: V, val expiresAtMillis: Long)
+
+    val size: Int
+        get() = entries.size
+
+    /**
+     * Returns the value kept for [key], or null if there is none or it has
+     * expired.
+     */
+    fun get(key: K): V? {
+        val entry = entries[key] ?: return null
+        if (entry.expiresAtMillis != NEVER && entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, entry)
+            return null
+        }
+        return entry.value
+    }
+
+    /**
+     * Keeps [value] for [key] until [expiresAtMillis], or until room is needed
+     * if it is [NEVER]. Values that have already expired are not kept.
+     */
+    fun put(key: K, value: V, expiresAtMillis: Long = NEVER) {
+        val now = System.currentTimeMillis()
+        if (expiresAtMillis <= now) {
+            return
+        }
+        if (entries.size >= maxEntries) {
+            makeRoom(now)
+        }
+        entries[key] = Entry(value, expiresAtMillis)
+    }
+
+    private fun makeRoom(now: Long) {
+        entries.values.removeIf { it.expiresAtMillis <= now }
+
+        var toRemove = entries.size - maxEntries + maxEntries / 10
+        val iterator = entries.keys.iterator()
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next()
+            iterator.remove()
+            toRemove--
+        }
+    }
+
+    companion object {
+        const val NEVER = Long.MAX_VALUE
+        const val DEFAULT_MAX_ENTRIES = 65536
+    }
+}
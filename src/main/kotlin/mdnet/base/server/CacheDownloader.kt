@@ -0,0 +1,239 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+import javax.crypto.Cipher
+import kotlin.concurrent.withLock
+import mdnet.base.warn
+import mdnet.cache.DiskLruCache
+import org.apache.http.conn.ConnectionReleaseTrigger
+import org.slf4j.LoggerFactory
+
+/**
+ * Downloads misses from upstream into the cache as fast as upstream sends
+ * them, independently of how fast the client reads. The client is served by
+ * tailing the cache file as it grows, so the upstream connection and the
+ * cache editor are released as soon as the download is complete, even if
+ * the client is still reading. A download that takes longer than
+ * [timeoutMillis] in total is abandoned, which aborts its edit and fails the
+ * clients tailing it.
+ */
+class CacheDownloader(maxDownloads: Int, timeoutMillis: Long) {
+    private val timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+    private val threadCount = AtomicInteger()
+    private val executor = ThreadPoolExecutor(0, maxDownloads, 60, TimeUnit.SECONDS, SynchronousQueue()) { runnable ->
+        Thread(runnable, "cache-download-${threadCount.incrementAndGet()}").apply { isDaemon = true }
+    }
+
+    val completed = AtomicLong()
+    val failed = AtomicLong()
+    val timedOut = AtomicLong()
+    val rejected = AtomicLong()
+
+    val active: Int
+        get() = executor.activeCount
+
+    /**
+     * Starts downloading [upstream] into [editor], encrypting with
+     * [writeCipher], and returns a stream of the content as it arrives,
+     * decrypted with [readCipher]. [onDone] is called with the edit once the
+     * download ends, and must commit or abort it.
+     *
+     * Returns null, leaving everything untouched, if all download threads are
+     * busy.
+     */
+    fun start(
+        upstream: InputStream,
+        editor: DiskLruCache.Editor,
+        writeCipher: Cipher,
+        readCipher: Cipher,
+        length: Long,
+        onDone: (Long) -> Unit
+    ): InputStream? {
+        val output = editor.newOutputStream(0, length)
+        val channel = try {
+            editor.newDirtyReadChannel(0)
+        } catch (e: IOException) {
+            output.close()
+            throw e
+        }
+
+        val download = Download(upstream, output, writeCipher, length, onDone)
+        try {
+            executor.execute(download)
+        } catch (_: RejectedExecutionException) {
+            rejected.incrementAndGet()
+            channel.close()
+            output.close()
+            return null
+        }
+        return TailingInputStream(download, channel, readCipher)
+    }
+
+    private inner class Download(
+        private val upstream: InputStream,
+        private val output: OutputStream,
+        private val cipher: Cipher,
+        private val length: Long,
+        private val onDone: (Long) -> Unit
+    ) : Runnable {
+        @Volatile
+        var written = 0L
+            private set
+        @Volatile
+        var finished = false
+            private set
+        @Volatile
+        var succeeded = false
+            private set
+
+        private val lock = ReentrantLock()
+        private val progress = lock.newCondition()
+
+        override fun run() {
+            val deadline = System.nanoTime() + timeoutNanos
+            try {
+                val buffer = ByteArray(BUFFER_SIZE)
+                val encrypted = ByteArray(BUFFER_SIZE)
+                while (true) {
+                    // each read is bounded by the client's socket timeout
+                    if (System.nanoTime() - deadline > 0) {
+                        timedOut.incrementAndGet()
+                        LOGGER.warn { "Upstream download timed out after $written bytes" }
+                        break
+                    }
+                    val n = upstream.read(buffer)
+                    if (n < 0) {
+                        break
+                    }
+                    cipher.update(buffer, 0, n, encrypted, 0)
+                    output.write(encrypted, 0, n)
+                    lock.withLock {
+                        written += n
+                        progress.signalAll()
+                    }
+                }
+            } catch (e: IOException) {
+                LOGGER.warn(e) { "Upstream download failed after $written bytes" }
+            } finally {
+                output.close()
+                try {
+                    onDone(written)
+                } catch (e: Exception) {
+                    LOGGER.warn(e) { "Completing the cache edit failed" }
+                }
+
+                val success = written == length
+                if (success) completed.incrementAndGet() else failed.incrementAndGet()
+                lock.withLock {
+                    succeeded = success
+                    finished = true
+                    progress.signalAll()
+                }
+
+                // closing an unfinished response would read the rest of it
+                try {
+                    if (!success && upstream is ConnectionReleaseTrigger) {
+                        upstream.abortConnection()
+                    } else {
+                        upstream.close()
+                    }
+                } catch (_: IOException) {
+                }
+            }
+        }
+
+        /**
+         * Waits until more than [position] bytes have been written or the
+         * download has finished.
+         */
+        fun awaitBeyond(position: Long) {
+            lock.withLock {
+                while (written <= position && !finished) {
+                    progress.await(WAIT_MILLIS, TimeUnit.MILLISECONDS)
+                }
+            }
+        }
+    }
+
+    private class TailingInputStream(
+        private val download: Download,
+        private val channel: FileChannel,
+        private val cipher: Cipher
+    ) : InputStream() {
+        private var position = 0L
+        private val single = ByteArray(1)
+
+        override fun read(): Int = if (read(single, 0, 1) < 0) -1 else single[0].toInt() and 0xff
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+            if (len == 0) {
+                return 0
+            }
+            while (true) {
+                val available = download.written - position
+                if (available > 0) {
+                    val n = channel.read(ByteBuffer.wrap(b, off, minOf(len.toLong(), available).toInt()))
+                    if (n < 0) {
+                        throw IOException("Cache file ended at $position of ${download.written} bytes written")
+                    }
+                    cipher.update(b, off, n, b, off)
+                    position += n
+                    return n
+                }
+                if (download.finished) {
+                    if (download.succeeded) {
+                        return -1
+                    }
+                    throw IOException("Upstream download failed after $position bytes")
+                }
+                try {
+                    download.awaitBeyond(position)
+                } catch (e: InterruptedException) {
+                    Thread.currentThread().interrupt()
+                    throw IOException(e)
+                }
+            }
+        }
+
+        override fun available(): Int = minOf(download.written - position, Int.MAX_VALUE.toLong()).toInt()
+
+        override fun close() {
+            channel.close()
+        }
+    }
+
+    companion object {
+        private val LOGGER = LoggerFactory.getLogger(CacheDownloader::class.java)
+        private const val BUFFER_SIZE = 32 * 1024
+        private const val WAIT_MILLIS = 1000L
+    }
+}
@@ -0,0 +1,176 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import mdnet.base.info
+import mdnet.base.settings.CircuitBreakerSettings
+import org.slf4j.LoggerFactory
+
+/**
+ * Stops sending requests to an upstream that is failing or too slow, so that
+ * an outage costs misses an immediate error instead of a connection and a
+ * timeout each.
+ *
+ * Outcomes are counted over a sliding window of one second buckets. Once the
+ * window has enough requests and either the failure rate or the slow call
+ * rate crosses its threshold, the circuit opens. After the open period a few
+ * probe requests are let through: if they all succeed the circuit closes
+ * again, and if any fails it reopens for twice as long, up to a limit.
+ */
+class CircuitBreaker(private val name: String, private val settings: CircuitBreakerSettings) {
+    enum class State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Volatile
+    var state = State.CLOSED
+        private set
+    val rejected = AtomicLong()
+    val opened = AtomicLong()
+
+    private val bucketSeconds = LongArray(settings.windowSeconds)
+    private val requests = IntArray(settings.windowSeconds)
+    private val failures = IntArray(settings.windowSeconds)
+    private val slowCalls = IntArray(settings.windowSeconds)
+    private val slowCallNanos = TimeUnit.MILLISECONDS.toNanos(settings.slowCallMillis)
+
+    private var openUntilMillis = 0L
+    private var openMillis = settings.openMillis
+    private var probesStarted = 0
+    private var probesSucceeded = 0
+
+    /**
+     * Returns whether a request may be sent now. Every permitted request must
+     * be followed by a call to [record], or to [release] if it was cancelled.
+     */
+    @Synchronized
+    fun tryAcquire(): Boolean {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMillis) {
+                rejected.incrementAndGet()
+                return false
+            }
+            state = State.HALF_OPEN
+            probesStarted = 0
+            probesSucceeded = 0
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= settings.halfOpenProbes) {
+                rejected.incrementAndGet()
+                return false
+            }
+            probesStarted++
+        }
+        return true
+    }
+
+    @Synchronized
+    fun record(nanos: Long, failed: Boolean) {
+        val slow = nanos >= slowCallNanos
+        when (state) {
+            State.HALF_OPEN -> if (failed || slow) {
+                open(reopening = true)
+            } else if (++probesSucceeded >= settings.halfOpenProbes) {
+                LOGGER.info { "Circuit to $name closed" }
+                state = State.CLOSED
+                openMillis = settings.openMillis
+                bucketSeconds.fill(0)
+            }
+            State.CLOSED -> {
+                val bucket = currentBucket()
+                requests[bucket]++
+                if (failed) {
+                    failures[bucket]++
+                }
+                if (slow) {
+                    slowCalls[bucket]++
+                }
+                tripIfNeeded()
+            }
+            State.OPEN -> {
+                // a request that started before the circuit opened
+            }
+        }
+    }
+
+    /**
+     * Gives back the permit of a request that was cancelled before it said
+     * anything about the upstream, without counting it as an outcome.
+     */
+    @Synchronized
+    fun release() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--
+        }
+    }
+
+    /**
+     * Returns the milliseconds until an open circuit lets a probe through,
+     * or 0 if it would let a request through now.
+     */
+    @Synchronized
+    fun millisUntilRetry(): Long =
+        if (state == State.OPEN) maxOf(0, openUntilMillis - System.currentTimeMillis()) else 0
+
+    private fun tripIfNeeded() {
+        val now = System.currentTimeMillis() / 1000
+        var total = 0
+        var failed = 0
+        var slow = 0
+        for (i in bucketSeconds.indices) {
+            if (now - bucketSeconds[i] < bucketSeconds.size) {
+                total += requests[i]
+                failed += failures[i]
+                slow += slowCalls[i]
+            }
+        }
+        if (total >= settings.minimumRequests &&
+            (failed >= total * settings.failureRateThreshold || slow >= total * settings.slowCallRateThreshold)) {
+            open(reopening = false)
+        }
+    }
+
+    private fun open(reopening: Boolean) {
+        if (reopening) {
+            openMillis = minOf(openMillis * 2, settings.maxOpenMillis)
+        }
+        LOGGER.info { "Circuit to $name opened for ${openMillis}ms" }
+        state = State.OPEN
+        openUntilMillis = System.currentTimeMillis() + openMillis
+        opened.incrementAndGet()
+    }
+
+    private fun currentBucket(): Int {
+        val second = System.currentTimeMillis() / 1000
+        val bucket = (second % bucketSeconds.size).toInt()
+        if (bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second
+            requests[bucket] = 0
+            failures[bucket] = 0
+            slowCalls[bucket] = 0
+        }
+        return bucket
+    }
+
+    companion object {
+        private val LOGGER = LoggerFactory.getLogger(CircuitBreaker::class.java)
+    }
+}
@@ -0,0 +1,176 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.io.File
+import java.security.MessageDigest
+
+/**
+ * The key of one image: the MD5 of `[saver]<chapterHash>.<fileName>`, which
+ * is also the RC4 key of its cache file, its hex form, which is the id in the
+ * database and, quoted, the ETag, and its cache path, which fans out over
+ * four directory levels as `ab/cd/ef/01/abcdef01...`.
+ *
+ * Instances are reused by [ImageKeys], so the arrays are only valid until the
+ * next derivation on the same thread. Anything kept must be copied out, which
+ * [id], [etag] and [cachePath] do, at the cost of one string each.
+ */
+class ImageKey internal constructor() {
+    val bytes = ByteArray(KEY_LENGTH)
+    val hex = CharArray(KEY_LENGTH * 2)
+    val path = CharArray(FAN_OUT_LEVELS * 3 + KEY_LENGTH * 2)
+    val quotedHex = CharArray(KEY_LENGTH * 2 + 2)
+
+    fun id(): String = String(hex)
+
+    fun etag(): String = String(quotedHex)
+
+    fun cachePath(): String = String(path)
+
+    companion object {
+        const val KEY_LENGTH = 16
+        const val FAN_OUT_LEVELS = 4
+    }
+}
+
+/**
+ * Derives [ImageKey]s without allocating: digests, scratch buffers and keys
+ * are all thread-local, hex encoding is a table lookup, and the cache path
+ * separators and ETag quotes are written once per thread. Only the strings
+ * taken from a key, which the database, the cache and response headers need,
+ * are allocated per request.
+ */
+object ImageKeys {
+    private val HEX_PAIRS = CharArray(512).also {
+        val digits = "0123456789abcdef"
+        for (b in 0 until 256) {
+            it[b * 2] = digits[b ushr 4]
+            it[b * 2 + 1] = digits[b and 0xf]
+        }
+    }
+    private val SAVER_PREFIX = "saver".toByteArray(Charsets.US_ASCII)
+
+    private class State {
+        val digest: MessageDigest = MessageDigest.getInstance("MD5")
+        var scratch = ByteArray(256)
+        var derivations = 0L
+        val key = ImageKey().also {
+            for (level in 1..ImageKey.FAN_OUT_LEVELS) {
+                it.path[level * 3 - 1] = File.separatorChar
+            }
+            it.quotedHex[0] = '"'
+            it.quotedHex[it.quotedHex.size - 1] = '"'
+        }
+    }
+
+    private val state = ThreadLocal.withInitial { State() }
+
+    /**
+     * Returns the calling thread's key, filled in for this image.
+     */
+    @JvmStatic
+    fun derive(dataSaver: Boolean, chapterHash: String, fileName: String): ImageKey {
+        val state = state.get()
+        val digest = state.digest
+
+        if (dataSaver) {
+            digest.update(SAVER_PREFIX)
+        }
+        update(state, chapterHash)
+        digest.update('.'.toByte())
+        update(state, fileName)
+
+        val key = state.key
+        digest.digest(key.bytes, 0, ImageKey.KEY_LENGTH)
+
+        for (i in 0 until ImageKey.KEY_LENGTH) {
+            val pair = (key.bytes[i].toInt() and 0xff) * 2
+            key.hex[i * 2] = HEX_PAIRS[pair]
+            key.hex[i * 2 + 1] = HEX_PAIRS[pair + 1]
+        }
+        for (level in 0 until ImageKey.FAN_OUT_LEVELS) {
+            key.path[level * 3] = key.hex[level * 2]
+            key.path[level * 3 + 1] = key.hex[level * 2 + 1]
+        }
+        System.arraycopy(key.hex, 0, key.path, ImageKey.FAN_OUT_LEVELS * 3, key.hex.size)
+        System.arraycopy(key.hex, 0, key.quotedHex, 1, key.hex.size)
+
+        state.derivations++
+        return key
+    }
+
+    /**
+     * Returns a mark to pass to [derivedSince] once the handler has run on the
+     * calling thread.
+     */
+    @JvmStatic
+    fun mark(): Long = state.get().derivations
+
+    /**
+     * Returns the calling thread's key if it derived one after [mark] was
+     * taken, so code wrapping a handler can reuse the handler's key instead of
+     * deriving it again.
+     */
+    @JvmStatic
+    fun derivedSince(mark: Long): ImageKey? {
+        val state = state.get()
+        return if (state.derivations != mark) state.key else null
+    }
+
+    /**
+     * Returns the calling thread's key for an image URL path such as
+     * `[/{token}]/data[-saver]/{chapterHash}/{fileName}`, or null if the path
+     * is not an image.
+     */
+    @JvmStatic
+    fun deriveFromPath(path: String): ImageKey? {
+        val dataIndex = path.indexOf("/data")
+        if (dataIndex < 0) {
+            return null
+        }
+        val hashStart = path.indexOf('/', dataIndex + 1) + 1
+        val hashEnd = path.indexOf('/', hashStart)
+        if (hashStart <= 0 || hashEnd <= hashStart || hashEnd == path.length - 1) {
+            return null
+        }
+        val dataSaver = path.startsWith("/data-saver/", dataIndex)
+        return derive(dataSaver, path.substring(hashStart, hashEnd), path.substring(hashEnd + 1))
+    }
+
+    /**
+     * Feeds the UTF-8 bytes of [value] to the digest. Path segments are nearly
+     * always ASCII, which is copied straight into the scratch buffer.
+     */
+    private fun update(state: State, value: String) {
+        val length = value.length
+        if (state.scratch.size < length) {
+            state.scratch = ByteArray(Integer.highestOneBit(length) shl 1)
+        }
+        val scratch = state.scratch
+        for (i in 0 until length) {
+            val c = value[i]
+            if (c.toInt() >= 0x80) {
+                state.digest.update(value.toByteArray(Charsets.UTF_8))
+                return
+            }
+            scratch[i] = c.toByte()
+        }
+        state.digest.update(scratch, 0, length)
+    }
+}
@@ -0,0 +1,70 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * The metadata needed to answer for an image without touching its cache
+ * file. Images never change, so it stays valid for as long as it is kept.
+ */
+class ImageMetadata(contentType: String, val lastModified: String) {
+    // there are only a handful of image types, so share their strings
+    val contentType: String = contentType.intern()
+    val lastModifiedMillis = parseHttpDate(lastModified)
+}
+
+/**
+ * Keeps [ImageMetadata] in memory so that conditional requests, and the
+ * metadata lookups of cache hits, skip the database.
+ */
+class ImageMetadataCache(maxEntries: Int = BoundedExpiringMap.DEFAULT_MAX_ENTRIES) {
+    private val entries = BoundedExpiringMap<String, ImageMetadata>(maxEntries)
+
+    val hits = AtomicLong()
+    val misses = AtomicLong()
+
+    fun get(imageId: String): ImageMetadata? {
+        val metadata = entries.get(imageId)
+        if (metadata != null) {
+            hits.incrementAndGet()
+        } else {
+            misses.incrementAndGet()
+        }
+        return metadata
+    }
+
+    fun put(imageId: String, metadata: ImageMetadata) {
+        entries.put(imageId, metadata)
+    }
+}
+
+/**
+ * Returns the epoch milliseconds of an HTTP date, or -1 if it is not one.
+ */
+fun parseHttpDate(value: String): Long {
+    return try {
+        ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+    } catch (_: DateTimeParseException) {
+        -1
+    }
+}
@@ -19,24 +19,11 @@ along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
 /* ktlint-disable no-wildcard-imports */
 package mdnet.base.server
 
-import com.fasterxml.jackson.core.JsonProcessingException
-import com.fasterxml.jackson.databind.DeserializationFeature
-import com.fasterxml.jackson.databind.ObjectMapper
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
-import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
-import com.fasterxml.jackson.module.kotlin.readValue
-import com.goterl.lazycode.lazysodium.LazySodiumJava
-import com.goterl.lazycode.lazysodium.SodiumJava
-import com.goterl.lazycode.lazysodium.exceptions.SodiumException
 import java.io.BufferedInputStream
 import java.io.BufferedOutputStream
-import java.io.File
 import java.io.InputStream
-import java.security.MessageDigest
 import java.time.Clock
 import java.time.OffsetDateTime
-import java.util.*
-import java.util.concurrent.Executors
 import java.util.concurrent.atomic.AtomicReference
 import javax.crypto.Cipher
 import javax.crypto.CipherInputStream
@@ -46,11 +33,15 @@ import mdnet.base.Constants
 import mdnet.base.data.ImageData
 import mdnet.base.data.ImageDatum
 import mdnet.base.data.Statistics
-import mdnet.base.data.Token
-import mdnet.base.info
+import mdnet.base.debug
+import mdnet.base.metrics.ObservedInputStream
+import mdnet.base.metrics.RequestMetrics
+import mdnet.base.metrics.RequestPhase
 import mdnet.base.settings.ServerSettings
+import mdnet.base.sim.ShadowCache
 import mdnet.base.trace
 import mdnet.base.warn
+import mdnet.cache.CacheFillExecutor
 import mdnet.cache.CachingInputStream
 import mdnet.cache.DiskLruCache
 import org.http4k.core.*
@@ -65,19 +56,23 @@ class ImageServer(
     private val cache: DiskLruCache,
     private val database: Database,
     private val statistics: AtomicReference<Statistics>,
+    private val metrics: RequestMetrics,
+    private val shadowCache: ShadowCache?,
     private val serverSettings: ServerSettings,
-    private val client: HttpHandler
+    private val upstream: UpstreamClient,
+    private val fillExecutor: CacheFillExecutor,
+    private val downloader: CacheDownloader
 ) {
     init {
         transaction(database) {
             SchemaUtils.create(ImageData)
         }
     }
-    private val executor = Executors.newCachedThreadPool()
+    private val tokenCache = TokenCache(serverSettings.tokenKey)
+    private val metadataCache = ImageMetadataCache()
+    private val negativeCache = NegativeCache()
 
     fun handler(dataSaver: Boolean, tokenized: Boolean = false): HttpHandler {
-        val sodium = LazySodiumJava(SodiumJava())
-
         return baseHandler().then { request ->
             val chapterHash = Path.of("chapterHash")(request)
             val fileName = Path.of("fileName")(request)
@@ -89,36 +84,30 @@ class ImageServer(
             } + "/$chapterHash/$fileName"
 
             if (!request.referrerMatches(ALLOWED_REFERER_DOMAINS)) {
-                LOGGER.info { "Request for $sanitizedUri rejected due to non-allowed referrer ${request.header("Referer")}" }
+                LOGGER.debug { "Request for $sanitizedUri rejected due to non-allowed referrer ${request.header("Referer")}" }
                 return@then Response(Status.FORBIDDEN)
             }
 
             if (tokenized || serverSettings.forceTokens) {
-                val tokenArr = Base64.getUrlDecoder().decode(Path.of("token")(request))
-                val token = try {
-                    JACKSON.readValue<Token>(
-                        try {
-                            sodium.cryptoBoxOpenEasyAfterNm(
-                                tokenArr.sliceArray(24 until tokenArr.size), tokenArr.sliceArray(0 until 24), serverSettings.tokenKey
-                            )
-                        } catch (_: SodiumException) {
-                            LOGGER.info { "Request for $sanitizedUri rejected for invalid token" }
-                            return@then Response(Status.FORBIDDEN)
-                        }
-                    )
-                } catch (e: JsonProcessingException) {
-                    LOGGER.info { "Request for $sanitizedUri rejected for invalid token" }
-                    return@then Response(Status.FORBIDDEN)
-                }
+                val tokenCheckStart = System.nanoTime()
+                try {
+                    val token = tokenCache.verify(Path.of("token")(request))
+                    if (token == null) {
+                        LOGGER.debug { "Request for $sanitizedUri rejected for invalid token" }
+                        return@then Response(Status.FORBIDDEN)
+                    }
 
-                if (OffsetDateTime.now().isAfter(token.expires)) {
-                    LOGGER.info { "Request for $sanitizedUri rejected for expired token" }
-                    return@then Response(Status.GONE)
-                }
+                    if (OffsetDateTime.now().isAfter(token.expires)) {
+                        LOGGER.debug { "Request for $sanitizedUri rejected for expired token" }
+                        return@then Response(Status.GONE)
+                    }
 
-                if (token.hash != chapterHash) {
-                    LOGGER.info { "Request for $sanitizedUri rejected for inapplicable token" }
-                    return@then Response(Status.FORBIDDEN)
+                    if (token.hash != chapterHash) {
+                        LOGGER.debug { "Request for $sanitizedUri rejected for inapplicable token" }
+                        return@then Response(Status.FORBIDDEN)
+                    }
+                } finally {
+                    metrics.recordPhase(RequestPhase.TOKEN_CHECK, System.nanoTime() - tokenCheckStart)
                 }
             }
 
@@ -126,32 +115,96 @@ class ImageServer(
                 it.copy(requestsServed = it.requestsServed + 1)
             }
 
-            val rc4Bytes = if (dataSaver) {
-                md5Bytes("saver$chapterHash.$fileName")
-            } else {
-                md5Bytes("$chapterHash.$fileName")
+            val imageKey = ImageKeys.derive(dataSaver, chapterHash, fileName)
+            val imageId = imageKey.id()
+            val etag = imageKey.etag()
+
+            val refusedStatus = negativeCache.get(imageId)
+            if (refusedStatus != null) {
+                LOGGER.debug { "Request for $sanitizedUri answered from negative cache with $refusedStatus" }
+                return@then Response(refusedStatus)
             }
-            val imageId = printHexString(rc4Bytes)
 
-            val snapshot = cache.getUnsafe(imageId.toCacheId())
-            val imageDatum = synchronized(database) {
-                transaction(database) {
-                    ImageDatum.findById(imageId)
+            // images never change, so known metadata is enough to answer a conditional request
+            val conditional = request.header("If-None-Match") != null || request.header("If-Modified-Since") != null
+            var metadata = metadataCache.get(imageId)
+            if (conditional) {
+                if (metadata == null) {
+                    metadata = lookupMetadata(imageId)
+                }
+                if (metadata != null && request.isNotModified(etag, metadata)) {
+                    statistics.getAndUpdate {
+                        it.copy(browserCached = it.browserCached + 1)
+                    }
+                    LOGGER.debug { "Request for $sanitizedUri cached by browser" }
+
+                    return@then Response(Status.NOT_MODIFIED)
+                        .header("ETag", etag)
+                        .header("Last-Modified", metadata.lastModified)
                 }
             }
 
-            if (snapshot != null && imageDatum != null) {
-                request.handleCacheHit(sanitizedUri, getRc4(rc4Bytes), snapshot, imageDatum)
+            val cacheId = imageKey.cachePath()
+
+            val cacheLookupStart = System.nanoTime()
+            val snapshot = cache.getUnsafe(cacheId)
+            metrics.recordPhase(RequestPhase.CACHE_LOOKUP, System.nanoTime() - cacheLookupStart)
+
+            if (metadata == null && !conditional) {
+                metadata = lookupMetadata(imageId)
+            }
+
+            if (snapshot != null && metadata != null) {
+                shadowCache?.record(imageKey, snapshot.getLength(0))
+                request.handleCacheHit(sanitizedUri, getRc4(imageKey.bytes), snapshot, metadata, etag)
             } else {
                 if (snapshot != null) {
                     snapshot.close()
                     LOGGER.warn { "Removing cache file for $sanitizedUri without corresponding DB entry" }
-                    cache.removeUnsafe(imageId.toCacheId())
+                    cache.removeUnsafe(cacheId)
+                }
+
+                request.handleCacheMiss(sanitizedUri, imageKey.bytes, imageId, cacheId, metadata != null, etag).also {
+                    if (it.status == Status.OK) {
+                        shadowCache?.record(imageKey, it.body.length ?: 0)
+                    }
                 }
+            }
+        }
+    }
 
-                request.handleCacheMiss(sanitizedUri, getRc4(rc4Bytes), imageId, imageDatum)
+    private fun lookupMetadata(imageId: String): ImageMetadata? {
+        val metadataLookupStart = System.nanoTime()
+        val imageDatum = synchronized(database) {
+            transaction(database) {
+                ImageDatum.findById(imageId)
+            }
+        }
+        metrics.recordPhase(RequestPhase.METADATA_LOOKUP, System.nanoTime() - metadataLookupStart)
+
+        return imageDatum?.let {
+            ImageMetadata(it.contentType, it.lastModified).also { metadata ->
+                metadataCache.put(imageId, metadata)
+            }
+        }
+    }
+
+    /**
+     * Evaluates `If-None-Match`, or failing that `If-Modified-Since`, against
+     * the image. A last modified date that does not parse counts as not
+     * modified, since the image cannot have changed either way.
+     */
+    private fun Request.isNotModified(etag: String, metadata: ImageMetadata): Boolean {
+        val ifNoneMatch = this.header("If-None-Match")
+        if (ifNoneMatch != null) {
+            return ifNoneMatch.split(',').any {
+                val tag = it.trim().removePrefix("W/")
+                tag == etag || tag == "*"
             }
         }
+
+        val since = parseHttpDate(this.header("If-Modified-Since") ?: return false)
+        return since >= 0 && metadata.lastModifiedMillis <= since
     }
 
     /**
@@ -169,49 +222,45 @@ class ImageServer(
         }
     }
 
-    private fun Request.handleCacheHit(sanitizedUri: String, cipher: Cipher, snapshot: DiskLruCache.Snapshot, imageDatum: ImageDatum): Response {
-        // our files never change, so it's safe to use the browser cache
-        return if (this.header("If-Modified-Since") != null) {
-            statistics.getAndUpdate {
-                it.copy(browserCached = it.browserCached + 1)
-            }
-
-            LOGGER.info { "Request for $sanitizedUri cached by browser" }
-
-            val lastModified = imageDatum.lastModified
-            snapshot.close()
-
-            Response(Status.NOT_MODIFIED)
-                .header("Last-Modified", lastModified)
-        } else {
-            statistics.getAndUpdate {
-                it.copy(cacheHits = it.cacheHits + 1)
-            }
+    private fun Request.handleCacheHit(sanitizedUri: String, cipher: Cipher, snapshot: DiskLruCache.Snapshot, metadata: ImageMetadata, etag: String): Response {
+        statistics.getAndUpdate {
+            it.copy(cacheHits = it.cacheHits + 1)
+        }
 
-            LOGGER.info { "Request for $sanitizedUri hit cache" }
+        LOGGER.debug { "Request for $sanitizedUri hit cache" }
 
-            respondWithImage(
-                CipherInputStream(BufferedInputStream(snapshot.getInputStream(0)), cipher),
-                snapshot.getLength(0).toString(), imageDatum.contentType, imageDatum.lastModified,
-                true
-            )
-        }
+        return respondWithImage(
+            CipherInputStream(BufferedInputStream(snapshot.getInputStream(0)), cipher),
+            snapshot.getLength(0).toString(), metadata.contentType, metadata.lastModified, etag,
+            true
+        )
     }
 
-    private fun Request.handleCacheMiss(sanitizedUri: String, cipher: Cipher, imageId: String, imageDatum: ImageDatum?): Response {
-        LOGGER.info { "Request for $sanitizedUri missed cache" }
+    private fun Request.handleCacheMiss(sanitizedUri: String, rc4Key: ByteArray, imageId: String, cacheId: String, metadataKnown: Boolean, etag: String): Response {
+        LOGGER.debug { "Request for $sanitizedUri missed cache" }
 
         statistics.getAndUpdate {
             it.copy(cacheMisses = it.cacheMisses + 1)
         }
 
-        val mdResponse = client(Request(Method.GET, "${serverSettings.imageServer}$sanitizedUri"))
+        val upstreamStart = System.nanoTime()
+        val mdResponse = upstream.fetch(sanitizedUri)
+        metrics.recordPhase(RequestPhase.UPSTREAM_CONNECT, System.nanoTime() - upstreamStart)
 
         if (mdResponse.status != Status.OK) {
             LOGGER.trace { "Upstream query for $sanitizedUri errored with status ${mdResponse.status}" }
 
+            val refusalTtl = NegativeCache.ttlMillis(mdResponse.status)
+            if (refusalTtl > 0) {
+                negativeCache.put(imageId, mdResponse.status, refusalTtl)
+            }
             mdResponse.close()
-            return Response(mdResponse.status)
+            val retryAfter = mdResponse.header("Retry-After")
+            return if (retryAfter != null) {
+                Response(mdResponse.status).header("Retry-After", retryAfter)
+            } else {
+                Response(mdResponse.status)
+            }
         }
 
         LOGGER.trace { "Upstream query for $sanitizedUri succeeded" }
@@ -220,14 +269,18 @@ class ImageServer(
         val contentLength = mdResponse.header("Content-Length")
         val lastModified = mdResponse.header("Last-Modified")
 
-        val editor = cache.editUnsafe(imageId.toCacheId())
+        val upstreamStream = ObservedInputStream(mdResponse.body.stream, onFirstByte = {
+            metrics.recordPhase(RequestPhase.UPSTREAM_FIRST_BYTE, System.nanoTime() - upstreamStart)
+        })
+
+        val editor = cache.editUnsafe(cacheId)
 
         // A null editor means that this file is being written to
         // concurrently so we skip the cache process
         return if (editor != null && contentLength != null && lastModified != null) {
             LOGGER.trace { "Request for $sanitizedUri is being cached and served" }
 
-            if (imageDatum == null) {
+            if (!metadataKnown) {
                 synchronized(database) {
                     transaction(database) {
                         ImageDatum.new(imageId) {
@@ -236,15 +289,26 @@ class ImageServer(
                         }
                     }
                 }
+                metadataCache.put(imageId, ImageMetadata(contentType, lastModified))
             }
 
-            val tee = CachingInputStream(
-                mdResponse.body.stream,
-                executor, CipherOutputStream(BufferedOutputStream(editor.newOutputStream(0)), cipher)
-            ) {
+            val length = contentLength.toLong()
+            val resumable = RangeResumingInputStream(upstreamStream, length, MAX_UPSTREAM_RESUMES) { offset ->
+                upstream.resumes.incrementAndGet()
+                LOGGER.debug { "Resuming upstream download for $sanitizedUri at $offset of $length bytes" }
+                val resumed = upstream.fetch(sanitizedUri, listOf("Range" to "bytes=$offset-", "If-Range" to lastModified))
+                if (resumed.status == Status.PARTIAL_CONTENT && resumed.header("Content-Range")?.startsWith("bytes $offset-") == true) {
+                    resumed.body.stream
+                } else {
+                    LOGGER.debug { "Upstream refused to resume $sanitizedUri with ${resumed.status}" }
+                    resumed.close()
+                    null
+                }
+            }
+            val completeEdit = {
                 try {
-                    if (editor.getLength(0) == contentLength.toLong()) {
-                        LOGGER.info { "Cache download for $sanitizedUri committed" }
+                    if (editor.getLength(0) == length) {
+                        LOGGER.debug { "Cache download for $sanitizedUri committed" }
                         editor.commit()
                     } else {
                         LOGGER.warn { "Cache download for $sanitizedUri aborted" }
@@ -254,21 +318,35 @@ class ImageServer(
                     LOGGER.warn(e) { "Cache go/no go for $sanitizedUri failed" }
                 }
             }
-            respondWithImage(tee, contentLength, contentType, lastModified, false)
+            val abortEdit = {
+                try {
+                    LOGGER.warn { "Cache download for $sanitizedUri aborted" }
+                    editor.abort()
+                } catch (e: Exception) {
+                    LOGGER.warn(e) { "Cache abort for $sanitizedUri failed" }
+                }
+            }
+
+            // download at upstream speed and tail the cache file, or if every
+            // download thread is busy, tee upstream to the client and the cache
+            val body = downloader.start(resumable, editor, getRc4(rc4Key), getRc4(rc4Key), length) { completeEdit() }
+                ?: CachingInputStream(
+                    resumable,
+                    fillExecutor, CipherOutputStream(BufferedOutputStream(editor.newOutputStream(0, length)), getRc4(rc4Key)),
+                    Runnable { completeEdit() }, Runnable { abortEdit() }
+                )
+            respondWithImage(body, contentLength, contentType, lastModified, etag, false)
         } else {
             editor?.abort()
             LOGGER.trace { "Request for $sanitizedUri is being served" }
-            respondWithImage(mdResponse.body.stream, contentLength, contentType, lastModified, false)
+            respondWithImage(upstreamStream, contentLength, contentType, lastModified, etag, false)
         }
     }
 
-    private fun String.toCacheId() =
-        this.substring(0, 8).replace("..(?!$)".toRegex(), "$0 ").split(" ".toRegex())
-            .plus(this).joinToString(File.separator)
-
-    private fun respondWithImage(input: InputStream, length: String?, type: String, lastModified: String?, cached: Boolean): Response =
+    private fun respondWithImage(input: InputStream, length: String?, type: String, lastModified: String?, etag: String, cached: Boolean): Response =
         Response(Status.OK)
             .header("Content-Type", type)
+            .header("ETag", etag)
             .header("X-Content-Type-Options", "nosniff")
             .let {
                 if (length != null) {
@@ -288,9 +366,7 @@ class ImageServer(
 
     companion object {
         private val LOGGER = LoggerFactory.getLogger(ImageServer::class.java)
-        private val JACKSON: ObjectMapper = jacksonObjectMapper()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .registerModule(JavaTimeModule())
+        private const val MAX_UPSTREAM_RESUMES = 3
         private val ALLOWED_REFERER_DOMAINS = listOf("mangadex.org", "mangadex.network") // TODO: Factor out hardcoded domains?
 
         private fun baseHandler(): Filter =
@@ -312,16 +388,3 @@ private fun getRc4(key: ByteArray): Cipher {
     rc4.init(Cipher.ENCRYPT_MODE, SecretKeySpec(key, "RC4"))
     return rc4
 }
-
-private fun md5Bytes(stringToHash: String): ByteArray {
-    val digest = MessageDigest.getInstance("MD5")
-    return digest.digest(stringToHash.toByteArray())
-}
-
-private fun printHexString(bytes: ByteArray): String {
-    val sb = StringBuilder()
-    for (b in bytes) {
-        sb.append(String.format("%02x", b))
-    }
-    return sb.toString()
-}
@@ -0,0 +1,72 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.util.concurrent.atomic.AtomicLong
+import org.http4k.core.Status
+
+/**
+ * Remembers images that upstream refused, so that repeated requests for
+ * broken chapters and dead links are answered locally instead of costing an
+ * upstream round trip each. Missing images are remembered for longer than
+ * forbidden ones, which may only be refused for a while.
+ */
+class NegativeCache(maxEntries: Int = BoundedExpiringMap.DEFAULT_MAX_ENTRIES) {
+    private val entries = BoundedExpiringMap<String, Status>(maxEntries)
+
+    val hits = AtomicLong()
+
+    /**
+     * Returns the status upstream last answered with for this image, if it
+     * is still remembered.
+     */
+    fun get(imageId: String): Status? {
+        val status = entries.get(imageId) ?: return null
+        hits.incrementAndGet()
+        return status
+    }
+
+    /**
+     * Remembers a failed upstream response for [ttlMillis], which callers look
+     * up for the status first so that statuses not worth remembering cost
+     * nothing.
+     */
+    fun put(imageId: String, status: Status, ttlMillis: Long) {
+        entries.put(imageId, status, System.currentTimeMillis() + ttlMillis)
+    }
+
+    companion object {
+        private const val MISSING_TTL_MILLIS = 5 * 60_000L
+        private const val FORBIDDEN_TTL_MILLIS = 30_000L
+        private const val CLIENT_ERROR_TTL_MILLIS = 10_000L
+
+        /**
+         * Returns how long a refusal with [status] is remembered, or zero if it
+         * says nothing about the image.
+         */
+        fun ttlMillis(status: Status): Long = when (status.code) {
+            404, 410 -> MISSING_TTL_MILLIS
+            401, 403 -> FORBIDDEN_TTL_MILLIS
+            // timeouts and rate limits say nothing about the image
+            408, 429 -> 0
+            in 400..499 -> CLIENT_ERROR_TTL_MILLIS
+            else -> 0
+        }
+    }
+}
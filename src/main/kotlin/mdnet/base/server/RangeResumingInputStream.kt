@@ -0,0 +1,88 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.io.EOFException
+import java.io.IOException
+import java.io.InputStream
+import org.apache.http.conn.ConnectionReleaseTrigger
+
+/**
+ * Reads an upstream body of known [length], and when the connection breaks
+ * before the end, continues from the bytes already read through [resume],
+ * which returns the rest of the body from the given offset or null if it is
+ * not available. Gives up after [maxResumes] attempts and rethrows.
+ *
+ * Aborting the stream aborts the current upstream connection instead of
+ * reading the rest of the body to release it.
+ */
+class RangeResumingInputStream(
+    private var current: InputStream,
+    private val length: Long,
+    private val maxResumes: Int,
+    private val resume: (Long) -> InputStream?
+) : InputStream(), ConnectionReleaseTrigger {
+    private var position = 0L
+    private var resumes = 0
+    private val single = ByteArray(1)
+
+    override fun read(): Int = if (read(single, 0, 1) < 0) -1 else single[0].toInt() and 0xff
+
+    override fun read(b: ByteArray, off: Int, len: Int): Int {
+        while (true) {
+            try {
+                val n = current.read(b, off, len)
+                if (n < 0 && position < length) {
+                    throw EOFException("Upstream ended at $position of $length bytes")
+                }
+                if (n > 0) {
+                    position += n
+                }
+                return n
+            } catch (e: IOException) {
+                if (resumes >= maxResumes) {
+                    throw e
+                }
+                resumes++
+                try {
+                    current.close()
+                } catch (_: IOException) {
+                }
+                current = resume(position) ?: throw e
+            }
+        }
+    }
+
+    override fun available(): Int = current.available()
+
+    override fun close() {
+        current.close()
+    }
+
+    override fun releaseConnection() = close()
+
+    override fun abortConnection() {
+        val upstream = current
+        if (upstream is ConnectionReleaseTrigger) {
+            upstream.abortConnection()
+        } else {
+            upstream.close()
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import com.fasterxml.jackson.core.JsonProcessingException
+import com.fasterxml.jackson.databind.DeserializationFeature
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import com.goterl.lazycode.lazysodium.LazySodiumJava
+import com.goterl.lazycode.lazysodium.SodiumJava
+import com.goterl.lazycode.lazysodium.exceptions.SodiumException
+import java.util.Base64
+import java.util.concurrent.atomic.AtomicLong
+import mdnet.base.data.Token
+
+/**
+ * Decrypts and parses tokens, remembering the result so that the pages of a
+ * chapter, which all share one token, only pay for it once. Tokens are kept
+ * until they expire, and tokens that fail to verify are remembered briefly
+ * so that spraying garbage tokens stays cheap.
+ *
+ * Entries are keyed by the token as sent, which maps one to one onto the
+ * token bytes without having to decode them first.
+ */
+class TokenCache(private val tokenKey: ByteArray, maxEntries: Int = BoundedExpiringMap.DEFAULT_MAX_ENTRIES) {
+    private val sodium = LazySodiumJava(SodiumJava())
+    private val entries = BoundedExpiringMap<String, Verification>(maxEntries)
+
+    val hits = AtomicLong()
+    val misses = AtomicLong()
+
+    private class Verification(val token: Token?)
+
+    /**
+     * Returns the token, or null if it does not decrypt to a valid token.
+     * Expiry and applicability are left to the caller.
+     */
+    fun verify(encoded: String): Token? {
+        val cached = entries.get(encoded)
+        if (cached != null) {
+            hits.incrementAndGet()
+            return cached.token
+        }
+        misses.incrementAndGet()
+
+        val token = decrypt(encoded)
+        if (token != null) {
+            entries.put(encoded, Verification(token), token.expires.toInstant().toEpochMilli())
+        } else {
+            entries.put(encoded, INVALID, System.currentTimeMillis() + INVALID_TOKEN_TTL_MILLIS)
+        }
+        return token
+    }
+
+    private fun decrypt(encoded: String): Token? {
+        return try {
+            val tokenArr = Base64.getUrlDecoder().decode(encoded)
+            if (tokenArr.size <= NONCE_LENGTH) {
+                return null
+            }
+            JACKSON.readValue<Token>(
+                sodium.cryptoBoxOpenEasyAfterNm(
+                    tokenArr.sliceArray(NONCE_LENGTH until tokenArr.size), tokenArr.sliceArray(0 until NONCE_LENGTH), tokenKey
+                )
+            )
+        } catch (_: IllegalArgumentException) {
+            null
+        } catch (_: SodiumException) {
+            null
+        } catch (_: JsonProcessingException) {
+            null
+        }
+    }
+
+    companion object {
+        private const val INVALID_TOKEN_TTL_MILLIS = 60_000L
+        private val INVALID = Verification(null)
+        private const val NONCE_LENGTH = 24
+
+        private val JACKSON: ObjectMapper = jacksonObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(JavaTimeModule())
+    }
+}
@@ -0,0 +1,328 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.Supplier
+import mdnet.base.metrics.LatencyHistogram
+import mdnet.base.settings.UpstreamSettings
+import org.apache.http.HttpRequestInterceptor
+import org.apache.http.client.methods.HttpRequestBase
+import org.apache.http.client.methods.HttpRequestWrapper
+import org.http4k.core.HttpHandler
+import org.http4k.core.Method
+import org.http4k.core.Request
+import org.http4k.core.Response
+import org.http4k.core.Status
+
+/**
+ * Fetches images from the upstream given by the control server and any
+ * configured mirrors, preferring the one with the lowest moving average of
+ * time to headers.
+ *
+ * When hedging is enabled, there is another upstream, and the first upstream
+ * has not answered within the recent p95 (clamped to the configured bounds),
+ * the same request is sent to another upstream, and whichever usable response
+ * arrives first wins. The loser is aborted, which drops its connection
+ * whether or not its headers have arrived, if the Apache client behind
+ * [client] has [ABORT_HOOK] installed, and is otherwise closed once it
+ * arrives. Hedged fetches run on a bounded pool, and misses that find it
+ * full are fetched on the calling thread without hedging.
+ *
+ * Each upstream sits behind a [CircuitBreaker]. Upstreams with an open
+ * circuit are skipped, and if every circuit is open the request fails
+ * immediately with 503 and a `Retry-After`.
+ */
+class UpstreamClient(imageServer: String, private val settings: UpstreamSettings?, private val client: HttpHandler) {
+    val upstreams = (listOf(imageServer) + settings?.mirrors.orEmpty())
+        .map { it.trimEnd('/') }
+        .distinct()
+        .map { url -> Upstream(url, settings?.circuitBreaker?.let { CircuitBreaker(url, it) }) }
+
+    val hedgesSent = AtomicLong()
+    val hedgesWon = AtomicLong()
+    val rejected = AtomicLong()
+    val resumes = AtomicLong()
+
+    private val headerLatency = LatencyHistogram()
+    private var window = headerLatency.snapshot()
+    private var nextWindowNanos = System.nanoTime() + WINDOW_NANOS
+    @Volatile
+    private var hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings?.maxHedgeDelayMillis ?: 0)
+    private val hedgeRotation = AtomicInteger()
+
+    private val maxHedged = if (settings != null && settings.hedgeRequests && upstreams.size > 1) settings.maxHedgedRequests else 0
+    private val hedgeSlots = Semaphore(maxHedged)
+    private val executor = if (maxHedged == 0) null else ThreadPoolExecutor(
+        maxHedged, maxHedged, 60, TimeUnit.SECONDS, LinkedBlockingQueue()
+    ) { runnable ->
+        Thread(runnable, "upstream-request").apply { isDaemon = true }
+    }.apply { allowCoreThreadTimeOut(true) }
+
+    class Upstream(val url: String, val breaker: CircuitBreaker?) {
+        @Volatile
+        var averageNanos = 0.0
+            private set
+        val requests = AtomicLong()
+        val failures = AtomicLong()
+
+        @Synchronized
+        internal fun observe(nanos: Long) {
+            averageNanos = if (averageNanos == 0.0) nanos.toDouble() else averageNanos + EWMA_ALPHA * (nanos - averageNanos)
+        }
+
+        internal fun tryAcquire() = breaker?.tryAcquire() ?: true
+    }
+
+    /**
+     * Fetches `path` from the best upstream, hedging if it is slow.
+     */
+    fun fetch(path: String, headers: List<Pair<String, String>> = emptyList()): Response {
+        val ranked = if (upstreams.size == 1) upstreams else upstreams.sortedBy { it.averageNanos }
+        val primary = ranked.firstOrNull { it.tryAcquire() } ?: return unavailable()
+        if (executor == null || !hedgeSlots.tryAcquire()) {
+            return fetchFrom(primary, path, headers, null)
+        }
+
+        val firstExchange = Exchange()
+        val first = submit(primary, path, headers, firstExchange)
+        try {
+            return first.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS)
+        } catch (_: TimeoutException) {
+            // fall through to hedging
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+
+        if (!hedgeSlots.tryAcquire()) {
+            return first.await()
+        }
+        val secondary = hedgeTarget(ranked, primary)
+        if (secondary == null) {
+            hedgeSlots.release()
+            return first.await()
+        }
+        hedgesSent.incrementAndGet()
+        val secondExchange = Exchange()
+        val second = submit(secondary, path, headers, secondExchange)
+
+        val winner = CompletableFuture<Response>()
+        val pending = AtomicInteger(2)
+        for (attempt in listOf(first, second)) {
+            attempt.whenComplete { response, error ->
+                val last = pending.decrementAndGet() == 0
+                val usable = response != null && !response.failed()
+                if (usable || last) {
+                    val completed = if (response != null) {
+                        winner.complete(response)
+                    } else {
+                        winner.completeExceptionally(if (error is CompletionException) error.cause ?: error else error)
+                    }
+                    if (completed) {
+                        if (attempt === second) {
+                            hedgesWon.incrementAndGet()
+                            firstExchange.abort()
+                        } else {
+                            secondExchange.abort()
+                        }
+                        return@whenComplete
+                    }
+                }
+                response?.close()
+            }
+        }
+
+        return winner.await()
+    }
+
+    /**
+     * Fetches on the hedging pool, returning the slot the caller took for it
+     * once done.
+     */
+    private fun submit(upstream: Upstream, path: String, headers: List<Pair<String, String>>, exchange: Exchange): CompletableFuture<Response> {
+        return CompletableFuture.supplyAsync(Supplier {
+            try {
+                fetchFrom(upstream, path, headers, exchange)
+            } finally {
+                hedgeSlots.release()
+            }
+        }, executor)
+    }
+
+    private fun <T> CompletableFuture<T>.await(): T {
+        try {
+            return get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    /**
+     * Picks the upstream to hedge to, rotating through the others so that all
+     * of them keep a current latency average, or returns null if none of them
+     * takes requests. Sending the same request to the primary twice would
+     * only double its load.
+     */
+    private fun hedgeTarget(ranked: List<Upstream>, primary: Upstream): Upstream? {
+        val start = Math.floorMod(hedgeRotation.getAndIncrement(), ranked.size)
+        for (i in ranked.indices) {
+            val candidate = ranked[(start + i) % ranked.size]
+            if (candidate !== primary && candidate.tryAcquire()) {
+                return candidate
+            }
+        }
+        return null
+    }
+
+    private fun unavailable(): Response {
+        rejected.incrementAndGet()
+        val retryMillis = upstreams.map { it.breaker?.millisUntilRetry() ?: 0 }.min() ?: 0
+        return Response(Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", maxOf(1, TimeUnit.MILLISECONDS.toSeconds(retryMillis + 999)).toString())
+    }
+
+    private fun fetchFrom(upstream: Upstream, path: String, headers: List<Pair<String, String>>, exchange: Exchange?): Response {
+        upstream.requests.incrementAndGet()
+        val start = System.nanoTime()
+        if (exchange != null) {
+            CURRENT_EXCHANGE.set(exchange)
+        }
+        val response = try {
+            client(Request(Method.GET, "${upstream.url}$path").headers(headers))
+        } catch (e: Exception) {
+            val elapsed = System.nanoTime() - start
+            if (exchange != null && exchange.aborted) {
+                // it lost a hedge, which says nothing about the upstream but that it was slower
+                upstream.observe(elapsed)
+                upstream.breaker?.release()
+            } else {
+                upstream.failures.incrementAndGet()
+                upstream.observe(maxOf(elapsed, FAILURE_PENALTY_NANOS))
+                upstream.breaker?.record(elapsed, true)
+            }
+            throw e
+        } finally {
+            if (exchange != null) {
+                CURRENT_EXCHANGE.remove()
+            }
+        }
+        val elapsed = System.nanoTime() - start
+        if (exchange != null && exchange.aborted) {
+            upstream.observe(elapsed)
+            upstream.breaker?.release()
+            return response
+        }
+        upstream.breaker?.record(elapsed, response.failed())
+
+        if (response.failed()) {
+            upstream.failures.incrementAndGet()
+            upstream.observe(maxOf(elapsed, FAILURE_PENALTY_NANOS))
+        } else {
+            upstream.observe(elapsed)
+            headerLatency.record(elapsed)
+        }
+        return response
+    }
+
+    /**
+     * Returns the hedge delay, recomputed from the latencies of the last
+     * window once it has enough samples.
+     */
+    private fun hedgeDelayNanos(): Long {
+        val now = System.nanoTime()
+        if (now >= nextWindowNanos) {
+            synchronized(this) {
+                if (now >= nextWindowNanos) {
+                    val snapshot = headerLatency.snapshot()
+                    val recent = snapshot - window
+                    if (recent.count >= MIN_WINDOW_SAMPLES) {
+                        hedgeDelayNanos = recent.percentile(settings!!.hedgePercentile).coerceIn(
+                            TimeUnit.MILLISECONDS.toNanos(settings.minHedgeDelayMillis),
+                            TimeUnit.MILLISECONDS.toNanos(settings.maxHedgeDelayMillis)
+                        )
+                        window = snapshot
+                    }
+                    nextWindowNanos = now + WINDOW_NANOS
+                }
+            }
+        }
+        return hedgeDelayNanos
+    }
+
+    fun hedgeDelayMillis(): Long = TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos)
+
+    // the Apache client reports timeouts as 408 and connection failures as 503
+    private fun Response.failed() = status.serverError || status.code == 408
+
+    /**
+     * One attempt of a hedged fetch, which is aborted if the other attempt
+     * wins. Either side may come first: the request is aborted by whichever of
+     * [abort] and [capture] sees the other.
+     */
+    private class Exchange {
+        @Volatile
+        private var request: HttpRequestBase? = null
+        @Volatile
+        var aborted = false
+            private set
+
+        fun abort() {
+            aborted = true
+            request?.abort()
+        }
+
+        fun capture(request: HttpRequestBase) {
+            this.request = request
+            if (aborted) {
+                request.abort()
+            }
+        }
+    }
+
+    companion object {
+        private val CURRENT_EXCHANGE = ThreadLocal<Exchange>()
+
+        /**
+         * Hands the Apache request of each hedged attempt to its [Exchange], so
+         * that a losing attempt can be aborted rather than left to finish. It
+         * must be added to the Apache client behind the [HttpHandler].
+         */
+        val ABORT_HOOK = HttpRequestInterceptor { request, _ ->
+            val exchange = CURRENT_EXCHANGE.get()
+            val original = (request as? HttpRequestWrapper)?.original
+            if (exchange != null && original is HttpRequestBase) {
+                exchange.capture(original)
+            }
+        }
+
+        private const val EWMA_ALPHA = 0.2
+        private val FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(3)
+        private val WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10)
+        private const val MIN_WINDOW_SAMPLES = 50
+    }
+}
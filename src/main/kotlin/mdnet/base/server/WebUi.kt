@@ -19,18 +19,31 @@ along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
 /* ktlint-disable no-wildcard-imports */
 package mdnet.base.server
 
+import java.time.Duration
 import java.time.Instant
 import java.util.concurrent.atomic.AtomicReference
 import mdnet.base.data.Statistics
+import mdnet.base.data.StatisticsHistory
+import mdnet.base.metrics.LatencyStatistics
+import mdnet.base.metrics.OPENMETRICS_CONTENT_TYPE
+import mdnet.base.metrics.OpenMetricsExporter
+import mdnet.base.metrics.RequestMetrics
+import mdnet.base.netty.ServerSentEvents
 import mdnet.base.netty.WebUiNetty
 import mdnet.base.settings.WebSettings
+import mdnet.base.sim.ShadowCache
+import mdnet.base.sim.ShadowCacheEstimates
 import org.http4k.core.Body
 import org.http4k.core.Method
+import org.http4k.core.Request
 import org.http4k.core.Response
 import org.http4k.core.Status
 import org.http4k.core.then
 import org.http4k.filter.ServerFilters
+import org.http4k.format.Jackson
 import org.http4k.format.Jackson.auto
+import org.http4k.lens.Query
+import org.http4k.lens.instant
 import org.http4k.routing.ResourceLoader
 import org.http4k.routing.bind
 import org.http4k.routing.routes
@@ -38,28 +51,87 @@ import org.http4k.routing.singlePageApp
 import org.http4k.server.Http4kServer
 import org.http4k.server.asServer
 
+private val PAST_STATS_WINDOW = Duration.ofHours(1)
+
 fun getUiServer(
     webSettings: WebSettings,
     statistics: AtomicReference<Statistics>,
-    statsMap: Map<Instant, Statistics>
+    statsHistory: StatisticsHistory,
+    requestMetrics: RequestMetrics,
+    shadowCache: ShadowCache?,
+    metricsExporter: OpenMetricsExporter
 ): Http4kServer {
     val statsMapLens = Body.auto<Map<Instant, Statistics>>().toLens()
+    val latencyLens = Body.auto<LatencyStatistics>().toLens()
+    val shadowCacheLens = Body.auto<ShadowCacheEstimates>().toLens()
+    val historyFromLens = Query.instant().optional("from")
+    val historyToLens = Query.instant().optional("to")
+    val sinceLens = Query.instant().optional("since")
+
+    val statsEvents = ServerSentEvents("/api/statsStream")
+    statsHistory.addListener { instant, stats ->
+        statsEvents.publish("stats", Jackson.mapper.writeValueAsString(mapOf(instant to stats)))
+    }
 
     return catchAllHideDetails()
         .then(ServerFilters.CatchLensFailure)
         .then(addCommonHeaders())
         .then(
             routes(
-                "/api/stats" bind Method.GET to {
-                    statsMapLens(mapOf(Instant.now() to statistics.get()), Response(Status.OK))
-                },
-                "/api/pastStats" bind Method.GET to {
-                    synchronized(statsMap) {
-                        statsMapLens(statsMap, Response(Status.OK))
+                // only the JSON API is small enough to be gzipped in memory
+                "/api" bind routes(
+                    "/stats" bind Method.GET to {
+                        statsMapLens(mapOf(Instant.now() to statistics.get()), Response(Status.OK))
+                    },
+                    "/pastStats" bind Method.GET to { request ->
+                        // with a cursor, only points recorded after it are returned
+                        val since = sinceLens(request)
+                        request.respondUnlessUnchanged(statsHistory) {
+                            val now = Instant.now()
+                            val from = since?.plusMillis(1) ?: now.minus(PAST_STATS_WINDOW)
+                            statsMapLens(statsHistory.query(from, now), Response(Status.OK))
+                        }
+                    },
+                    "/history" bind Method.GET to { request ->
+                        request.respondUnlessUnchanged(statsHistory) {
+                            val now = Instant.now()
+                            val from = historyFromLens(request) ?: now.minus(PAST_STATS_WINDOW)
+                            val to = historyToLens(request) ?: now
+                            statsMapLens(statsHistory.query(from, to), Response(Status.OK))
+                        }
+                    },
+                    "/latency" bind Method.GET to {
+                        latencyLens(requestMetrics.summary(), Response(Status.OK))
+                    },
+                    "/shadowCache" bind Method.GET to {
+                        if (shadowCache != null) {
+                            shadowCacheLens(shadowCache.estimates(), Response(Status.OK))
+                        } else {
+                            Response(Status.NOT_FOUND)
+                        }
                     }
+                ).withFilter(gzipResponses()),
+                "/metrics" bind Method.GET to {
+                    Response(Status.OK)
+                        .header("Content-Type", OPENMETRICS_CONTENT_TYPE)
+                        .body(metricsExporter.render())
                 },
                 singlePageApp(ResourceLoader.Classpath("/webui"))
             )
         )
-        .asServer(WebUiNetty(webSettings.uiHostname, webSettings.uiPort))
+        .asServer(WebUiNetty(webSettings.uiHostname, webSettings.uiPort, statsEvents))
+}
+
+/**
+ * Answers with 304 if the client already has the response for this exact
+ * query as of the latest recorded snapshot.
+ */
+private fun Request.respondUnlessUnchanged(statsHistory: StatisticsHistory, respond: () -> Response): Response {
+    val etag = "\"${statsHistory.lastRecorded?.toEpochMilli() ?: 0}-${uri.query.hashCode().toString(16)}\""
+
+    return if (header("If-None-Match") == etag) {
+        Response(Status.NOT_MODIFIED).header("ETag", etag)
+    } else {
+        respond().header("ETag", etag)
+    }
 }
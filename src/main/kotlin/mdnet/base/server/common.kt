@@ -19,13 +19,17 @@ along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
 /* ktlint-disable no-wildcard-imports */
 package mdnet.base.server
 
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
 import java.time.ZoneOffset
 import java.time.ZonedDateTime
 import java.time.format.DateTimeFormatter
 import java.util.*
+import java.util.zip.GZIPOutputStream
 import mdnet.BuildInfo
 import mdnet.base.Constants
 import mdnet.base.warn
+import org.http4k.core.Body
 import org.http4k.core.Filter
 import org.http4k.core.HttpHandler
 import org.http4k.core.Request
@@ -46,6 +50,35 @@ fun addCommonHeaders(): Filter {
     }
 }
 
+/**
+ * Gzips response bodies of at least [minimumSize] bytes for clients that
+ * accept it, and marks every response as varying by `Accept-Encoding`. Only
+ * suitable for bodies that are cheap to buffer in memory.
+ */
+fun gzipResponses(minimumSize: Int = 1024): Filter {
+    return Filter { next: HttpHandler ->
+        { request: Request ->
+            val response = next(request).header("Vary", "Accept-Encoding")
+            val acceptsGzip = request.header("Accept-Encoding")?.contains("gzip") == true
+
+            if (!acceptsGzip || response.status == Status.NOT_MODIFIED || response.header("Content-Encoding") != null) {
+                response
+            } else {
+                val bytes = response.body.stream.use { it.readBytes() }
+                if (bytes.size < minimumSize) {
+                    response.body(Body(ByteBuffer.wrap(bytes)))
+                } else {
+                    val compressed = ByteArrayOutputStream(bytes.size / 4)
+                    GZIPOutputStream(compressed).use { it.write(bytes) }
+
+                    response.body(Body(ByteBuffer.wrap(compressed.toByteArray())))
+                        .header("Content-Encoding", "gzip")
+                }
+            }
+        }
+    }
+}
+
 fun catchAllHideDetails(): Filter {
     return Filter { next: HttpHandler ->
         { request: Request ->
@@ -26,6 +26,10 @@ import dev.afanasev.sekret.Secret
 @JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
 data class ClientSettings(
     val maxCacheSizeInMebibytes: Long = 20480,
+    val cacheLowWatermark: Double = 0.95, // fraction of max_cache_size_in_mebibytes that eviction brings the cache down to
+    val cacheVolumes: List<CacheVolumeSettings> = emptyList(), // the first holds the journal, "cache" alone when empty
+    val cacheTierSettings: CacheTierSettings? = null, // needs both "fast" and "slow" cache volumes
+    val maxOpenCacheFiles: Int = 256, // files of hot images kept open for reading, 0 opens files for every read
     val maxMebibytesPerHour: Long = 0,
     val maxKilobitsPerSecond: Long = 0,
     val clientHostname: String = "0.0.0.0",
@@ -35,6 +39,12 @@ data class ClientSettings(
     val threads: Int = 4,
     val gracefulShutdownWaitSeconds: Int = 60,
     val webSettings: WebSettings? = null,
+    val accessLogSettings: AccessLogSettings? = null,
+    val shadowCacheSettings: ShadowCacheSettings? = ShadowCacheSettings(),
+    val upstreamSettings: UpstreamSettings? = UpstreamSettings(),
+    val cacheFillSettings: CacheFillSettings = CacheFillSettings(),
+    val cacheJournalSettings: CacheJournalSettings? = CacheJournalSettings(),
+    val nativeIoSettings: NativeIoSettings? = NativeIoSettings(), // null disables page cache hints and preallocation
     val devSettings: DevSettings? = null
 )
 
@@ -44,7 +54,80 @@ data class WebSettings(
     val uiPort: Int = 8080
 )
 
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class AccessLogSettings(
+    val path: String = "log/access.log",
+    val format: String = "binary", // "binary" or "tsv"
+    val sampleRate: Double = 1.0,
+    val bufferSize: Int = 65536
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class ShadowCacheSettings(
+    val sampleRate: Double = 0.01,
+    val sizeFactors: List<Double> = listOf(0.5, 1.0, 2.0, 4.0) // multiples of max_cache_size_in_mebibytes
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class UpstreamSettings(
+    val mirrors: List<String> = emptyList(), // tried alongside the upstream given by the control server
+    val hedgeRequests: Boolean = true, // only with mirrors, as a hedge goes to another upstream
+    val maxHedgedRequests: Int = 64, // misses beyond this many at once are fetched without hedging
+    val hedgePercentile: Double = 95.0,
+    val minHedgeDelayMillis: Long = 50,
+    val maxHedgeDelayMillis: Long = 1000,
+    val circuitBreaker: CircuitBreakerSettings? = CircuitBreakerSettings()
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class CircuitBreakerSettings(
+    val windowSeconds: Int = 10,
+    val minimumRequests: Int = 20, // within the window before the circuit may open
+    val failureRateThreshold: Double = 0.5,
+    val slowCallMillis: Long = 2000,
+    val slowCallRateThreshold: Double = 0.8,
+    val openMillis: Long = 5000, // doubled each time a probe fails
+    val maxOpenMillis: Long = 60000,
+    val halfOpenProbes: Int = 3
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class CacheFillSettings(
+    val threads: Int = 8,
+    val maxQueuedFills: Int = 256,
+    val deadlineSeconds: Long = 30, // from the moment the reader went away
+    val dropPolicy: String = "oldest", // "oldest" or "newest", which queued fill to drop when full
+    val maxDownloads: Int = 256, // misses downloaded independently of the client, beyond which they are teed
+    val downloadTimeoutSeconds: Long = 120 // total time a miss may take to download before it is abandoned
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class CacheVolumeSettings(
+    val path: String = "cache",
+    val weight: Double = 1.0, // share of the cache, usually the capacity of the disk
+    val maxConcurrentWrites: Int = 0, // 0 for no limit
+    val tier: String = "slow" // "fast" or "slow"
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class CacheTierSettings(
+    val fastTierMaxSizeInMebibytes: Long = 10240, // beyond which the least recently used entries move to the slow tier
+    val promoteAfterHits: Int = 2 // hits on the slow tier after which an entry moves to the fast tier
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class CacheJournalSettings(
+    val groupCommitMicros: Long = 0, // how long a flush waits for others to join it, worth raising with fsync
+    val fsync: Boolean = false
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class NativeIoSettings(
+    val dropWrittenPages: Boolean = false // for caches much larger than memory, where new images are rarely read again soon
+)
+
 @JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
 data class DevSettings(
-    val isDev: Boolean = false
+    val isDev: Boolean = false,
+    val devUrl: String? = null // overrides the control server, e.g. for load tests
 )
@@ -0,0 +1,223 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.sim
+
+import java.io.BufferedInputStream
+import java.io.DataInputStream
+import java.io.EOFException
+import java.io.File
+import java.io.FileInputStream
+import kotlin.system.exitProcess
+import mdnet.base.accesslog.AccessLog
+import mdnet.base.accesslog.AccessLogFormat
+import mdnet.base.accesslog.longAt
+import mdnet.base.server.ImageKeys
+
+/**
+ * Replays request logs against [LruStackSimulator] and prints the hit ratio,
+ * byte hit ratio and upstream egress at each cache size.
+ *
+ * `java -cp mangadex_at_home.jar mdnet.base.sim.CacheSimulator --sizes=64g,128g,256g log/access.log`
+ *
+ * Binary access logs are read directly. Text logs need a whitespace separated
+ * column holding the request path and one holding the response size.
+ */
+object CacheSimulator {
+    private val OPTIONS = linkedMapOf(
+        "format" to "binary", // binary access log, or text
+        "sizes" to "", // explicit cache sizes, such as 64g,128g,256g
+        "min" to "1g", // smallest cache size when no sizes are given
+        "max" to "1t", // largest cache size when no sizes are given
+        "steps" to "16", // log-spaced sizes between min and max
+        "warmup" to "0.1", // fraction of the trace that only fills the caches
+        "path-column" to "0", // text logs: column with the request path
+        "size-column" to "1" // text logs: column with the response size
+    )
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val files = args.filterNot { it.startsWith("--") }
+        val options = parse(args.filter { it.startsWith("--") })
+        if (files.isEmpty()) {
+            usage("No trace files given")
+        }
+
+        val simulator = LruStackSimulator(cacheSizes(options))
+        val warmup = options.getValue("warmup").toDouble()
+        val totalBytes = files.map { File(it).length() }.sum()
+        var readBytes = 0L
+
+        val sizes = ObjectSizes()
+        val start = System.nanoTime()
+        var events = 0L
+        for (file in files) {
+            val format = options.getValue("format")
+            val consumer = { keyHigh: Long, keyLow: Long, size: Long, position: Long ->
+                simulator.setRecording(readBytes + position >= totalBytes * warmup)
+                val known = sizes.resolve(keyHigh, keyLow, size)
+                if (known > 0) {
+                    simulator.access(keyHigh, keyLow, known)
+                    events++
+                }
+            }
+            when (format) {
+                "binary" -> readBinary(File(file), consumer)
+                "text" -> readText(File(file), options.getValue("path-column").toInt(), options.getValue("size-column").toInt(), consumer)
+                else -> usage("Unknown format $format")
+            }
+            readBytes += File(file).length()
+        }
+        val seconds = (System.nanoTime() - start) / 1e9
+
+        System.err.println("Replayed %d requests in %.1fs (%.0f/s)".format(events, seconds, events / seconds))
+        println("%12s %10s %10s %16s".format("cache size", "hit ratio", "byte hits", "upstream bytes"))
+        for (result in simulator.results()) {
+            println("%12s %9.2f%% %9.2f%% %16s".format(
+                formatSize(result.cacheSize), result.hitRatio * 100, result.byteHitRatio * 100, formatSize(result.upstreamBytes)
+            ))
+        }
+    }
+
+    /**
+     * Reads records written by [AccessLog]. Records without an image id are
+     * skipped.
+     */
+    private fun readBinary(file: File, consumer: (Long, Long, Long, Long) -> Unit) {
+        DataInputStream(BufferedInputStream(FileInputStream(file), 1 shl 20)).use { input ->
+            if (input.readInt() != AccessLogFormat.MAGIC || input.readInt() != AccessLogFormat.VERSION) {
+                usage("$file is not a binary access log")
+            }
+            val record = LongArray(AccessLog.LONGS_PER_RECORD)
+            var position = 8L
+            try {
+                while (true) {
+                    for (i in record.indices) {
+                        record[i] = input.readLong()
+                    }
+                    position += AccessLog.LONGS_PER_RECORD * 8
+                    val status = (record[3] ushr 16).toInt()
+                    if ((record[4] != 0L || record[5] != 0L) && (status == 200 || status == 304)) {
+                        consumer(record[4], record[5], if (status == 200) record[2] else 0, position)
+                    }
+                }
+            } catch (_: EOFException) {
+                // the last record may be cut short
+            }
+        }
+    }
+
+    private fun readText(file: File, pathColumn: Int, sizeColumn: Int, consumer: (Long, Long, Long, Long) -> Unit) {
+        var position = 0L
+        file.forEachLine { line ->
+            position += line.length + 1
+            val columns = line.split(' ', '\t')
+            if (columns.size <= maxOf(pathColumn, sizeColumn)) {
+                return@forEachLine
+            }
+            val path = columns[pathColumn].substringBefore('?')
+            val size = columns[sizeColumn].toLongOrNull() ?: return@forEachLine
+            val key = ImageKeys.deriveFromPath(path) ?: return@forEachLine
+            consumer(key.bytes.longAt(0), key.bytes.longAt(8), size, position)
+        }
+    }
+
+    private fun cacheSizes(options: Map<String, String>): LongArray {
+        val explicit = options.getValue("sizes")
+        if (explicit.isNotEmpty()) {
+            return explicit.split(',').map { parseSize(it) }.toLongArray()
+        }
+        val min = parseSize(options.getValue("min"))
+        val max = parseSize(options.getValue("max"))
+        val steps = options.getValue("steps").toInt()
+        if (steps < 2 || min >= max) {
+            return longArrayOf(max)
+        }
+        val factor = Math.pow(max.toDouble() / min, 1.0 / (steps - 1))
+        return LongArray(steps) { if (it == steps - 1) max else (min * Math.pow(factor, it.toDouble())).toLong() }
+    }
+
+    private fun parseSize(value: String): Long {
+        val unit = when (value.last().toLowerCase()) {
+            'k' -> 1L shl 10
+            'm' -> 1L shl 20
+            'g' -> 1L shl 30
+            't' -> 1L shl 40
+            else -> 1L
+        }
+        val number = if (unit == 1L) value else value.dropLast(1)
+        return (number.toDouble() * unit).toLong()
+    }
+
+    private fun formatSize(bytes: Long): String {
+        val units = "KMGT"
+        var value = bytes.toDouble()
+        var unit = -1
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024
+            unit++
+        }
+        return if (unit < 0) "${bytes}B" else "%.1f%siB".format(value, units[unit])
+    }
+
+    private fun parse(args: List<String>): Map<String, String> {
+        val options = LinkedHashMap(OPTIONS)
+        for (arg in args) {
+            val name = arg.removePrefix("--").substringBefore('=')
+            if (!arg.contains('=') || name !in OPTIONS) {
+                usage("Unknown option $arg")
+            }
+            options[name] = arg.substringAfter('=')
+        }
+        return options
+    }
+
+    private fun usage(error: String): Nothing {
+        System.err.println(error)
+        System.err.println("Usage: CacheSimulator [--name=value...] <trace files...>")
+        OPTIONS.forEach { (key, value) -> System.err.println("  --$key (default \"$value\")") }
+        exitProcess(1)
+    }
+}
+
+/**
+ * Remembers the last known size of each object, for requests whose log entry
+ * has none, such as 304s. Objects never seen with a size are skipped.
+ */
+private class ObjectSizes {
+    private val index = LongPairIntMap(1 shl 16)
+    private var sizes = LongArray(1 shl 16)
+    private var count = 0
+
+    fun resolve(keyHigh: Long, keyLow: Long, size: Long): Long {
+        val id = index.get(keyHigh, keyLow)
+        if (size > 0) {
+            if (id >= 0) {
+                sizes[id] = size
+            } else {
+                if (count == sizes.size) {
+                    sizes = sizes.copyOf(count * 2)
+                }
+                sizes[count] = size
+                index.put(keyHigh, keyLow, count++)
+            }
+            return size
+        }
+        return if (id >= 0) sizes[id] else 0
+    }
+}
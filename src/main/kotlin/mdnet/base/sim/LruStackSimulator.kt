@@ -0,0 +1,315 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.sim
+
+/**
+ * Simulates an LRU cache at every size in [cacheSizes] in a single pass, the
+ * way [mdnet.cache.DiskLruCache] evicts: least recently used entries go until
+ * the new entry fits. An access hits a cache of size C exactly when the bytes
+ * of the distinct objects used since its previous access, plus its own size,
+ * are at most C (the byte-weighted stack distance).
+ *
+ * Stack distances come from a Fenwick tree over access positions holding
+ * each object's size at its latest position. When positions run out they are
+ * compacted to the live objects in recency order, and objects further down
+ * the stack than the largest simulated size are forgotten, since they miss at
+ * every size anyway. Memory is therefore bounded by the number of objects
+ * that fit in the largest cache, not by the length of the trace.
+ */
+class LruStackSimulator(cacheSizes: LongArray, private val initialPositions: Int = DEFAULT_INITIAL_POSITIONS) {
+    val sizes: LongArray = cacheSizes.sortedArray()
+    private val maxSize = sizes.last()
+
+    private val hitCounts = LongArray(sizes.size)
+    private val hitBytes = LongArray(sizes.size)
+    var requests = 0L
+        private set
+    var requestedBytes = 0L
+        private set
+    private var recording = true
+
+    // per object state, indexed by object id; keys are only needed to rebuild the index
+    private var keyHighs = LongArray(INITIAL_OBJECTS)
+    private var keyLows = LongArray(INITIAL_OBJECTS)
+    private var objectPositions = IntArray(INITIAL_OBJECTS)
+    private var objectSizes = LongArray(INITIAL_OBJECTS)
+    private var objectCount = 0
+    private val index = LongPairIntMap(INITIAL_OBJECTS)
+
+    // the recency stack, indexed by position
+    private var positionObjects = IntArray(initialPositions)
+    private var tree = LongArray(initialPositions + 1)
+    private var nextPosition = 0
+    private var treeTotal = 0L
+
+    /**
+     * Statistics are only gathered while recording, so that a warmup prefix
+     * of the trace can fill the caches without counting compulsory misses.
+     */
+    fun setRecording(recording: Boolean) {
+        this.recording = recording
+    }
+
+    fun access(keyHigh: Long, keyLow: Long, size: Long) {
+        if (nextPosition == positionObjects.size) {
+            compact()
+        }
+
+        var id = index.get(keyHigh, keyLow)
+        val distance: Long
+        if (id < 0) {
+            id = newObject(keyHigh, keyLow)
+            distance = Long.MAX_VALUE
+        } else {
+            val position = objectPositions[id]
+            val previousSize = objectSizes[id]
+            distance = treeTotal - prefixSum(position) + size
+            add(position, -previousSize)
+            positionObjects[position] = -1
+        }
+
+        objectSizes[id] = size
+        objectPositions[id] = nextPosition
+        positionObjects[nextPosition] = id
+        add(nextPosition, size)
+        nextPosition++
+
+        if (recording) {
+            requests++
+            requestedBytes += size
+            if (distance <= maxSize) {
+                val smallest = firstSizeAtLeast(distance)
+                hitCounts[smallest]++
+                hitBytes[smallest] += size
+            }
+        }
+    }
+
+    /**
+     * Returns the hits and hit bytes for each of [sizes].
+     */
+    fun results(): List<SizeResult> {
+        var hits = 0L
+        var bytes = 0L
+        return sizes.indices.map {
+            hits += hitCounts[it]
+            bytes += hitBytes[it]
+            SizeResult(sizes[it], requests, hits, requestedBytes, bytes)
+        }
+    }
+
+    private fun newObject(keyHigh: Long, keyLow: Long): Int {
+        if (objectCount == objectSizes.size) {
+            keyHighs = keyHighs.copyOf(objectCount * 2)
+            keyLows = keyLows.copyOf(objectCount * 2)
+            objectPositions = objectPositions.copyOf(objectCount * 2)
+            objectSizes = objectSizes.copyOf(objectCount * 2)
+        }
+        val id = objectCount++
+        keyHighs[id] = keyHigh
+        keyLows[id] = keyLow
+        index.put(keyHigh, keyLow, id)
+        return id
+    }
+
+    /**
+     * Renumbers the live objects that are within [maxSize] of the top of the
+     * stack to positions and ids 0 until n, oldest first, and drops the rest.
+     */
+    private fun compact() {
+        // walk down from the most recent access until the largest cache is full
+        var bytes = 0L
+        var oldestKept = nextPosition
+        var live = 0
+        var position = nextPosition - 1
+        while (position >= 0) {
+            val id = positionObjects[position]
+            if (id >= 0) {
+                bytes += objectSizes[id]
+                if (bytes > maxSize) {
+                    break
+                }
+                oldestKept = position
+                live++
+            }
+            position--
+        }
+
+        val newPositions = IntArray(maxOf(initialPositions, live * 2))
+        val newHighs = LongArray(maxOf(INITIAL_OBJECTS, live * 2))
+        val newLows = LongArray(newHighs.size)
+        val newSizes = LongArray(newHighs.size)
+        val newObjectPositions = IntArray(newHighs.size)
+        index.clear(newHighs.size)
+
+        var newId = 0
+        for (old in oldestKept until nextPosition) {
+            val id = positionObjects[old]
+            if (id < 0) {
+                continue
+            }
+            newHighs[newId] = keyHighs[id]
+            newLows[newId] = keyLows[id]
+            newSizes[newId] = objectSizes[id]
+            newObjectPositions[newId] = newId
+            newPositions[newId] = newId
+            index.put(keyHighs[id], keyLows[id], newId)
+            newId++
+        }
+
+        keyHighs = newHighs
+        keyLows = newLows
+        objectSizes = newSizes
+        objectPositions = newObjectPositions
+        objectCount = newId
+        positionObjects = newPositions
+        nextPosition = newId
+
+        tree = LongArray(newPositions.size + 1)
+        treeTotal = 0
+        for (i in 0 until newId) {
+            add(i, newSizes[i])
+        }
+    }
+
+    private fun firstSizeAtLeast(distance: Long): Int {
+        var low = 0
+        var high = sizes.size - 1
+        while (low < high) {
+            val mid = (low + high) ushr 1
+            if (sizes[mid] < distance) low = mid + 1 else high = mid
+        }
+        return low
+    }
+
+    private fun add(position: Int, delta: Long) {
+        treeTotal += delta
+        var i = position + 1
+        while (i < tree.size) {
+            tree[i] += delta
+            i += i and -i
+        }
+    }
+
+    private fun prefixSum(position: Int): Long {
+        var sum = 0L
+        var i = position + 1
+        while (i > 0) {
+            sum += tree[i]
+            i -= i and -i
+        }
+        return sum
+    }
+
+    companion object {
+        private const val INITIAL_OBJECTS = 1 shl 16
+        private const val DEFAULT_INITIAL_POSITIONS = 1 shl 22
+    }
+}
+
+data class SizeResult(
+    val cacheSize: Long,
+    val requests: Long,
+    val hits: Long,
+    val requestedBytes: Long,
+    val hitBytes: Long
+) {
+    val hitRatio: Double
+        get() = if (requests == 0L) 0.0 else hits.toDouble() / requests
+
+    val byteHitRatio: Double
+        get() = if (requestedBytes == 0L) 0.0 else hitBytes.toDouble() / requestedBytes
+
+    val upstreamBytes: Long
+        get() = requestedBytes - hitBytes
+}
+
+/**
+ * An open addressing map from 128 bit keys to non-negative ints, which keeps
+ * the simulator free of per-object allocations.
+ */
+internal class LongPairIntMap(expected: Int) {
+    private var highs = LongArray(0)
+    private var lows = LongArray(0)
+    private var values = IntArray(0)
+    private var mask = 0
+    private var size = 0
+
+    init {
+        clear(expected)
+    }
+
+    fun clear(expected: Int) {
+        var capacity = 16
+        while (capacity < expected * 2) {
+            capacity = capacity shl 1
+        }
+        highs = LongArray(capacity)
+        lows = LongArray(capacity)
+        values = IntArray(capacity) { -1 }
+        mask = capacity - 1
+        size = 0
+    }
+
+    fun get(high: Long, low: Long): Int {
+        var slot = slot(high, low)
+        while (true) {
+            val value = values[slot]
+            if (value < 0 || (highs[slot] == high && lows[slot] == low)) {
+                return value
+            }
+            slot = (slot + 1) and mask
+        }
+    }
+
+    fun put(high: Long, low: Long, value: Int) {
+        if ((size + 1) * 2 > values.size) {
+            grow()
+        }
+        var slot = slot(high, low)
+        while (values[slot] >= 0 && !(highs[slot] == high && lows[slot] == low)) {
+            slot = (slot + 1) and mask
+        }
+        if (values[slot] < 0) {
+            size++
+        }
+        highs[slot] = high
+        lows[slot] = low
+        values[slot] = value
+    }
+
+    private fun grow() {
+        val oldHighs = highs
+        val oldLows = lows
+        val oldValues = values
+        clear(oldValues.size)
+        for (i in oldValues.indices) {
+            if (oldValues[i] >= 0) {
+                put(oldHighs[i], oldLows[i], oldValues[i])
+            }
+        }
+    }
+
+    private fun slot(high: Long, low: Long): Int {
+        // keys are usually MD5 digests, but mix anyway in case they are not
+        var h = high * -0x61c8864680b583ebL xor low
+        h = h xor (h ushr 29)
+        return h.toInt() and mask
+    }
+}
@@ -0,0 +1,97 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.sim
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategy
+import com.fasterxml.jackson.databind.annotation.JsonNaming
+import mdnet.base.accesslog.longAt
+import mdnet.base.server.ImageKey
+
+/**
+ * Estimates the hit ratio the node would get with other cache sizes by
+ * simulating them next to the real cache. Only a spatially sampled subset of
+ * images is simulated: an image is in the sample if its key hashes below
+ * [sampleRate], and the simulated caches are scaled down by the same rate.
+ * Since image keys are MD5 digests the sample is uniform, and a rate of 1%
+ * keeps the estimates within a few percent of a full simulation.
+ *
+ * Recording starts once the sample has seen as many bytes as the real cache
+ * holds, so that the estimates are not dragged down by the cold start.
+ */
+class ShadowCache(private val cacheSizeBytes: Long, private val factors: List<Double>, private val sampleRate: Double) {
+    private val threshold = (sampleRate * SAMPLE_SPACE).toLong()
+    private val simulator = LruStackSimulator(
+        factors.map { (it * cacheSizeBytes * sampleRate).toLong().coerceAtLeast(1) }.toLongArray(),
+        INITIAL_POSITIONS
+    )
+    private var warmupBytes = (cacheSizeBytes * sampleRate).toLong()
+
+    fun record(key: ImageKey, size: Long) {
+        val keyLow = key.bytes.longAt(8)
+        if (keyLow and (SAMPLE_SPACE - 1) >= threshold || size <= 0) {
+            return
+        }
+        synchronized(this) {
+            if (warmupBytes > 0) {
+                warmupBytes -= size
+                simulator.setRecording(warmupBytes <= 0)
+            }
+            simulator.access(key.bytes.longAt(0), keyLow, size)
+        }
+    }
+
+    @Synchronized
+    fun estimates(): ShadowCacheEstimates {
+        // results are sorted by size, and so by factor
+        return ShadowCacheEstimates(
+            warmedUp = warmupBytes <= 0,
+            sampleRate = sampleRate,
+            sampledRequests = simulator.requests,
+            sizes = factors.sorted().zip(simulator.results()) { factor, result ->
+                ShadowCacheEstimate(
+                    factor = factor,
+                    cacheSizeBytes = (factor * cacheSizeBytes).toLong(),
+                    hitRatio = result.hitRatio,
+                    byteHitRatio = result.byteHitRatio
+                )
+            }
+        )
+    }
+
+    companion object {
+        private const val SAMPLE_SPACE = 1L shl 24
+        private const val INITIAL_POSITIONS = 1 shl 14
+    }
+}
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class ShadowCacheEstimates(
+    val warmedUp: Boolean,
+    val sampleRate: Double,
+    val sampledRequests: Long,
+    val sizes: List<ShadowCacheEstimate>
+)
+
+@JsonNaming(PropertyNamingStrategy.SnakeCaseStrategy::class)
+data class ShadowCacheEstimate(
+    val factor: Double,
+    val cacheSizeBytes: Long,
+    val hitRatio: Double,
+    val byteHitRatio: Double
+)
@@ -1,2 +1,2 @@
-(function(t){function e(e){for(var s,r,i=e[0],l=e[1],c=e[2],d=0,u=[];d<i.length;d++)r=i[d],Object.prototype.hasOwnProperty.call(o,r)&&o[r]&&u.push(o[r][0]),o[r]=0;for(s in l)Object.prototype.hasOwnProperty.call(l,s)&&(t[s]=l[s]);p&&p(e);while(u.length)u.shift()();return n.push.apply(n,c||[]),a()}function a(){for(var t,e=0;e<n.length;e++){for(var a=n[e],s=!0,r=1;r<a.length;r++){var i=a[r];0!==o[i]&&(s=!1)}s&&(n.splice(e--,1),t=l(l.s=a[0]))}return t}var s={},r={app:0},o={app:0},n=[];function i(t){return l.p+"js/"+({}[t]||t)+"."+{"chunk-7577183e":"d6d29bcc"}[t]+".js"}function l(e){if(s[e])return s[e].exports;var a=s[e]={i:e,l:!1,exports:{}};return t[e].call(a.exports,a,a.exports,l),a.l=!0,a.exports}l.e=function(t){var e=[],a={"chunk-7577183e":1};r[t]?e.push(r[t]):0!==r[t]&&a[t]&&e.push(r[t]=new Promise((function(e,a){for(var s="css/"+({}[t]||t)+"."+{"chunk-7577183e":"6dc57fe0"}[t]+".css",o=l.p+s,n=document.getElementsByTagName("link"),i=0;i<n.length;i++){var c=n[i],d=c.getAttribute("data-href")||c.getAttribute("href");if("stylesheet"===c.rel&&(d===s||d===o))return e()}var u=document.getElementsByTagName("style");for(i=0;i<u.length;i++){c=u[i],d=c.getAttribute("data-href");if(d===s||d===o)return e()}var p=document.createElement("link");p.rel="stylesheet",p.type="text/css",p.onload=e,p.onerror=function(e){var s=e&&e.target&&e.target.src||o,n=new Error("Loading CSS chunk "+t+" failed.\n("+s+")");n.code="CSS_CHUNK_LOAD_FAILED",n.request=s,delete r[t],p.parentNode.removeChild(p),a(n)},p.href=o;var g=document.getElementsByTagName("head")[0];g.appendChild(p)})).then((function(){r[t]=0})));var s=o[t];if(0!==s)if(s)e.push(s[2]);else{var n=new Promise((function(e,a){s=o[t]=[e,a]}));e.push(s[2]=n);var c,d=document.createElement("script");d.charset="utf-8",d.timeout=120,l.nc&&d.setAttribute("nonce",l.nc),d.src=i(t);var u=new Error;c=function(e){d.onerror=d.onload=null,clearTimeout(p);var a=o[t];if(0!==a){if(a){var s=e&&("load"===e.type?"missing":e.type),r=e&&e.target&&e.target.src;u.message="Loading chunk "+t+" failed.\n("+s+": "+r+")",u.name="ChunkLoadError",u.type=s,u.request=r,a[1](u)}o[t]=void 0}};var p=setTimeout((function(){c({type:"timeout",target:d})}),12e4);d.onerror=d.onload=c,document.head.appendChild(d)}return Promise.all(e)},l.m=t,l.c=s,l.d=function(t,e,a){l.o(t,e)||Object.defineProperty(t,e,{enumerable:!0,get:a})},l.r=function(t){"undefined"!==typeof Symbol&&Symbol.toStringTag&&Object.defineProperty(t,Symbol.toStringTag,{value:"Module"}),Object.defineProperty(t,"__esModule",{value:!0})},l.t=function(t,e){if(1&e&&(t=l(t)),8&e)return t;if(4&e&&"object"===typeof t&&t&&t.__esModule)return t;var a=Object.create(null);if(l.r(a),Object.defineProperty(a,"default",{enumerable:!0,value:t}),2&e&&"string"!=typeof t)for(var s in t)l.d(a,s,function(e){return t[e]}.bind(null,s));return a},l.n=function(t){var e=t&&t.__esModule?function(){return t["default"]}:function(){return t};return l.d(e,"a",e),e},l.o=function(t,e){return Object.prototype.hasOwnProperty.call(t,e)},l.p="",l.oe=function(t){throw console.error(t),t};var c=window["webpackJsonp"]=window["webpackJsonp"]||[],d=c.push.bind(c);c.push=e,c=c.slice();for(var u=0;u<c.length;u++)e(c[u]);var p=d;n.push([0,"chunk-vendors"]),a()})({0:function(t,e,a){t.exports=a("56d7")},"0134":function(t,e,a){},4360:function(t,e,a){"use strict";a("4160"),a("caad"),a("d81d"),a("a434"),a("159b");var s=a("a026"),r=a("2f62"),o=a("5fb0");s["default"].use(r["a"]);var n={options:{current:"light",hasBgImage:!1,bgImage:"https://images3.alphacoders.com/819/thumb-1920-819294.png",showAppBar:!0},themes:{light:{backgroundAlpha:"f0",backgroundColor:"#efeff0",textColor:"#202020",primary:"#fbfbfe",secondary:"#fafafa",accent:"#717175",accent1:"rgba(150,150,158, 0.3)",accent2:"rgba(94,94,98,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!1},eyekiller:{backgroundAlpha:"f0",backgroundColor:"#26ff00",textColor:"#000000",primary:"#ee00ff",secondary:"#ffc800",accent:"#00aeff",accent1:"rgba(255,0,0,0.3)",accent2:"rgba(0,32,255,0.7)",green:"#00ff00",red:"#ff0000",yellow:"#ffff00",isDark:!1},dark:{backgroundAlpha:"f0",backgroundColor:"#353536",textColor:"#f0f0f0",primary:"#505053",secondary:"#454547",accent:"#606065",accent1:"rgba(200,200,210,0.3)",accent2:"rgba(200,200,210,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!0},midnight:{backgroundAlpha:"f0",backgroundColor:"#111",textColor:"#dfdfdf",primary:"#202020",secondary:"#232323",accent:"#a0a0a0",accent1:"rgba(255,255,255,0.3)",accent2:"rgba(95,95,95,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!0}},data:{date:[],bytesSent:[],bytesSentChange:[],sizeDisk:[],sizeDiskChange:[],reqServ:[],reqServChange:[],hits:[],hitsChange:[],misses:[],missesChange:[],cached:[],cachedChange:[],stats:[],updateInterval:2e3,maxStorePoints:1801},layout:{grid:[],charts:[],tempoptions:{title:{text:"title"},legend:{show:!0}},temppieoptions:{title:{text:"title"},legend:{show:!0}}}},i=[{x:0,y:0,w:3,h:8,i:0},{x:3,y:0,w:9,h:8,i:1},{x:0,y:8,w:6,h:8,i:2},{x:6,y:8,w:6,h:8,i:3}],l=[{type:"pie",title:{left:"center",text:"Reliability"},legend:{orient:"vertical",left:0,show:!0,data:["Hits","Misses","Cached"]},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:[{value:0,name:"Hits",dataId:"Hits",itemStyle:{colorId:"green"}},{value:0,name:"Misses",dataId:"Misses",itemStyle:{colorId:"red"}},{value:0,name:"Cached",dataId:"Browser Cached",itemStyle:{colorId:"accent"}}]}]},{type:"graph",title:{left:"center",text:"Bytes Sent"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Bytes Sent",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Bytes Sent",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]},{type:"graph",title:{left:"center",text:"Requests Served"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:2},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:2},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Requests Served",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Requests Served",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]},{type:"graph",title:{left:"center",text:"Cache Size"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Bytes On Disk",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Bytes On Disk",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]}],c={current:function(t){return t.themes[t.options.current]},options:function(t){return t.options},hasBgImage:function(t){return t.options.hasBgImage},bgImg:function(t){return t.options.bgImage},showAppBar:function(t){return t.options.showAppBar},alpha:function(t){return t.options.hasBgImage?t.themes[t.options.current].backgroundAlpha:""},data:function(t){return t.data},layout:function(t){return t.layout},lastValueOf:function(t){return function(e){return t.data[e][t.data[e].length-1]?t.data[e][t.data[e].length-1][1]:0}}},d={setTheme:function(t,e){t.options.current=e,localStorage.theme=e,t.layout.charts.length>0&&(t.layout.charts=JSON.parse(localStorage.dashboardCharts).map((function(t){return Object(o["a"])(t)}))),document.body.style.backgroundColor=t.themes[t.options.current].backgroundColor},setStats:function(t,e){t.data.stats=e},pushStats:function(t,e){t.data.stats.push(e),t.data.stats.length>t.data.maxStorePoints&&t.data.stats.splice(0,t.data.stats.length-t.data.maxStorePoints)},pushDate:function(t,e){t.data.date.push(e),t.data.date.length>t.data.maxStorePoints&&t.data.date.splice(0,t.data.date.length-t.data.maxStorePoints)},pushBytesSent:function(t,e){t.data.bytesSent.push(e);while(t.data.bytesSent.length>t.data.maxStorePoints)t.data.bytesSent.splice(0,t.data.bytesSent.length-t.data.maxStorePoints)},pushBytesSentChange:function(t,e){t.data.bytesSentChange.push(e);while(t.data.bytesSentChange.length>t.data.maxStorePoints)t.data.bytesSentChange.splice(0,t.data.bytesSentChange.length-t.data.maxStorePoints)},pushReqServ:function(t,e){t.data.reqServ.push(e),t.data.reqServ.length>t.data.maxStorePoints&&t.data.reqServ.splice(0,t.data.reqServ.length-t.data.maxStorePoints)},pushReqServChange:function(t,e){t.data.reqServChange.push(e),t.data.reqServChange.length>t.data.maxStorePoints&&t.data.reqServChange.splice(0,t.data.reqServChange.length-t.data.maxStorePoints)},pushSizeDisk:function(t,e){t.data.sizeDisk.push(e),t.data.sizeDisk.length>t.data.maxStorePoints&&t.data.sizeDisk.splice(0,t.data.sizeDisk.length-t.data.maxStorePoints)},pushSizeDiskChange:function(t,e){t.data.sizeDiskChange.push(e),t.data.sizeDiskChange.length>t.data.maxStorePoints&&t.data.sizeDiskChange.splice(0,t.data.sizeDiskChange.length-t.data.maxStorePoints)},pushHits:function(t,e){t.data.hits.push(e),t.data.hits.length>t.data.maxStorePoints&&t.data.hits.splice(0,t.data.hits.length-t.data.maxStorePoints)},pushHitsChange:function(t,e){t.data.hitsChange.push(e),t.data.hitsChange.length>t.data.maxStorePoints&&t.data.hitsChange.splice(0,t.data.hitsChange.length-t.data.maxStorePoints)},pushMisses:function(t,e){t.data.misses.push(e),t.data.misses.length>t.data.maxStorePoints&&t.data.misses.splice(0,t.data.misses.length-t.data.maxStorePoints)},pushMissesChange:function(t,e){t.data.missesChange.push(e),t.data.missesChange.length>t.data.maxStorePoints&&t.data.missesChange.splice(0,t.data.missesChange.length-t.data.maxStorePoints)},pushCached:function(t,e){t.data.cached.push(e),t.data.cached.length>t.data.maxStorePoints&&t.data.cached.splice(0,t.data.cached.length-t.data.maxStorePoints)},pushCachedChange:function(t,e){t.data.cachedChange.push(e),t.data.cachedChange.length>t.data.maxStorePoints&&t.data.cachedChange.splice(0,t.data.cachedChange.length-t.data.maxStorePoints)},resetStats:function(t){t.data={date:[],bytesSent:[],bytesSentChange:[],sizeDisk:[],sizeDiskChange:[],reqServ:[],reqServChange:[],hits:[],hitsChange:[],misses:[],missesChange:[],cached:[],cachedChange:[],stats:[],updateInterval:t.data.updateInterval,maxStorePoints:t.data.maxStorePoints},localStorage.stats=""},resetLayout:function(t){t.layout.grid=i.map((function(t){return{x:t.x,y:t.y,w:t.w,h:t.h,i:3-t.i}})),t.layout.charts=l.map((function(t){return Object(o["a"])(t)})),localStorage.dashboardLayout=JSON.stringify(t.layout.grid),localStorage.dashboardCharts=JSON.stringify(t.layout.charts)},setSpecificLayout:function(t,e){var a=0;t.layout.grid.forEach((function(t,s){t.i===e.i&&(a=s)})),null!=e.w&&(t.layout.grid[a].w=e.w),null!=e.h&&(t.layout.grid[a].h=e.h),null!=e.x&&(t.layout.grid[a].x=e.x),null!=e.y&&(t.layout.grid[a].y=e.y),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},setLayout:function(t,e){t.layout.grid=e},setChart:function(t,e){t.layout.charts=e},addLayoutContainer:function(t,e){var a=t.layout.grid.length,s=[];t.layout.grid.forEach((function(t){return s.push(t.i)}));for(var r=0;r<s.length;r++)if(!s.includes(r)){a=r;break}console.log(a),t.layout.grid.push({x:0,y:0,w:8,h:8,i:a}),t.layout.charts.push(e),localStorage.dashboardCharts=JSON.stringify(t.layout.charts.map((function(t){return Object(o["c"])(t,t.type)}))),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},removeLayoutContainer:function(t,e){t.layout.grid.splice(e,1),t.layout.charts.splice(e,1),localStorage.dashboardCharts=JSON.stringify(t.layout.charts.map((function(t){return Object(o["c"])(t,t.type)}))),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},setHasBg:function(t,e){t.options.hasBgImage=e,localStorage.hasBackground=t.options.hasBgImage},setBgUrl:function(t,e){t.options.bgImage=e,localStorage.backgroundURL=t.options.bgImage},setRefresh:function(t,e){(isNaN(e)||""===e)&&(e=0),t.data.updateInterval=Math.max(parseInt(e),500),localStorage.refreshRate=t.data.updateInterval},setTempOptions:function(t,e){t.layout.tempoptions=e},setTempPieOptions:function(t,e){t.layout.temppieoptions=e},setLoaded:function(t,e){t.loaded=e},showAppBar:function(t,e){t.options.showAppBar=e,localStorage.showAppBar=t.options.showAppBar},setMaxStorePoints:function(t,e){(isNaN(e)||""===e)&&(e=0),t.data.maxStorePoints=Math.max(parseInt(e),181),localStorage.maxDataPoints=t.data.maxStorePoints}};e["a"]=new r["a"].Store({state:n,mutations:d,getters:c})},4678:function(t,e,a){var s={"./af":"2bfb","./af.js":"2bfb","./ar":"8e73","./ar-dz":"a356","./ar-dz.js":"a356","./ar-kw":"423e","./ar-kw.js":"423e","./ar-ly":"1cfd","./ar-ly.js":"1cfd","./ar-ma":"0a84","./ar-ma.js":"0a84","./ar-sa":"8230","./ar-sa.js":"8230","./ar-tn":"6d83","./ar-tn.js":"6d83","./ar.js":"8e73","./az":"485c","./az.js":"485c","./be":"1fc1","./be.js":"1fc1","./bg":"84aa","./bg.js":"84aa","./bm":"a7fa","./bm.js":"a7fa","./bn":"9043","./bn.js":"9043","./bo":"d26a","./bo.js":"d26a","./br":"6887","./br.js":"6887","./bs":"2554","./bs.js":"2554","./ca":"d716","./ca.js":"d716","./cs":"3c0d","./cs.js":"3c0d","./cv":"03ec","./cv.js":"03ec","./cy":"9797","./cy.js":"9797","./da":"0f14","./da.js":"0f14","./de":"b469","./de-at":"b3eb","./de-at.js":"b3eb","./de-ch":"bb71","./de-ch.js":"bb71","./de.js":"b469","./dv":"598a","./dv.js":"598a","./el":"8d47","./el.js":"8d47","./en-au":"0e6b","./en-au.js":"0e6b","./en-ca":"3886","./en-ca.js":"3886","./en-gb":"39a6","./en-gb.js":"39a6","./en-ie":"e1d3","./en-ie.js":"e1d3","./en-il":"7333","./en-il.js":"7333","./en-in":"ec2e","./en-in.js":"ec2e","./en-nz":"6f50","./en-nz.js":"6f50","./en-sg":"b7e9","./en-sg.js":"b7e9","./eo":"65db","./eo.js":"65db","./es":"898b","./es-do":"0a3c","./es-do.js":"0a3c","./es-us":"55c9","./es-us.js":"55c9","./es.js":"898b","./et":"ec18","./et.js":"ec18","./eu":"0ff2","./eu.js":"0ff2","./fa":"8df4","./fa.js":"8df4","./fi":"81e9","./fi.js":"81e9","./fil":"d69a","./fil.js":"d69a","./fo":"0721","./fo.js":"0721","./fr":"9f26","./fr-ca":"d9f8","./fr-ca.js":"d9f8","./fr-ch":"0e49","./fr-ch.js":"0e49","./fr.js":"9f26","./fy":"7118","./fy.js":"7118","./ga":"5120","./ga.js":"5120","./gd":"f6b4","./gd.js":"f6b4","./gl":"8840","./gl.js":"8840","./gom-deva":"aaf2","./gom-deva.js":"aaf2","./gom-latn":"0caa","./gom-latn.js":"0caa","./gu":"e0c5","./gu.js":"e0c5","./he":"c7aa","./he.js":"c7aa","./hi":"dc4d","./hi.js":"dc4d","./hr":"4ba9","./hr.js":"4ba9","./hu":"5b14","./hu.js":"5b14","./hy-am":"d6b6","./hy-am.js":"d6b6","./id":"5038","./id.js":"5038","./is":"0558","./is.js":"0558","./it":"6e98","./it-ch":"6f12","./it-ch.js":"6f12","./it.js":"6e98","./ja":"079e","./ja.js":"079e","./jv":"b540","./jv.js":"b540","./ka":"201b","./ka.js":"201b","./kk":"6d79","./kk.js":"6d79","./km":"e81d","./km.js":"e81d","./kn":"3e92","./kn.js":"3e92","./ko":"22f8","./ko.js":"22f8","./ku":"2421","./ku.js":"2421","./ky":"9609","./ky.js":"9609","./lb":"440c","./lb.js":"440c","./lo":"b29d","./lo.js":"b29d","./lt":"26f9","./lt.js":"26f9","./lv":"b97c","./lv.js":"b97c","./me":"293c","./me.js":"293c","./mi":"688b","./mi.js":"688b","./mk":"6909","./mk.js":"6909","./ml":"02fb","./ml.js":"02fb","./mn":"958b","./mn.js":"958b","./mr":"39bd","./mr.js":"39bd","./ms":"ebe4","./ms-my":"6403","./ms-my.js":"6403","./ms.js":"ebe4","./mt":"1b45","./mt.js":"1b45","./my":"8689","./my.js":"8689","./nb":"6ce3","./nb.js":"6ce3","./ne":"3a39","./ne.js":"3a39","./nl":"facd","./nl-be":"db29","./nl-be.js":"db29","./nl.js":"facd","./nn":"b84c","./nn.js":"b84c","./oc-lnc":"167b","./oc-lnc.js":"167b","./pa-in":"f3ff","./pa-in.js":"f3ff","./pl":"8d57","./pl.js":"8d57","./pt":"f260","./pt-br":"d2d4","./pt-br.js":"d2d4","./pt.js":"f260","./ro":"972c","./ro.js":"972c","./ru":"957c","./ru.js":"957c","./sd":"6784","./sd.js":"6784","./se":"ffff","./se.js":"ffff","./si":"eda5","./si.js":"eda5","./sk":"7be6","./sk.js":"7be6","./sl":"8155","./sl.js":"8155","./sq":"c8f3","./sq.js":"c8f3","./sr":"cf1e","./sr-cyrl":"13e9","./sr-cyrl.js":"13e9","./sr.js":"cf1e","./ss":"52bd","./ss.js":"52bd","./sv":"5fbd","./sv.js":"5fbd","./sw":"74dc","./sw.js":"74dc","./ta":"3de5","./ta.js":"3de5","./te":"5cbb","./te.js":"5cbb","./tet":"576c","./tet.js":"576c","./tg":"3b1b","./tg.js":"3b1b","./th":"10e8","./th.js":"10e8","./tk":"5aff","./tk.js":"5aff","./tl-ph":"0f38","./tl-ph.js":"0f38","./tlh":"cf75","./tlh.js":"cf75","./tr":"0e81","./tr.js":"0e81","./tzl":"cf51","./tzl.js":"cf51","./tzm":"c109","./tzm-latn":"b53d","./tzm-latn.js":"b53d","./tzm.js":"c109","./ug-cn":"6117","./ug-cn.js":"6117","./uk":"ada2","./uk.js":"ada2","./ur":"5294","./ur.js":"5294","./uz":"2e8c","./uz-latn":"010e","./uz-latn.js":"010e","./uz.js":"2e8c","./vi":"2921","./vi.js":"2921","./x-pseudo":"fd7e","./x-pseudo.js":"fd7e","./yo":"7f33","./yo.js":"7f33","./zh-cn":"5c3a","./zh-cn.js":"5c3a","./zh-hk":"49ab","./zh-hk.js":"49ab","./zh-mo":"3a6c","./zh-mo.js":"3a6c","./zh-tw":"90ea","./zh-tw.js":"90ea"};function r(t){var e=o(t);return a(e)}function o(t){if(!a.o(s,t)){var e=new Error("Cannot find module '"+t+"'");throw e.code="MODULE_NOT_FOUND",e}return s[t]}r.keys=function(){return Object.keys(s)},r.resolve=o,t.exports=r,r.id="4678"},"56d7":function(t,e,a){"use strict";a.r(e);a("4160"),a("d81d"),a("b64b"),a("d3b7"),a("159b"),a("e260"),a("e6cf"),a("cca6"),a("a79d");var s=a("a026"),r=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-app",{staticStyle:{background:"rgba(0,0,0,0)"}},[t.$vuetify.breakpoint.mdAndDown||t.$store.getters.showAppBar?a("v-app-bar",{style:{background:t.$store.getters.current.primary+t.$store.getters.alpha},attrs:{app:"","clipped-left":!t.$vuetify.breakpoint.mdAndDown,"hide-on-scroll":t.$vuetify.breakpoint.mdAndDown,floating:""}},[a("v-app-bar-nav-icon",{staticClass:"hidden-lg-and-up",style:{color:t.$store.getters.current.textColor},on:{click:function(e){e.stopPropagation(),t.drawer=!t.drawer}}}),a("v-img",{staticClass:"shrink mr-4",attrs:{alt:"MD Logo",contain:"",src:"https://mangadex.org/images/misc/navbar.svg?3",transition:"scale-transition",width:"60"}}),a("h1",{staticClass:"hidden-sm-and-down",style:{color:t.$store.getters.current.textColor}},[t._v("MD@Home Client Interface")]),a("h2",{staticClass:"hidden-md-and-up",style:{color:t.$store.getters.current.textColor}},[t._v("MD@H Client")]),a("v-spacer")],1):t._e(),a("v-navigation-drawer",{style:{background:t.$store.getters.current.primary+t.$store.getters.alpha},attrs:{"expand-on-hover":!t.$vuetify.breakpoint.mdAndDown,"mini-variant":!t.$vuetify.breakpoint.mdAndDown,permanent:!t.$vuetify.breakpoint.mdAndDown,app:"",clipped:t.$store.getters.showAppBar,floating:""},model:{value:t.drawer,callback:function(e){t.drawer=e},expression:"drawer"}},[a("v-list",{staticClass:"pt-2",attrs:{dense:"",nav:"",dark:t.$store.getters.current.isDark}},[a("v-list-item",[a("v-list-item-icon",[a("v-icon",{style:{color:t.$store.getters.current.textColor}},[t._v("mdi-format-list-bulleted")])],1),a("v-list-item-content",[a("v-list-item-title",{style:{color:t.$store.getters.current.textColor}},[t._v("Menu ")])],1)],1),a("div",{staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:t.$store.getters.current.accent2}}),t._l(t.items,(function(e){return a("v-list-item",{key:e.title,staticClass:"mt-1",attrs:{to:{path:e.route},link:""}},[a("v-list-item-icon",[a("v-icon",{style:{color:t.$store.getters.current.textColor}},[t._v(t._s(e.icon))])],1),a("v-list-item-content",[a("v-list-item-title",{style:{color:t.$store.getters.current.textColor}},[t._v(t._s(e.title)+" ")])],1)],1)}))],2)],1),t.$store.getters.hasBgImage?a("v-img",{style:{position:"fixed",top:0,left:0,width:"100%",height:"100%"},attrs:{src:t.$store.getters.bgImg}}):t._e(),a("v-main",[a("v-fade-transition",[a("overlay-scrollbars",{staticStyle:{height:"100%"},attrs:{options:{className:t.$store.getters.current.isDark?"os-theme-light":"os-theme-dark",paddingAbsolute:!0,scrollbars:{autoHide:"scroll"}}}},[a("router-view")],1)],1)],1)],1)},o=[],n=a("4360"),i={name:"App",timers:{pullData:{time:n["a"].getters.data.updateInterval,autostart:!0,repeat:!0}},data:function(){return{drawer:null,items:[{title:"Dashboard",icon:"mdi-view-dashboard",route:"/"},{title:"Console",icon:"mdi-console",route:"/cons"},{title:"Settings",icon:"mdi-cog-outline",route:"/opts"},{title:"Client Info",icon:"mdi-information-outline",route:"/info"}]}},methods:{pullData:function(){this.updateData()}},mounted:function(){this.$timer.restart("pullData"),this.$nextTick((function(){return n["a"].commit("setLoaded",!0)}))},computed:{refresh:function(){return n["a"].getters.data.updateInterval}},watch:{refresh:function(){this.timers.pullData.time=n["a"].getters.data.updateInterval,this.$timer.restart("pullData")}}},l=i,c=a("2877"),d=a("6544"),u=a.n(d),p=a("7496"),g=a("40dc"),h=a("5bc1"),m=a("0789"),f=a("132d"),v=a("adda"),b=a("8860"),y=a("da13"),x=a("5d23"),C=a("34c3"),k=a("f6c4"),w=a("f774"),S=a("2fa4"),$=Object(c["a"])(l,r,o,!1,null,null,null),_=$.exports;u()($,{VApp:p["a"],VAppBar:g["a"],VAppBarNavIcon:h["a"],VFadeTransition:m["d"],VIcon:f["a"],VImg:v["a"],VList:b["a"],VListItem:y["a"],VListItemContent:x["a"],VListItemIcon:C["a"],VListItemTitle:x["b"],VMain:k["a"],VNavigationDrawer:w["a"],VSpacer:S["a"]});var D=a("f309");s["default"].use(D["a"]);var j=new D["a"]({}),A=function(){var t=this,e=this,a=e.$createElement,s=e._self._c||a;return s("v-container",{style:{color:e.$store.getters.current.textColor},attrs:{fluid:""}},[s("v-container",{staticClass:"pt-0 pb-0",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("v-row",[s("v-col",[s("h1",{staticClass:"pl-1"},[e._v("Dashboard")])]),s("v-col",[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,tile:""},on:{click:e.showModal}},[s("v-icon",{attrs:{left:""}},[e._v("mdi-plus")]),e._v(" Add Graph ")],1),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,tile:""},on:{click:e.showModal}},[s("v-icon",[e._v("mdi-plus")])],1):e._e()],1)],1)],1),s("div",{ref:"grid",staticStyle:{position:"relative",width:"calc(100% + 24px)",left:"-12px"},attrs:{hidden:e.$vuetify.breakpoint.smAndDown}}),e.$vuetify.breakpoint.smAndDown?s("v-row",e._l(e.$store.getters.layout.charts,(function(t,a){return s("v-col",{key:a,staticClass:"pb-0",attrs:{cols:"12"}},[s("v-container",{staticStyle:{height:"300px",width:"100%",position:"relative"},style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("chart",{staticStyle:{height:"100%",width:"100%"},attrs:{autoresize:"",options:t}}),s("v-icon",{style:{position:"absolute",color:e.$store.getters.current.accent,top:"2px",right:"2px"},attrs:{dense:"",small:""},on:{click:function(t){return e.$store.commit("removeLayoutContainer",a)}}},[e._v("mdi-close ")])],1)],1)})),1):e._e(),s("div",[s("modal",{attrs:{name:"createGraph",styles:{backgroundColor:e.$store.getters.current.secondary,minHeight:"75%"},width:e.$vuetify.breakpoint.smAndDown?"100%":"90%",height:"auto",scrollable:!0}},[s("v-container",{attrs:{fluid:""}},[s("h3",[e._v("Create Graph")]),s("v-btn",{staticStyle:{right:"12px",top:"12px"},attrs:{absolute:"",small:"",icon:"",color:e.$store.getters.current.textColor},on:{click:function(t){return e.$modal.hide("createGraph")}}},[s("v-icon",[e._v("mdi-close")])],1),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("v-row",{class:e.$vuetify.breakpoint.mdAndDown?"mb-12":""},[s("v-col",{staticStyle:{position:"relative"},attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:4}},[e.$vuetify.breakpoint.mdAndDown?s("chart",{key:e.prevreload,staticStyle:{width:"100%"},attrs:{autoresize:"",options:e.$store.getters.layout.tempoptions}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Title ")])],1),s("v-col",{staticClass:"pa-0 pl-1",attrs:{cols:"9"}},[e.graph?s("v-text-field",{staticClass:"pt-1",attrs:{dense:"",dark:e.$store.getters.current.isDark},model:{value:e.$store.getters.layout.tempoptions.title.text,callback:function(t){e.$set(e.$store.getters.layout.tempoptions.title,"text",t)},expression:"$store.getters.layout.tempoptions.title.text"}}):e._e(),e.graph?e._e():s("v-text-field",{staticClass:"pt-1",attrs:{dense:"",dark:e.$store.getters.current.isDark},model:{value:e.$store.getters.layout.temppieoptions.title.text,callback:function(t){e.$set(e.$store.getters.layout.temppieoptions.title,"text",t)},expression:"$store.getters.layout.temppieoptions.title.text"}})],1)],1),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Legend ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:"9"}},[e.graph?s("v-checkbox",{staticClass:"mt-2",attrs:{color:e.$store.getters.current.accent2,value:!0,dense:""},model:{value:e.$store.getters.layout.tempoptions.legend.show,callback:function(t){e.$set(e.$store.getters.layout.tempoptions.legend,"show",t)},expression:"$store.getters.layout.tempoptions.legend.show"}}):e._e(),e.graph?e._e():s("v-checkbox",{staticClass:"mt-2",attrs:{color:e.$store.getters.current.accent2,value:!0,dense:""},model:{value:e.$store.getters.layout.temppieoptions.legend.show,callback:function(t){e.$set(e.$store.getters.layout.temppieoptions.legend,"show",t)},expression:"$store.getters.layout.temppieoptions.legend.show"}})],1)],1),s("v-row",{attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Type ")])],1),s("v-col",{staticClass:"pl-0",attrs:{cols:"9"}},[s("v-btn-toggle",{staticClass:"mt-2",attrs:{dense:"",mandatory:"",tile:"",dark:e.$store.getters.current.isDark}},[s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,small:""},model:{value:e.graph,callback:function(t){e.graph=t},expression:"graph"}},[e._v(" Graph ")]),s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,small:""}},[e._v(" Pie ")])],1)],1)],1),s("v-fade-transition",[e.graph?s("div",[s("v-btn",{staticClass:"mt-2",staticStyle:{width:"100%",height:"14px","padding-top":"2px","padding-bottom":"2px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,elevation:"0",tile:"",small:""},on:{click:function(){return t.showyaxis=!t.showyaxis}}},[e.showyaxis?s("v-icon",[e._v("mdi-chevron-up")]):e._e(),e.showyaxis?e._e():s("v-icon",[e._v("mdi-chevron-down")]),e._v(" Y-axis ")],1),s("v-expand-transition",[e.showyaxis?s("div",e._l(e.$store.getters.layout.tempoptions.yAxis,(function(t,a){return s("div",{key:a,class:e.$vuetify.breakpoint.mdAndDown?"mt-3":"mt-1"},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{staticClass:"mt-2",style:{color:e.$store.getters.current.textColor},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addAxis(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.tempoptions.yAxis.length>1?s("v-btn",{staticClass:"mt-2",style:{color:e.$store.getters.current.textColor},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removeAxis(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Units ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Units":"",dense:"",items:e.units,value:t.axisLabel?t.axisLabel.unit:0,"item-text":"name","item-value":"idx",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.setYAxisUnits(t,a)}}})],1)],1)],1)],1)],1)})),0):e._e()]),s("v-btn",{staticClass:"mt-2",staticStyle:{width:"100%",height:"14px","padding-top":"2px","padding-bottom":"2px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,elevation:"0",tile:"",small:""},on:{click:function(){return t.showdatasets=!t.showdatasets}}},[e.showdatasets?s("v-icon",[e._v("mdi-chevron-up")]):e._e(),e.showdatasets?e._e():s("v-icon",[e._v("mdi-chevron-down")]),e._v(" Datasets ")],1),s("v-expand-transition",[e.showdatasets?s("div",e._l(e.$store.getters.layout.tempoptions.series,(function(t,a){return s("div",{key:a,class:e.$vuetify.breakpoint.mdAndDown?"mt-3":"mt-1"},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addSet(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.tempoptions.series.length>1?s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removeSet(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.getters.layout.tempoptions.legend.data[a]=t}},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Type ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Type":"",dense:"",items:e.graphTypes,"item-value":"val","item-text":"name",dark:e.$store.getters.current.isDark},model:{value:t.type,callback:function(a){e.$set(t,"type",a)},expression:"line.type"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Dataset ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Dataset":"",dense:"",items:e.trackabledata,"item-value":"data","item-text":"name",dark:e.$store.getters.current.isDark},on:{change:function(a){return e.trackabledata.forEach((function(e){a===e.data&&(t.dataId=e.name)}))}},model:{value:t.data,callback:function(a){e.$set(t,"data",a)},expression:"line.data"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Y-Axis ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Y-Axis":"",dense:"",items:e.$store.getters.layout.tempoptions.yAxis.map((function(t,e){return{idx:e,data:t}})),value:t.yAxisIndex?t.yAxisIndex:0,"item-text":"data.name","item-value":"idx",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.setYAxis(t,a)}}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Color ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-hover",{scopedSlots:e._u([{key:"default",fn:function(a){var r=a.hover;return[s("div",{staticStyle:{position:"relative",width:"100%",height:"30px",border:"2px solid","margin-top":"9px"},style:{backgroundColor:t.itemStyle.color,borderColor:e.$store.getters.current.textColor}},[s("v-scroll-x-transition",[r?s("v-color-picker",{staticStyle:{position:"absolute","z-index":"99999",top:"-260px",left:"calc(100% + 2px)"},style:{backgroundColor:e.$store.getters.current.secondary},attrs:{elevation:"3","hide-mode-switch":""},model:{value:t.itemStyle.color,callback:function(a){e.$set(t.itemStyle,"color",a)},expression:"line.itemStyle.color"}}):e._e()],1)],1)]}}],null,!0)})],1)],1)],1)],1)],1)})),0):e._e()])],1):e._e()]),s("v-fade-transition",[e.graph?e._e():s("div",e._l(e.$store.getters.layout.temppieoptions.series[0].data,(function(t,a){return s("div",{key:a},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addPieSet(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.temppieoptions.series[0].data.length>1?s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removePieSet(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.getters.layout.temppieoptions.legend.data[a]=t}},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Dataset ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Dataset":"",dense:"",items:e.trackabledata,"item-value":function(t){return t.data[t.data.length-1][1]},"item-text":"name",dark:e.$store.getters.current.isDark},on:{change:function(a){return e.trackabledata.forEach((function(e){a===e.data[e.data.length-1][1]&&(t.dataId=e.name)}))}},model:{value:t.value,callback:function(a){e.$set(t,"value",a)},expression:"line.value"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Color ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-hover",{scopedSlots:e._u([{key:"default",fn:function(a){var r=a.hover;return[s("div",{staticStyle:{position:"relative",width:"100%",height:"30px",border:"2px solid","margin-top":"9px"},style:{backgroundColor:t.itemStyle.color,borderColor:e.$store.getters.current.textColor}},[s("v-scroll-x-transition",[r?s("v-color-picker",{staticStyle:{position:"absolute","z-index":"99999",top:"-260px",left:"calc(100% + 2px)"},style:{backgroundColor:e.$store.getters.current.secondary},attrs:{elevation:"3","hide-mode-switch":""},model:{value:t.itemStyle.color,callback:function(a){e.$set(t.itemStyle,"color",a)},expression:"line.itemStyle.color"}}):e._e()],1)],1)]}}],null,!0)})],1)],1)],1)],1)],1)})),0)])],1),e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{attrs:{cols:"8"}},[s("chart",{key:e.prevreload,staticStyle:{width:"100%",left:"0"},attrs:{autoresize:"",options:e.graph?e.$store.getters.layout.tempoptions:e.$store.getters.layout.temppieoptions}})],1)],1),s("v-btn",{style:{color:e.$store.getters.current.textColor,right:"12px",bottom:"12px"},attrs:{absolute:"",tile:"",color:e.$store.getters.current.accent1},on:{click:function(){e.$store.commit("addLayoutContainer",e.construct(e.exportgraph(e.graph?e.$store.getters.layout.tempoptions:e.$store.getters.layout.temppieoptions,e.graph?"graph":"pie"))),e.$modal.hide("createGraph")}}},[e._v(" Add Graph ")])],1)],1)],1)],1)},V=[],I=(a("a434"),a("b0c0"),a("b680"),a("ac1f"),a("5319"),a("5fb0")),O=a("c1df"),M=a.n(O),L=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("grid-layout",{staticStyle:{width:"100%"},attrs:{layout:t.store.getters.layout.grid,"col-num":12,"row-height":30,margin:[12,12],"is-draggable":!0,"is-resizable":!0,"vertical-compact":!0},on:{"update:layout":function(e){return t.$set(t.store.getters.layout,"grid",e)}}},t._l(t.store.getters.layout.grid,(function(e,s){return a("grid-item",{key:e.i,style:{backgroundColor:t.store.getters.current.secondary+t.store.getters.alpha,color:t.store.getters.current.accent},attrs:{x:e.x,y:e.y,w:e.w,h:e.h,i:e.i,"drag-allow-from":".vue-draggable-handle","drag-ignore-from":".no-drag"},on:{move:t.moved,resize:t.resized}},[a("v-container",{staticClass:"no-drag",staticStyle:{height:"100%",width:"100%",position:"absolute"},attrs:{fluid:""}},[a("chart",{staticStyle:{height:"100%",width:"100%"},attrs:{autoresize:"",options:t.store.getters.layout.charts[t.getIndex(e.i)]}})],1),a("v-icon",{staticClass:"vue-draggable-handle",style:{position:"absolute",color:t.store.getters.current.accent,left:"calc(50% - 5px)",width:"10px"},attrs:{dense:"",small:""}},[t._v("mdi-drag-horizontal-variant ")]),a("v-icon",{style:{position:"absolute",color:t.store.getters.current.accent,bottom:"2px",right:"2px"},attrs:{dense:"",small:""}},[t._v("mdi-resize-bottom-right ")]),a("v-icon",{style:{position:"absolute",color:t.store.getters.current.accent,top:"2px",right:"2px"},attrs:{dense:"",small:""},on:{click:function(e){return t.store.commit("removeLayoutContainer",s)}}},[t._v("mdi-close ")])],1)})),1)},B=[],H={name:"dashGrid",components:{chart:function(){return a.e("chunk-7577183e").then(a.bind(null,"70e0"))}},data:function(){return{store:n["a"],vuetify:j}},methods:{moved:function(t,e,a){n["a"].commit("setSpecificLayout",{i:t,x:e,y:a})},resized:function(t,e,a){n["a"].commit("setSpecificLayout",{i:t,w:a,h:e})},getIndex:function(t){var e=0;return n["a"].getters.layout.grid.forEach((function(a,s){t===a.i&&(e=s)})),e}},computed:{update:function(){return n["a"].getters.data.date}},watch:{update:function(){n["a"].getters.layout.charts.forEach((function(t){"pie"===t.type&&t.series[0].data.forEach((function(t){switch(t.dataId){case"Hits":t.value=n["a"].getters.lastValueOf("hits");break;case"Misses":t.value=n["a"].getters.lastValueOf("misses");break;case"Browser Cached":t.value=n["a"].getters.lastValueOf("cached");break;case"Requests Served":t.value=n["a"].getters.lastValueOf("reqServ");break;case"Bytes Sent":t.value=n["a"].getters.lastValueOf("bytesSent");break;case"Bytes On Disk":t.value=n["a"].getters.lastValueOf("sizeDisk");break;case"Change in Hits":t.value=n["a"].getters.lastValueOf("hitsChange");break;case"Change in Misses":t.value=n["a"].getters.lastValueOf("missesChange");break;case"Change in Browser Cached":t.value=n["a"].getters.lastValueOf("cachedChange");break;case"Change in Requests Served":t.value=n["a"].getters.lastValueOf("reqServChange");break;case"Change in Bytes Sent":t.value=n["a"].getters.lastValueOf("bytesSentChange");break;case"Change in Bytes On Disk":t.value=n["a"].getters.lastValueOf("sizeDiskChange");break}}))}))}}},z=H,P=(a("d048"),a("a523")),T=Object(c["a"])(z,L,B,!1,null,null,null),N=T.exports;u()(T,{VContainer:P["a"],VIcon:f["a"]});var q=s["default"].extend(N),R={name:"Dashboard",components:{chart:function(){return a.e("chunk-7577183e").then(a.bind(null,"70e0"))}},data:function(){return{graph:!0,showdatasets:!0,showyaxis:!0,prevreload:0,units:[{idx:0,name:"None",arr:[]},{idx:1,name:"Data",arr:I["b"]},{idx:2,name:"Number",arr:I["f"]}],trackabledata:[{name:"Hits",data:n["a"].getters.data.hits},{name:"Misses",data:n["a"].getters.data.misses},{name:"Browser Cached",data:n["a"].getters.data.cached},{name:"Requests Served",data:n["a"].getters.data.reqServ},{name:"Bytes Sent",data:n["a"].getters.data.bytesSent},{name:"Bytes On Disk",data:n["a"].getters.data.sizeDisk},{name:"Change in Hits",data:n["a"].getters.data.hitsChange},{name:"Change in Misses",data:n["a"].getters.data.missesChange},{name:"Change in Browser Cached",data:n["a"].getters.data.cachedChange},{name:"Change in Requests Served",data:n["a"].getters.data.reqServChange},{name:"Change in Bytes Sent",data:n["a"].getters.data.bytesSentChange},{name:"Change in Bytes On Disk",data:n["a"].getters.data.sizeDiskChange}],graphTypes:[{name:"Line",val:"line"},{name:"Bar",val:"bar"}],instance:null}},mounted:function(){var t=this;this.$nextTick((function(){t.instance=new q,t.instance.$mount(),t.$refs.grid.appendChild(t.instance.$el)}))},beforeDestroy:function(){this.instance.$destroy()},methods:{construct:function(t){return Object(I["a"])(t)},showModal:function(){this.uniqpieindex=0,this.uniqindex=0,this.axisindex=0,n["a"].commit("setTempOptions",{title:{left:"center",text:"Title",textStyle:{color:n["a"].getters.current.textColor}},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{color:n["a"].getters.current.secondary,formatter:function(t){return"x"===t.axisDimension&&t.seriesData[0]&&t.seriesData[0].data?M.a.utc(t.seriesData[0].data[0]).format("MMM D, h:mm:ssa"):t.value.toFixed(0)}}}},toolbox:{orient:"vertical",top:30,iconStyle:{color:n["a"].getters.current.accent,borderColor:"#00000000"},emphasis:{iconStyle:{textPosition:"left",color:n["a"].getters.current.accent2,borderColor:"#00000000"}},feature:{dataZoom:{show:!0,yAxisIndex:"none",icon:{zoom:"M14,17H17V14H19V17H22V19H19V22H17V19H14V17M12,17V19H9V17H12M7,17V19H3V15H5V17H7M3,13V10H5V13H3M3,8V4H7V6H5V8H3M9,4H12V6H9V4M15,4H19V8H17V6H15V4M19,10V12H17V10H19Z",back:"M13.5,7A6.5,6.5 0 0,1 20,13.5A6.5,6.5 0 0,1 13.5,20H10V18H13.5C16,18 18,16 18,13.5C18,11 16,9 13.5,9H7.83L10.91,12.09L9.5,13.5L4,8L9.5,2.5L10.92,3.91L7.83,7H13.5M6,18H8V20H6V18Z"},title:{zoom:"Zoom",back:"Undo"}},restore:{title:"Restore",icon:"M2 12C2 16.97 6.03 21 11 21C13.39 21 15.68 20.06 17.4 18.4L15.9 16.9C14.63 18.25 12.86 19 11 19C4.76 19 1.64 11.46 6.05 7.05C10.46 2.64 18 5.77 18 12H15L19 16H19.1L23 12H20C20 7.03 15.97 3 11 3C6.03 3 2 7.03 2 12Z"}}},grid:{right:40,left:40,bottom:40,top:60,containLabel:!0},legend:{left:"center",show:!0,top:22,data:["item"],inactiveColor:n["a"].getters.current.accent2,textStyle:{color:n["a"].getters.current.textColor}},xAxis:{type:"time",axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},splitLine:{lineStyle:{color:n["a"].getters.current.accent1}},axisLabel:{formatter:function(t){return M.a.utc(t).format("MMM D|h:mma").replace("|","\n")},splitNumber:10,showMaxLabel:!0,showMinLabel:!0}},yAxis:[{type:"value",name:"axis",scale:!0,max:function(t){return t.max.toFixed(5).replace(/\.?0*$/,"")},min:function(t){return t.min.toFixed(5).replace(/\.?0*$/,"")},axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},axisLabel:{formatter:null,unit:0},splitLine:{show:!1}}],dataZoom:[{type:"inside"},{start:90,type:"slider",handleSize:"100%",fillerColor:n["a"].getters.current.accent1,handleStyle:{color:n["a"].getters.current.textColor},dataBackground:{lineStyle:{color:n["a"].getters.current.textColor},areaStyle:{color:n["a"].getters.current.accent}},textStyle:{color:n["a"].getters.current.textColor}}],series:[{name:"item",type:"line",data:n["a"].getters.data.hits,dataId:"Hits",yAxisIndex:0,showSymbol:!1,itemStyle:{color:"#ef0e00"}}]}),n["a"].commit("setTempPieOptions",{title:{left:"center",text:"Title",textStyle:{color:n["a"].getters.current.textColor}},tooltip:{trigger:"item",formatter:" {b}<br/>{c} ({d}%)"},legend:{orient:"vertical",show:!0,left:0,data:["item"],inactiveColor:n["a"].getters.current.accent2,textStyle:{color:n["a"].getters.current.textColor}},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:[{name:"item",value:n["a"].getters.data.hits[n["a"].getters.data.hits.length-1]?n["a"].getters.data.hits[n["a"].getters.data.hits.length-1][1]:0,dataId:"Hits",itemStyle:{color:"#ef0e00"}}]}]}),this.$modal.show("createGraph")},addSet:function(t){for(var e="0123456789abcdef",a="#",s=0;s<6;s++)a+=e.substr(Math.floor(Math.random()*e.length),1);var r={name:"item "+this.uniqindex++,type:"line",data:n["a"].getters.data.hits.map((function(t){return t})),dataId:"Hits",yAxisIndex:0,showSymbol:!1,itemStyle:{color:a}};n["a"].getters.layout.tempoptions.series.splice(t+1,0,r),n["a"].getters.layout.tempoptions.legend.data.splice(t+1,0,r.name),this.prevreload=!this.prevreload},removeSet:function(t){n["a"].getters.layout.tempoptions.series.splice(t,1),n["a"].getters.layout.tempoptions.legend.data.splice(t,1),this.prevreload=!this.prevreload},addPieSet:function(t){for(var e="0123456789abcdef",a="#",s=0;s<6;s++)a+=e.substr(Math.floor(Math.random()*e.length),1);var r={name:"item "+this.uniqpieindex++,value:n["a"].getters.data.hits[n["a"].getters.data.hits.length-1]?n["a"].getters.data.hits[n["a"].getters.data.hits.length-1][1]:0,dataId:"Hits",itemStyle:{color:a}};n["a"].getters.layout.temppieoptions.series[0].data.splice(t+1,0,r),n["a"].getters.layout.temppieoptions.legend.data.splice(t+1,0,r.name),this.prevreload=!this.prevreload},removePieSet:function(t){n["a"].getters.layout.temppieoptions.series[0].data.splice(t,1),n["a"].getters.layout.temppieoptions.legend.data.splice(t,1),this.prevreload=!this.prevreload},setYAxis:function(t,e){n["a"].getters.layout.tempoptions.series[e].yAxisIndex=t,this.prevreload=!this.prevreload},setYAxisUnits:function(t,e){var a=this;n["a"].getters.layout.tempoptions.yAxis[e].axisLabel=0===t?{formatter:null,unit:0}:{formatter:function(e){return Object(I["d"])(e,a.units[t].arr)},unit:t},this.prevreload=!this.prevreload},addAxis:function(t){n["a"].getters.layout.tempoptions.yAxis.splice(t+1,0,{type:"value",name:"axis "+this.axisindex++,offset:80*(n["a"].getters.layout.tempoptions.yAxis.length-1),scale:!0,max:function(t){return t.max.toFixed(5).replace(/\.?0*$/,"")},min:function(t){return t.min.toFixed(5).replace(/\.?0*$/,"")},axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},axisLabel:{formatter:null,unit:0},splitLine:{show:!1}}),this.prevreload=!this.prevreload},removeAxis:function(t){n["a"].getters.layout.tempoptions.yAxis.splice(t,1),this.prevreload=!this.prevreload},exportgraph:function(t,e){return Object(I["c"])(t,e)},log:function(t){console.log(t)}},computed:{g:function(){return this.graph}},watch:{g:function(){this.prevreload=!this.prevreload}}},E=R,F=a("8336"),J=a("a609"),U=a("ac7c"),Z=a("62ad"),G=a("03a4"),Y=a("ce87"),W=a("0fd9"),K=a("b974"),X=a("e0c7"),Q=a("8654"),tt=Object(c["a"])(E,A,V,!1,null,null,null),et=tt.exports;u()(tt,{VBtn:F["a"],VBtnToggle:J["a"],VCheckbox:U["a"],VCol:Z["a"],VColorPicker:G["a"],VContainer:P["a"],VExpandTransition:m["a"],VFadeTransition:m["d"],VHover:Y["a"],VIcon:f["a"],VRow:W["a"],VScrollXTransition:m["f"],VSelect:K["a"],VSubheader:X["a"],VTextField:Q["a"]});var at=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-container",{style:{color:t.$store.getters.current.textColor},attrs:{fluid:""}},[a("v-container",{staticClass:"pt-0 pb-0",style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},[a("v-row",[a("v-col",[a("h1",{staticClass:"pl-1"},[t._v("Console")])]),a("v-col",[a("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:t.$store.getters.current.textColor},attrs:{color:t.$store.getters.current.accent1,tile:""}},[t._v("Disconnected ")])],1)],1)],1),a("xterm",{staticClass:"mt-3 mb-3",staticStyle:{width:"100%"}})],1)},st=[],rt=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("div",{attrs:{id:t.genid}})},ot=[],nt=a("fcf3"),it=a("47d0"),lt={name:"xterm",props:["lines"],data:function(){return{genid:"term",term:null,fitaddon:new it["FitAddon"]}},beforeMount:function(){for(var t="",e="ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789",a=0;a<20;a++)t+=e.charAt(Math.floor(Math.random()*e.length));this.genid=t,this.term=new nt["Terminal"]({disableStdin:!1,rows:30,cols:50,cursorBlink:!0,cursorStyle:"underline",fontSize:15}),this.term.loadAddon(this.fitaddon)},mounted:function(){var t=this;this.term.open(document.getElementById(this.genid)),window.addEventListener("resize",this.fit),this.$nextTick((function(){return t.fitaddon.fit()})),this.runFakeTerminal()},beforeDestroy:function(){this.term.dispose(),window.removeEventListener("resize",this.fit)},methods:{fit:function(){this.fitaddon.fit()},runFakeTerminal:function(){var t=this;this.term._initialized||(this.term._initialized=!0,this.term.writeln("Welcome to the Web UI console"),this.term.writeln("Anti was super lazy and didnt bother to actually implement a console sync"),this.term.writeln("Go ping him (please don't) to do some more work and stop reading manga"),this.term.writeln("You're still free to type and spam in this console to your heart's content tho"),this.term.writeln(""),this.prompt(this.term),this.term.onData((function(e){switch(e){case"\r":case"":t.prompt(t.term);break;case"":t.term._core.buffer.x>2&&t.term.write("\b \b");break;default:t.term.write(e)}})))},prompt:function(t){t.write("\r\n> ")}}},ct=lt,dt=(a("a950"),Object(c["a"])(ct,rt,ot,!1,null,null,null)),ut=dt.exports,pt={name:"Console",components:{Xterm:ut}},gt=pt,ht=Object(c["a"])(gt,at,st,!1,null,"7209c405",null),mt=ht.exports;u()(ht,{VBtn:F["a"],VCol:Z["a"],VContainer:P["a"],VRow:W["a"]});var ft=function(){var t=this,e=this,a=e.$createElement,s=e._self._c||a;return s("v-container",{style:{color:e.$store.getters.current.textColor},attrs:{fluid:""}},[s("v-container",{style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h1",{staticClass:"pl-1"},[e._v("Settings")])]),s("v-container",{staticClass:"pa-5 pb-9 mt-3",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h3",[e._v("Web Settings")]),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("h4",[e._v("Display")]),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{style:{color:e.$store.getters.current.textColor}},[e._v("Theme ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[s("v-select",{attrs:{dense:"",label:e.$vuetify.breakpoint.mdAndDown?"Theme":"",items:e.items,"item-value":"val","item-text":"disp",value:e.$store.state.options.current,color:e.$store.getters.current.textColor,dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.commit("setTheme",t)}}})],1)],1),e.$vuetify.breakpoint.mdAndDown?e._e():s("v-row",{attrs:{dense:""}},[s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Show App Bar ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-switch",{attrs:{dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("showAppBar",e.showbar)}},model:{value:e.showbar,callback:function(t){e.showbar=t},expression:"showbar"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Background Image ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-switch",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Background Image":"",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("setHasBg",e.hasBgImage)}},model:{value:e.hasBgImage,callback:function(t){e.hasBgImage=t},expression:"hasBgImage"}})],1)],1),e.hasBgImage?s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Image URL ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Image URL":"",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("setBgUrl",e.bgimg)}},model:{value:e.bgimg,callback:function(t){e.bgimg=t},expression:"bgimg"}})],1)],1):e._e(),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-3",style:{color:e.$store.getters.current.textColor}},[e._v("Dashboard ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetLayout")}}},[e._v(" Reset ")]),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetLayout")}}},[e._v(" Reset Dashboard ")]):e._e()],1)],1),s("h4",{staticClass:"mt-3"},[e._v("Data")]),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Data Refresh Rate ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Data Refresh Rate":"",dark:e.$store.getters.current.isDark,"error-messages":e.referr[0],suffix:"ms"},on:{input:function(t){e.checkNan(t,0),e.$store.commit("setRefresh",t)},focusout:function(){return t.updateInterval=e.$store.getters.data.updateInterval}},model:{value:e.updateInterval,callback:function(t){e.updateInterval=t},expression:"updateInterval"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Data Points ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Max Data Points":"",dark:e.$store.getters.current.isDark,"error-messages":e.referr[1]},on:{input:function(t){e.checkNan(t,1),e.$store.commit("setMaxStorePoints",t)},focusout:function(){return t.maxpoints=e.$store.getters.data.maxStorePoints}},model:{value:e.maxpoints,callback:function(t){e.maxpoints=t},expression:"maxpoints"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-2",style:{color:e.$store.getters.current.textColor}},[e._v("Stats ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetStats")}}},[e._v(" Reset ")]),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetStats")}}},[e._v(" Reset Stats ")]):e._e()],1)],1)],1),s("v-container",{staticClass:"pa-5 mt-3",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h3",[e._v("Client Settings (Currently only for creating new settings)")]),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Secret ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[0],label:e.$vuetify.breakpoint.mdAndDown?"Client Secret":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[0],callback:function(t){e.$set(e.configvals,0,t)},expression:"configvals[0]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Host IP ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[1],label:e.$vuetify.breakpoint.mdAndDown?"Client Host IP":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[1],callback:function(t){e.$set(e.configvals,1,t)},expression:"configvals[1]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Port ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[2],label:e.$vuetify.breakpoint.mdAndDown?"Client Port":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[2],callback:function(t){e.$set(e.configvals,2,t)},expression:"configvals[2]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Shutdown Wait Time ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[3],label:e.$vuetify.breakpoint.mdAndDown?"Max Shutdown Wait Time":"",dark:e.$store.getters.current.isDark},model:{value:e.msw,callback:function(t){e.msw=t},expression:"msw"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mswtprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Threads ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[4],label:e.$vuetify.breakpoint.mdAndDown?"Max Threads":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[3],callback:function(t){e.$set(e.configvals,3,t)},expression:"configvals[3]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Cache Size ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[5],label:e.$vuetify.breakpoint.mdAndDown?"Max Cache Size":"",dark:e.$store.getters.current.isDark},model:{value:e.mcs,callback:function(t){e.mcs=t},expression:"mcs"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mcsprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Hourly Bandwith ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[6],label:e.$vuetify.breakpoint.mdAndDown?"Max Hourly Bandwith":"",dark:e.$store.getters.current.isDark},model:{value:e.mhb,callback:function(t){e.mhb=t},expression:"mhb"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mhbprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Burst Speed ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[7],label:e.$vuetify.breakpoint.mdAndDown?"Max Burst Speed":"",dark:e.$store.getters.current.isDark},model:{value:e.mbs,callback:function(t){e.mbs=t},expression:"mbs"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mbsprev))])])],1),s("v-container",{attrs:{fluid:""}},[s("h3",[e._v("Config Result")]),s("v-container",{staticStyle:{"background-color":"#000000",color:"#fff"},attrs:{fluid:""}},[s("p",{staticClass:"mb-0",staticStyle:{"font-family":"monospace"}},[e._v(" {"),s("br"),e._v(' "client_secret": "'+e._s(e.configvals[0])+'",'),s("br"),e._v(' "client_hostname": "'+e._s(e.configvals[1])+'",'),s("br"),e._v(' "client_port": "'+e._s(e.configvals[2])+'",'),s("br"),e._v(' "threads": "'+e._s(e.configvals[3])+'",'),s("br"),e._v(' "graceful_shutdown_wait_seconds": "'+e._s(e.configvals[4])+'",'),s("br"),e._v(' "max_cache_size_in_mebibytes": "'+e._s(e.configvals[5])+'",'),s("br"),e._v(' "max_kilobits_per_second": "'+e._s(e.configvals[6])+'",'),s("br"),e._v(' "max_mebibytes_per_hour": "'+e._s(e.configvals[7])+'",'),s("br"),e._v(" } ")])])],1)],1)],1)},vt=[],bt=(a("c975"),{name:"Options",methods:{checkNan:function(t,e){isNaN(t)?this.referr[e]="That is not a number!":this.referr[e]=""}},data:function(){return{items:[{disp:"Light",val:"light"},{disp:"Dark",val:"dark"},{disp:"Midnight",val:"midnight"},{disp:"I wan't to die",val:"eyekiller"}],mcsprev:"1.049 mb",mcs:1048576,mhbprev:"1.049 mb",mhb:1048576,mbsprev:"1 kps",mbs:1e3,mswtprev:"1 m",msw:60,configvals:["iiesenpaithisisoursecret","0.0.0.0",44300,16,60,1,1,1],configerrors:["","","","","","","",""],hasBgImage:n["a"].getters.hasBgImage,bgimg:n["a"].getters.bgImg,updateInterval:n["a"].getters.data.updateInterval,maxpoints:n["a"].getters.data.maxStorePoints,referr:["",""],showbar:n["a"].getters.showAppBar}},computed:{hasbg:function(){return n["a"].getters.hasBgImage},bgurl:function(){return n["a"].getters.bgImg},showAppBar:function(){return n["a"].getters.showAppBar},maxbs:function(){return this.mbs},maxhb:function(){return this.mhb},maxcs:function(){return this.mcs},maxsw:function(){return this.msw},configval:function(){return this.configvals}},watch:{hasbg:function(){this.hasBgImage=n["a"].getters.hasBgImage},bgurl:function(){this.bgimg=n["a"].getters.bgImg},showAppBar:function(){},maxbs:function(){if(""!==this.mbs){var t=["bps","kbps","mbps","gbps","tbps","pbps","ebps","zbps","ybps"];if(isNaN(this.mbs)){for(var e in t)if(-1!==this.mbs.indexOf(t[e])){var a=parseFloat(this.mbs.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mbsprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[6]=a*Math.pow(10,3*parseInt(e))/1e3}}else{var o=parseInt(this.mbs);for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mbsprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[6]=Math.round(o/1e3)}this.configvals[6]<1?this.configerrors[7]="That size is too small!":this.configerrors[7]=""}else this.mbsprev="0 bits/s"},maxhb:function(){if(""===this.mcs)return this.configvals[7]=0,void(this.mcsprev="0 bytes");var t=["b","kb","mb","gb","tb","pb","eb","zb","yb"];if(isNaN(this.mhb)){for(var e in t)if(-1!==this.mhb.indexOf(t[e])){var a=parseFloat(this.mhb.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mhbprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[7]=Math.round(a*Math.pow(10,3*parseInt(e))/1048576)}}else{var o=parseInt(this.mhb);if(0===o)return void(this.mhbprev="0 bytes");for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mhbprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[7]=Math.round(o/1048576)}this.configvals[7]<1?this.configerrors[6]="That size is too small!":this.configerrors[6]=""},maxcs:function(){if(""===this.mcs)return this.configvals[5]=0,void(this.mcsprev="0 bytes");var t=["b","kb","mb","gb","tb","pb","eb","zb","yb"];if(isNaN(this.mcs)){for(var e in t)if(-1!==this.mcs.indexOf(t[e])){var a=parseFloat(this.mcs.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mcsprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[5]=Math.round(a*Math.pow(10,3*parseInt(e))/1048576)}}else{var o=parseInt(this.mcs);for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mcsprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[5]=Math.round(o/1048576)}this.configvals[5]<1?this.configerrors[5]="That size is too small!":this.configerrors[5]=""},maxsw:function(){if(""===this.msw)return this.configvals[4]=0,void(this.mswtprev="0 seconds");var t=["s","m","h","d"],e=[1,60,3600,86400];if(isNaN(this.msw)){for(var a in t)if(-1!==this.msw.indexOf(t[a])){var s=parseFloat(this.msw.replace(t[a],""));for(var r in e){var o=e[r];s*e[a]>=o&&(this.mswtprev=(s*e[a]/o).toPrecision(4)+" "+t[r])}this.configvals[4]=Math.round(s*e[a])}}else{var n=parseInt(this.msw);for(var i in e){var l=e[i];n>=l&&(this.mswtprev=(n/l).toPrecision(4)+" "+t[i])}this.configvals[4]=Math.round(n)}},configval:function(){-1!==this.configval[0].indexOf(" ")?this.configerrors[0]="Secret can't have spaces!":this.configerrors[0]="",-1!==this.configval[1].indexOf(" ")?this.configerrors[1]="IP can't have spaces!":this.configerrors[1]="",isNaN(this.configval[2])?this.configerrors[2]="Port can't have spaces!":this.configerrors[2]="",this.configval[3]<4?this.configerrors[4]="Max threads can't be less than 4!":isNaN(this.configval[3])?this.configerrors[4]="Max threads should be a number!":this.configerrors[4]=""}}}),yt=bt,xt=a("b73d"),Ct=Object(c["a"])(yt,ft,vt,!1,null,null,null),kt=Ct.exports;u()(Ct,{VBtn:F["a"],VCol:Z["a"],VContainer:P["a"],VRow:W["a"],VSelect:K["a"],VSubheader:X["a"],VSwitch:xt["a"],VTextField:Q["a"]});var wt=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-container",{style:{color:t.$store.getters.current.textColor},attrs:{fluid:""}},[a("v-container",{style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},[a("h1",{staticClass:"pl-1"},[t._v("Info")])]),a("v-container",{staticClass:"mt-3",style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},t._l(t.infoList,(function(e,s){return a("div",{key:s,staticStyle:{width:"50%"}},[a("h3",[t._v(t._s(e.name))]),a("v-row",{attrs:{dense:""}},[a("v-col",[a("p",[t._v(t._s(e.shortValue))])]),e.longValue?a("v-col",[a("p",[t._v(t._s(e.longValue+(e.unitLabel?" "+e.unitLabel:"")))])]):t._e()],1)],1)})),0)],1)},St=[],$t={name:"About",data:function(){return{rel:0,infoList:[{name:"Client Version (Temporary fake data)",shortValue:"1.0.0",longValue:"latest: x.x.x"},{name:"Total Hits",unitLabel:"hits",longValue:n["a"].getters.lastValueOf("hits"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("hits"),I["f"])},{name:"Total Misses",unitLabel:"misses",longValue:n["a"].getters.lastValueOf("misses"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("misses"),I["f"])},{name:"Total Data Sent",unitLabel:"bytes",longValue:n["a"].getters.lastValueOf("bytesSent"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("bytesSent"),I["b"])},{name:"Total Requests Served",unitLabel:"requests",longValue:n["a"].getters.lastValueOf("reqServ"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("reqServ"),I["f"])},{name:"Cache Size",unitLabel:"bytes",longValue:n["a"].getters.lastValueOf("sizeDisk"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("sizeDisk"),I["b"])}]}}},_t=$t,Dt=Object(c["a"])(_t,wt,St,!1,null,"3b3b3ee5",null),jt=Dt.exports;u()(Dt,{VCol:Z["a"],VContainer:P["a"],VRow:W["a"]});var At=a("8c4f"),Vt=[{path:"/",component:et},{path:"/cons",component:mt},{path:"/opts",component:kt},{path:"/info",component:jt}];s["default"].use(At["a"]);var It=new At["a"]({routes:Vt}),Ot=(a("ef97"),a("94b1"),a("c037"),a("007d"),a("627c"),a("d28f"),a("b11c"),a("0a6d"),a("4f22")),Mt=a("9483");Object(Mt["a"])("".concat("","service-worker.js"),{ready:function(){console.log("App is being served from cache by a service worker.\nFor more details, visit https://goo.gl/AFskqB")},registered:function(){console.log("Service worker has been registered.")},cached:function(){console.log("Content has been cached for offline use.")},updatefound:function(){console.log("New content is downloading.")},updated:function(){console.log("New content is available; please refresh.")},offline:function(){console.log("No internet connection found. App is running in offline mode.")},error:function(t){console.error("Error during service worker registration:",t)}});var Lt=a("1881"),Bt=a.n(Lt),Ht=a("10a7"),zt=(a("52b6"),a("7be8")),Pt=a.n(zt);if(s["default"].component("overlay-scrollbars",Ht["a"]),s["default"].use(Bt.a,{dynamic:!0,dynamicDefaults:{clickToClose:!0}}),s["default"].use(Pt.a),s["default"].use(Ot["a"]),s["default"].config.productionTip=!1,s["default"].mixin({methods:{updateData:function(){fetch("api/stats").then((function(t){return t.json().catch((function(t){return console.warn("Response Error: "+t),null}))})).then((function(t){if(null!==t){n["a"].commit("pushStats",t),localStorage.stats=JSON.stringify(n["a"].getters.data.stats);var e=Object.keys(t)[0],a=t[e],s=new Date(M()(e));n["a"].commit("pushDate",e),n["a"].commit("pushHitsChange",[s,a.cache_hits-n["a"].getters.lastValueOf("hits")]),n["a"].commit("pushHits",[s,a.cache_hits]),n["a"].commit("pushMissesChange",[s,a.cache_misses-n["a"].getters.lastValueOf("misses")]),n["a"].commit("pushMisses",[s,a.cache_misses]),n["a"].commit("pushCachedChange",[s,a.browser_cached-n["a"].getters.lastValueOf("cached")]),n["a"].commit("pushCached",[s,a.browser_cached]),n["a"].commit("pushBytesSentChange",[s,a.bytes_sent-n["a"].getters.lastValueOf("bytesSent")]),n["a"].commit("pushBytesSent",[s,a.bytes_sent]),n["a"].commit("pushReqServChange",[s,a.requests_served-n["a"].getters.lastValueOf("reqServ")]),n["a"].commit("pushReqServ",[s,a.requests_served]),n["a"].commit("pushSizeDiskChange",[s,a.bytes_on_disk-n["a"].getters.lastValueOf("sizeDisk")]),n["a"].commit("pushSizeDisk",[s,a.bytes_on_disk])}})).catch((function(t){console.log(t)}))}}}),localStorage.stats&&n["a"].getters.data.stats.length<1&&n["a"].commit("setStats",JSON.parse(localStorage.stats)),fetch("api/pastStats").then((function(t){return t.json().catch((function(t){return console.warn("Response Error: "+t),null}))})).then((function(t){null!==t&&Object.keys(t).forEach((function(e){n["a"].commit("pushStats",JSON.parse("{"+e+": "+JSON.stringify(t[e])+"}"))}))})).catch((function(t){return console.log(t)})),Object(I["g"])(),Object(I["e"])(),localStorage.hasBackground&&n["a"].commit("setHasBg","true"===localStorage.hasBackground),localStorage.showAppBar&&n["a"].commit("showAppBar","true"===localStorage.showAppBar),localStorage.theme&&"undefined"!==localStorage.theme?n["a"].commit("setTheme",localStorage.theme):n["a"].commit("setTheme","light"),localStorage.backgroundURL&&n["a"].commit("setBgUrl",localStorage.backgroundURL),localStorage.dashboardLayout)try{n["a"].commit("setLayout",JSON.parse(localStorage.dashboardLayout)),n["a"].commit("setChart",JSON.parse(localStorage.dashboardCharts).map((function(t){return Object(I["a"])(t)})))}catch(Tt){n["a"].commit("resetLayout"),console.warn("There was an error reading the saved layout:"),console.warn(Tt),console.warn("Using default layout")}else n["a"].commit("resetLayout");localStorage.refreshRate&&n["a"].commit("setRefresh",parseInt(localStorage.refreshRate)),new s["default"]({render:function(t){return t(_)},router:It,store:n["a"],vuetify:j}).$mount("#app")},"5fb0":function(t,e,a){"use strict";a.d(e,"b",(function(){return n})),a.d(e,"f",(function(){return i})),a.d(e,"d",(function(){return l})),a.d(e,"a",(function(){return d})),a.d(e,"c",(function(){return u})),a.d(e,"e",(function(){return p})),a.d(e,"g",(function(){return g}));a("99af"),a("4160"),a("d81d"),a("b0c0"),a("b680"),a("b64b"),a("ac1f"),a("5319"),a("159b");var s=a("4360"),r=a("c1df"),o=a.n(r),n=["YB","ZB","EB","PB","TB","GB","MB","KB","B"],i=["d","n","o","S","s","Q","q","t","B","M","K",""],l=function(t,e,a){for(var s=a||2,r=parseFloat(t),o=0;o<e.length;o++){var n=Math.pow(10,3*(e.length-o-1));if(r>=n)return(r/n).toFixed(s).replace(/\.?0*$/,"")+e[o]}return r.toFixed(s).replace(/\.?0*$/,"")},c=[[],n,i],d=function(t){if("graph"===t.type){var e=JSON.parse(JSON.stringify(t));return e.title.textStyle={color:s["a"].getters.current.textColor},e.toolbox={orient:"vertical",top:30,iconStyle:{color:s["a"].getters.current.accent,borderColor:"#00000000"},emphasis:{iconStyle:{textPosition:"left",color:s["a"].getters.current.accent2,borderColor:"#00000000"}},feature:{dataZoom:{show:!0,yAxisIndex:"none",icon:{zoom:"M14,17H17V14H19V17H22V19H19V22H17V19H14V17M12,17V19H9V17H12M7,17V19H3V15H5V17H7M3,13V10H5V13H3M3,8V4H7V6H5V8H3M9,4H12V6H9V4M15,4H19V8H17V6H15V4M19,10V12H17V10H19Z",back:"M13.5,7A6.5,6.5 0 0,1 20,13.5A6.5,6.5 0 0,1 13.5,20H10V18H13.5C16,18 18,16 18,13.5C18,11 16,9 13.5,9H7.83L10.91,12.09L9.5,13.5L4,8L9.5,2.5L10.92,3.91L7.83,7H13.5M6,18H8V20H6V18Z"},title:{zoom:"Zoom",back:"Undo"}},restore:{title:"Restore",icon:"M2 12C2 16.97 6.03 21 11 21C13.39 21 15.68 20.06 17.4 18.4L15.9 16.9C14.63 18.25 12.86 19 11 19C4.76 19 1.64 11.46 6.05 7.05C10.46 2.64 18 5.77 18 12H15L19 16H19.1L23 12H20C20 7.03 15.97 3 11 3C6.03 3 2 7.03 2 12Z"}}},e.grid={right:40+80*Math.max(0,t.yAxis.length-2),left:40,bottom:40,top:60,containLabel:!0},e.legend.inactiveColor=s["a"].getters.current.accent2,e.legend.textStyle={color:s["a"].getters.current.textColor},e.xAxis={type:"time",axisLine:{lineStyle:{color:s["a"].getters.current.textColor}},splitLine:{lineStyle:{color:s["a"].getters.current.accent1}},axisLabel:{formatter:function(t){return o.a.utc(t).format("MMM D|h:mma").replace("|","\n")},splitNumber:10,showMaxLabel:!0,showMinLabel:!0}},e.yAxis.forEach((function(t){t.axisLine={lineStyle:{color:s["a"].getters.current.textColor}},t.axisLabel.formatter=function(e){return l(e,c[t.axisLabel.unit],2)}})),e.tooltip={trigger:"axis",axisPointer:{type:"cross",label:{color:s["a"].getters.current.secondary}}},e.tooltip.axisPointer.label.formatter=function(t){return"x"===t.axisDimension&&t.seriesData[0]&&t.seriesData[0].data?o.a.utc(t.seriesData[0].data[0]).format("MMM D, h:mm:ssa"):l(t.value,c[e.yAxis[t.axisIndex].axisLabel.unit],4)},e.dataZoom=[{type:"inside"},{start:90,type:"slider",handleSize:"100%",fillerColor:s["a"].getters.current.accent1,handleStyle:{color:s["a"].getters.current.textColor},dataBackground:{lineStyle:{color:s["a"].getters.current.textColor},areaStyle:{color:s["a"].getters.current.accent}},textStyle:{color:s["a"].getters.current.textColor}}],e.series.forEach((function(t){switch(t.dataId){case"Hits":t.data=s["a"].getters.data.hits;break;case"Misses":t.data=s["a"].getters.data.misses;break;case"Browser Cached":t.data=s["a"].getters.data.cached;break;case"Requests Served":t.data=s["a"].getters.data.reqServ;break;case"Bytes Sent":t.data=s["a"].getters.data.bytesSent;break;case"Bytes On Disk":t.data=s["a"].getters.data.sizeDisk;break;case"Change in Hits":t.data=s["a"].getters.data.hitsChange;break;case"Change in Misses":t.data=s["a"].getters.data.missesChange;break;case"Change in Browser Cached":t.data=s["a"].getters.data.cachedChange;break;case"Change in Requests Served":t.data=s["a"].getters.data.reqServChange;break;case"Change in Bytes Sent":t.data=s["a"].getters.data.bytesSentChange;break;case"Change in Bytes On Disk":t.data=s["a"].getters.data.sizeDiskChange;break}switch(t.itemStyle.colorId){case"background":t.itemStyle.color=s["a"].getters.current.backgroundColor;break;case"text":t.itemStyle.color=s["a"].getters.current.textColor;break;case"primary":t.itemStyle.color=s["a"].getters.current.primary;break;case"secondary":t.itemStyle.color=s["a"].getters.current.secondary;break;case"accent":t.itemStyle.color=s["a"].getters.current.accent;break;case"accent1":t.itemStyle.color=s["a"].getters.current.accent1;break;case"accent2":t.itemStyle.color=s["a"].getters.current.accent2;break;case"red":t.itemStyle.color=s["a"].getters.current.red;break;case"green":t.itemStyle.color=s["a"].getters.current.green;break;case"yellow":t.itemStyle.color=s["a"].getters.current.yellow;break;default:break}})),e}if("pie"===t.type){var a=JSON.parse(JSON.stringify(t));return a.title.textStyle={color:s["a"].getters.current.textColor},a.legend.inactiveColor=s["a"].getters.current.accent2,a.legend.textStyle={color:s["a"].getters.current.textColor},a.tooltip={trigger:"item",formatter:" {b}<br/>{c} ({d}%)"},a.series[0].data.forEach((function(t){switch(t.dataId){case"Hits":t.value=s["a"].getters.lastValueOf("hits");break;case"Misses":t.value=s["a"].getters.lastValueOf("misses");break;case"Browser Cached":t.value=s["a"].getters.lastValueOf("cached");break;case"Requests Served":t.value=s["a"].getters.lastValueOf("reqServ");break;case"Bytes Sent":t.value=s["a"].getters.lastValueOf("bytesSent");break;case"Bytes On Disk":t.value=s["a"].getters.lastValueOf("sizeDisk");break;case"Change in Hits":t.value=s["a"].getters.lastValueOf("hitsChange");break;case"Change in Misses":t.value=s["a"].getters.lastValueOf("missesChange");break;case"Change in Browser Cached":t.value=s["a"].getters.lastValueOf("cachedChange");break;case"Change in Requests Served":t.value=s["a"].getters.lastValueOf("reqServChange");break;case"Change in Bytes Sent":t.value=s["a"].getters.lastValueOf("bytesSentChange");break;case"Change in Bytes On Disk":t.value=s["a"].getters.lastValueOf("sizeDiskChange");break}switch(t.itemStyle.colorId){case"background":t.itemStyle.color=s["a"].getters.current.backgroundColor;break;case"text":t.itemStyle.color=s["a"].getters.current.textColor;break;case"primary":t.itemStyle.color=s["a"].getters.current.primary;break;case"secondary":t.itemStyle.color=s["a"].getters.current.secondary;break;case"accent":t.itemStyle.color=s["a"].getters.current.accent;break;case"accent1":t.itemStyle.color=s["a"].getters.current.accent1;break;case"accent2":t.itemStyle.color=s["a"].getters.current.accent2;break;case"red":t.itemStyle.color=s["a"].getters.current.red;break;case"green":t.itemStyle.color=s["a"].getters.current.green;break;case"yellow":t.itemStyle.color=s["a"].getters.current.yellow;break;default:break}})),a}return{}},u=function(t,e){if("graph"===e){var a={type:e,title:{left:"center",text:t.title.text},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:t.legend.left,show:t.legend.show,top:t.legend.top,data:t.legend.data},yAxis:t.yAxis.map((function(t){return{type:"value",name:t.name,scale:!0,offset:t.offset?t.offset:0,axisLabel:{unit:t.axisLabel.unit},splitLine:{show:!1}}})),series:t.series.map((function(t){return{name:t.name,type:t.type,data:null,dataId:t.dataId,yAxisIndex:t.yAxisIndex,showSymbol:!1,itemStyle:{color:t.itemStyle.color,colorId:t.colorId}}}))};return a}if("pie"===e){var s={type:e,title:{left:"center",text:t.title.text},legend:{orient:"vertical",left:t.legend.left,show:t.legend.show,top:t.legend.top,data:t.legend.data},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:t.series[0].data.map((function(t){return{name:t.name,value:0,dataId:t.dataId,itemStyle:{color:t.itemStyle.color}}}))}]};return s}},p=function(){for(var t=0;t<s["a"].getters.data.stats.length;t++){var e=Object.keys(s["a"].getters.data.stats[t])[0],a=s["a"].getters.data.stats[t][e],r=t>0?s["a"].getters.data.stats[t-1][Object.keys(s["a"].getters.data.stats[t-1])[0]]:null,n=new Date(o()(e));s["a"].commit("pushDate",e),s["a"].commit("pushHits",[n,a.cache_hits]),s["a"].commit("pushHitsChange",[n,r?a.cache_hits-r.cache_hits:0]),s["a"].commit("pushMisses",[n,a.cache_misses]),s["a"].commit("pushMissesChange",[n,r?a.cache_misses-r.cache_misses:0]),s["a"].commit("pushCached",[n,a.browser_cached]),s["a"].commit("pushCachedChange",[n,r?a.browser_cached-r.browser_cached:0]),s["a"].commit("pushBytesSent",[n,a.bytes_sent]),s["a"].commit("pushBytesSentChange",[n,r?a.bytes_sent-r.bytes_sent:0]),s["a"].commit("pushReqServ",[n,a.requests_served]),s["a"].commit("pushReqServChange",[n,r?a.requests_served-r.requests_served:0]),s["a"].commit("pushSizeDisk",[n,a.bytes_on_disk]),s["a"].commit("pushSizeDiskChange",[n,r?a.bytes_on_disk-r.bytes_on_disk:0])}},g=function(){var t=s["a"].getters.data.stats;function e(t){if(t.length<=1)return t;for(var a=[],s=[],r=t.pop(),o=t.length,n=0;n<o;n++)new Date(Object.keys(t[n])[0])<=new Date(Object.keys(r)[0])?a.push(t[n]):s.push(t[n]);return[].concat(e(a),r,e(s))}s["a"].commit("setStats",e(t))}},a950:function(t,e,a){"use strict";var s=a("0134"),r=a.n(s);r.a},ab65:function(t,e,a){},d048:function(t,e,a){"use strict";var s=a("ab65"),r=a.n(s);r.a}});
+(function(t){function e(e){for(var s,r,i=e[0],l=e[1],c=e[2],d=0,u=[];d<i.length;d++)r=i[d],Object.prototype.hasOwnProperty.call(o,r)&&o[r]&&u.push(o[r][0]),o[r]=0;for(s in l)Object.prototype.hasOwnProperty.call(l,s)&&(t[s]=l[s]);p&&p(e);while(u.length)u.shift()();return n.push.apply(n,c||[]),a()}function a(){for(var t,e=0;e<n.length;e++){for(var a=n[e],s=!0,r=1;r<a.length;r++){var i=a[r];0!==o[i]&&(s=!1)}s&&(n.splice(e--,1),t=l(l.s=a[0]))}return t}var s={},r={app:0},o={app:0},n=[];function i(t){return l.p+"js/"+({}[t]||t)+"."+{"chunk-7577183e":"d6d29bcc"}[t]+".js"}function l(e){if(s[e])return s[e].exports;var a=s[e]={i:e,l:!1,exports:{}};return t[e].call(a.exports,a,a.exports,l),a.l=!0,a.exports}l.e=function(t){var e=[],a={"chunk-7577183e":1};r[t]?e.push(r[t]):0!==r[t]&&a[t]&&e.push(r[t]=new Promise((function(e,a){for(var s="css/"+({}[t]||t)+"."+{"chunk-7577183e":"6dc57fe0"}[t]+".css",o=l.p+s,n=document.getElementsByTagName("link"),i=0;i<n.length;i++){var c=n[i],d=c.getAttribute("data-href")||c.getAttribute("href");if("stylesheet"===c.rel&&(d===s||d===o))return e()}var u=document.getElementsByTagName("style");for(i=0;i<u.length;i++){c=u[i],d=c.getAttribute("data-href");if(d===s||d===o)return e()}var p=document.createElement("link");p.rel="stylesheet",p.type="text/css",p.onload=e,p.onerror=function(e){var s=e&&e.target&&e.target.src||o,n=new Error("Loading CSS chunk "+t+" failed.\n("+s+")");n.code="CSS_CHUNK_LOAD_FAILED",n.request=s,delete r[t],p.parentNode.removeChild(p),a(n)},p.href=o;var g=document.getElementsByTagName("head")[0];g.appendChild(p)})).then((function(){r[t]=0})));var s=o[t];if(0!==s)if(s)e.push(s[2]);else{var n=new Promise((function(e,a){s=o[t]=[e,a]}));e.push(s[2]=n);var c,d=document.createElement("script");d.charset="utf-8",d.timeout=120,l.nc&&d.setAttribute("nonce",l.nc),d.src=i(t);var u=new Error;c=function(e){d.onerror=d.onload=null,clearTimeout(p);var a=o[t];if(0!==a){if(a){var s=e&&("load"===e.type?"missing":e.type),r=e&&e.target&&e.target.src;u.message="Loading chunk "+t+" failed.\n("+s+": "+r+")",u.name="ChunkLoadError",u.type=s,u.request=r,a[1](u)}o[t]=void 0}};var p=setTimeout((function(){c({type:"timeout",target:d})}),12e4);d.onerror=d.onload=c,document.head.appendChild(d)}return Promise.all(e)},l.m=t,l.c=s,l.d=function(t,e,a){l.o(t,e)||Object.defineProperty(t,e,{enumerable:!0,get:a})},l.r=function(t){"undefined"!==typeof Symbol&&Symbol.toStringTag&&Object.defineProperty(t,Symbol.toStringTag,{value:"Module"}),Object.defineProperty(t,"__esModule",{value:!0})},l.t=function(t,e){if(1&e&&(t=l(t)),8&e)return t;if(4&e&&"object"===typeof t&&t&&t.__esModule)return t;var a=Object.create(null);if(l.r(a),Object.defineProperty(a,"default",{enumerable:!0,value:t}),2&e&&"string"!=typeof t)for(var s in t)l.d(a,s,function(e){return t[e]}.bind(null,s));return a},l.n=function(t){var e=t&&t.__esModule?function(){return t["default"]}:function(){return t};return l.d(e,"a",e),e},l.o=function(t,e){return Object.prototype.hasOwnProperty.call(t,e)},l.p="",l.oe=function(t){throw console.error(t),t};var c=window["webpackJsonp"]=window["webpackJsonp"]||[],d=c.push.bind(c);c.push=e,c=c.slice();for(var u=0;u<c.length;u++)e(c[u]);var p=d;n.push([0,"chunk-vendors"]),a()})({0:function(t,e,a){t.exports=a("56d7")},"0134":function(t,e,a){},4360:function(t,e,a){"use strict";a("4160"),a("caad"),a("d81d"),a("a434"),a("159b");var s=a("a026"),r=a("2f62"),o=a("5fb0");s["default"].use(r["a"]);var n={options:{current:"light",hasBgImage:!1,bgImage:"https://images3.alphacoders.com/819/thumb-1920-819294.png",showAppBar:!0},themes:{light:{backgroundAlpha:"f0",backgroundColor:"#efeff0",textColor:"#202020",primary:"#fbfbfe",secondary:"#fafafa",accent:"#717175",accent1:"rgba(150,150,158, 0.3)",accent2:"rgba(94,94,98,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!1},eyekiller:{backgroundAlpha:"f0",backgroundColor:"#26ff00",textColor:"#000000",primary:"#ee00ff",secondary:"#ffc800",accent:"#00aeff",accent1:"rgba(255,0,0,0.3)",accent2:"rgba(0,32,255,0.7)",green:"#00ff00",red:"#ff0000",yellow:"#ffff00",isDark:!1},dark:{backgroundAlpha:"f0",backgroundColor:"#353536",textColor:"#f0f0f0",primary:"#505053",secondary:"#454547",accent:"#606065",accent1:"rgba(200,200,210,0.3)",accent2:"rgba(200,200,210,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!0},midnight:{backgroundAlpha:"f0",backgroundColor:"#111",textColor:"#dfdfdf",primary:"#202020",secondary:"#232323",accent:"#a0a0a0",accent1:"rgba(255,255,255,0.3)",accent2:"rgba(95,95,95,0.7)",green:"#00e000",red:"#e00000",yellow:"#e0e000",isDark:!0}},data:{date:[],bytesSent:[],bytesSentChange:[],sizeDisk:[],sizeDiskChange:[],reqServ:[],reqServChange:[],hits:[],hitsChange:[],misses:[],missesChange:[],cached:[],cachedChange:[],stats:[],updateInterval:2e3,maxStorePoints:1801},layout:{grid:[],charts:[],tempoptions:{title:{text:"title"},legend:{show:!0}},temppieoptions:{title:{text:"title"},legend:{show:!0}}}},i=[{x:0,y:0,w:3,h:8,i:0},{x:3,y:0,w:9,h:8,i:1},{x:0,y:8,w:6,h:8,i:2},{x:6,y:8,w:6,h:8,i:3}],l=[{type:"pie",title:{left:"center",text:"Reliability"},legend:{orient:"vertical",left:0,show:!0,data:["Hits","Misses","Cached"]},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:[{value:0,name:"Hits",dataId:"Hits",itemStyle:{colorId:"green"}},{value:0,name:"Misses",dataId:"Misses",itemStyle:{colorId:"red"}},{value:0,name:"Cached",dataId:"Browser Cached",itemStyle:{colorId:"accent"}}]}]},{type:"graph",title:{left:"center",text:"Bytes Sent"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Bytes Sent",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Bytes Sent",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]},{type:"graph",title:{left:"center",text:"Requests Served"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:2},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:2},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Requests Served",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Requests Served",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]},{type:"graph",title:{left:"center",text:"Cache Size"},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:"center",top:22,data:["Total","Change"]},yAxis:[{type:"value",name:"Total",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}},{type:"value",name:"Change",scale:!0,axisLabel:{unit:1},splitLine:{show:!1}}],series:[{name:"Total",dataId:"Bytes On Disk",type:"line",sampling:"average",showSymbol:!1,itemStyle:{colorId:"text"}},{name:"Change",dataId:"Change in Bytes On Disk",yAxisIndex:1,type:"bar",itemStyle:{colorId:"yellow"}}]}],c={current:function(t){return t.themes[t.options.current]},options:function(t){return t.options},hasBgImage:function(t){return t.options.hasBgImage},bgImg:function(t){return t.options.bgImage},showAppBar:function(t){return t.options.showAppBar},alpha:function(t){return t.options.hasBgImage?t.themes[t.options.current].backgroundAlpha:""},data:function(t){return t.data},layout:function(t){return t.layout},lastValueOf:function(t){return function(e){return t.data[e][t.data[e].length-1]?t.data[e][t.data[e].length-1][1]:0}}},d={setTheme:function(t,e){t.options.current=e,localStorage.theme=e,t.layout.charts.length>0&&(t.layout.charts=JSON.parse(localStorage.dashboardCharts).map((function(t){return Object(o["a"])(t)}))),document.body.style.backgroundColor=t.themes[t.options.current].backgroundColor},setStats:function(t,e){t.data.stats=e},pushStats:function(t,e){t.data.stats.push(e),t.data.stats.length>t.data.maxStorePoints&&t.data.stats.splice(0,t.data.stats.length-t.data.maxStorePoints)},pushDate:function(t,e){t.data.date.push(e),t.data.date.length>t.data.maxStorePoints&&t.data.date.splice(0,t.data.date.length-t.data.maxStorePoints)},pushBytesSent:function(t,e){t.data.bytesSent.push(e);while(t.data.bytesSent.length>t.data.maxStorePoints)t.data.bytesSent.splice(0,t.data.bytesSent.length-t.data.maxStorePoints)},pushBytesSentChange:function(t,e){t.data.bytesSentChange.push(e);while(t.data.bytesSentChange.length>t.data.maxStorePoints)t.data.bytesSentChange.splice(0,t.data.bytesSentChange.length-t.data.maxStorePoints)},pushReqServ:function(t,e){t.data.reqServ.push(e),t.data.reqServ.length>t.data.maxStorePoints&&t.data.reqServ.splice(0,t.data.reqServ.length-t.data.maxStorePoints)},pushReqServChange:function(t,e){t.data.reqServChange.push(e),t.data.reqServChange.length>t.data.maxStorePoints&&t.data.reqServChange.splice(0,t.data.reqServChange.length-t.data.maxStorePoints)},pushSizeDisk:function(t,e){t.data.sizeDisk.push(e),t.data.sizeDisk.length>t.data.maxStorePoints&&t.data.sizeDisk.splice(0,t.data.sizeDisk.length-t.data.maxStorePoints)},pushSizeDiskChange:function(t,e){t.data.sizeDiskChange.push(e),t.data.sizeDiskChange.length>t.data.maxStorePoints&&t.data.sizeDiskChange.splice(0,t.data.sizeDiskChange.length-t.data.maxStorePoints)},pushHits:function(t,e){t.data.hits.push(e),t.data.hits.length>t.data.maxStorePoints&&t.data.hits.splice(0,t.data.hits.length-t.data.maxStorePoints)},pushHitsChange:function(t,e){t.data.hitsChange.push(e),t.data.hitsChange.length>t.data.maxStorePoints&&t.data.hitsChange.splice(0,t.data.hitsChange.length-t.data.maxStorePoints)},pushMisses:function(t,e){t.data.misses.push(e),t.data.misses.length>t.data.maxStorePoints&&t.data.misses.splice(0,t.data.misses.length-t.data.maxStorePoints)},pushMissesChange:function(t,e){t.data.missesChange.push(e),t.data.missesChange.length>t.data.maxStorePoints&&t.data.missesChange.splice(0,t.data.missesChange.length-t.data.maxStorePoints)},pushCached:function(t,e){t.data.cached.push(e),t.data.cached.length>t.data.maxStorePoints&&t.data.cached.splice(0,t.data.cached.length-t.data.maxStorePoints)},pushCachedChange:function(t,e){t.data.cachedChange.push(e),t.data.cachedChange.length>t.data.maxStorePoints&&t.data.cachedChange.splice(0,t.data.cachedChange.length-t.data.maxStorePoints)},resetStats:function(t){t.data={date:[],bytesSent:[],bytesSentChange:[],sizeDisk:[],sizeDiskChange:[],reqServ:[],reqServChange:[],hits:[],hitsChange:[],misses:[],missesChange:[],cached:[],cachedChange:[],stats:[],updateInterval:t.data.updateInterval,maxStorePoints:t.data.maxStorePoints},localStorage.stats=""},resetLayout:function(t){t.layout.grid=i.map((function(t){return{x:t.x,y:t.y,w:t.w,h:t.h,i:3-t.i}})),t.layout.charts=l.map((function(t){return Object(o["a"])(t)})),localStorage.dashboardLayout=JSON.stringify(t.layout.grid),localStorage.dashboardCharts=JSON.stringify(t.layout.charts)},setSpecificLayout:function(t,e){var a=0;t.layout.grid.forEach((function(t,s){t.i===e.i&&(a=s)})),null!=e.w&&(t.layout.grid[a].w=e.w),null!=e.h&&(t.layout.grid[a].h=e.h),null!=e.x&&(t.layout.grid[a].x=e.x),null!=e.y&&(t.layout.grid[a].y=e.y),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},setLayout:function(t,e){t.layout.grid=e},setChart:function(t,e){t.layout.charts=e},addLayoutContainer:function(t,e){var a=t.layout.grid.length,s=[];t.layout.grid.forEach((function(t){return s.push(t.i)}));for(var r=0;r<s.length;r++)if(!s.includes(r)){a=r;break}console.log(a),t.layout.grid.push({x:0,y:0,w:8,h:8,i:a}),t.layout.charts.push(e),localStorage.dashboardCharts=JSON.stringify(t.layout.charts.map((function(t){return Object(o["c"])(t,t.type)}))),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},removeLayoutContainer:function(t,e){t.layout.grid.splice(e,1),t.layout.charts.splice(e,1),localStorage.dashboardCharts=JSON.stringify(t.layout.charts.map((function(t){return Object(o["c"])(t,t.type)}))),localStorage.dashboardLayout=JSON.stringify(n.layout.grid)},setHasBg:function(t,e){t.options.hasBgImage=e,localStorage.hasBackground=t.options.hasBgImage},setBgUrl:function(t,e){t.options.bgImage=e,localStorage.backgroundURL=t.options.bgImage},setRefresh:function(t,e){(isNaN(e)||""===e)&&(e=0),t.data.updateInterval=Math.max(parseInt(e),500),localStorage.refreshRate=t.data.updateInterval},setTempOptions:function(t,e){t.layout.tempoptions=e},setTempPieOptions:function(t,e){t.layout.temppieoptions=e},setLoaded:function(t,e){t.loaded=e},showAppBar:function(t,e){t.options.showAppBar=e,localStorage.showAppBar=t.options.showAppBar},setMaxStorePoints:function(t,e){(isNaN(e)||""===e)&&(e=0),t.data.maxStorePoints=Math.max(parseInt(e),181),localStorage.maxDataPoints=t.data.maxStorePoints}};e["a"]=new r["a"].Store({state:n,mutations:d,getters:c})},4678:function(t,e,a){var s={"./af":"2bfb","./af.js":"2bfb","./ar":"8e73","./ar-dz":"a356","./ar-dz.js":"a356","./ar-kw":"423e","./ar-kw.js":"423e","./ar-ly":"1cfd","./ar-ly.js":"1cfd","./ar-ma":"0a84","./ar-ma.js":"0a84","./ar-sa":"8230","./ar-sa.js":"8230","./ar-tn":"6d83","./ar-tn.js":"6d83","./ar.js":"8e73","./az":"485c","./az.js":"485c","./be":"1fc1","./be.js":"1fc1","./bg":"84aa","./bg.js":"84aa","./bm":"a7fa","./bm.js":"a7fa","./bn":"9043","./bn.js":"9043","./bo":"d26a","./bo.js":"d26a","./br":"6887","./br.js":"6887","./bs":"2554","./bs.js":"2554","./ca":"d716","./ca.js":"d716","./cs":"3c0d","./cs.js":"3c0d","./cv":"03ec","./cv.js":"03ec","./cy":"9797","./cy.js":"9797","./da":"0f14","./da.js":"0f14","./de":"b469","./de-at":"b3eb","./de-at.js":"b3eb","./de-ch":"bb71","./de-ch.js":"bb71","./de.js":"b469","./dv":"598a","./dv.js":"598a","./el":"8d47","./el.js":"8d47","./en-au":"0e6b","./en-au.js":"0e6b","./en-ca":"3886","./en-ca.js":"3886","./en-gb":"39a6","./en-gb.js":"39a6","./en-ie":"e1d3","./en-ie.js":"e1d3","./en-il":"7333","./en-il.js":"7333","./en-in":"ec2e","./en-in.js":"ec2e","./en-nz":"6f50","./en-nz.js":"6f50","./en-sg":"b7e9","./en-sg.js":"b7e9","./eo":"65db","./eo.js":"65db","./es":"898b","./es-do":"0a3c","./es-do.js":"0a3c","./es-us":"55c9","./es-us.js":"55c9","./es.js":"898b","./et":"ec18","./et.js":"ec18","./eu":"0ff2","./eu.js":"0ff2","./fa":"8df4","./fa.js":"8df4","./fi":"81e9","./fi.js":"81e9","./fil":"d69a","./fil.js":"d69a","./fo":"0721","./fo.js":"0721","./fr":"9f26","./fr-ca":"d9f8","./fr-ca.js":"d9f8","./fr-ch":"0e49","./fr-ch.js":"0e49","./fr.js":"9f26","./fy":"7118","./fy.js":"7118","./ga":"5120","./ga.js":"5120","./gd":"f6b4","./gd.js":"f6b4","./gl":"8840","./gl.js":"8840","./gom-deva":"aaf2","./gom-deva.js":"aaf2","./gom-latn":"0caa","./gom-latn.js":"0caa","./gu":"e0c5","./gu.js":"e0c5","./he":"c7aa","./he.js":"c7aa","./hi":"dc4d","./hi.js":"dc4d","./hr":"4ba9","./hr.js":"4ba9","./hu":"5b14","./hu.js":"5b14","./hy-am":"d6b6","./hy-am.js":"d6b6","./id":"5038","./id.js":"5038","./is":"0558","./is.js":"0558","./it":"6e98","./it-ch":"6f12","./it-ch.js":"6f12","./it.js":"6e98","./ja":"079e","./ja.js":"079e","./jv":"b540","./jv.js":"b540","./ka":"201b","./ka.js":"201b","./kk":"6d79","./kk.js":"6d79","./km":"e81d","./km.js":"e81d","./kn":"3e92","./kn.js":"3e92","./ko":"22f8","./ko.js":"22f8","./ku":"2421","./ku.js":"2421","./ky":"9609","./ky.js":"9609","./lb":"440c","./lb.js":"440c","./lo":"b29d","./lo.js":"b29d","./lt":"26f9","./lt.js":"26f9","./lv":"b97c","./lv.js":"b97c","./me":"293c","./me.js":"293c","./mi":"688b","./mi.js":"688b","./mk":"6909","./mk.js":"6909","./ml":"02fb","./ml.js":"02fb","./mn":"958b","./mn.js":"958b","./mr":"39bd","./mr.js":"39bd","./ms":"ebe4","./ms-my":"6403","./ms-my.js":"6403","./ms.js":"ebe4","./mt":"1b45","./mt.js":"1b45","./my":"8689","./my.js":"8689","./nb":"6ce3","./nb.js":"6ce3","./ne":"3a39","./ne.js":"3a39","./nl":"facd","./nl-be":"db29","./nl-be.js":"db29","./nl.js":"facd","./nn":"b84c","./nn.js":"b84c","./oc-lnc":"167b","./oc-lnc.js":"167b","./pa-in":"f3ff","./pa-in.js":"f3ff","./pl":"8d57","./pl.js":"8d57","./pt":"f260","./pt-br":"d2d4","./pt-br.js":"d2d4","./pt.js":"f260","./ro":"972c","./ro.js":"972c","./ru":"957c","./ru.js":"957c","./sd":"6784","./sd.js":"6784","./se":"ffff","./se.js":"ffff","./si":"eda5","./si.js":"eda5","./sk":"7be6","./sk.js":"7be6","./sl":"8155","./sl.js":"8155","./sq":"c8f3","./sq.js":"c8f3","./sr":"cf1e","./sr-cyrl":"13e9","./sr-cyrl.js":"13e9","./sr.js":"cf1e","./ss":"52bd","./ss.js":"52bd","./sv":"5fbd","./sv.js":"5fbd","./sw":"74dc","./sw.js":"74dc","./ta":"3de5","./ta.js":"3de5","./te":"5cbb","./te.js":"5cbb","./tet":"576c","./tet.js":"576c","./tg":"3b1b","./tg.js":"3b1b","./th":"10e8","./th.js":"10e8","./tk":"5aff","./tk.js":"5aff","./tl-ph":"0f38","./tl-ph.js":"0f38","./tlh":"cf75","./tlh.js":"cf75","./tr":"0e81","./tr.js":"0e81","./tzl":"cf51","./tzl.js":"cf51","./tzm":"c109","./tzm-latn":"b53d","./tzm-latn.js":"b53d","./tzm.js":"c109","./ug-cn":"6117","./ug-cn.js":"6117","./uk":"ada2","./uk.js":"ada2","./ur":"5294","./ur.js":"5294","./uz":"2e8c","./uz-latn":"010e","./uz-latn.js":"010e","./uz.js":"2e8c","./vi":"2921","./vi.js":"2921","./x-pseudo":"fd7e","./x-pseudo.js":"fd7e","./yo":"7f33","./yo.js":"7f33","./zh-cn":"5c3a","./zh-cn.js":"5c3a","./zh-hk":"49ab","./zh-hk.js":"49ab","./zh-mo":"3a6c","./zh-mo.js":"3a6c","./zh-tw":"90ea","./zh-tw.js":"90ea"};function r(t){var e=o(t);return a(e)}function o(t){if(!a.o(s,t)){var e=new Error("Cannot find module '"+t+"'");throw e.code="MODULE_NOT_FOUND",e}return s[t]}r.keys=function(){return Object.keys(s)},r.resolve=o,t.exports=r,r.id="4678"},"56d7":function(t,e,a){"use strict";a.r(e);a("4160"),a("d81d"),a("b64b"),a("d3b7"),a("159b"),a("e260"),a("e6cf"),a("cca6"),a("a79d");var s=a("a026"),r=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-app",{staticStyle:{background:"rgba(0,0,0,0)"}},[t.$vuetify.breakpoint.mdAndDown||t.$store.getters.showAppBar?a("v-app-bar",{style:{background:t.$store.getters.current.primary+t.$store.getters.alpha},attrs:{app:"","clipped-left":!t.$vuetify.breakpoint.mdAndDown,"hide-on-scroll":t.$vuetify.breakpoint.mdAndDown,floating:""}},[a("v-app-bar-nav-icon",{staticClass:"hidden-lg-and-up",style:{color:t.$store.getters.current.textColor},on:{click:function(e){e.stopPropagation(),t.drawer=!t.drawer}}}),a("v-img",{staticClass:"shrink mr-4",attrs:{alt:"MD Logo",contain:"",src:"https://mangadex.org/images/misc/navbar.svg?3",transition:"scale-transition",width:"60"}}),a("h1",{staticClass:"hidden-sm-and-down",style:{color:t.$store.getters.current.textColor}},[t._v("MD@Home Client Interface")]),a("h2",{staticClass:"hidden-md-and-up",style:{color:t.$store.getters.current.textColor}},[t._v("MD@H Client")]),a("v-spacer")],1):t._e(),a("v-navigation-drawer",{style:{background:t.$store.getters.current.primary+t.$store.getters.alpha},attrs:{"expand-on-hover":!t.$vuetify.breakpoint.mdAndDown,"mini-variant":!t.$vuetify.breakpoint.mdAndDown,permanent:!t.$vuetify.breakpoint.mdAndDown,app:"",clipped:t.$store.getters.showAppBar,floating:""},model:{value:t.drawer,callback:function(e){t.drawer=e},expression:"drawer"}},[a("v-list",{staticClass:"pt-2",attrs:{dense:"",nav:"",dark:t.$store.getters.current.isDark}},[a("v-list-item",[a("v-list-item-icon",[a("v-icon",{style:{color:t.$store.getters.current.textColor}},[t._v("mdi-format-list-bulleted")])],1),a("v-list-item-content",[a("v-list-item-title",{style:{color:t.$store.getters.current.textColor}},[t._v("Menu ")])],1)],1),a("div",{staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:t.$store.getters.current.accent2}}),t._l(t.items,(function(e){return a("v-list-item",{key:e.title,staticClass:"mt-1",attrs:{to:{path:e.route},link:""}},[a("v-list-item-icon",[a("v-icon",{style:{color:t.$store.getters.current.textColor}},[t._v(t._s(e.icon))])],1),a("v-list-item-content",[a("v-list-item-title",{style:{color:t.$store.getters.current.textColor}},[t._v(t._s(e.title)+" ")])],1)],1)}))],2)],1),t.$store.getters.hasBgImage?a("v-img",{style:{position:"fixed",top:0,left:0,width:"100%",height:"100%"},attrs:{src:t.$store.getters.bgImg}}):t._e(),a("v-main",[a("v-fade-transition",[a("overlay-scrollbars",{staticStyle:{height:"100%"},attrs:{options:{className:t.$store.getters.current.isDark?"os-theme-light":"os-theme-dark",paddingAbsolute:!0,scrollbars:{autoHide:"scroll"}}}},[a("router-view")],1)],1)],1)],1)},o=[],n=a("4360"),i={name:"App",timers:{pullData:{time:n["a"].getters.data.updateInterval,autostart:!0,repeat:!0}},data:function(){return{drawer:null,items:[{title:"Dashboard",icon:"mdi-view-dashboard",route:"/"},{title:"Console",icon:"mdi-console",route:"/cons"},{title:"Settings",icon:"mdi-cog-outline",route:"/opts"},{title:"Client Info",icon:"mdi-information-outline",route:"/info"}]}},methods:{pullData:function(){this.updateData()}},mounted:function(){this.$timer.restart("pullData"),this.$nextTick((function(){return n["a"].commit("setLoaded",!0)}))},computed:{refresh:function(){return n["a"].getters.data.updateInterval}},watch:{refresh:function(){this.timers.pullData.time=n["a"].getters.data.updateInterval,this.$timer.restart("pullData")}}},l=i,c=a("2877"),d=a("6544"),u=a.n(d),p=a("7496"),g=a("40dc"),h=a("5bc1"),m=a("0789"),f=a("132d"),v=a("adda"),b=a("8860"),y=a("da13"),x=a("5d23"),C=a("34c3"),k=a("f6c4"),w=a("f774"),S=a("2fa4"),$=Object(c["a"])(l,r,o,!1,null,null,null),_=$.exports;u()($,{VApp:p["a"],VAppBar:g["a"],VAppBarNavIcon:h["a"],VFadeTransition:m["d"],VIcon:f["a"],VImg:v["a"],VList:b["a"],VListItem:y["a"],VListItemContent:x["a"],VListItemIcon:C["a"],VListItemTitle:x["b"],VMain:k["a"],VNavigationDrawer:w["a"],VSpacer:S["a"]});var D=a("f309");s["default"].use(D["a"]);var j=new D["a"]({}),A=function(){var t=this,e=this,a=e.$createElement,s=e._self._c||a;return s("v-container",{style:{color:e.$store.getters.current.textColor},attrs:{fluid:""}},[s("v-container",{staticClass:"pt-0 pb-0",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("v-row",[s("v-col",[s("h1",{staticClass:"pl-1"},[e._v("Dashboard")])]),s("v-col",[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,tile:""},on:{click:e.showModal}},[s("v-icon",{attrs:{left:""}},[e._v("mdi-plus")]),e._v(" Add Graph ")],1),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,tile:""},on:{click:e.showModal}},[s("v-icon",[e._v("mdi-plus")])],1):e._e()],1)],1)],1),s("div",{ref:"grid",staticStyle:{position:"relative",width:"calc(100% + 24px)",left:"-12px"},attrs:{hidden:e.$vuetify.breakpoint.smAndDown}}),e.$vuetify.breakpoint.smAndDown?s("v-row",e._l(e.$store.getters.layout.charts,(function(t,a){return s("v-col",{key:a,staticClass:"pb-0",attrs:{cols:"12"}},[s("v-container",{staticStyle:{height:"300px",width:"100%",position:"relative"},style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("chart",{staticStyle:{height:"100%",width:"100%"},attrs:{autoresize:"",options:t}}),s("v-icon",{style:{position:"absolute",color:e.$store.getters.current.accent,top:"2px",right:"2px"},attrs:{dense:"",small:""},on:{click:function(t){return e.$store.commit("removeLayoutContainer",a)}}},[e._v("mdi-close ")])],1)],1)})),1):e._e(),s("div",[s("modal",{attrs:{name:"createGraph",styles:{backgroundColor:e.$store.getters.current.secondary,minHeight:"75%"},width:e.$vuetify.breakpoint.smAndDown?"100%":"90%",height:"auto",scrollable:!0}},[s("v-container",{attrs:{fluid:""}},[s("h3",[e._v("Create Graph")]),s("v-btn",{staticStyle:{right:"12px",top:"12px"},attrs:{absolute:"",small:"",icon:"",color:e.$store.getters.current.textColor},on:{click:function(t){return e.$modal.hide("createGraph")}}},[s("v-icon",[e._v("mdi-close")])],1),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("v-row",{class:e.$vuetify.breakpoint.mdAndDown?"mb-12":""},[s("v-col",{staticStyle:{position:"relative"},attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:4}},[e.$vuetify.breakpoint.mdAndDown?s("chart",{key:e.prevreload,staticStyle:{width:"100%"},attrs:{autoresize:"",options:e.$store.getters.layout.tempoptions}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Title ")])],1),s("v-col",{staticClass:"pa-0 pl-1",attrs:{cols:"9"}},[e.graph?s("v-text-field",{staticClass:"pt-1",attrs:{dense:"",dark:e.$store.getters.current.isDark},model:{value:e.$store.getters.layout.tempoptions.title.text,callback:function(t){e.$set(e.$store.getters.layout.tempoptions.title,"text",t)},expression:"$store.getters.layout.tempoptions.title.text"}}):e._e(),e.graph?e._e():s("v-text-field",{staticClass:"pt-1",attrs:{dense:"",dark:e.$store.getters.current.isDark},model:{value:e.$store.getters.layout.temppieoptions.title.text,callback:function(t){e.$set(e.$store.getters.layout.temppieoptions.title,"text",t)},expression:"$store.getters.layout.temppieoptions.title.text"}})],1)],1),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Legend ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:"9"}},[e.graph?s("v-checkbox",{staticClass:"mt-2",attrs:{color:e.$store.getters.current.accent2,value:!0,dense:""},model:{value:e.$store.getters.layout.tempoptions.legend.show,callback:function(t){e.$set(e.$store.getters.layout.tempoptions.legend,"show",t)},expression:"$store.getters.layout.tempoptions.legend.show"}}):e._e(),e.graph?e._e():s("v-checkbox",{staticClass:"mt-2",attrs:{color:e.$store.getters.current.accent2,value:!0,dense:""},model:{value:e.$store.getters.layout.temppieoptions.legend.show,callback:function(t){e.$set(e.$store.getters.layout.temppieoptions.legend,"show",t)},expression:"$store.getters.layout.temppieoptions.legend.show"}})],1)],1),s("v-row",{attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"3"}},[s("v-subheader",{staticClass:"pl-2",style:{color:e.$store.getters.current.textColor}},[e._v(" Type ")])],1),s("v-col",{staticClass:"pl-0",attrs:{cols:"9"}},[s("v-btn-toggle",{staticClass:"mt-2",attrs:{dense:"",mandatory:"",tile:"",dark:e.$store.getters.current.isDark}},[s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,small:""},model:{value:e.graph,callback:function(t){e.graph=t},expression:"graph"}},[e._v(" Graph ")]),s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,small:""}},[e._v(" Pie ")])],1)],1)],1),s("v-fade-transition",[e.graph?s("div",[s("v-btn",{staticClass:"mt-2",staticStyle:{width:"100%",height:"14px","padding-top":"2px","padding-bottom":"2px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,elevation:"0",tile:"",small:""},on:{click:function(){return t.showyaxis=!t.showyaxis}}},[e.showyaxis?s("v-icon",[e._v("mdi-chevron-up")]):e._e(),e.showyaxis?e._e():s("v-icon",[e._v("mdi-chevron-down")]),e._v(" Y-axis ")],1),s("v-expand-transition",[e.showyaxis?s("div",e._l(e.$store.getters.layout.tempoptions.yAxis,(function(t,a){return s("div",{key:a,class:e.$vuetify.breakpoint.mdAndDown?"mt-3":"mt-1"},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{staticClass:"mt-2",style:{color:e.$store.getters.current.textColor},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addAxis(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.tempoptions.yAxis.length>1?s("v-btn",{staticClass:"mt-2",style:{color:e.$store.getters.current.textColor},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removeAxis(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Units ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Units":"",dense:"",items:e.units,value:t.axisLabel?t.axisLabel.unit:0,"item-text":"name","item-value":"idx",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.setYAxisUnits(t,a)}}})],1)],1)],1)],1)],1)})),0):e._e()]),s("v-btn",{staticClass:"mt-2",staticStyle:{width:"100%",height:"14px","padding-top":"2px","padding-bottom":"2px"},style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1,elevation:"0",tile:"",small:""},on:{click:function(){return t.showdatasets=!t.showdatasets}}},[e.showdatasets?s("v-icon",[e._v("mdi-chevron-up")]):e._e(),e.showdatasets?e._e():s("v-icon",[e._v("mdi-chevron-down")]),e._v(" Datasets ")],1),s("v-expand-transition",[e.showdatasets?s("div",e._l(e.$store.getters.layout.tempoptions.series,(function(t,a){return s("div",{key:a,class:e.$vuetify.breakpoint.mdAndDown?"mt-3":"mt-1"},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addSet(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.tempoptions.series.length>1?s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removeSet(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.getters.layout.tempoptions.legend.data[a]=t}},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Type ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Type":"",dense:"",items:e.graphTypes,"item-value":"val","item-text":"name",dark:e.$store.getters.current.isDark},model:{value:t.type,callback:function(a){e.$set(t,"type",a)},expression:"line.type"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Dataset ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Dataset":"",dense:"",items:e.trackabledata,"item-value":"data","item-text":"name",dark:e.$store.getters.current.isDark},on:{change:function(a){return e.trackabledata.forEach((function(e){a===e.data&&(t.dataId=e.name)}))}},model:{value:t.data,callback:function(a){e.$set(t,"data",a)},expression:"line.data"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Y-Axis ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Y-Axis":"",dense:"",items:e.$store.getters.layout.tempoptions.yAxis.map((function(t,e){return{idx:e,data:t}})),value:t.yAxisIndex?t.yAxisIndex:0,"item-text":"data.name","item-value":"idx",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.setYAxis(t,a)}}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Color ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-hover",{scopedSlots:e._u([{key:"default",fn:function(a){var r=a.hover;return[s("div",{staticStyle:{position:"relative",width:"100%",height:"30px",border:"2px solid","margin-top":"9px"},style:{backgroundColor:t.itemStyle.color,borderColor:e.$store.getters.current.textColor}},[s("v-scroll-x-transition",[r?s("v-color-picker",{staticStyle:{position:"absolute","z-index":"99999",top:"-260px",left:"calc(100% + 2px)"},style:{backgroundColor:e.$store.getters.current.secondary},attrs:{elevation:"3","hide-mode-switch":""},model:{value:t.itemStyle.color,callback:function(a){e.$set(t.itemStyle,"color",a)},expression:"line.itemStyle.color"}}):e._e()],1)],1)]}}],null,!0)})],1)],1)],1)],1)],1)})),0):e._e()])],1):e._e()]),s("v-fade-transition",[e.graph?e._e():s("div",e._l(e.$store.getters.layout.temppieoptions.series[0].data,(function(t,a){return s("div",{key:a},[a>0?s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}):e._e(),s("v-row",{staticClass:"mr-3",attrs:{dense:""}},[s("v-col",{staticClass:"pa-0",attrs:{cols:"2"}},[s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.addPieSet(a)}}},[s("v-icon",[e._v("mdi-plus")])],1),e.$store.getters.layout.temppieoptions.series[0].data.length>1?s("v-btn",{style:{color:e.$store.getters.current.textColor,marginTop:"10px"},attrs:{small:"",icon:"",color:e.$store.getters.current.accent1},on:{click:function(t){return e.removePieSet(a)}}},[s("v-icon",[e._v("mdi-minus")])],1):e._e()],1),s("v-col",{staticClass:"pa-0"},[s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Name ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-text-field",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Name":"",dense:"",dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.getters.layout.temppieoptions.legend.data[a]=t}},model:{value:t.name,callback:function(a){e.$set(t,"name",a)},expression:"line.name"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Dataset ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-select",{staticStyle:{"padding-top":"6px"},attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Dataset":"",dense:"",items:e.trackabledata,"item-value":function(t){return t.data[t.data.length-1][1]},"item-text":"name",dark:e.$store.getters.current.isDark},on:{change:function(a){return e.trackabledata.forEach((function(e){a===e.data[e.data.length-1][1]&&(t.dataId=e.name)}))}},model:{value:t.value,callback:function(a){e.$set(t,"value",a)},expression:"line.value"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pa-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pl-1",style:{color:e.$store.getters.current.textColor}},[e._v(" Color ")])],1),s("v-col",{staticClass:"pa-0",attrs:{cols:e.$vuetify.breakpoint.mdAndDown?12:8}},[s("v-hover",{scopedSlots:e._u([{key:"default",fn:function(a){var r=a.hover;return[s("div",{staticStyle:{position:"relative",width:"100%",height:"30px",border:"2px solid","margin-top":"9px"},style:{backgroundColor:t.itemStyle.color,borderColor:e.$store.getters.current.textColor}},[s("v-scroll-x-transition",[r?s("v-color-picker",{staticStyle:{position:"absolute","z-index":"99999",top:"-260px",left:"calc(100% + 2px)"},style:{backgroundColor:e.$store.getters.current.secondary},attrs:{elevation:"3","hide-mode-switch":""},model:{value:t.itemStyle.color,callback:function(a){e.$set(t.itemStyle,"color",a)},expression:"line.itemStyle.color"}}):e._e()],1)],1)]}}],null,!0)})],1)],1)],1)],1)],1)})),0)])],1),e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{attrs:{cols:"8"}},[s("chart",{key:e.prevreload,staticStyle:{width:"100%",left:"0"},attrs:{autoresize:"",options:e.graph?e.$store.getters.layout.tempoptions:e.$store.getters.layout.temppieoptions}})],1)],1),s("v-btn",{style:{color:e.$store.getters.current.textColor,right:"12px",bottom:"12px"},attrs:{absolute:"",tile:"",color:e.$store.getters.current.accent1},on:{click:function(){e.$store.commit("addLayoutContainer",e.construct(e.exportgraph(e.graph?e.$store.getters.layout.tempoptions:e.$store.getters.layout.temppieoptions,e.graph?"graph":"pie"))),e.$modal.hide("createGraph")}}},[e._v(" Add Graph ")])],1)],1)],1)],1)},V=[],I=(a("a434"),a("b0c0"),a("b680"),a("ac1f"),a("5319"),a("5fb0")),O=a("c1df"),M=a.n(O),L=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("grid-layout",{staticStyle:{width:"100%"},attrs:{layout:t.store.getters.layout.grid,"col-num":12,"row-height":30,margin:[12,12],"is-draggable":!0,"is-resizable":!0,"vertical-compact":!0},on:{"update:layout":function(e){return t.$set(t.store.getters.layout,"grid",e)}}},t._l(t.store.getters.layout.grid,(function(e,s){return a("grid-item",{key:e.i,style:{backgroundColor:t.store.getters.current.secondary+t.store.getters.alpha,color:t.store.getters.current.accent},attrs:{x:e.x,y:e.y,w:e.w,h:e.h,i:e.i,"drag-allow-from":".vue-draggable-handle","drag-ignore-from":".no-drag"},on:{move:t.moved,resize:t.resized}},[a("v-container",{staticClass:"no-drag",staticStyle:{height:"100%",width:"100%",position:"absolute"},attrs:{fluid:""}},[a("chart",{staticStyle:{height:"100%",width:"100%"},attrs:{autoresize:"",options:t.store.getters.layout.charts[t.getIndex(e.i)]}})],1),a("v-icon",{staticClass:"vue-draggable-handle",style:{position:"absolute",color:t.store.getters.current.accent,left:"calc(50% - 5px)",width:"10px"},attrs:{dense:"",small:""}},[t._v("mdi-drag-horizontal-variant ")]),a("v-icon",{style:{position:"absolute",color:t.store.getters.current.accent,bottom:"2px",right:"2px"},attrs:{dense:"",small:""}},[t._v("mdi-resize-bottom-right ")]),a("v-icon",{style:{position:"absolute",color:t.store.getters.current.accent,top:"2px",right:"2px"},attrs:{dense:"",small:""},on:{click:function(e){return t.store.commit("removeLayoutContainer",s)}}},[t._v("mdi-close ")])],1)})),1)},B=[],H={name:"dashGrid",components:{chart:function(){return a.e("chunk-7577183e").then(a.bind(null,"70e0"))}},data:function(){return{store:n["a"],vuetify:j}},methods:{moved:function(t,e,a){n["a"].commit("setSpecificLayout",{i:t,x:e,y:a})},resized:function(t,e,a){n["a"].commit("setSpecificLayout",{i:t,w:a,h:e})},getIndex:function(t){var e=0;return n["a"].getters.layout.grid.forEach((function(a,s){t===a.i&&(e=s)})),e}},computed:{update:function(){return n["a"].getters.data.date}},watch:{update:function(){n["a"].getters.layout.charts.forEach((function(t){"pie"===t.type&&t.series[0].data.forEach((function(t){switch(t.dataId){case"Hits":t.value=n["a"].getters.lastValueOf("hits");break;case"Misses":t.value=n["a"].getters.lastValueOf("misses");break;case"Browser Cached":t.value=n["a"].getters.lastValueOf("cached");break;case"Requests Served":t.value=n["a"].getters.lastValueOf("reqServ");break;case"Bytes Sent":t.value=n["a"].getters.lastValueOf("bytesSent");break;case"Bytes On Disk":t.value=n["a"].getters.lastValueOf("sizeDisk");break;case"Change in Hits":t.value=n["a"].getters.lastValueOf("hitsChange");break;case"Change in Misses":t.value=n["a"].getters.lastValueOf("missesChange");break;case"Change in Browser Cached":t.value=n["a"].getters.lastValueOf("cachedChange");break;case"Change in Requests Served":t.value=n["a"].getters.lastValueOf("reqServChange");break;case"Change in Bytes Sent":t.value=n["a"].getters.lastValueOf("bytesSentChange");break;case"Change in Bytes On Disk":t.value=n["a"].getters.lastValueOf("sizeDiskChange");break}}))}))}}},z=H,P=(a("d048"),a("a523")),T=Object(c["a"])(z,L,B,!1,null,null,null),N=T.exports;u()(T,{VContainer:P["a"],VIcon:f["a"]});var q=s["default"].extend(N),R={name:"Dashboard",components:{chart:function(){return a.e("chunk-7577183e").then(a.bind(null,"70e0"))}},data:function(){return{graph:!0,showdatasets:!0,showyaxis:!0,prevreload:0,units:[{idx:0,name:"None",arr:[]},{idx:1,name:"Data",arr:I["b"]},{idx:2,name:"Number",arr:I["f"]}],trackabledata:[{name:"Hits",data:n["a"].getters.data.hits},{name:"Misses",data:n["a"].getters.data.misses},{name:"Browser Cached",data:n["a"].getters.data.cached},{name:"Requests Served",data:n["a"].getters.data.reqServ},{name:"Bytes Sent",data:n["a"].getters.data.bytesSent},{name:"Bytes On Disk",data:n["a"].getters.data.sizeDisk},{name:"Change in Hits",data:n["a"].getters.data.hitsChange},{name:"Change in Misses",data:n["a"].getters.data.missesChange},{name:"Change in Browser Cached",data:n["a"].getters.data.cachedChange},{name:"Change in Requests Served",data:n["a"].getters.data.reqServChange},{name:"Change in Bytes Sent",data:n["a"].getters.data.bytesSentChange},{name:"Change in Bytes On Disk",data:n["a"].getters.data.sizeDiskChange}],graphTypes:[{name:"Line",val:"line"},{name:"Bar",val:"bar"}],instance:null}},mounted:function(){var t=this;this.$nextTick((function(){t.instance=new q,t.instance.$mount(),t.$refs.grid.appendChild(t.instance.$el)}))},beforeDestroy:function(){this.instance.$destroy()},methods:{construct:function(t){return Object(I["a"])(t)},showModal:function(){this.uniqpieindex=0,this.uniqindex=0,this.axisindex=0,n["a"].commit("setTempOptions",{title:{left:"center",text:"Title",textStyle:{color:n["a"].getters.current.textColor}},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{color:n["a"].getters.current.secondary,formatter:function(t){return"x"===t.axisDimension&&t.seriesData[0]&&t.seriesData[0].data?M.a.utc(t.seriesData[0].data[0]).format("MMM D, h:mm:ssa"):t.value.toFixed(0)}}}},toolbox:{orient:"vertical",top:30,iconStyle:{color:n["a"].getters.current.accent,borderColor:"#00000000"},emphasis:{iconStyle:{textPosition:"left",color:n["a"].getters.current.accent2,borderColor:"#00000000"}},feature:{dataZoom:{show:!0,yAxisIndex:"none",icon:{zoom:"M14,17H17V14H19V17H22V19H19V22H17V19H14V17M12,17V19H9V17H12M7,17V19H3V15H5V17H7M3,13V10H5V13H3M3,8V4H7V6H5V8H3M9,4H12V6H9V4M15,4H19V8H17V6H15V4M19,10V12H17V10H19Z",back:"M13.5,7A6.5,6.5 0 0,1 20,13.5A6.5,6.5 0 0,1 13.5,20H10V18H13.5C16,18 18,16 18,13.5C18,11 16,9 13.5,9H7.83L10.91,12.09L9.5,13.5L4,8L9.5,2.5L10.92,3.91L7.83,7H13.5M6,18H8V20H6V18Z"},title:{zoom:"Zoom",back:"Undo"}},restore:{title:"Restore",icon:"M2 12C2 16.97 6.03 21 11 21C13.39 21 15.68 20.06 17.4 18.4L15.9 16.9C14.63 18.25 12.86 19 11 19C4.76 19 1.64 11.46 6.05 7.05C10.46 2.64 18 5.77 18 12H15L19 16H19.1L23 12H20C20 7.03 15.97 3 11 3C6.03 3 2 7.03 2 12Z"}}},grid:{right:40,left:40,bottom:40,top:60,containLabel:!0},legend:{left:"center",show:!0,top:22,data:["item"],inactiveColor:n["a"].getters.current.accent2,textStyle:{color:n["a"].getters.current.textColor}},xAxis:{type:"time",axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},splitLine:{lineStyle:{color:n["a"].getters.current.accent1}},axisLabel:{formatter:function(t){return M.a.utc(t).format("MMM D|h:mma").replace("|","\n")},splitNumber:10,showMaxLabel:!0,showMinLabel:!0}},yAxis:[{type:"value",name:"axis",scale:!0,max:function(t){return t.max.toFixed(5).replace(/\.?0*$/,"")},min:function(t){return t.min.toFixed(5).replace(/\.?0*$/,"")},axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},axisLabel:{formatter:null,unit:0},splitLine:{show:!1}}],dataZoom:[{type:"inside"},{start:90,type:"slider",handleSize:"100%",fillerColor:n["a"].getters.current.accent1,handleStyle:{color:n["a"].getters.current.textColor},dataBackground:{lineStyle:{color:n["a"].getters.current.textColor},areaStyle:{color:n["a"].getters.current.accent}},textStyle:{color:n["a"].getters.current.textColor}}],series:[{name:"item",type:"line",data:n["a"].getters.data.hits,dataId:"Hits",yAxisIndex:0,showSymbol:!1,itemStyle:{color:"#ef0e00"}}]}),n["a"].commit("setTempPieOptions",{title:{left:"center",text:"Title",textStyle:{color:n["a"].getters.current.textColor}},tooltip:{trigger:"item",formatter:" {b}<br/>{c} ({d}%)"},legend:{orient:"vertical",show:!0,left:0,data:["item"],inactiveColor:n["a"].getters.current.accent2,textStyle:{color:n["a"].getters.current.textColor}},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:[{name:"item",value:n["a"].getters.data.hits[n["a"].getters.data.hits.length-1]?n["a"].getters.data.hits[n["a"].getters.data.hits.length-1][1]:0,dataId:"Hits",itemStyle:{color:"#ef0e00"}}]}]}),this.$modal.show("createGraph")},addSet:function(t){for(var e="0123456789abcdef",a="#",s=0;s<6;s++)a+=e.substr(Math.floor(Math.random()*e.length),1);var r={name:"item "+this.uniqindex++,type:"line",data:n["a"].getters.data.hits.map((function(t){return t})),dataId:"Hits",yAxisIndex:0,showSymbol:!1,itemStyle:{color:a}};n["a"].getters.layout.tempoptions.series.splice(t+1,0,r),n["a"].getters.layout.tempoptions.legend.data.splice(t+1,0,r.name),this.prevreload=!this.prevreload},removeSet:function(t){n["a"].getters.layout.tempoptions.series.splice(t,1),n["a"].getters.layout.tempoptions.legend.data.splice(t,1),this.prevreload=!this.prevreload},addPieSet:function(t){for(var e="0123456789abcdef",a="#",s=0;s<6;s++)a+=e.substr(Math.floor(Math.random()*e.length),1);var r={name:"item "+this.uniqpieindex++,value:n["a"].getters.data.hits[n["a"].getters.data.hits.length-1]?n["a"].getters.data.hits[n["a"].getters.data.hits.length-1][1]:0,dataId:"Hits",itemStyle:{color:a}};n["a"].getters.layout.temppieoptions.series[0].data.splice(t+1,0,r),n["a"].getters.layout.temppieoptions.legend.data.splice(t+1,0,r.name),this.prevreload=!this.prevreload},removePieSet:function(t){n["a"].getters.layout.temppieoptions.series[0].data.splice(t,1),n["a"].getters.layout.temppieoptions.legend.data.splice(t,1),this.prevreload=!this.prevreload},setYAxis:function(t,e){n["a"].getters.layout.tempoptions.series[e].yAxisIndex=t,this.prevreload=!this.prevreload},setYAxisUnits:function(t,e){var a=this;n["a"].getters.layout.tempoptions.yAxis[e].axisLabel=0===t?{formatter:null,unit:0}:{formatter:function(e){return Object(I["d"])(e,a.units[t].arr)},unit:t},this.prevreload=!this.prevreload},addAxis:function(t){n["a"].getters.layout.tempoptions.yAxis.splice(t+1,0,{type:"value",name:"axis "+this.axisindex++,offset:80*(n["a"].getters.layout.tempoptions.yAxis.length-1),scale:!0,max:function(t){return t.max.toFixed(5).replace(/\.?0*$/,"")},min:function(t){return t.min.toFixed(5).replace(/\.?0*$/,"")},axisLine:{lineStyle:{color:n["a"].getters.current.textColor}},axisLabel:{formatter:null,unit:0},splitLine:{show:!1}}),this.prevreload=!this.prevreload},removeAxis:function(t){n["a"].getters.layout.tempoptions.yAxis.splice(t,1),this.prevreload=!this.prevreload},exportgraph:function(t,e){return Object(I["c"])(t,e)},log:function(t){console.log(t)}},computed:{g:function(){return this.graph}},watch:{g:function(){this.prevreload=!this.prevreload}}},E=R,F=a("8336"),J=a("a609"),U=a("ac7c"),Z=a("62ad"),G=a("03a4"),Y=a("ce87"),W=a("0fd9"),K=a("b974"),X=a("e0c7"),Q=a("8654"),tt=Object(c["a"])(E,A,V,!1,null,null,null),et=tt.exports;u()(tt,{VBtn:F["a"],VBtnToggle:J["a"],VCheckbox:U["a"],VCol:Z["a"],VColorPicker:G["a"],VContainer:P["a"],VExpandTransition:m["a"],VFadeTransition:m["d"],VHover:Y["a"],VIcon:f["a"],VRow:W["a"],VScrollXTransition:m["f"],VSelect:K["a"],VSubheader:X["a"],VTextField:Q["a"]});var at=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-container",{style:{color:t.$store.getters.current.textColor},attrs:{fluid:""}},[a("v-container",{staticClass:"pt-0 pb-0",style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},[a("v-row",[a("v-col",[a("h1",{staticClass:"pl-1"},[t._v("Console")])]),a("v-col",[a("v-btn",{staticStyle:{position:"absolute",right:"0","margin-right":"28px","margin-top":"5px"},style:{color:t.$store.getters.current.textColor},attrs:{color:t.$store.getters.current.accent1,tile:""}},[t._v("Disconnected ")])],1)],1)],1),a("xterm",{staticClass:"mt-3 mb-3",staticStyle:{width:"100%"}})],1)},st=[],rt=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("div",{attrs:{id:t.genid}})},ot=[],nt=a("fcf3"),it=a("47d0"),lt={name:"xterm",props:["lines"],data:function(){return{genid:"term",term:null,fitaddon:new it["FitAddon"]}},beforeMount:function(){for(var t="",e="ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789",a=0;a<20;a++)t+=e.charAt(Math.floor(Math.random()*e.length));this.genid=t,this.term=new nt["Terminal"]({disableStdin:!1,rows:30,cols:50,cursorBlink:!0,cursorStyle:"underline",fontSize:15}),this.term.loadAddon(this.fitaddon)},mounted:function(){var t=this;this.term.open(document.getElementById(this.genid)),window.addEventListener("resize",this.fit),this.$nextTick((function(){return t.fitaddon.fit()})),this.runFakeTerminal()},beforeDestroy:function(){this.term.dispose(),window.removeEventListener("resize",this.fit)},methods:{fit:function(){this.fitaddon.fit()},runFakeTerminal:function(){var t=this;this.term._initialized||(this.term._initialized=!0,this.term.writeln("Welcome to the Web UI console"),this.term.writeln("Anti was super lazy and didnt bother to actually implement a console sync"),this.term.writeln("Go ping him (please don't) to do some more work and stop reading manga"),this.term.writeln("You're still free to type and spam in this console to your heart's content tho"),this.term.writeln(""),this.prompt(this.term),this.term.onData((function(e){switch(e){case"\r":case"":t.prompt(t.term);break;case"":t.term._core.buffer.x>2&&t.term.write("\b \b");break;default:t.term.write(e)}})))},prompt:function(t){t.write("\r\n> ")}}},ct=lt,dt=(a("a950"),Object(c["a"])(ct,rt,ot,!1,null,null,null)),ut=dt.exports,pt={name:"Console",components:{Xterm:ut}},gt=pt,ht=Object(c["a"])(gt,at,st,!1,null,"7209c405",null),mt=ht.exports;u()(ht,{VBtn:F["a"],VCol:Z["a"],VContainer:P["a"],VRow:W["a"]});var ft=function(){var t=this,e=this,a=e.$createElement,s=e._self._c||a;return s("v-container",{style:{color:e.$store.getters.current.textColor},attrs:{fluid:""}},[s("v-container",{style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h1",{staticClass:"pl-1"},[e._v("Settings")])]),s("v-container",{staticClass:"pa-5 pb-9 mt-3",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h3",[e._v("Web Settings")]),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("h4",[e._v("Display")]),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{style:{color:e.$store.getters.current.textColor}},[e._v("Theme ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[s("v-select",{attrs:{dense:"",label:e.$vuetify.breakpoint.mdAndDown?"Theme":"",items:e.items,"item-value":"val","item-text":"disp",value:e.$store.state.options.current,color:e.$store.getters.current.textColor,dark:e.$store.getters.current.isDark},on:{input:function(t){return e.$store.commit("setTheme",t)}}})],1)],1),e.$vuetify.breakpoint.mdAndDown?e._e():s("v-row",{attrs:{dense:""}},[s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Show App Bar ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-switch",{attrs:{dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("showAppBar",e.showbar)}},model:{value:e.showbar,callback:function(t){e.showbar=t},expression:"showbar"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Background Image ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-switch",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Background Image":"",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("setHasBg",e.hasBgImage)}},model:{value:e.hasBgImage,callback:function(t){e.hasBgImage=t},expression:"hasBgImage"}})],1)],1),e.hasBgImage?s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Image URL ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Image URL":"",dark:e.$store.getters.current.isDark},on:{change:function(t){return e.$store.commit("setBgUrl",e.bgimg)}},model:{value:e.bgimg,callback:function(t){e.bgimg=t},expression:"bgimg"}})],1)],1):e._e(),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-3",style:{color:e.$store.getters.current.textColor}},[e._v("Dashboard ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetLayout")}}},[e._v(" Reset ")]),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetLayout")}}},[e._v(" Reset Dashboard ")]):e._e()],1)],1),s("h4",{staticClass:"mt-3"},[e._v("Data")]),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Data Refresh Rate ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Data Refresh Rate":"",dark:e.$store.getters.current.isDark,"error-messages":e.referr[0],suffix:"ms"},on:{input:function(t){e.checkNan(t,0),e.$store.commit("setRefresh",t)},focusout:function(){return t.updateInterval=e.$store.getters.data.updateInterval}},model:{value:e.updateInterval,callback:function(t){e.updateInterval=t},expression:"updateInterval"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Data Points ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8"}},[s("v-text-field",{attrs:{label:e.$vuetify.breakpoint.mdAndDown?"Max Data Points":"",dark:e.$store.getters.current.isDark,"error-messages":e.referr[1]},on:{input:function(t){e.checkNan(t,1),e.$store.commit("setMaxStorePoints",t)},focusout:function(){return t.maxpoints=e.$store.getters.data.maxStorePoints}},model:{value:e.maxpoints,callback:function(t){e.maxpoints=t},expression:"maxpoints"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-2",style:{color:e.$store.getters.current.textColor}},[e._v("Stats ")])],1),s("v-col",{staticClass:"pt-2 pb-0",attrs:{cols:"12",md:"8"}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetStats")}}},[e._v(" Reset ")]),e.$vuetify.breakpoint.mdAndDown?s("v-btn",{style:{color:e.$store.getters.current.textColor},attrs:{color:e.$store.getters.current.accent1},on:{click:function(t){return e.$store.commit("resetStats")}}},[e._v(" Reset Stats ")]):e._e()],1)],1)],1),s("v-container",{staticClass:"pa-5 mt-3",style:{backgroundColor:e.$store.getters.current.secondary+e.$store.getters.alpha},attrs:{fluid:""}},[s("h3",[e._v("Client Settings (Currently only for creating new settings)")]),s("div",{staticClass:"mt-2 mb-2",staticStyle:{width:"100%",height:"1px"},style:{backgroundColor:e.$store.getters.current.accent2}}),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Secret ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[0],label:e.$vuetify.breakpoint.mdAndDown?"Client Secret":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[0],callback:function(t){e.$set(e.configvals,0,t)},expression:"configvals[0]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Host IP ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[1],label:e.$vuetify.breakpoint.mdAndDown?"Client Host IP":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[1],callback:function(t){e.$set(e.configvals,1,t)},expression:"configvals[1]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Client Port ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[2],label:e.$vuetify.breakpoint.mdAndDown?"Client Port":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[2],callback:function(t){e.$set(e.configvals,2,t)},expression:"configvals[2]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Shutdown Wait Time ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[3],label:e.$vuetify.breakpoint.mdAndDown?"Max Shutdown Wait Time":"",dark:e.$store.getters.current.isDark},model:{value:e.msw,callback:function(t){e.msw=t},expression:"msw"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mswtprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Threads ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"12",md:"8"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[4],label:e.$vuetify.breakpoint.mdAndDown?"Max Threads":"",dark:e.$store.getters.current.isDark},model:{value:e.configvals[3],callback:function(t){e.$set(e.configvals,3,t)},expression:"configvals[3]"}})],1)],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Cache Size ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[5],label:e.$vuetify.breakpoint.mdAndDown?"Max Cache Size":"",dark:e.$store.getters.current.isDark},model:{value:e.mcs,callback:function(t){e.mcs=t},expression:"mcs"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mcsprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Hourly Bandwith ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[6],label:e.$vuetify.breakpoint.mdAndDown?"Max Hourly Bandwith":"",dark:e.$store.getters.current.isDark},model:{value:e.mhb,callback:function(t){e.mhb=t},expression:"mhb"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mhbprev))])])],1),s("v-row",{attrs:{dense:""}},[e.$vuetify.breakpoint.mdAndDown?e._e():s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"4"}},[s("v-subheader",{staticClass:"pt-5",style:{color:e.$store.getters.current.textColor}},[e._v("Max Burst Speed ")])],1),s("v-col",{staticClass:"pt-0 pb-0",attrs:{cols:"8",md:"6"}},[s("v-text-field",{attrs:{"error-messages":e.configerrors[7],label:e.$vuetify.breakpoint.mdAndDown?"Max Burst Speed":"",dark:e.$store.getters.current.isDark},model:{value:e.mbs,callback:function(t){e.mbs=t},expression:"mbs"}})],1),s("v-col",{staticClass:"pt-6 pb-0",attrs:{cols:"4",md:"2"}},[s("span",[e._v(e._s(e.mbsprev))])])],1),s("v-container",{attrs:{fluid:""}},[s("h3",[e._v("Config Result")]),s("v-container",{staticStyle:{"background-color":"#000000",color:"#fff"},attrs:{fluid:""}},[s("p",{staticClass:"mb-0",staticStyle:{"font-family":"monospace"}},[e._v(" {"),s("br"),e._v(' "client_secret": "'+e._s(e.configvals[0])+'",'),s("br"),e._v(' "client_hostname": "'+e._s(e.configvals[1])+'",'),s("br"),e._v(' "client_port": "'+e._s(e.configvals[2])+'",'),s("br"),e._v(' "threads": "'+e._s(e.configvals[3])+'",'),s("br"),e._v(' "graceful_shutdown_wait_seconds": "'+e._s(e.configvals[4])+'",'),s("br"),e._v(' "max_cache_size_in_mebibytes": "'+e._s(e.configvals[5])+'",'),s("br"),e._v(' "max_kilobits_per_second": "'+e._s(e.configvals[6])+'",'),s("br"),e._v(' "max_mebibytes_per_hour": "'+e._s(e.configvals[7])+'",'),s("br"),e._v(" } ")])])],1)],1)],1)},vt=[],bt=(a("c975"),{name:"Options",methods:{checkNan:function(t,e){isNaN(t)?this.referr[e]="That is not a number!":this.referr[e]=""}},data:function(){return{items:[{disp:"Light",val:"light"},{disp:"Dark",val:"dark"},{disp:"Midnight",val:"midnight"},{disp:"I wan't to die",val:"eyekiller"}],mcsprev:"1.049 mb",mcs:1048576,mhbprev:"1.049 mb",mhb:1048576,mbsprev:"1 kps",mbs:1e3,mswtprev:"1 m",msw:60,configvals:["iiesenpaithisisoursecret","0.0.0.0",44300,16,60,1,1,1],configerrors:["","","","","","","",""],hasBgImage:n["a"].getters.hasBgImage,bgimg:n["a"].getters.bgImg,updateInterval:n["a"].getters.data.updateInterval,maxpoints:n["a"].getters.data.maxStorePoints,referr:["",""],showbar:n["a"].getters.showAppBar}},computed:{hasbg:function(){return n["a"].getters.hasBgImage},bgurl:function(){return n["a"].getters.bgImg},showAppBar:function(){return n["a"].getters.showAppBar},maxbs:function(){return this.mbs},maxhb:function(){return this.mhb},maxcs:function(){return this.mcs},maxsw:function(){return this.msw},configval:function(){return this.configvals}},watch:{hasbg:function(){this.hasBgImage=n["a"].getters.hasBgImage},bgurl:function(){this.bgimg=n["a"].getters.bgImg},showAppBar:function(){},maxbs:function(){if(""!==this.mbs){var t=["bps","kbps","mbps","gbps","tbps","pbps","ebps","zbps","ybps"];if(isNaN(this.mbs)){for(var e in t)if(-1!==this.mbs.indexOf(t[e])){var a=parseFloat(this.mbs.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mbsprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[6]=a*Math.pow(10,3*parseInt(e))/1e3}}else{var o=parseInt(this.mbs);for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mbsprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[6]=Math.round(o/1e3)}this.configvals[6]<1?this.configerrors[7]="That size is too small!":this.configerrors[7]=""}else this.mbsprev="0 bits/s"},maxhb:function(){if(""===this.mcs)return this.configvals[7]=0,void(this.mcsprev="0 bytes");var t=["b","kb","mb","gb","tb","pb","eb","zb","yb"];if(isNaN(this.mhb)){for(var e in t)if(-1!==this.mhb.indexOf(t[e])){var a=parseFloat(this.mhb.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mhbprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[7]=Math.round(a*Math.pow(10,3*parseInt(e))/1048576)}}else{var o=parseInt(this.mhb);if(0===o)return void(this.mhbprev="0 bytes");for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mhbprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[7]=Math.round(o/1048576)}this.configvals[7]<1?this.configerrors[6]="That size is too small!":this.configerrors[6]=""},maxcs:function(){if(""===this.mcs)return this.configvals[5]=0,void(this.mcsprev="0 bytes");var t=["b","kb","mb","gb","tb","pb","eb","zb","yb"];if(isNaN(this.mcs)){for(var e in t)if(-1!==this.mcs.indexOf(t[e])){var a=parseFloat(this.mcs.replace(t[e],""));for(var s in t){var r=Math.pow(10,3*parseInt(s));a*Math.pow(10,3*parseInt(e))>=r&&(this.mcsprev=(a*Math.pow(10,3*parseInt(e))/r).toPrecision(4)+" "+t[s])}this.configvals[5]=Math.round(a*Math.pow(10,3*parseInt(e))/1048576)}}else{var o=parseInt(this.mcs);for(var n in t){var i=Math.pow(10,3*parseInt(n));o>=i&&(this.mcsprev=(o/i).toPrecision(4)+" "+t[n])}this.configvals[5]=Math.round(o/1048576)}this.configvals[5]<1?this.configerrors[5]="That size is too small!":this.configerrors[5]=""},maxsw:function(){if(""===this.msw)return this.configvals[4]=0,void(this.mswtprev="0 seconds");var t=["s","m","h","d"],e=[1,60,3600,86400];if(isNaN(this.msw)){for(var a in t)if(-1!==this.msw.indexOf(t[a])){var s=parseFloat(this.msw.replace(t[a],""));for(var r in e){var o=e[r];s*e[a]>=o&&(this.mswtprev=(s*e[a]/o).toPrecision(4)+" "+t[r])}this.configvals[4]=Math.round(s*e[a])}}else{var n=parseInt(this.msw);for(var i in e){var l=e[i];n>=l&&(this.mswtprev=(n/l).toPrecision(4)+" "+t[i])}this.configvals[4]=Math.round(n)}},configval:function(){-1!==this.configval[0].indexOf(" ")?this.configerrors[0]="Secret can't have spaces!":this.configerrors[0]="",-1!==this.configval[1].indexOf(" ")?this.configerrors[1]="IP can't have spaces!":this.configerrors[1]="",isNaN(this.configval[2])?this.configerrors[2]="Port can't have spaces!":this.configerrors[2]="",this.configval[3]<4?this.configerrors[4]="Max threads can't be less than 4!":isNaN(this.configval[3])?this.configerrors[4]="Max threads should be a number!":this.configerrors[4]=""}}}),yt=bt,xt=a("b73d"),Ct=Object(c["a"])(yt,ft,vt,!1,null,null,null),kt=Ct.exports;u()(Ct,{VBtn:F["a"],VCol:Z["a"],VContainer:P["a"],VRow:W["a"],VSelect:K["a"],VSubheader:X["a"],VSwitch:xt["a"],VTextField:Q["a"]});var wt=function(){var t=this,e=t.$createElement,a=t._self._c||e;return a("v-container",{style:{color:t.$store.getters.current.textColor},attrs:{fluid:""}},[a("v-container",{style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},[a("h1",{staticClass:"pl-1"},[t._v("Info")])]),a("v-container",{staticClass:"mt-3",style:{backgroundColor:t.$store.getters.current.secondary+t.$store.getters.alpha},attrs:{fluid:""}},t._l(t.infoList,(function(e,s){return a("div",{key:s,staticStyle:{width:"50%"}},[a("h3",[t._v(t._s(e.name))]),a("v-row",{attrs:{dense:""}},[a("v-col",[a("p",[t._v(t._s(e.shortValue))])]),e.longValue?a("v-col",[a("p",[t._v(t._s(e.longValue+(e.unitLabel?" "+e.unitLabel:"")))])]):t._e()],1)],1)})),0)],1)},St=[],$t={name:"About",data:function(){return{rel:0,infoList:[{name:"Client Version (Temporary fake data)",shortValue:"1.0.0",longValue:"latest: x.x.x"},{name:"Total Hits",unitLabel:"hits",longValue:n["a"].getters.lastValueOf("hits"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("hits"),I["f"])},{name:"Total Misses",unitLabel:"misses",longValue:n["a"].getters.lastValueOf("misses"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("misses"),I["f"])},{name:"Total Data Sent",unitLabel:"bytes",longValue:n["a"].getters.lastValueOf("bytesSent"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("bytesSent"),I["b"])},{name:"Total Requests Served",unitLabel:"requests",longValue:n["a"].getters.lastValueOf("reqServ"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("reqServ"),I["f"])},{name:"Cache Size",unitLabel:"bytes",longValue:n["a"].getters.lastValueOf("sizeDisk"),shortValue:Object(I["d"])(n["a"].getters.lastValueOf("sizeDisk"),I["b"])}]}}},_t=$t,Dt=Object(c["a"])(_t,wt,St,!1,null,"3b3b3ee5",null),jt=Dt.exports;u()(Dt,{VCol:Z["a"],VContainer:P["a"],VRow:W["a"]});var At=a("8c4f"),Vt=[{path:"/",component:et},{path:"/cons",component:mt},{path:"/opts",component:kt},{path:"/info",component:jt}];s["default"].use(At["a"]);var It=new At["a"]({routes:Vt}),Ot=(a("ef97"),a("94b1"),a("c037"),a("007d"),a("627c"),a("d28f"),a("b11c"),a("0a6d"),a("4f22")),Mt=a("9483");Object(Mt["a"])("".concat("","service-worker.js"),{ready:function(){console.log("App is being served from cache by a service worker.\nFor more details, visit https://goo.gl/AFskqB")},registered:function(){console.log("Service worker has been registered.")},cached:function(){console.log("Content has been cached for offline use.")},updatefound:function(){console.log("New content is downloading.")},updated:function(){console.log("New content is available; please refresh.")},offline:function(){console.log("No internet connection found. App is running in offline mode.")},error:function(t){console.error("Error during service worker registration:",t)}});var Lt=a("1881"),Bt=a.n(Lt),Ht=a("10a7"),zt=(a("52b6"),a("7be8")),Pt=a.n(zt);if(s["default"].component("overlay-scrollbars",Ht["a"]),s["default"].use(Bt.a,{dynamic:!0,dynamicDefaults:{clickToClose:!0}}),s["default"].use(Pt.a),s["default"].use(Ot["a"]),s["default"].config.productionTip=!1,s["default"].mixin({methods:{updateData:function(){var e=this;if("undefined"!==typeof EventSource&&(window.statsStream||(window.statsStream=new EventSource("api/statsStream"),window.statsStream.addEventListener("stats",(function(t){e.pushPoint(JSON.parse(t.data))}))),2!==window.statsStream.readyState))return;fetch("api/stats").then((function(t){return t.json().catch((function(t){return console.warn("Response Error: "+t),null}))})).then((function(t){null!==t&&e.pushPoint(t)})).catch((function(t){console.log(t)}))},pushPoint:function(t){n["a"].commit("pushStats",t),localStorage.stats=JSON.stringify(n["a"].getters.data.stats);var e=Object.keys(t)[0],a=t[e],s=new Date(M()(e));n["a"].commit("pushDate",e),n["a"].commit("pushHitsChange",[s,a.cache_hits-n["a"].getters.lastValueOf("hits")]),n["a"].commit("pushHits",[s,a.cache_hits]),n["a"].commit("pushMissesChange",[s,a.cache_misses-n["a"].getters.lastValueOf("misses")]),n["a"].commit("pushMisses",[s,a.cache_misses]),n["a"].commit("pushCachedChange",[s,a.browser_cached-n["a"].getters.lastValueOf("cached")]),n["a"].commit("pushCached",[s,a.browser_cached]),n["a"].commit("pushBytesSentChange",[s,a.bytes_sent-n["a"].getters.lastValueOf("bytesSent")]),n["a"].commit("pushBytesSent",[s,a.bytes_sent]),n["a"].commit("pushReqServChange",[s,a.requests_served-n["a"].getters.lastValueOf("reqServ")]),n["a"].commit("pushReqServ",[s,a.requests_served]),n["a"].commit("pushSizeDiskChange",[s,a.bytes_on_disk-n["a"].getters.lastValueOf("sizeDisk")]),n["a"].commit("pushSizeDisk",[s,a.bytes_on_disk])}}}),localStorage.stats&&n["a"].getters.data.stats.length<1&&n["a"].commit("setStats",JSON.parse(localStorage.stats)),function(){var t=n["a"].getters.data.stats,e=t.length>0?Object.keys(t[t.length-1])[0]:null,a={};e&&Date.now()-new Date(e).getTime()>36e5&&(e=null);e&&localStorage.pastStatsETag&&(a["If-None-Match"]=localStorage.pastStatsETag);return fetch(e?"api/pastStats?since="+encodeURIComponent(e):"api/pastStats",{headers:a}).then((function(t){if(304===t.status)return null;var e=t.headers.get("ETag");return e&&(localStorage.pastStatsETag=e),t.json().catch((function(t){return console.warn("Response Error: "+t),null}))}))}().then((function(t){null!==t&&Object.keys(t).forEach((function(e){var a={};a[e]=t[e],n["a"].commit("pushStats",a)})),localStorage.stats=JSON.stringify(n["a"].getters.data.stats)})).catch((function(t){return console.log(t)})),Object(I["g"])(),Object(I["e"])(),localStorage.hasBackground&&n["a"].commit("setHasBg","true"===localStorage.hasBackground),localStorage.showAppBar&&n["a"].commit("showAppBar","true"===localStorage.showAppBar),localStorage.theme&&"undefined"!==localStorage.theme?n["a"].commit("setTheme",localStorage.theme):n["a"].commit("setTheme","light"),localStorage.backgroundURL&&n["a"].commit("setBgUrl",localStorage.backgroundURL),localStorage.dashboardLayout)try{n["a"].commit("setLayout",JSON.parse(localStorage.dashboardLayout)),n["a"].commit("setChart",JSON.parse(localStorage.dashboardCharts).map((function(t){return Object(I["a"])(t)})))}catch(Tt){n["a"].commit("resetLayout"),console.warn("There was an error reading the saved layout:"),console.warn(Tt),console.warn("Using default layout")}else n["a"].commit("resetLayout");localStorage.refreshRate&&n["a"].commit("setRefresh",parseInt(localStorage.refreshRate)),new s["default"]({render:function(t){return t(_)},router:It,store:n["a"],vuetify:j}).$mount("#app")},"5fb0":function(t,e,a){"use strict";a.d(e,"b",(function(){return n})),a.d(e,"f",(function(){return i})),a.d(e,"d",(function(){return l})),a.d(e,"a",(function(){return d})),a.d(e,"c",(function(){return u})),a.d(e,"e",(function(){return p})),a.d(e,"g",(function(){return g}));a("99af"),a("4160"),a("d81d"),a("b0c0"),a("b680"),a("b64b"),a("ac1f"),a("5319"),a("159b");var s=a("4360"),r=a("c1df"),o=a.n(r),n=["YB","ZB","EB","PB","TB","GB","MB","KB","B"],i=["d","n","o","S","s","Q","q","t","B","M","K",""],l=function(t,e,a){for(var s=a||2,r=parseFloat(t),o=0;o<e.length;o++){var n=Math.pow(10,3*(e.length-o-1));if(r>=n)return(r/n).toFixed(s).replace(/\.?0*$/,"")+e[o]}return r.toFixed(s).replace(/\.?0*$/,"")},c=[[],n,i],d=function(t){if("graph"===t.type){var e=JSON.parse(JSON.stringify(t));return e.title.textStyle={color:s["a"].getters.current.textColor},e.toolbox={orient:"vertical",top:30,iconStyle:{color:s["a"].getters.current.accent,borderColor:"#00000000"},emphasis:{iconStyle:{textPosition:"left",color:s["a"].getters.current.accent2,borderColor:"#00000000"}},feature:{dataZoom:{show:!0,yAxisIndex:"none",icon:{zoom:"M14,17H17V14H19V17H22V19H19V22H17V19H14V17M12,17V19H9V17H12M7,17V19H3V15H5V17H7M3,13V10H5V13H3M3,8V4H7V6H5V8H3M9,4H12V6H9V4M15,4H19V8H17V6H15V4M19,10V12H17V10H19Z",back:"M13.5,7A6.5,6.5 0 0,1 20,13.5A6.5,6.5 0 0,1 13.5,20H10V18H13.5C16,18 18,16 18,13.5C18,11 16,9 13.5,9H7.83L10.91,12.09L9.5,13.5L4,8L9.5,2.5L10.92,3.91L7.83,7H13.5M6,18H8V20H6V18Z"},title:{zoom:"Zoom",back:"Undo"}},restore:{title:"Restore",icon:"M2 12C2 16.97 6.03 21 11 21C13.39 21 15.68 20.06 17.4 18.4L15.9 16.9C14.63 18.25 12.86 19 11 19C4.76 19 1.64 11.46 6.05 7.05C10.46 2.64 18 5.77 18 12H15L19 16H19.1L23 12H20C20 7.03 15.97 3 11 3C6.03 3 2 7.03 2 12Z"}}},e.grid={right:40+80*Math.max(0,t.yAxis.length-2),left:40,bottom:40,top:60,containLabel:!0},e.legend.inactiveColor=s["a"].getters.current.accent2,e.legend.textStyle={color:s["a"].getters.current.textColor},e.xAxis={type:"time",axisLine:{lineStyle:{color:s["a"].getters.current.textColor}},splitLine:{lineStyle:{color:s["a"].getters.current.accent1}},axisLabel:{formatter:function(t){return o.a.utc(t).format("MMM D|h:mma").replace("|","\n")},splitNumber:10,showMaxLabel:!0,showMinLabel:!0}},e.yAxis.forEach((function(t){t.axisLine={lineStyle:{color:s["a"].getters.current.textColor}},t.axisLabel.formatter=function(e){return l(e,c[t.axisLabel.unit],2)}})),e.tooltip={trigger:"axis",axisPointer:{type:"cross",label:{color:s["a"].getters.current.secondary}}},e.tooltip.axisPointer.label.formatter=function(t){return"x"===t.axisDimension&&t.seriesData[0]&&t.seriesData[0].data?o.a.utc(t.seriesData[0].data[0]).format("MMM D, h:mm:ssa"):l(t.value,c[e.yAxis[t.axisIndex].axisLabel.unit],4)},e.dataZoom=[{type:"inside"},{start:90,type:"slider",handleSize:"100%",fillerColor:s["a"].getters.current.accent1,handleStyle:{color:s["a"].getters.current.textColor},dataBackground:{lineStyle:{color:s["a"].getters.current.textColor},areaStyle:{color:s["a"].getters.current.accent}},textStyle:{color:s["a"].getters.current.textColor}}],e.series.forEach((function(t){switch(t.dataId){case"Hits":t.data=s["a"].getters.data.hits;break;case"Misses":t.data=s["a"].getters.data.misses;break;case"Browser Cached":t.data=s["a"].getters.data.cached;break;case"Requests Served":t.data=s["a"].getters.data.reqServ;break;case"Bytes Sent":t.data=s["a"].getters.data.bytesSent;break;case"Bytes On Disk":t.data=s["a"].getters.data.sizeDisk;break;case"Change in Hits":t.data=s["a"].getters.data.hitsChange;break;case"Change in Misses":t.data=s["a"].getters.data.missesChange;break;case"Change in Browser Cached":t.data=s["a"].getters.data.cachedChange;break;case"Change in Requests Served":t.data=s["a"].getters.data.reqServChange;break;case"Change in Bytes Sent":t.data=s["a"].getters.data.bytesSentChange;break;case"Change in Bytes On Disk":t.data=s["a"].getters.data.sizeDiskChange;break}switch(t.itemStyle.colorId){case"background":t.itemStyle.color=s["a"].getters.current.backgroundColor;break;case"text":t.itemStyle.color=s["a"].getters.current.textColor;break;case"primary":t.itemStyle.color=s["a"].getters.current.primary;break;case"secondary":t.itemStyle.color=s["a"].getters.current.secondary;break;case"accent":t.itemStyle.color=s["a"].getters.current.accent;break;case"accent1":t.itemStyle.color=s["a"].getters.current.accent1;break;case"accent2":t.itemStyle.color=s["a"].getters.current.accent2;break;case"red":t.itemStyle.color=s["a"].getters.current.red;break;case"green":t.itemStyle.color=s["a"].getters.current.green;break;case"yellow":t.itemStyle.color=s["a"].getters.current.yellow;break;default:break}})),e}if("pie"===t.type){var a=JSON.parse(JSON.stringify(t));return a.title.textStyle={color:s["a"].getters.current.textColor},a.legend.inactiveColor=s["a"].getters.current.accent2,a.legend.textStyle={color:s["a"].getters.current.textColor},a.tooltip={trigger:"item",formatter:" {b}<br/>{c} ({d}%)"},a.series[0].data.forEach((function(t){switch(t.dataId){case"Hits":t.value=s["a"].getters.lastValueOf("hits");break;case"Misses":t.value=s["a"].getters.lastValueOf("misses");break;case"Browser Cached":t.value=s["a"].getters.lastValueOf("cached");break;case"Requests Served":t.value=s["a"].getters.lastValueOf("reqServ");break;case"Bytes Sent":t.value=s["a"].getters.lastValueOf("bytesSent");break;case"Bytes On Disk":t.value=s["a"].getters.lastValueOf("sizeDisk");break;case"Change in Hits":t.value=s["a"].getters.lastValueOf("hitsChange");break;case"Change in Misses":t.value=s["a"].getters.lastValueOf("missesChange");break;case"Change in Browser Cached":t.value=s["a"].getters.lastValueOf("cachedChange");break;case"Change in Requests Served":t.value=s["a"].getters.lastValueOf("reqServChange");break;case"Change in Bytes Sent":t.value=s["a"].getters.lastValueOf("bytesSentChange");break;case"Change in Bytes On Disk":t.value=s["a"].getters.lastValueOf("sizeDiskChange");break}switch(t.itemStyle.colorId){case"background":t.itemStyle.color=s["a"].getters.current.backgroundColor;break;case"text":t.itemStyle.color=s["a"].getters.current.textColor;break;case"primary":t.itemStyle.color=s["a"].getters.current.primary;break;case"secondary":t.itemStyle.color=s["a"].getters.current.secondary;break;case"accent":t.itemStyle.color=s["a"].getters.current.accent;break;case"accent1":t.itemStyle.color=s["a"].getters.current.accent1;break;case"accent2":t.itemStyle.color=s["a"].getters.current.accent2;break;case"red":t.itemStyle.color=s["a"].getters.current.red;break;case"green":t.itemStyle.color=s["a"].getters.current.green;break;case"yellow":t.itemStyle.color=s["a"].getters.current.yellow;break;default:break}})),a}return{}},u=function(t,e){if("graph"===e){var a={type:e,title:{left:"center",text:t.title.text},tooltip:{trigger:"axis",axisPointer:{type:"cross",label:{formatter:"number"}}},legend:{left:t.legend.left,show:t.legend.show,top:t.legend.top,data:t.legend.data},yAxis:t.yAxis.map((function(t){return{type:"value",name:t.name,scale:!0,offset:t.offset?t.offset:0,axisLabel:{unit:t.axisLabel.unit},splitLine:{show:!1}}})),series:t.series.map((function(t){return{name:t.name,type:t.type,data:null,dataId:t.dataId,yAxisIndex:t.yAxisIndex,showSymbol:!1,itemStyle:{color:t.itemStyle.color,colorId:t.colorId}}}))};return a}if("pie"===e){var s={type:e,title:{left:"center",text:t.title.text},legend:{orient:"vertical",left:t.legend.left,show:t.legend.show,top:t.legend.top,data:t.legend.data},series:[{type:"pie",avoidLabelOverlap:!0,label:{show:!1},labelLine:{show:!1},data:t.series[0].data.map((function(t){return{name:t.name,value:0,dataId:t.dataId,itemStyle:{color:t.itemStyle.color}}}))}]};return s}},p=function(){for(var t=0;t<s["a"].getters.data.stats.length;t++){var e=Object.keys(s["a"].getters.data.stats[t])[0],a=s["a"].getters.data.stats[t][e],r=t>0?s["a"].getters.data.stats[t-1][Object.keys(s["a"].getters.data.stats[t-1])[0]]:null,n=new Date(o()(e));s["a"].commit("pushDate",e),s["a"].commit("pushHits",[n,a.cache_hits]),s["a"].commit("pushHitsChange",[n,r?a.cache_hits-r.cache_hits:0]),s["a"].commit("pushMisses",[n,a.cache_misses]),s["a"].commit("pushMissesChange",[n,r?a.cache_misses-r.cache_misses:0]),s["a"].commit("pushCached",[n,a.browser_cached]),s["a"].commit("pushCachedChange",[n,r?a.browser_cached-r.browser_cached:0]),s["a"].commit("pushBytesSent",[n,a.bytes_sent]),s["a"].commit("pushBytesSentChange",[n,r?a.bytes_sent-r.bytes_sent:0]),s["a"].commit("pushReqServ",[n,a.requests_served]),s["a"].commit("pushReqServChange",[n,r?a.requests_served-r.requests_served:0]),s["a"].commit("pushSizeDisk",[n,a.bytes_on_disk]),s["a"].commit("pushSizeDiskChange",[n,r?a.bytes_on_disk-r.bytes_on_disk:0])}},g=function(){var t=s["a"].getters.data.stats;function e(t){if(t.length<=1)return t;for(var a=[],s=[],r=t.pop(),o=t.length,n=0;n<o;n++)new Date(Object.keys(t[n])[0])<=new Date(Object.keys(r)[0])?a.push(t[n]):s.push(t[n]);return[].concat(e(a),r,e(s))}s["a"].commit("setStats",e(t))}},a950:function(t,e,a){"use strict";var s=a("0134"),r=a.n(s);r.a},ab65:function(t,e,a){},d048:function(t,e,a){"use strict";var s=a("ab65"),r=a.n(s);r.a}});
 //# sourceMappingURL=app.ede7edb7.js.map
\ No newline at end of file
@@ -16,7 +16,7 @@ self.__precacheManifest = (self.__precacheManifest || []).concat([
     "url": "index.html"
   },
   {
-    "revision": "bb309837f2cf709edac5",
+    "revision": "0101fb4d526d05dcb6a4",
     "url": "js/app.ede7edb7.js"
   },
   {
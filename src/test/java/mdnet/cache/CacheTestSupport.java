@@ -0,0 +1,79 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Helpers shared by the cache tests.
+ */
+final class CacheTestSupport {
+	private CacheTestSupport() {
+	}
+
+	/**
+	 * Waits until the cache's background thread has no cleanup, eviction,
+	 * migration or compaction left to run.
+	 */
+	static void awaitBackgroundWork(DiskLruCache cache) throws Exception {
+		// the thread runs one task at a time, so once a task queued after the others
+		// has run and nothing was queued meanwhile, they are all done
+		do {
+			cache.executorService.submit(() -> null).get(10, TimeUnit.SECONDS);
+		} while (!cache.executorService.getQueue().isEmpty());
+	}
+
+	/**
+	 * Asserts that of {@code keys}, exactly those with a clean file on one of
+	 * the cache's volumes are in the index, and that the cache size is the
+	 * total length of those files.
+	 */
+	static void assertIndexMatchesFiles(DiskLruCache cache, Collection<String> keys) throws IOException {
+		long total = 0;
+		for (String key : keys) {
+			for (CacheVolume volume : cache.getVolumes()) {
+				total += new File(volume.getDirectory(), key + ".0").length();
+			}
+		}
+		// before reading, which drops entries whose files are missing
+		assertEquals(total, cache.size());
+
+		for (String key : keys) {
+			File file = null;
+			for (CacheVolume volume : cache.getVolumes()) {
+				File candidate = new File(volume.getDirectory(), key + ".0");
+				if (candidate.exists()) {
+					assertNull(file, key + " is on two volumes");
+					file = candidate;
+				}
+			}
+			DiskLruCache.Snapshot snapshot = cache.get(key);
+			if (snapshot != null) {
+				snapshot.close();
+			}
+			assertEquals(file != null, snapshot != null, key);
+		}
+	}
+}
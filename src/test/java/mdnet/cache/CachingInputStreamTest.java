@@ -0,0 +1,115 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.http.conn.ConnectionReleaseTrigger;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingInputStreamTest {
+	private static final int LENGTH = 1000;
+
+	/**
+	 * An upstream body that, like Apache's streams, reads the rest of itself
+	 * when closed, and can instead be aborted.
+	 */
+	private static final class UpstreamBody extends InputStream implements ConnectionReleaseTrigger {
+		int position;
+		boolean aborted;
+
+		@Override
+		public int read() {
+			if (aborted) {
+				throw new IllegalStateException("read after abort");
+			}
+			return position < LENGTH ? position++ & 0xff : -1;
+		}
+
+		@Override
+		public void close() {
+			while (!aborted && read() >= 0) {
+				// drains the body, as closing a response does
+			}
+		}
+
+		@Override
+		public void releaseConnection() {
+			close();
+		}
+
+		@Override
+		public void abortConnection() {
+			aborted = true;
+		}
+	}
+
+	@Test
+	void completedFillClosesUpstreamAndCompletes() throws Exception {
+		CacheFillExecutor executor = new CacheFillExecutor(1, 1, 60_000, CacheFillExecutor.DropPolicy.NEWEST);
+		UpstreamBody body = new UpstreamBody();
+		ByteArrayOutputStream cache = new ByteArrayOutputStream();
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicBoolean completed = new AtomicBoolean();
+		InputStream stream = new CachingInputStream(body, executor, cache, () -> {
+			completed.set(true);
+			done.countDown();
+		}, done::countDown);
+
+		stream.read(new byte[10]);
+		stream.close();
+
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(completed.get());
+		assertFalse(body.aborted);
+		assertEquals(LENGTH, cache.size());
+		assertEquals(1, executor.completedFills());
+	}
+
+	@Test
+	void expiredFillAbortsUpstreamWithoutReadingIt() throws Exception {
+		// a deadline of zero expires every fill before it starts
+		CacheFillExecutor executor = new CacheFillExecutor(1, 1, 0, CacheFillExecutor.DropPolicy.NEWEST);
+		UpstreamBody body = new UpstreamBody();
+		CountDownLatch done = new CountDownLatch(1);
+		AtomicBoolean aborted = new AtomicBoolean();
+		InputStream stream = new CachingInputStream(body, executor, new ByteArrayOutputStream(), done::countDown,
+				() -> {
+					aborted.set(true);
+					done.countDown();
+				});
+
+		stream.read(new byte[10]);
+		stream.close();
+
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(aborted.get());
+		assertTrue(body.aborted);
+		assertEquals(10, body.position);
+		assertEquals(1, executor.expiredFills());
+	}
+}
@@ -0,0 +1,119 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskLruCacheCompactionTest {
+	private static final long MAX_SIZE = 1L << 40;
+	private static final int THREADS = 4;
+	private static final int KEYS_PER_THREAD = 2000;
+	private static final int READS_PER_KEY = 3;
+
+	@TempDir
+	File directory;
+
+	@Test
+	void compactionKeepsEditsMadeWhileItRuns() throws Exception {
+		DiskLruCache cache = DiskLruCache.open(directory, 1, 1, MAX_SIZE, -1, false);
+		// every key is written once, so a record lost in a journal swap loses its entry,
+		// and the reads pile up redundant records that keep compactions running
+		Set<String> expected = ConcurrentHashMap.newKeySet();
+		ExecutorService editors = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				runs.add(editors.submit(() -> {
+					for (int k = 0; k < KEYS_PER_THREAD; k++) {
+						String key = "k" + thread + "-" + k;
+						DiskLruCache.Editor editor = cache.edit(key);
+						assertNotNull(editor, key);
+						editor.setString(0, key);
+						editor.commit();
+						for (int r = 0; r < READS_PER_KEY; r++) {
+							DiskLruCache.Snapshot snapshot = cache.get(key);
+							assertNotNull(snapshot, key);
+							snapshot.close();
+						}
+						if (k % 7 == 0) {
+							assertTrue(cache.remove(key), key);
+						} else {
+							expected.add(key);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			editors.shutdown();
+		}
+		CacheTestSupport.awaitBackgroundWork(cache);
+		cache.close();
+
+		// five or more records were appended per key, only a compacted journal is this short
+		List<String> journal = Files.readAllLines(new File(directory, "journal").toPath(), StandardCharsets.UTF_8);
+		assertTrue(journal.size() < THREADS * KEYS_PER_THREAD * 2, "journal has " + journal.size() + " lines");
+
+		DiskLruCache replayed = DiskLruCache.open(directory, 1, 1, MAX_SIZE, -1, false);
+		try {
+			long expectedSize = 0;
+			for (int t = 0; t < THREADS; t++) {
+				for (int k = 0; k < KEYS_PER_THREAD; k++) {
+					String key = "k" + t + "-" + k;
+					DiskLruCache.Snapshot snapshot = replayed.get(key);
+					if (!expected.contains(key)) {
+						assertNull(snapshot, key);
+						continue;
+					}
+					assertNotNull(snapshot, key);
+					try {
+						assertEquals(key, snapshot.getString(0));
+					} finally {
+						snapshot.close();
+					}
+					expectedSize += key.length();
+				}
+			}
+			assertEquals(expectedSize, replayed.size());
+		} finally {
+			replayed.close();
+		}
+	}
+}
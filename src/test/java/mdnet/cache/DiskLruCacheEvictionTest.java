@@ -0,0 +1,146 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskLruCacheEvictionTest {
+	private static final long MAX_SIZE = 4000;
+	private static final int THREADS = 8;
+	private static final int KEYS_PER_THREAD = 40;
+	private static final int ROUNDS = 1000;
+
+	@TempDir
+	File directory;
+
+	@Test
+	void evictedKeysEditedAgainKeepTheirNewValue() throws Exception {
+		DiskLruCache cache = DiskLruCache.open(directory, 1, 1, MAX_SIZE, -1, false);
+		List<String> keys = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			for (int k = 0; k < KEYS_PER_THREAD; k++) {
+				keys.add(key(t, k));
+			}
+		}
+		// each thread cycles through its own keys, many times more than fit, so keys
+		// are edited again right after being picked for eviction
+		Map<String, String> expected = new ConcurrentHashMap<>();
+		ExecutorService editors = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				runs.add(editors.submit(() -> {
+					for (int round = 0; round < ROUNDS; round++) {
+						String key = key(thread, round % KEYS_PER_THREAD);
+						DiskLruCache.Editor editor = cache.edit(key);
+						if (editor == null) {
+							continue; // Its files are still being deleted.
+						}
+						String value = value(key, round);
+						editor.setString(0, value);
+						editor.commit();
+						expected.put(key, value);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			editors.shutdown();
+		}
+		CacheTestSupport.awaitBackgroundWork(cache);
+		assertTrue(cache.getEvictionCount() > 0);
+		assertTrue(cache.size() <= MAX_SIZE);
+		CacheTestSupport.assertIndexMatchesFiles(cache, keys);
+		cache.close();
+
+		DiskLruCache replayed = DiskLruCache.open(directory, 1, 1, MAX_SIZE, -1, false);
+		try {
+			CacheTestSupport.assertIndexMatchesFiles(replayed, keys);
+			for (String key : keys) {
+				DiskLruCache.Snapshot snapshot = replayed.get(key);
+				if (snapshot != null) {
+					try {
+						assertEquals(expected.get(key), snapshot.getString(0));
+					} finally {
+						snapshot.close();
+					}
+				}
+			}
+		} finally {
+			replayed.close();
+		}
+	}
+
+	@Test
+	void closeWaitsForTheEvictionBatchBeingDeleted() throws Exception {
+		for (int trial = 0; trial < 5; trial++) {
+			File trialDirectory = new File(directory, "trial-" + trial);
+			DiskLruCache cache = DiskLruCache.open(trialDirectory, 1, 1, Long.MAX_VALUE / 2, -1, false);
+			List<String> keys = new ArrayList<>();
+			for (int k = 0; k < 1000; k++) {
+				String key = key(0, k);
+				DiskLruCache.Editor editor = cache.edit(key);
+				editor.setString(0, value(key, k));
+				editor.commit();
+				keys.add(key);
+			}
+			// starts evicting in the background, with a close at varying points
+			cache.setMaxSize(100);
+			Thread.sleep(trial % 5);
+			cache.close();
+
+			DiskLruCache replayed = DiskLruCache.open(trialDirectory, 1, 1, Long.MAX_VALUE / 2, -1, false);
+			try {
+				CacheTestSupport.assertIndexMatchesFiles(replayed, keys);
+			} finally {
+				replayed.close();
+			}
+		}
+	}
+
+	private static String key(int thread, int k) {
+		return "k" + thread + "-" + k;
+	}
+
+	/** Values vary in length, so that a stale entry also shows in the size. */
+	private static String value(String key, int round) {
+		StringBuilder value = new StringBuilder(key).append(':').append(round);
+		for (int i = 0; i < round % 5; i++) {
+			value.append("----------");
+		}
+		return value.toString();
+	}
+}
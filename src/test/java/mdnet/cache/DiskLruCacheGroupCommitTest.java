@@ -0,0 +1,117 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DiskLruCacheGroupCommitTest {
+	private static final long MAX_SIZE = 1L << 40;
+	private static final long GROUP_COMMIT_MICROS = 500;
+	private static final int THREADS = 8;
+	private static final int EDITS_PER_THREAD = 50;
+
+	@TempDir
+	File directory;
+
+	@Test
+	void acknowledgedCommitsSurviveACrash() throws Exception {
+		DiskLruCache cache = DiskLruCache.open(directory, 1, 1, MAX_SIZE, GROUP_COMMIT_MICROS, false);
+		Queue<String> acknowledged = new ConcurrentLinkedQueue<>();
+		ExecutorService writers = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				runs.add(writers.submit(() -> {
+					for (int i = 0; i < EDITS_PER_THREAD; i++) {
+						String key = "k" + thread + "-" + i;
+						DiskLruCache.Editor editor = cache.edit(key);
+						editor.setString(0, key);
+						editor.commit();
+						acknowledged.add(key);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			writers.shutdown();
+		}
+
+		// the cache is abandoned without being closed or flushed, as in a crash
+		DiskLruCache replayed = DiskLruCache.open(directory, 1, 1, MAX_SIZE, GROUP_COMMIT_MICROS, false);
+		try {
+			long expectedSize = 0;
+			for (String key : acknowledged) {
+				DiskLruCache.Snapshot snapshot = replayed.get(key);
+				assertNotNull(snapshot, key);
+				try {
+					assertEquals(key, snapshot.getString(0));
+				} finally {
+					snapshot.close();
+				}
+				expectedSize += key.length();
+			}
+			assertEquals(THREADS * EDITS_PER_THREAD, acknowledged.size());
+			assertEquals(expectedSize, replayed.size());
+		} finally {
+			replayed.close();
+		}
+	}
+
+	@Test
+	void editsInProgressAtACrashAreDropped() throws Exception {
+		DiskLruCache cache = DiskLruCache.open(directory, 1, 1, MAX_SIZE, GROUP_COMMIT_MICROS, false);
+		DiskLruCache.Editor committed = cache.edit("committed");
+		committed.setString(0, "committed");
+		committed.commit();
+		DiskLruCache.Editor pending = cache.edit("pending");
+		pending.setString(0, "pending");
+
+		DiskLruCache replayed = DiskLruCache.open(directory, 1, 1, MAX_SIZE, GROUP_COMMIT_MICROS, false);
+		try {
+			assertNull(replayed.get("pending"));
+			assertFalse(new File(directory, "pending.0.tmp").exists());
+			assertFalse(new File(directory, "pending.0").exists());
+			DiskLruCache.Snapshot snapshot = replayed.get("committed");
+			assertNotNull(snapshot);
+			snapshot.close();
+			assertEquals("committed".length(), replayed.size());
+		} finally {
+			replayed.close();
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskLruCacheTierTest {
+	private static final long MAX_SIZE = 1L << 40;
+	private static final long FAST_TIER_MAX_SIZE = 300;
+	private static final int KEYS = 60;
+	private static final int THREADS = 4;
+	private static final int ROUNDS = 300;
+
+	@TempDir
+	File directory;
+
+	@Test
+	void movesBetweenTiersKeepVolumeSizesConsistent() throws Exception {
+		File fast = new File(directory, "fast");
+		File slow = new File(directory, "slow");
+		DiskLruCache cache = open(fast, slow);
+		cache.setFastTierMaxSize(FAST_TIER_MAX_SIZE);
+		cache.setPromoteAfterHits(1);
+
+		// threads read all keys and rewrite their own, so entries are promoted, demoted
+		// and edited while they move
+		Map<String, String> expected = new ConcurrentHashMap<>();
+		for (int k = 0; k < KEYS; k++) {
+			write(cache, "k" + k, "k" + k + ":initial", expected);
+		}
+		ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				runs.add(clients.submit(() -> {
+					for (int round = 0; round < ROUNDS; round++) {
+						if (round % 10 == thread) {
+							String key = "k" + (thread + THREADS * (round % (KEYS / THREADS)));
+							write(cache, key, key + ":" + round, expected);
+						} else {
+							DiskLruCache.Snapshot snapshot = cache.get("k" + (round * 7 + thread * 13) % KEYS);
+							if (snapshot != null) {
+								snapshot.close();
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			clients.shutdown();
+		}
+		// reading every value promotes some more
+		assertValues(cache, expected);
+		CacheTestSupport.awaitBackgroundWork(cache);
+
+		assertTrue(cache.getDemotionCount() > 0);
+		assertTrue(cache.getPromotionCount() > 0);
+		assertVolumeSizesMatchFiles(cache);
+		assertTrue(cache.getVolumes().get(0).getSize() <= FAST_TIER_MAX_SIZE);
+		long[] sizes = volumeSizes(cache);
+		cache.close();
+
+		DiskLruCache replayed = open(fast, slow);
+		try {
+			assertVolumeSizesMatchFiles(replayed);
+			assertArrayEquals(sizes, volumeSizes(replayed));
+			assertValues(replayed, expected);
+		} finally {
+			replayed.close();
+		}
+	}
+
+	@Test
+	void failedReadOfAMovedEntryIsRecordedAgainstItsSource() throws Exception {
+		DiskLruCache cache = open(new File(directory, "fast"), new File(directory, "slow"));
+		try {
+			// every entry is demoted at once, and promoted again on its next hit
+			cache.setFastTierMaxSize(1);
+			cache.setPromoteAfterHits(1);
+			write(cache, "moved", "moved", new HashMap<>());
+			CacheTestSupport.awaitBackgroundWork(cache);
+			CacheVolume fastVolume = cache.getVolumes().get(0);
+			CacheVolume slowVolume = cache.getVolumes().get(1);
+			File source = new File(slowVolume.getDirectory(), "moved.0");
+			assertTrue(source.exists());
+
+			// holds the background thread until the source is gone
+			CountDownLatch blocked = new CountDownLatch(1);
+			cache.executorService.submit(() -> {
+				blocked.await();
+				return null;
+			});
+			cache.get("moved").close();
+			assertTrue(source.delete());
+			blocked.countDown();
+			CacheTestSupport.awaitBackgroundWork(cache);
+
+			assertEquals(1, slowVolume.getFailures());
+			assertEquals(0, fastVolume.getFailures());
+			assertTrue(fastVolume.isHealthy());
+		} finally {
+			cache.close();
+		}
+	}
+
+	private static DiskLruCache open(File fast, File slow) throws IOException {
+		return DiskLruCache.open(Arrays.asList(new CacheVolume(fast, 1, 0, CacheVolume.Tier.FAST),
+				new CacheVolume(slow, 1, 0, CacheVolume.Tier.SLOW)), 1, 1, MAX_SIZE, -1, false);
+	}
+
+	/** Writes a value unless the entry is being moved, which the value then waits for. */
+	private static void write(DiskLruCache cache, String key, String value, Map<String, String> expected)
+			throws IOException {
+		DiskLruCache.Editor editor;
+		while ((editor = cache.edit(key)) == null) {
+			Thread.yield();
+		}
+		editor.setString(0, value);
+		editor.commit();
+		expected.put(key, value);
+	}
+
+	private static void assertVolumeSizesMatchFiles(DiskLruCache cache) {
+		long total = 0;
+		for (CacheVolume volume : cache.getVolumes()) {
+			long onDisk = 0;
+			File[] files = volume.getDirectory().listFiles((dir, name) -> name.endsWith(".0"));
+			for (File file : files) {
+				onDisk += file.length();
+			}
+			assertEquals(onDisk, volume.getSize(), volume.getDirectory().getName());
+			total += onDisk;
+		}
+		assertEquals(total, cache.size());
+	}
+
+	private static long[] volumeSizes(DiskLruCache cache) {
+		List<CacheVolume> volumes = cache.getVolumes();
+		long[] sizes = new long[volumes.size()];
+		for (int v = 0; v < sizes.length; v++) {
+			sizes[v] = volumes.get(v).getSize();
+		}
+		return sizes;
+	}
+
+	private static void assertValues(DiskLruCache cache, Map<String, String> expected) throws IOException {
+		for (Map.Entry<String, String> entry : expected.entrySet()) {
+			DiskLruCache.Snapshot snapshot = cache.get(entry.getKey());
+			try {
+				assertEquals(entry.getValue(), snapshot.getString(0));
+			} finally {
+				snapshot.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskLruCacheVolumeTest {
+	private static final long MAX_SIZE = 1L << 40;
+
+	@TempDir
+	File directory;
+
+	@Test
+	void replayDropsEntriesOfVolumesNoLongerConfigured() throws Exception {
+		File first = new File(directory, "first");
+		File second = new File(directory, "second");
+		DiskLruCache cache = DiskLruCache.open(Arrays.asList(new CacheVolume(first), new CacheVolume(second)), 1, 1,
+				MAX_SIZE, -1, false);
+		List<String> keys = new ArrayList<>();
+		for (int k = 0; k < 40; k++) {
+			String key = "k" + k;
+			DiskLruCache.Editor editor = cache.edit(key);
+			editor.setString(0, key);
+			editor.commit();
+			keys.add(key);
+		}
+		// edits in progress leave DIRTY records naming either volume
+		List<String> pending = new ArrayList<>();
+		for (int k = 0; k < 10; k++) {
+			String key = "p" + k;
+			cache.edit(key).setString(0, key);
+			pending.add(key);
+		}
+		List<String> onFirst = new ArrayList<>();
+		for (String key : keys) {
+			if (new File(first, key + ".0").exists()) {
+				onFirst.add(key);
+			}
+		}
+		assertFalse(onFirst.isEmpty());
+		assertFalse(onFirst.size() == keys.size());
+		String moved = firstNotIn(keys, onFirst);
+
+		// the cache is abandoned, as in a crash, and reopened without its second volume
+		CacheVolume remaining = new CacheVolume(first);
+		DiskLruCache replayed = DiskLruCache.open(Collections.singletonList(remaining), 1, 1, MAX_SIZE, -1, false);
+		try {
+			long expectedSize = 0;
+			for (String key : keys) {
+				if (!onFirst.contains(key)) {
+					assertNull(read(replayed, key), key);
+					continue;
+				}
+				assertEquals(key, read(replayed, key));
+				expectedSize += key.length();
+			}
+			for (String key : pending) {
+				assertNull(read(replayed, key), key);
+			}
+			assertEquals(expectedSize, replayed.size());
+			assertEquals(expectedSize, remaining.getSize());
+
+			// a key of the dropped volume can be written again, to the remaining one
+			DiskLruCache.Editor editor = replayed.edit(moved);
+			editor.setString(0, "again");
+			editor.commit();
+			assertEquals("again", read(replayed, moved));
+		} finally {
+			replayed.close();
+		}
+
+		DiskLruCache reopened = DiskLruCache.open(Collections.singletonList(new CacheVolume(first)), 1, 1, MAX_SIZE,
+				-1, false);
+		try {
+			CacheTestSupport.assertIndexMatchesFiles(reopened, keys);
+			assertEquals("again", read(reopened, moved));
+		} finally {
+			reopened.close();
+		}
+	}
+
+	@Test
+	void entriesWhoseFilesAreGoneAreDroppedOnRead() throws Exception {
+		CacheVolume volume = new CacheVolume(directory);
+		DiskLruCache cache = DiskLruCache.open(Collections.singletonList(volume), 1, 1, MAX_SIZE, -1, false);
+		try {
+			for (String key : Arrays.asList("kept", "lost")) {
+				DiskLruCache.Editor editor = cache.edit(key);
+				editor.setString(0, key);
+				editor.commit();
+			}
+			assertEquals(8, cache.size());
+
+			new File(directory, "lost.0").delete();
+			assertNull(cache.get("lost"));
+			assertEquals(4, cache.size());
+			assertEquals(4, volume.getSize());
+		} finally {
+			cache.close();
+		}
+
+		DiskLruCache replayed = DiskLruCache.open(directory, 1, 1, MAX_SIZE, -1, false);
+		try {
+			CacheTestSupport.assertIndexMatchesFiles(replayed, Arrays.asList("kept", "lost"));
+			assertEquals(4, replayed.size());
+		} finally {
+			replayed.close();
+		}
+	}
+
+	@Test
+	void entriesStayReadableWhileTheirVolumeBacksOffWrites() throws Exception {
+		CacheVolume volume = new CacheVolume(directory);
+		DiskLruCache cache = DiskLruCache.open(Collections.singletonList(volume), 1, 1, MAX_SIZE, -1, false);
+		try {
+			DiskLruCache.Editor editor = cache.edit("hot");
+			editor.setString(0, "hot");
+			editor.commit();
+
+			// a directory in the way of the dirty file fails the next write
+			assertTrue(new File(directory, "broken.0.tmp").mkdir());
+			DiskLruCache.Editor failing = cache.edit("broken");
+			failing.setString(0, "broken");
+			failing.abort();
+			assertEquals(1, volume.getFailures());
+			assertFalse(volume.isHealthy());
+
+			assertEquals("hot", read(cache, "hot"));
+			assertEquals(3, cache.size());
+			assertEquals(3, volume.getSize());
+		} finally {
+			cache.close();
+		}
+	}
+
+	/** Returns the entry's value, or null if it is not in the cache. */
+	private static String read(DiskLruCache cache, String key) throws IOException {
+		DiskLruCache.Snapshot snapshot = cache.get(key);
+		if (snapshot == null) {
+			return null;
+		}
+		try {
+			return snapshot.getString(0);
+		} finally {
+			snapshot.close();
+		}
+	}
+
+	private static String firstNotIn(List<String> keys, List<String> excluded) {
+		for (String key : keys) {
+			if (!excluded.contains(key)) {
+				return key;
+			}
+		}
+		throw new AssertionError("every key is excluded");
+	}
+}
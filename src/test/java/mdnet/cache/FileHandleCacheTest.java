@@ -0,0 +1,125 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.cache;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileHandleCacheTest {
+	@TempDir
+	File directory;
+
+	@Test
+	void invalidatedChannelStaysOpenUntilItsReaderIsDone() throws Exception {
+		File file = write("entry.0", "old value");
+		FileHandleCache cache = new FileHandleCache(4);
+
+		InputStream reader = cache.newInputStream(file);
+		FileHandleCache.Handle old = peek(cache, file);
+		assertEquals("old ", read(reader, 4));
+
+		// an edit replaces the file and invalidates it while it is being read
+		replace(file, "new value");
+		cache.invalidate(file);
+		assertEquals(0, cache.size());
+		assertTrue(old.isOpen());
+		assertEquals("value", read(reader, 5));
+
+		InputStream next = cache.newInputStream(file);
+		FileHandleCache.Handle current = peek(cache, file);
+		assertNotSame(old, current);
+		assertEquals(2, cache.misses());
+
+		reader.close();
+		assertFalse(old.isOpen());
+
+		// a reader closed twice releases its reference once
+		InputStream other = cache.newInputStream(file);
+		other.close();
+		other.close();
+		cache.invalidate(file);
+		assertTrue(current.isOpen());
+		assertEquals("new value", read(next, 9));
+		next.close();
+		assertFalse(current.isOpen());
+	}
+
+	@Test
+	void evictedAndClearedChannelsStayOpenUntilTheirReadersAreDone() throws Exception {
+		File first = write("first.0", "first");
+		File second = write("second.0", "second");
+		FileHandleCache cache = new FileHandleCache(1);
+
+		InputStream firstReader = cache.newInputStream(first);
+		FileHandleCache.Handle firstHandle = peek(cache, first);
+		InputStream secondReader = cache.newInputStream(second);
+		FileHandleCache.Handle secondHandle = peek(cache, second);
+		assertEquals(1, cache.size());
+		assertTrue(firstHandle.isOpen());
+
+		assertEquals("first", read(firstReader, 5));
+		firstReader.close();
+		assertFalse(firstHandle.isOpen());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertTrue(secondHandle.isOpen());
+		assertEquals("second", read(secondReader, 6));
+		secondReader.close();
+		assertFalse(secondHandle.isOpen());
+	}
+
+	private File write(String name, String value) throws IOException {
+		File file = new File(directory, name);
+		Files.write(file.toPath(), value.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/** Replaces the file with a new one, like a commit renaming its dirty file. */
+	private void replace(File file, String value) throws IOException {
+		File dirty = write(file.getName() + ".tmp", value);
+		Files.move(dirty.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/** Returns the cached handle of a file without keeping a reference to it. */
+	private static FileHandleCache.Handle peek(FileHandleCache cache, File file) throws IOException {
+		FileHandleCache.Handle handle = cache.acquire(file);
+		cache.release(handle);
+		return handle;
+	}
+
+	private static String read(InputStream in, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		IOUtils.readFully(in, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import mdnet.base.settings.CircuitBreakerSettings
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class CircuitBreakerTest {
+    private val breaker = CircuitBreaker("upstream", CircuitBreakerSettings(
+        minimumRequests = 2, openMillis = 0, halfOpenProbes = 1
+    ))
+
+    private fun openCircuit() {
+        repeat(2) {
+            assertTrue(breaker.tryAcquire())
+            breaker.record(0, true)
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state)
+    }
+
+    @Test
+    fun releasedProbeDoesNotCloseTheCircuit() {
+        openCircuit()
+        assertTrue(breaker.tryAcquire())
+        assertFalse(breaker.tryAcquire())
+
+        breaker.release()
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state)
+
+        // the cancelled probe gave its slot back to a real one
+        assertTrue(breaker.tryAcquire())
+        breaker.record(0, false)
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state)
+    }
+
+    @Test
+    fun releasedRequestIsNotCountedInTheWindow() {
+        repeat(2) {
+            assertTrue(breaker.tryAcquire())
+            breaker.release()
+        }
+        assertTrue(breaker.tryAcquire())
+        breaker.record(0, true)
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state)
+    }
+}
@@ -0,0 +1,96 @@
+/*
+Mangadex@Home
+Copyright (c) 2020, MangaDex Network
+This file is part of MangaDex@Home.
+
+MangaDex@Home is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+MangaDex@Home is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this MangaDex@Home.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package mdnet.base.server
+
+import java.io.IOException
+import java.io.InputStream
+import mdnet.base.metrics.ObservedInputStream
+import org.apache.http.conn.ConnectionReleaseTrigger
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class RangeResumingInputStreamTest {
+    /**
+     * An upstream body that, like Apache's streams, reads the rest of itself
+     * when closed, and can instead be aborted.
+     */
+    private class UpstreamBody(private val length: Int) : InputStream(), ConnectionReleaseTrigger {
+        var position = 0
+        var aborted = false
+        var failAt = -1
+
+        override fun read(): Int {
+            check(!aborted) { "read after abort" }
+            if (position == failAt) {
+                throw IOException("connection reset")
+            }
+            return if (position < length) position++ and 0xff else -1
+        }
+
+        override fun close() {
+            while (!aborted && read() >= 0) {
+                // drains the body, as closing a response does
+            }
+        }
+
+        override fun releaseConnection() = close()
+
+        override fun abortConnection() {
+            aborted = true
+        }
+    }
+
+    @Test
+    fun abortingBeforeAResumeAbortsTheObservedUpstream() {
+        val body = UpstreamBody(LENGTH)
+        var closes = 0
+        val stream = RangeResumingInputStream(ObservedInputStream(body, onClose = { closes++ }), LENGTH.toLong(), 1) { null }
+
+        stream.read(ByteArray(10))
+        stream.abortConnection()
+
+        assertTrue(body.aborted)
+        assertEquals(10, body.position)
+        assertEquals(1, closes)
+    }
+
+    @Test
+    fun abortingAfterAResumeAbortsTheResumedUpstream() {
+        val broken = UpstreamBody(LENGTH).apply { failAt = 10 }
+        val resumed = UpstreamBody(LENGTH)
+        val stream = RangeResumingInputStream(ObservedInputStream(broken), LENGTH.toLong(), 1) { offset ->
+            resumed.position = offset.toInt()
+            resumed
+        }
+
+        assertEquals(10, stream.read(ByteArray(10)))
+        assertEquals(10, stream.read(ByteArray(10)))
+        stream.abortConnection()
+
+        assertTrue(resumed.aborted)
+        assertEquals(20, resumed.position)
+        assertFalse(broken.aborted)
+    }
+
+    companion object {
+        private const val LENGTH = 1000
+    }
+}